@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -332,6 +333,32 @@ public class ActionDBAccessorImpl implements ActionDBAccessor {
     return count.intValue();
   }
 
+  /**
+   * Gets the prefix of the output and error log paths of the tasks on a host.
+   *
+   * @param hostEntity
+   *          the host running the tasks
+   * @return the prefix ending with {@code /}, or an empty string if the host
+   *         has no prefix
+   */
+  private String getHostPrefix(HostEntity hostEntity) {
+    String prefix = "";
+    try {
+      // Get the in-memory host object and its prefix to construct the output and error log paths.
+      Host hostObject = clusters.getHost(hostEntity.getHostName());
+
+      if (!StringUtils.isBlank(hostObject.getPrefix())) {
+        prefix = hostObject.getPrefix();
+        if (!prefix.endsWith("/")) {
+          prefix = prefix + "/";
+        }
+      }
+    } catch (AmbariException e) {
+      LOG.warn("Exception in getting prefix for host and setting output and error log files.  Using no prefix");
+    }
+    return prefix;
+  }
+
   @Override
   @Transactional
   @TransactionalLock(lockArea = LockArea.HRC_STATUS_CACHE, lockType = LockType.WRITE)
@@ -358,6 +385,11 @@ public class ActionDBAccessorImpl implements ActionDBAccessor {
 
     List<HostRoleCommand> hostRoleCommands = new ArrayList<>();
 
+    // a request usually has many tasks per host, so each host is looked up and
+    // merged once instead of once per task
+    Map<Long, HostEntity> hostEntities = new LinkedHashMap<>();
+    Map<Long, String> hostPrefixes = new HashMap<>();
+
     for (Stage stage : request.getStages()) {
       StageEntity stageEntity = stage.constructNewPersistenceEntity();
       Long stageId = stageEntity.getStageId();
@@ -383,30 +415,23 @@ public class ActionDBAccessorImpl implements ActionDBAccessor {
         String output = "output-" + hostRoleCommandEntity.getTaskId() + ".txt";
         String error = "errors-" + hostRoleCommandEntity.getTaskId() + ".txt";
 
-        HostEntity hostEntity = null;
-        if (null != hostRoleCommandEntity.getHostId()) {
-          hostEntity = hostDAO.findById(hostRoleCommandEntity.getHostId());
+        Long hostId = hostRoleCommandEntity.getHostId();
+        if (null != hostId) {
+          HostEntity hostEntity = hostEntities.get(hostId);
           if (hostEntity == null) {
-            String msg = String.format("Host %s doesn't exist in database", hostRoleCommandEntity.getHostName());
-            LOG.error(msg);
-            throw new AmbariException(msg);
+            hostEntity = hostDAO.findById(hostId);
+            if (hostEntity == null) {
+              String msg = String.format("Host %s doesn't exist in database", hostRoleCommandEntity.getHostName());
+              LOG.error(msg);
+              throw new AmbariException(msg);
+            }
+
+            hostEntities.put(hostId, hostEntity);
+            hostPrefixes.put(hostId, getHostPrefix(hostEntity));
           }
 
           hostRoleCommandEntity.setHostEntity(hostEntity);
-
-          try {
-            // Get the in-memory host object and its prefix to construct the output and error log paths.
-            Host hostObject = clusters.getHost(hostEntity.getHostName());
-
-            if (!StringUtils.isBlank(hostObject.getPrefix())) {
-              prefix = hostObject.getPrefix();
-              if (!prefix.endsWith("/")) {
-                prefix = prefix + "/";
-              }
-            }
-          } catch (AmbariException e) {
-            LOG.warn("Exception in getting prefix for host and setting output and error log files.  Using no prefix");
-          }
+          prefix = hostPrefixes.get(hostId);
         }
 
         hostRoleCommand.setOutputLog(prefix + output);
@@ -423,9 +448,6 @@ public class ActionDBAccessorImpl implements ActionDBAccessor {
         executionCommandDAO.create(hostRoleCommandEntity.getExecutionCommand());
         hostRoleCommandEntity = hostRoleCommandDAO.mergeWithoutPublishEvent(hostRoleCommandEntity);
 
-        if (null != hostEntity) {
-          hostEntity = hostDAO.merge(hostEntity);
-        }
         hostRoleCommands.add(hostRoleCommand);
       }
 
@@ -437,6 +459,10 @@ public class ActionDBAccessorImpl implements ActionDBAccessor {
       stageEntity = stageDAO.merge(stageEntity);
     }
 
+    for (HostEntity hostEntity : hostEntities.values()) {
+      hostDAO.merge(hostEntity);
+    }
+
     requestEntity.setStages(stageEntities);
     requestDAO.merge(requestEntity);
 
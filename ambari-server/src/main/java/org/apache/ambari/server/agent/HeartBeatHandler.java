@@ -116,6 +116,10 @@ public class HeartBeatHandler {
     heartbeatMonitor.start();
   }
 
+  public HeartbeatMonitor getHeartbeatMonitor() {
+    return heartbeatMonitor;
+  }
+
   void setHeartbeatMonitor(HeartbeatMonitor heartbeatMonitor) {
     this.heartbeatMonitor = heartbeatMonitor;
   }
@@ -217,6 +221,7 @@ public class HeartBeatHandler {
       hostObject.setState(HostState.INIT);
       return createRegisterCommand();
     }
+    heartbeatMonitor.heartbeatReceived(hostObject);
 
     heartbeatProcessor.addHeartbeat(heartbeat);
 
@@ -243,6 +248,7 @@ public class HeartBeatHandler {
     try {
       host.handleEvent(new HostHealthyHeartbeatEvent(hostname, System.currentTimeMillis(),
           hostStatusReport.getAgentEnv(), hostStatusReport.getMounts()));
+      heartbeatMonitor.heartbeatReceived(host);
     } catch (InvalidStateTransitionException ex) {
       LOG.warn("Asking agent to re-register due to " + ex.getMessage(), ex);
       host.setState(HostState.INIT);
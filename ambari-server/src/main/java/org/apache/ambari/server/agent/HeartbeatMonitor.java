@@ -33,13 +33,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.ambari.server.AmbariException;
+import org.apache.ambari.server.HostNotFoundException;
 import org.apache.ambari.server.RoleCommand;
 import org.apache.ambari.server.actionmanager.ActionManager;
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.controller.AmbariManagementController;
+import org.apache.ambari.server.events.HostRegisteredEvent;
+import org.apache.ambari.server.events.HostsAddedEvent;
 import org.apache.ambari.server.events.MessageNotDelivered;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
 import org.apache.ambari.server.state.Cluster;
@@ -67,9 +73,18 @@ import com.google.inject.Injector;
 
 /**
  * Monitors the node state and heartbeats.
+ * <p/>
+ * The time by which every host has to be checked is kept in a {@link HeartbeatTimingWheel}: hosts are
+ * scheduled when they are registered or added to a cluster, heartbeats reschedule them, and every wakeup only
+ * visits the hosts whose check is due instead of all hosts.
  */
 public class HeartbeatMonitor implements Runnable {
   private static final Logger LOG = LoggerFactory.getLogger(HeartbeatMonitor.class);
+
+  /**
+   * Number of wakeup intervals in a turn of the timing wheel, larger than the longest timeout.
+   */
+  private static final int WHEEL_SLOTS = 8;
   private Clusters clusters;
   private ActionManager actionManager;
   private final int threadWakeupInterval; //1 minute
@@ -81,12 +96,19 @@ public class HeartbeatMonitor implements Runnable {
   private final Configuration configuration;
   private final AgentRequests agentRequests;
   private final AmbariEventPublisher ambariEventPublisher;
+  private final HeartbeatTimingWheel hostChecks;
+  private boolean allHostsScheduled = false;
+
+  private final LongAdder heartbeatLostCount = new LongAdder();
+  private final LongAdder totalDetectionDelay = new LongAdder();
+  private final AtomicLong maxDetectionDelay = new AtomicLong();
 
   public HeartbeatMonitor(Clusters clusters, ActionManager am,
                           int threadWakeupInterval, Injector injector) {
     this.clusters = clusters;
     actionManager = am;
     this.threadWakeupInterval = threadWakeupInterval;
+    hostChecks = new HeartbeatTimingWheel(threadWakeupInterval, WHEEL_SLOTS);
     configHelper = injector.getInstance(ConfigHelper.class);
     ambariMetaInfo = injector.getInstance(AmbariMetaInfo.class);
     ambariManagementController = injector.getInstance(
@@ -136,38 +158,106 @@ public class HeartbeatMonitor implements Runnable {
     }
   }
 
-  //Go through all the nodes, check for last heartbeat or any waiting state
+  /**
+   * Reschedules the check of a host after a heartbeat.
+   * @param host the host
+   */
+  public void heartbeatReceived(Host host) {
+    if (host.getState() == HostState.HEARTBEAT_LOST) {
+      hostChecks.cancel(host.getHostId());
+    } else {
+      hostChecks.schedule(host.getHostId(), getNextCheckTime(host));
+    }
+  }
+
+  /**
+   * @return number of hosts detected to have lost heartbeat
+   */
+  public long getHeartbeatLostCount() {
+    return heartbeatLostCount.sum();
+  }
+
+  /**
+   * @return total time between heartbeat expiry and its detection for hosts detected to have lost heartbeat
+   */
+  public long getTotalDetectionDelay(TimeUnit unit) {
+    return unit.convert(totalDetectionDelay.sum(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return longest time between heartbeat expiry and its detection
+   */
+  public long getMaxDetectionDelay(TimeUnit unit) {
+    return unit.convert(maxDetectionDelay.get(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return time by which the host has to be checked for lost heartbeat or status updates timeout
+   */
+  private long getNextCheckTime(Host host) {
+    long checkTime = host.getLastHeartbeatTime() + 2 * threadWakeupInterval + 1;
+    if (host.getState() == HostState.WAITING_FOR_HOST_STATUS_UPDATES) {
+      checkTime = Math.min(checkTime, host.getTimeInState() + 5 * threadWakeupInterval + 1);
+    }
+    return checkTime;
+  }
+
+  //Check the nodes which are due, for last heartbeat or any waiting state
   //If heartbeat is lost, update node clusters state, purge the action queue
   //notify action manager for node failure.
   private void doWork() throws InvalidStateTransitionException, AmbariException {
-    List<Host> allHosts = clusters.getHosts();
-    long now = System.currentTimeMillis();
-    for (Host hostObj : allHosts) {
-      if (hostObj.getState() == HostState.HEARTBEAT_LOST) {
-        //do not check if host already known be lost
-        continue;
+    if (!allHostsScheduled) {
+      // hosts which don't heartbeat after server start have to be checked too
+      for (Host hostObj : clusters.getHosts()) {
+        if (hostObj.getState() != HostState.HEARTBEAT_LOST) {
+          hostChecks.schedule(hostObj.getHostId(), getNextCheckTime(hostObj));
+        }
       }
-      Long hostId = hostObj.getHostId();
-      HostState hostState = hostObj.getState();
-
-      long lastHeartbeat = 0;
+      allHostsScheduled = true;
+    }
+    long now = System.currentTimeMillis();
+    for (Long hostId : hostChecks.expire(now)) {
       try {
-        lastHeartbeat = clusters.getHostById(hostId).getLastHeartbeatTime();
-      } catch (AmbariException e) {
-        LOG.warn("Exception in getting host object; Is it fatal?", e);
-      }
-      if (lastHeartbeat + 2 * threadWakeupInterval < now) {
-        handleHeartbeatLost(hostId);
+        checkHost(hostId, now);
+      } catch (HostNotFoundException e) {
+        LOG.debug("Host with id {} was removed", hostId);
+      } catch (AmbariException | InvalidStateTransitionException | RuntimeException e) {
+        LOG.warn("Exception received during check of host with id " + hostId, e);
+        // check again with the next wakeup
+        hostChecks.schedule(hostId, now + threadWakeupInterval);
       }
-      if (hostState == HostState.WAITING_FOR_HOST_STATUS_UPDATES) {
-        long timeSpentInState = hostObj.getTimeInState();
-        if (timeSpentInState + 5 * threadWakeupInterval < now) {
-          //Go back to init, the agent will be asked to register again in the next heartbeat
-          LOG.warn("timeSpentInState + 5*threadWakeupInterval < now, Go back to init");
-          hostObj.setState(HostState.INIT);
-        }
+    }
+  }
+
+  private void checkHost(Long hostId, long now) throws AmbariException, InvalidStateTransitionException {
+    Host hostObj = clusters.getHostById(hostId);
+    if (hostObj.getState() == HostState.HEARTBEAT_LOST) {
+      //do not check if host already known be lost
+      return;
+    }
+    HostState hostState = hostObj.getState();
+
+    long lastHeartbeat = hostObj.getLastHeartbeatTime();
+    if (lastHeartbeat + 2 * threadWakeupInterval < now) {
+      long detectionDelay = now - (lastHeartbeat + 2 * threadWakeupInterval);
+      heartbeatLostCount.increment();
+      totalDetectionDelay.add(detectionDelay);
+      maxDetectionDelay.accumulateAndGet(detectionDelay, Math::max);
+      LOG.debug("Heartbeat loss of host with id {} detected {} ms after expiry", hostId, detectionDelay);
+      handleHeartbeatLost(hostId);
+    }
+    if (hostState == HostState.WAITING_FOR_HOST_STATUS_UPDATES) {
+      long timeSpentInState = hostObj.getTimeInState();
+      if (timeSpentInState + 5 * threadWakeupInterval < now) {
+        //Go back to init, the agent will be asked to register again in the next heartbeat
+        LOG.warn("timeSpentInState + 5*threadWakeupInterval < now, Go back to init");
+        hostObj.setState(HostState.INIT);
       }
     }
+    if (hostObj.getState() != HostState.HEARTBEAT_LOST) {
+      // the heartbeat time may have been updated without rescheduling
+      hostChecks.schedule(hostId, getNextCheckTime(hostObj));
+    }
   }
 
   /**
@@ -351,6 +441,35 @@ public class HeartbeatMonitor implements Runnable {
     actionManager.handleLostHost(host);
   }
 
+  /**
+   * Schedules the check of a registered host, so that it is detected to be lost even if it never heartbeats.
+   */
+  @Subscribe
+  public void onHostRegistered(HostRegisteredEvent event) {
+    scheduleHost(event.getHostName());
+  }
+
+  /**
+   * Schedules the check of the hosts added to a cluster, so that they are detected to be lost even if they
+   * never heartbeat.
+   */
+  @Subscribe
+  public void onHostsAdded(HostsAddedEvent event) {
+    for (String hostName : event.getHostNames()) {
+      scheduleHost(hostName);
+    }
+  }
+
+  private void scheduleHost(String hostName) {
+    try {
+      heartbeatReceived(clusters.getHost(hostName));
+    } catch (HostNotFoundException e) {
+      LOG.debug("Host {} was removed", hostName);
+    } catch (AmbariException e) {
+      LOG.warn("Unable to schedule the heartbeat check of host " + hostName, e);
+    }
+  }
+
   @Subscribe
   public void onMessageNotDelivered(MessageNotDelivered messageNotDelivered) {
     try {
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.agent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Timing wheel of host deadlines. Every slot of the wheel covers one tick and holds the hosts whose deadline
+ * falls into that tick, so (re)scheduling a host is a constant time operation and expiring only visits the
+ * slots of the ticks passed since the previous expiry. A deadline further away than a full turn of the
+ * wheel stays in its slot and is skipped until its turn comes.
+ */
+class HeartbeatTimingWheel {
+
+  private final long tickMillis;
+
+  private final List<Set<Long>> slots;
+
+  /**
+   * Deadline and slot by host id.
+   */
+  private final Map<Long, Timeout> timeouts = new HashMap<>();
+
+  /**
+   * The last tick which was expired, -1 if none yet.
+   */
+  private long lastExpiredTick = -1;
+
+  /**
+   * @param tickMillis length of a tick in milliseconds
+   * @param slotCount number of slots, i.e. ticks in a turn of the wheel
+   */
+  HeartbeatTimingWheel(long tickMillis, int slotCount) {
+    this.tickMillis = Math.max(1, tickMillis);
+    slots = new ArrayList<>(slotCount);
+    for (int i = 0; i < slotCount; i++) {
+      slots.add(new HashSet<>());
+    }
+  }
+
+  /**
+   * Schedules the host to expire at the deadline, replacing its previous deadline.
+   * @param hostId host id
+   * @param deadline time in milliseconds
+   */
+  synchronized void schedule(Long hostId, long deadline) {
+    // a deadline in an already expired tick goes to the next tick to expire
+    int slot = getSlotIndex(Math.max(deadline / tickMillis, lastExpiredTick + 1));
+    Timeout previous = timeouts.put(hostId, new Timeout(deadline, slot));
+    if (previous != null) {
+      slots.get(previous.slot).remove(hostId);
+    }
+    slots.get(slot).add(hostId);
+  }
+
+  /**
+   * Removes the host from the wheel.
+   * @param hostId host id
+   */
+  synchronized void cancel(Long hostId) {
+    Timeout timeout = timeouts.remove(hostId);
+    if (timeout != null) {
+      slots.get(timeout.slot).remove(hostId);
+    }
+  }
+
+  /**
+   * Removes the hosts whose deadline is not after the given time.
+   * @param now time in milliseconds
+   * @return ids of the expired hosts
+   */
+  synchronized Set<Long> expire(long now) {
+    Set<Long> expired = new HashSet<>();
+    long currentTick = now / tickMillis;
+    long firstTick = lastExpiredTick < 0 ? currentTick - slots.size() + 1 : lastExpiredTick + 1;
+    // no need to visit any slot more than once
+    firstTick = Math.max(firstTick, currentTick - slots.size() + 1);
+    for (long tick = firstTick; tick <= currentTick; tick++) {
+      for (Iterator<Long> iterator = slots.get(getSlotIndex(tick)).iterator(); iterator.hasNext(); ) {
+        Long hostId = iterator.next();
+        long deadline = timeouts.get(hostId).deadline;
+        if (deadline <= now) {
+          iterator.remove();
+          timeouts.remove(hostId);
+          expired.add(hostId);
+        }
+      }
+    }
+    // the current tick is only partially expired, it is visited again by the next expiry
+    lastExpiredTick = currentTick - 1;
+    return expired;
+  }
+
+  /**
+   * @return number of scheduled hosts
+   */
+  synchronized int size() {
+    return timeouts.size();
+  }
+
+  private int getSlotIndex(long tick) {
+    return (int) Math.floorMod(tick, (long) slots.size());
+  }
+
+  private static final class Timeout {
+    private final long deadline;
+    private final int slot;
+
+    private Timeout(long deadline, int slot) {
+      this.deadline = deadline;
+      this.slot = slot;
+    }
+  }
+}
@@ -18,6 +18,12 @@
 
 package org.apache.ambari.server.agent.stomp;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 
 import javax.inject.Inject;
@@ -26,21 +32,121 @@ import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.agent.stomp.dto.Hashable;
 import org.apache.ambari.server.events.STOMPEvent;
 import org.apache.ambari.server.events.publishers.STOMPUpdatePublisher;
+import org.apache.ambari.server.logging.LockFactory;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Is used to saving and updating last version of event in cluster scope
+ * Is used to saving and updating last version of event in cluster scope.
+ * The most recent updates are kept in a bounded journal, so that an agent which missed only a few updates
+ * can be sent the changes since the version it has instead of the full data.
  * @param <T> event with hash to control version
  */
 public abstract class AgentClusterDataHolder<T extends STOMPEvent & Hashable> extends AgentDataHolder<T> {
 
+  private final static Logger LOG = LoggerFactory.getLogger(AgentClusterDataHolder.class);
+
+  /**
+   * Maximum number of updates kept in the journal.
+   */
+  protected static final int MAX_JOURNAL_SIZE = 100;
+
   @Inject
   protected STOMPUpdatePublisher STOMPUpdatePublisher;
 
   private volatile T data;
 
+  /**
+   * The most recent updates, oldest first. Guarded by {@link #updateLock}.
+   */
+  private final Deque<JournalEntry<T>> journal = new ArrayDeque<>();
+
+  /**
+   * Sequence number of the last journaled update. Guarded by {@link #updateLock}.
+   */
+  private long version;
+
+  protected AgentClusterDataHolder(LockFactory lockFactory) {
+    super(lockFactory);
+  }
+
   public T getUpdateIfChanged(String agentHash) throws AmbariException {
     initializeDataIfNeeded(true);
-    return !Objects.equals(agentHash, data.getHash()) ? data : getEmptyData();
+    if (Objects.equals(agentHash, data.getHash())) {
+      return getEmptyData();
+    }
+    T delta = getUpdatesSince(agentHash);
+    return delta != null ? delta : data;
+  }
+
+  /**
+   * Builds an update with the changes made since the data had the given hash, using the journal.
+   * @param agentHash hash of the data known by agent
+   * @return the update, or null if the journal does not reach back to the given hash or the journaled
+   * updates can not be combined
+   */
+  private T getUpdatesSince(String agentHash) {
+    if (StringUtils.isEmpty(agentHash)) {
+      return null;
+    }
+    updateLock.lock();
+    try {
+      List<T> updates = new ArrayList<>();
+      for (Iterator<JournalEntry<T>> iterator = journal.descendingIterator(); iterator.hasNext(); ) {
+        JournalEntry<T> entry = iterator.next();
+        updates.add(entry.update);
+        if (agentHash.equals(entry.previousHash)) {
+          Collections.reverse(updates);
+          T merged = mergeUpdates(updates);
+          if (merged != null) {
+            merged.setHash(data.getHash());
+            LOG.debug("Sending {} update(s) since version {} instead of full {} data", updates.size(),
+                entry.version, merged.getType());
+          }
+          return merged;
+        }
+      }
+      return null;
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  /**
+   * Adds an applied update to the journal, dropping the oldest entries if the journal is full.
+   * Should be called under {@link #updateLock}.
+   */
+  private void journalUpdate(String previousHash, T update) {
+    T copy = copyUpdate(update);
+    if (copy == null) {
+      // later updates can not be sent without this one
+      journal.clear();
+      return;
+    }
+    journal.addLast(new JournalEntry<>(++version, previousHash, copy));
+    while (journal.size() > MAX_JOURNAL_SIZE) {
+      journal.removeFirst();
+    }
+  }
+
+  /**
+   * Copies an update for the journal, so that changes of the update or of the data it was applied to
+   * do not affect the journaled update.
+   * @return the copy, or null if updates are not journaled
+   */
+  protected T copyUpdate(T update) {
+    return null;
+  }
+
+  /**
+   * Combines consecutive journaled updates into a single update with the same effect on agent side.
+   * The journaled updates must not be changed, the returned update should be a new instance.
+   * @param updates journaled updates, oldest first
+   * @return the combined update, or null if the full data should be sent instead
+   */
+  protected T mergeUpdates(List<T> updates) {
+    return null;
   }
 
   /**
@@ -65,8 +171,10 @@ public abstract class AgentClusterDataHolder<T extends STOMPEvent & Hashable> ex
       initializeDataIfNeeded(true);
       boolean changed = handleUpdate(update);
       if (changed) {
+        String previousHash = data.getHash();
         regenerateDataIdentifiers(data);
         update.setHash(getData().getHash());
+        journalUpdate(previousHash, update);
         STOMPUpdatePublisher.publish(update);
       }
       return changed;
@@ -96,4 +204,15 @@ public abstract class AgentClusterDataHolder<T extends STOMPEvent & Hashable> ex
     return data;
   }
 
+  private static final class JournalEntry<T> {
+    private final long version;
+    private final String previousHash;
+    private final T update;
+
+    private JournalEntry(long version, String previousHash, T update) {
+      this.version = version;
+      this.previousHash = previousHash;
+      this.update = update;
+    }
+  }
 }
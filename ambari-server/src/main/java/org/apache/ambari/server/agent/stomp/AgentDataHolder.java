@@ -21,12 +21,13 @@ package org.apache.ambari.server.agent.stomp;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.ambari.server.agent.stomp.dto.HashAndTimestampIgnoreMixIn;
 import org.apache.ambari.server.agent.stomp.dto.HashIgnoreMixIn;
 import org.apache.ambari.server.agent.stomp.dto.Hashable;
 import org.apache.ambari.server.events.AgentConfigsUpdateEvent;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.commons.lang.StringUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -37,13 +38,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * @param <T> event with hash to control version
  */
 public abstract class AgentDataHolder<T extends Hashable> {
-  protected final ReentrantLock updateLock = new ReentrantLock();
+  protected final Lock updateLock;
   private final static ObjectMapper MAPPER = new ObjectMapper();
   static {
     MAPPER.addMixIn(Hashable.class, HashIgnoreMixIn.class);
     MAPPER.addMixIn(AgentConfigsUpdateEvent.class, HashAndTimestampIgnoreMixIn.class);
   }
 
+  /**
+   * @param lockFactory creates the update lock, so that it is profiled or sampled as configured
+   */
+  protected AgentDataHolder(LockFactory lockFactory) {
+    updateLock = lockFactory.newLock(getClass().getSimpleName() + ".updateLock");
+  }
+
   protected abstract T getEmptyData();
 
   protected void regenerateDataIdentifiers(T data) {
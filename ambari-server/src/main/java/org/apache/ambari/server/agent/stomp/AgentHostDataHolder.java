@@ -30,6 +30,7 @@ import org.apache.ambari.server.agent.stomp.dto.Hashable;
 import org.apache.ambari.server.events.STOMPEvent;
 import org.apache.ambari.server.events.STOMPHostEvent;
 import org.apache.ambari.server.events.publishers.STOMPUpdatePublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +46,10 @@ public abstract class AgentHostDataHolder<T extends STOMPHostEvent & Hashable> e
 
   private final ConcurrentHashMap<Long, T> data = new ConcurrentHashMap<>();
 
+  protected AgentHostDataHolder(LockFactory lockFactory) {
+    super(lockFactory);
+  }
+
   protected abstract T getCurrentData(Long hostId) throws AmbariException;
   protected abstract T handleUpdate(T current, T update) throws AmbariException;
 
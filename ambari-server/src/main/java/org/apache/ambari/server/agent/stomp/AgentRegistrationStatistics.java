@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.agent.stomp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.inject.Singleton;
+
+/**
+ * Counters of agent registration, shared by {@link AgentsRegistrationQueue}, {@link HeartbeatController}
+ * and the metrics source which publishes them.
+ */
+@Singleton
+public class AgentRegistrationStatistics {
+  private final LongAdder admittedCount = new LongAdder();
+  private final LongAdder refusedCount = new LongAdder();
+  private final LongAdder registeredCount = new LongAdder();
+  private final LongAdder totalRegistrationNanos = new LongAdder();
+  private final AtomicLong maxRegistrationNanos = new AtomicLong();
+
+  private final LongAdder processedCount = new LongAdder();
+  private final LongAdder rejectedCount = new LongAdder();
+  private final LongAdder totalQueueWaitNanos = new LongAdder();
+  private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+  void admitted() {
+    admittedCount.increment();
+  }
+
+  void refused() {
+    refusedCount.increment();
+  }
+
+  void registered(long elapsedNanos) {
+    registeredCount.increment();
+    totalRegistrationNanos.add(elapsedNanos);
+    maxRegistrationNanos.accumulateAndGet(elapsedNanos, Math::max);
+  }
+
+  void processed(long queueWaitNanos) {
+    processedCount.increment();
+    totalQueueWaitNanos.add(queueWaitNanos);
+    maxQueueWaitNanos.accumulateAndGet(queueWaitNanos, Math::max);
+  }
+
+  void rejected() {
+    rejectedCount.increment();
+  }
+
+  /**
+   * @return number of agents admitted to registration
+   */
+  public long getAdmittedCount() {
+    return admittedCount.sum();
+  }
+
+  /**
+   * @return number of agents refused because the queue was full or the admission rate was exceeded
+   */
+  public long getRefusedCount() {
+    return refusedCount.sum();
+  }
+
+  /**
+   * @return number of admitted agents which completed registration with the first heartbeat or disconnected
+   */
+  public long getRegisteredCount() {
+    return registeredCount.sum();
+  }
+
+  /**
+   * @return total time admitted agents spent in the queue until they completed registration
+   */
+  public long getTotalRegistrationTime(TimeUnit unit) {
+    return unit.convert(totalRegistrationNanos.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return longest time an admitted agent spent in the queue until it completed registration
+   */
+  public long getMaxRegistrationTime(TimeUnit unit) {
+    return unit.convert(maxRegistrationNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return number of registration requests taken by a registration processor thread
+   */
+  public long getProcessedCount() {
+    return processedCount.sum();
+  }
+
+  /**
+   * @return number of registration requests rejected because the registration queue was full
+   */
+  public long getRejectedCount() {
+    return rejectedCount.sum();
+  }
+
+  /**
+   * @return total time registration requests waited for a registration processor thread
+   */
+  public long getTotalQueueWaitTime(TimeUnit unit) {
+    return unit.convert(totalQueueWaitNanos.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return longest time a registration request waited for a registration processor thread
+   */
+  public long getMaxQueueWaitTime(TimeUnit unit) {
+    return unit.convert(maxQueueWaitNanos.get(), TimeUnit.NANOSECONDS);
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.ambari.server.agent.stomp;
 
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -28,6 +29,7 @@ import org.apache.ambari.server.configuration.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.RateLimiter;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Injector;
 
@@ -37,6 +39,9 @@ import com.google.inject.Injector;
  * only from limited number of agents with session ids from {@link registrationQueue}. Queue has limited capacity,
  * session id can able be appeared in queue with agent connecting to server and releases with first heartbeat or disconnect from
  * server.
+ * <p/>
+ * To spread reconnection of all agents after server restart over time, agents can also be admitted at a limited
+ * rate ({@link Configuration#AGENTS_REGISTRATION_RATE}). Refused agents reconnect later.
  */
 public class AgentsRegistrationQueue {
   private static final Logger LOG = LoggerFactory.getLogger(AgentsRegistrationQueue.class);
@@ -44,19 +49,54 @@ public class AgentsRegistrationQueue {
   private final ThreadFactory threadFactoryExecutor = new ThreadFactoryBuilder().setNameFormat("agents-queue-%d").build();
   private final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(1, threadFactoryExecutor);
 
+  /**
+   * Limits the rate agents are admitted at, null if not limited.
+   */
+  private final RateLimiter admissionRateLimiter;
+
+  /**
+   * {@link System#nanoTime()} of admission by session id of agents in registration.
+   */
+  private final ConcurrentHashMap<String, Long> admissionTimes = new ConcurrentHashMap<>();
+
+  private final AgentRegistrationStatistics statistics;
+
   public AgentsRegistrationQueue(Injector injector) {
-    Configuration configuration = injector.getInstance(Configuration.class);
+    this(injector.getInstance(Configuration.class), injector.getInstance(AgentRegistrationStatistics.class));
+  }
+
+  AgentsRegistrationQueue(Configuration configuration, AgentRegistrationStatistics statistics) {
+    this.statistics = statistics;
     registrationQueue = new ArrayBlockingQueue<>(configuration.getAgentsRegistrationQueueSize());
+    int registrationRate = configuration.getAgentsRegistrationRate();
+    admissionRateLimiter = registrationRate > 0 ? RateLimiter.create(registrationRate) : null;
   }
 
   public boolean offer(String sessionId) {
-    boolean offered = registrationQueue.offer(sessionId);
-    scheduledExecutorService.schedule(new CompleteJob(sessionId, registrationQueue), 60, TimeUnit.SECONDS);
+    boolean offered = registrationQueue.remainingCapacity() > 0
+        && (admissionRateLimiter == null || admissionRateLimiter.tryAcquire())
+        && registrationQueue.offer(sessionId);
+    if (offered) {
+      statistics.admitted();
+      admissionTimes.put(sessionId, System.nanoTime());
+      scheduledExecutorService.schedule(new CompleteJob(sessionId, registrationQueue), 60, TimeUnit.SECONDS);
+    } else {
+      statistics.refused();
+      LOG.debug("Agent with session id {} was not admitted to registration, {} agents are in registration",
+          sessionId, registrationQueue.size());
+    }
     return offered;
   }
 
   public void complete(String sessionId) {
     registrationQueue.remove(sessionId);
+    Long admissionTime = admissionTimes.remove(sessionId);
+    if (admissionTime != null) {
+      long elapsed = System.nanoTime() - admissionTime;
+      statistics.registered(elapsed);
+      LOG.debug("Agent with session id {} completed registration in {} ms", sessionId,
+          TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
   }
 
   private class CompleteJob implements Runnable {
@@ -70,7 +110,9 @@ public class AgentsRegistrationQueue {
 
     @Override
     public void run() {
-      registrationQueue.remove(sessionId);
+      if (registrationQueue.remove(sessionId)) {
+        admissionTimes.remove(sessionId);
+      }
     }
   }
 }
@@ -38,6 +38,7 @@ import org.apache.ambari.server.events.HostsAddedEvent;
 import org.apache.ambari.server.events.HostsRemovedEvent;
 import org.apache.ambari.server.events.listeners.alerts.AlertDefinitionsUIUpdateListener;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.orm.dao.AlertDefinitionDAO;
 import org.apache.ambari.server.orm.entities.AlertDefinitionEntity;
 import org.apache.ambari.server.state.Clusters;
@@ -73,7 +74,8 @@ public class AlertDefinitionsHolder extends AgentHostDataHolder<AlertDefinitions
   private AlertDefinitionFactory alertDefinitionFactory;
 
   @Inject
-  public AlertDefinitionsHolder(AmbariEventPublisher eventPublisher) {
+  public AlertDefinitionsHolder(AmbariEventPublisher eventPublisher, LockFactory lockFactory) {
+    super(lockFactory);
     eventPublisher.register(this);
   }
 
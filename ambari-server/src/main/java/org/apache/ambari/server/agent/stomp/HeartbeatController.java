@@ -17,15 +17,19 @@
  */
 package org.apache.ambari.server.agent.stomp;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ws.rs.WebApplicationException;
 
@@ -60,15 +64,26 @@ import com.google.inject.persist.UnitOfWork;
 @Import(GuiceBeansConfig.class)
 public class HeartbeatController {
   private static Logger LOG = LoggerFactory.getLogger(HeartbeatController.class);
+
+  /**
+   * Registrations of master hosts are ordered as if they arrived this much earlier, so that a registration
+   * of another host waits at most this long for master hosts which arrived after it, well below the
+   * registration timeout.
+   */
+  private static final long MASTER_HOST_HEAD_START_NANOS = TimeUnit.SECONDS.toNanos(2);
+
   private final HeartBeatHandler hh;
   private final ClustersImpl clusters;
   private final AgentSessionManager agentSessionManager;
-  private final LinkedBlockingQueue queue;
+  private final BoundedPriorityBlockingQueue queue;
+  private final AtomicLong registrationSequence = new AtomicLong();
   private final ThreadFactory threadFactoryExecutor = new ThreadFactoryBuilder().setNameFormat("agent-register-processor-%d").build();
   private final ThreadFactory threadFactoryTimeout = new ThreadFactoryBuilder().setNameFormat("agent-register-timeout-%d").build();
   private final ExecutorService executor;
   private final ScheduledExecutorService scheduledExecutorService;
   private final UnitOfWork unitOfWork;
+  private final AgentRegistrationStatistics statistics;
+  private final MasterHostsTracker masterHostsTracker;
 
   @Autowired
   private AgentsRegistrationQueue agentsRegistrationQueue;
@@ -78,9 +93,12 @@ public class HeartbeatController {
     clusters = injector.getInstance(ClustersImpl.class);
     unitOfWork = injector.getInstance(UnitOfWork.class);
     agentSessionManager = injector.getInstance(AgentSessionManager.class);
+    statistics = injector.getInstance(AgentRegistrationStatistics.class);
+    masterHostsTracker = injector.getInstance(MasterHostsTracker.class);
 
     Configuration configuration = injector.getInstance(Configuration.class);
-    queue = new LinkedBlockingQueue(configuration.getAgentsRegistrationQueueSize());
+    // registrations of hosts with master components are processed first
+    queue = new BoundedPriorityBlockingQueue(configuration.getAgentsRegistrationQueueSize());
     executor = new ThreadPoolExecutor(configuration.getRegistrationThreadPoolSize(),
         configuration.getRegistrationThreadPoolSize(), 0L, TimeUnit.MILLISECONDS, queue, threadFactoryExecutor);
     scheduledExecutorService = Executors.newScheduledThreadPool(1, threadFactoryTimeout);
@@ -91,7 +109,7 @@ public class HeartbeatController {
       throws WebApplicationException, InvalidStateTransitionException, AmbariException {
     CompletableFuture<RegistrationResponse> completableFuture = new CompletableFuture<>();
 
-    Future<RegistrationResponse> future = executor.submit(() -> {
+    RegistrationTask registrationTask = new RegistrationTask(masterHostsTracker.isMasterHost(message.getHostname()), () -> {
       try {
         unitOfWork.begin();
         RegistrationResponse response = null;
@@ -117,8 +135,14 @@ public class HeartbeatController {
         unitOfWork.end();
       }
     });
+    try {
+      executor.execute(registrationTask);
+    } catch (RejectedExecutionException e) {
+      statistics.rejected();
+      throw e;
+    }
 
-    scheduledExecutorService.schedule(new RegistrationTimeoutTask(future, completableFuture), 8, TimeUnit.SECONDS);
+    scheduledExecutorService.schedule(new RegistrationTimeoutTask(registrationTask, completableFuture), 8, TimeUnit.SECONDS);
     return completableFuture;
   }
 
@@ -153,6 +177,66 @@ public class HeartbeatController {
     }
   }
 
+  /**
+   * Registration waiting for a registration processor thread. Registrations are processed in order of
+   * arrival, registrations of hosts with master components are given a head start of
+   * {@link #MASTER_HOST_HEAD_START_NANOS} so that they are processed first without starving the other ones.
+   */
+  private class RegistrationTask extends FutureTask<RegistrationResponse> implements Comparable<RegistrationTask> {
+    private final boolean masterHost;
+    private final long sequence = registrationSequence.getAndIncrement();
+    private final long createTime = System.nanoTime();
+    private final long priorityTime;
+
+    private RegistrationTask(boolean masterHost, Callable<RegistrationResponse> callable) {
+      super(callable);
+      this.masterHost = masterHost;
+      priorityTime = masterHost ? createTime - MASTER_HOST_HEAD_START_NANOS : createTime;
+    }
+
+    @Override
+    public void run() {
+      long waited = System.nanoTime() - createTime;
+      statistics.processed(waited);
+      LOG.debug("Registration waited {} ms in queue, master host: {}",
+          TimeUnit.NANOSECONDS.toMillis(waited), masterHost);
+      super.run();
+    }
+
+    @Override
+    public int compareTo(RegistrationTask other) {
+      // nano times are compared by difference as they may overflow
+      long difference = priorityTime - other.priorityTime;
+      if (difference != 0) {
+        return difference < 0 ? -1 : 1;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+
+  /**
+   * Priority queue which refuses new elements when it holds {@link #capacity} of them, so that the
+   * registration executor rejects registrations when {@code agents.registration.queue.size} is exceeded.
+   */
+  private static class BoundedPriorityBlockingQueue extends PriorityBlockingQueue<Runnable> {
+    private final int capacity;
+
+    private BoundedPriorityBlockingQueue(int capacity) {
+      super(capacity);
+      this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized boolean offer(Runnable runnable) {
+      return size() < capacity && super.offer(runnable);
+    }
+
+    @Override
+    public int remainingCapacity() {
+      return Math.max(0, capacity - size());
+    }
+  }
+
   private class RegistrationTimeoutTask implements Runnable {
     private Future<RegistrationResponse> task;
     private CompletableFuture<RegistrationResponse> completableFuture;
@@ -31,6 +31,7 @@ import org.apache.ambari.server.events.HostLevelParamsUpdateEvent;
 import org.apache.ambari.server.events.MaintenanceModeEvent;
 import org.apache.ambari.server.events.ServiceComponentRecoveryChangedEvent;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.state.BlueprintProvisioningState;
 import org.apache.ambari.server.state.Cluster;
 import org.apache.ambari.server.state.Clusters;
@@ -56,7 +57,8 @@ public class HostLevelParamsHolder extends AgentHostDataHolder<HostLevelParamsUp
   private Clusters clusters;
 
   @Inject
-  public HostLevelParamsHolder(AmbariEventPublisher ambariEventPublisher) {
+  public HostLevelParamsHolder(AmbariEventPublisher ambariEventPublisher, LockFactory lockFactory) {
+    super(lockFactory);
     ambariEventPublisher.register(this);
   }
 
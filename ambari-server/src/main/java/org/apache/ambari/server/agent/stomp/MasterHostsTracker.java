@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.agent.stomp;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.ambari.server.events.HostsRemovedEvent;
+import org.apache.ambari.server.events.ServiceComponentInstalledEvent;
+import org.apache.ambari.server.events.ServiceComponentUninstalledEvent;
+import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.state.Cluster;
+import org.apache.ambari.server.state.Clusters;
+import org.apache.ambari.server.state.Service;
+import org.apache.ambari.server.state.ServiceComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.google.inject.persist.UnitOfWork;
+
+/**
+ * Keeps track of the hosts with master components, so that {@link HeartbeatController} can process their
+ * registrations first without iterating the components of all clusters for each registration.
+ * <p/>
+ * The hosts are loaded from the clusters once, on a thread of its own when they are first asked for, and then
+ * kept up to date by the component install, uninstall and host removal events.
+ */
+@Singleton
+public class MasterHostsTracker {
+  private static final Logger LOG = LoggerFactory.getLogger(MasterHostsTracker.class);
+
+  private final Provider<Clusters> clusters;
+  private final Provider<UnitOfWork> unitOfWork;
+
+  /**
+   * Host name --> master components installed on the host, as cluster id/component name
+   */
+  private final ConcurrentMap<String, Set<String>> masterComponents = new ConcurrentHashMap<>();
+  private final AtomicBoolean loadStarted = new AtomicBoolean();
+
+  @Inject
+  public MasterHostsTracker(AmbariEventPublisher eventPublisher, Provider<Clusters> clusters,
+                            Provider<UnitOfWork> unitOfWork) {
+    this.clusters = clusters;
+    this.unitOfWork = unitOfWork;
+    eventPublisher.register(this);
+  }
+
+  /**
+   * Starts loading the hosts from the clusters on the first call, until then only the hosts of the
+   * components installed since are known.
+   *
+   * @param hostName the name of the host
+   * @return true if any master component is installed on the host
+   */
+  public boolean isMasterHost(String hostName) {
+    if (loadStarted.compareAndSet(false, true)) {
+      Thread loader = new Thread(this::load, "agent-master-hosts-loader");
+      loader.setDaemon(true);
+      loader.start();
+    }
+    return masterComponents.containsKey(hostName);
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void onServiceComponentInstalled(ServiceComponentInstalledEvent event) {
+    if (event.isMasterComponent()) {
+      add(event.getHostName(), event.getClusterId(), event.getComponentName());
+    }
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void onServiceComponentUninstalled(ServiceComponentUninstalledEvent event) {
+    if (event.isMasterComponent()) {
+      masterComponents.computeIfPresent(event.getHostName(), (hostName, components) -> {
+        components.remove(toKey(event.getClusterId(), event.getComponentName()));
+        return components.isEmpty() ? null : components;
+      });
+    }
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void onHostsRemoved(HostsRemovedEvent event) {
+    masterComponents.keySet().removeAll(event.getHostNames());
+  }
+
+  /**
+   * Adds the master components installed in all clusters, loading is retried on the next registration if it
+   * fails.
+   */
+  private void load() {
+    unitOfWork.get().begin();
+    try {
+      for (Cluster cluster : clusters.get().getClusters().values()) {
+        for (Service service : cluster.getServices().values()) {
+          for (ServiceComponent component : service.getServiceComponents().values()) {
+            if (component.isMasterComponent()) {
+              for (String hostName : component.getServiceComponentHosts().keySet()) {
+                add(hostName, cluster.getClusterId(), component.getName());
+              }
+            }
+          }
+        }
+      }
+      LOG.info("Found {} hosts with master components", masterComponents.size());
+    } catch (Exception e) {
+      LOG.warn("Unable to determine hosts with master components", e);
+      loadStarted.set(false);
+    } finally {
+      unitOfWork.get().end();
+    }
+  }
+
+  private void add(String hostName, long clusterId, String componentName) {
+    masterComponents.compute(hostName, (name, components) -> {
+      Set<String> result = components == null ? new HashSet<>() : components;
+      result.add(toKey(clusterId, componentName));
+      return result;
+    });
+  }
+
+  private static String toKey(long clusterId, String componentName) {
+    return clusterId + "/" + componentName;
+  }
+}
@@ -17,6 +17,7 @@
  */
 package org.apache.ambari.server.agent.stomp;
 
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -31,6 +32,7 @@ import org.apache.ambari.server.events.ServiceCredentialStoreUpdateEvent;
 import org.apache.ambari.server.events.ServiceInstalledEvent;
 import org.apache.ambari.server.events.UpdateEventType;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.state.Cluster;
 import org.apache.ambari.server.state.Clusters;
 import org.apache.commons.collections.CollectionUtils;
@@ -51,7 +53,8 @@ public class MetadataHolder extends AgentClusterDataHolder<MetadataUpdateEvent>
   private Provider<Clusters> m_clusters;
 
   @Inject
-  public MetadataHolder(AmbariEventPublisher ambariEventPublisher) {
+  public MetadataHolder(AmbariEventPublisher ambariEventPublisher, LockFactory lockFactory) {
+    super(lockFactory);
     ambariEventPublisher.register(this);
   }
 
@@ -110,6 +113,19 @@ public class MetadataHolder extends AgentClusterDataHolder<MetadataUpdateEvent>
     return changed;
   }
 
+  @Override
+  protected MetadataUpdateEvent copyUpdate(MetadataUpdateEvent update) {
+    return update.deepCopy();
+  }
+
+  /**
+   * Only a single journaled update is sent as is, otherwise the full metadata is sent.
+   */
+  @Override
+  protected MetadataUpdateEvent mergeUpdates(List<MetadataUpdateEvent> updates) {
+    return updates.size() == 1 ? updates.get(0).deepCopy() : null;
+  }
+
   @Override
   protected MetadataUpdateEvent getEmptyData() {
     return MetadataUpdateEvent.emptyUpdate();
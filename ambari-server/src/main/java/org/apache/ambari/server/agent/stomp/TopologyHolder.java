@@ -19,6 +19,7 @@ package org.apache.ambari.server.agent.stomp;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.ClusterNotFoundException;
+import org.apache.ambari.server.NullHostNameException;
 import org.apache.ambari.server.agent.stomp.dto.TopologyCluster;
 import org.apache.ambari.server.agent.stomp.dto.TopologyComponent;
 import org.apache.ambari.server.agent.stomp.dto.TopologyHost;
@@ -37,6 +39,7 @@ import org.apache.ambari.server.events.TopologyAgentUpdateEvent;
 import org.apache.ambari.server.events.TopologyUpdateEvent;
 import org.apache.ambari.server.events.UpdateEventType;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.state.Cluster;
 import org.apache.ambari.server.state.Clusters;
 import org.apache.ambari.server.state.Host;
@@ -66,7 +69,8 @@ public class TopologyHolder extends AgentClusterDataHolder<TopologyUpdateEvent>
   private StackAdvisorHelper stackAdvisorHelper;
 
   @Inject
-  public TopologyHolder(AmbariEventPublisher ambariEventPublisher) {
+  public TopologyHolder(AmbariEventPublisher ambariEventPublisher, LockFactory lockFactory) {
+    super(lockFactory);
     ambariEventPublisher.register(this);
   }
 
@@ -181,6 +185,57 @@ public class TopologyHolder extends AgentClusterDataHolder<TopologyUpdateEvent>
     return report.wasChanged();
   }
 
+  @Override
+  protected TopologyUpdateEvent copyUpdate(TopologyUpdateEvent update) {
+    return update.deepCopy();
+  }
+
+  /**
+   * Agent applies a single topology event at a time, so only sequences of {@link UpdateEventType#UPDATE} events
+   * are combined. Components and hosts of the later updates are merged the same way they were merged into the data.
+   */
+  @Override
+  protected TopologyUpdateEvent mergeUpdates(List<TopologyUpdateEvent> updates) {
+    if (updates.size() == 1) {
+      return updates.get(0).deepCopy();
+    }
+    for (TopologyUpdateEvent update : updates) {
+      if (!UpdateEventType.UPDATE.equals(update.getEventType())) {
+        return null;
+      }
+    }
+    TreeMap<String, TopologyCluster> mergedClusters = new TreeMap<>();
+    try {
+      for (TopologyUpdateEvent update : updates) {
+        for (Map.Entry<String, TopologyCluster> updatedCluster : update.getClusters().entrySet()) {
+          TopologyCluster cluster = copyCluster(updatedCluster.getValue());
+          TopologyCluster mergedCluster = mergedClusters.get(updatedCluster.getKey());
+          if (mergedCluster == null) {
+            mergedClusters.put(updatedCluster.getKey(), cluster);
+          } else {
+            mergedCluster.update(cluster.getTopologyComponents(), cluster.getTopologyHosts(),
+                UpdateEventType.UPDATE, new TopologyUpdateHandlingReport());
+          }
+        }
+      }
+    } catch (NullHostNameException e) {
+      LOG.warn("Unable to merge topology updates, full topology will be sent", e);
+      return null;
+    }
+    return new TopologyUpdateEvent(mergedClusters, UpdateEventType.UPDATE);
+  }
+
+  private TopologyCluster copyCluster(TopologyCluster cluster) {
+    TopologyCluster copiedCluster = cluster.deepCopyCluster();
+    if (copiedCluster.getTopologyComponents() == null) {
+      copiedCluster.setTopologyComponents(new HashSet<>());
+    }
+    if (copiedCluster.getTopologyHosts() == null) {
+      copiedCluster.setTopologyHosts(new HashSet<>());
+    }
+    return copiedCluster;
+  }
+
   private void prepareAgentTopology(TopologyUpdateEvent topologyUpdateEvent) {
     if (topologyUpdateEvent.getClusters() != null) {
       for (TopologyCluster topologyCluster : topologyUpdateEvent.getClusters().values()) {
@@ -54,6 +54,23 @@ public class MetadataCluster {
     this.agentConfigs = agentConfigs;
   }
 
+  private MetadataCluster(MetadataCluster cluster) {
+    this.statusCommandsToRun = new HashSet<>(cluster.statusCommandsToRun);
+    this.fullServiceLevelMetadata = cluster.fullServiceLevelMetadata;
+    this.serviceLevelParams = cluster.serviceLevelParams == null ? null : new TreeMap<>(cluster.serviceLevelParams);
+    this.clusterLevelParams = cluster.clusterLevelParams == null ? null : new TreeMap<>(cluster.clusterLevelParams);
+    if (cluster.agentConfigs != null) {
+      this.agentConfigs = new TreeMap<>();
+      for (Map.Entry<String, SortedMap<String, String>> agentConfig : cluster.agentConfigs.entrySet()) {
+        this.agentConfigs.put(agentConfig.getKey(), new TreeMap<>(agentConfig.getValue()));
+      }
+    }
+  }
+
+  public MetadataCluster deepCopy() {
+    return new MetadataCluster(this);
+  }
+
   public static MetadataCluster emptyMetadataCluster() {
     return new MetadataCluster(null, null, false, null, null);
   }
@@ -25,6 +25,13 @@ import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.orm.QueryCountSessionListener;
+import org.apache.ambari.server.orm.QueryCountSessionListener.QueryCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -35,11 +42,19 @@ import com.google.inject.persist.UnitOfWork;
  */
 @Singleton
 public class AmbariPersistFilter implements Filter {
+  private static final Logger LOG = LoggerFactory.getLogger(AmbariPersistFilter.class);
+
   private final UnitOfWork unitOfWork;
 
+  /**
+   * Whether the queries executed by each request are counted and logged.
+   */
+  private final boolean queryCountProfiling;
+
   @Inject
-  public AmbariPersistFilter(UnitOfWork unitOfWork) {
+  public AmbariPersistFilter(UnitOfWork unitOfWork, Configuration configuration) {
     this.unitOfWork = unitOfWork;
+    queryCountProfiling = configuration.isServerPersistenceQueryCountProfilingEnabled();
   }
 
   @Override
@@ -48,11 +63,31 @@ public class AmbariPersistFilter implements Filter {
 
   @Override
   public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+    if (queryCountProfiling) {
+      QueryCountSessionListener.start();
+    }
     unitOfWork.begin();
     try {
       filterChain.doFilter(servletRequest, servletResponse);
     } finally {
       unitOfWork.end();
+      if (queryCountProfiling) {
+        logQueryCount(servletRequest, QueryCountSessionListener.stop());
+      }
+    }
+  }
+
+  private void logQueryCount(ServletRequest servletRequest, QueryCount queryCount) {
+    if (null == queryCount) {
+      return;
+    }
+    if (servletRequest instanceof HttpServletRequest) {
+      HttpServletRequest request = (HttpServletRequest) servletRequest;
+      LOG.info("{} {} executed {} queries and {} SQL statements", request.getMethod(), request.getRequestURI(),
+          queryCount.getQueries(), queryCount.getStatements());
+    } else {
+      LOG.info("Request executed {} queries and {} SQL statements", queryCount.getQueries(),
+          queryCount.getStatements());
     }
   }
 
@@ -489,6 +489,10 @@ public class ResourceInstanceFactoryImpl implements ResourceInstanceFactory {
         resourceDefinition = new AuthResourceDefinition();
         break;
 
+      case Lock:
+        resourceDefinition = new SimpleResourceDefinition(Resource.Type.Lock, "lock", "locks");
+        break;
+
       default:
         throw new IllegalArgumentException("Unsupported resource type: " + type);
     }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.api.services;
+
+import java.util.Collections;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.ambari.annotations.ApiIgnore;
+import org.apache.ambari.server.api.resources.ResourceInstance;
+import org.apache.ambari.server.controller.spi.Resource;
+
+/**
+ * LockService is a read-only service responsible for the wait and hold time statistics of the sampled
+ * server locks.
+ */
+@Path("/locks/")
+public class LockService extends BaseService {
+
+  /**
+   * Handles: GET  /locks
+   * Get the statistics of all sampled locks.
+   *
+   * @param headers http headers
+   * @param ui      uri info
+   * @return lock collection resource representation
+   */
+  @GET @ApiIgnore // until documented
+  @Produces("text/plain")
+  public Response getLocks(@Context HttpHeaders headers, @Context UriInfo ui) {
+    return handleRequest(headers, null, ui, Request.Type.GET, createLockResource(null));
+  }
+
+  /**
+   * Handles: GET  /locks/{lock_name}
+   * Get the statistics of the locks sharing a name.
+   *
+   * @param headers  http headers
+   * @param ui       uri info
+   * @param lockName lock name
+   * @return lock instance representation
+   */
+  @GET @ApiIgnore // until documented
+  @Path("{lock_name}")
+  @Produces("text/plain")
+  public Response getLock(@Context HttpHeaders headers, @Context UriInfo ui,
+                          @PathParam("lock_name") String lockName) {
+    return handleRequest(headers, null, ui, Request.Type.GET, createLockResource(lockName));
+  }
+
+  /**
+   * Create a lock resource.
+   *
+   * @param lockName lock name
+   * @return a lock resource instance
+   */
+  protected ResourceInstance createLockResource(String lockName) {
+    return createResource(Resource.Type.Lock, Collections.singletonMap(Resource.Type.Lock, lockName));
+  }
+}
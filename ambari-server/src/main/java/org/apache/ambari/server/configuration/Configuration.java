@@ -507,6 +507,26 @@ public class Configuration {
   public static final ConfigurationProperty<String> AGENT_API_GZIP_COMPRESSION_ENABLED = new ConfigurationProperty<>(
       "agent.api.gzip.compression.enabled", "true");
 
+  /**
+   * Determines whether compressed variants of the static web content are generated at startup.
+   */
+  @Markdown(description = "Determines whether gzip and deflate compressed variants of the static web content and "
+      + "of the view resources are written next to the original files, so they are served without compressing them "
+      + "on every request. Files smaller than `api.gzip.compression.min.size` are not compressed.")
+  public static final ConfigurationProperty<Boolean> STATIC_CONTENT_PRECOMPRESSION_ENABLED = new ConfigurationProperty<>(
+      "static.content.precompression.enabled", Boolean.TRUE);
+
+  /**
+   * The value of the {@code Cache-Control} HTTP response header for static web content.
+   */
+  @Markdown(description = "The value that will be used to set the `Cache-Control` HTTP response header for static "
+      + "web content and view resources, overriding `http.cache-control` and `views.http.cache-control` for them. "
+      + "Static content is served with strong ETags, so a value such as `no-cache` lets browsers revalidate "
+      + "their copies cheaply, while `public, max-age=86400` avoids the requests altogether. "
+      + "If empty, the headers of `http.cache-control` and `views.http.cache-control` are used.")
+  public static final ConfigurationProperty<String> HTTP_STATIC_CACHE_CONTROL_HEADER_VALUE = new ConfigurationProperty<>(
+      "http.static.cache-control", "");
+
   /**
    * Determines whether SSL is used to communicate between Ambari Server and Ambari Agents.
    */
@@ -1022,6 +1042,30 @@ public class Configuration {
   @Markdown(description = "Enable the profiling of internal locks.")
   public static final ConfigurationProperty<Boolean> SERVER_LOCKS_PROFILING = new ConfigurationProperty<>("server.locks.profiling", Boolean.FALSE);
 
+  /**
+   * Sample one of every N acquisitions of internal locks.
+   */
+  @Markdown(description = "Samples one of every N acquisitions of internal locks to aggregate wait and hold time "
+      + "histograms per lock name, which are exposed by the `/api/v1/locks` endpoint and the `locks` metrics source. "
+      + "Sampling is ignored if `server.locks.profiling` is enabled. A value of `0` disables sampling.")
+  public static final ConfigurationProperty<Integer> SERVER_LOCKS_SAMPLING_RATE = new ConfigurationProperty<>(
+      "server.locks.sampling.rate", 0);
+
+  /**
+   * Count the JPA queries executed per REST request.
+   */
+  @Markdown(description = "Counts the JPA queries and the SQL statements executed while serving each REST request "
+      + "and logs them with the request. Useful to find requests which load entities one by one.")
+  public static final ConfigurationProperty<Boolean> SERVER_PERSISTENCE_QUERY_COUNT_PROFILING = new ConfigurationProperty<>(
+      "server.persistence.query.count.profiling", Boolean.FALSE);
+
+  /**
+   * The time, in seconds, that a write operation waits for the other write operations on the same cluster.
+   */
+  @Markdown(description = "The time, in seconds, that a write operation on a cluster, like adding host components, saving a configuration or updating the cluster, waits for the write operations already running or queued on the same cluster before failing. Write operations on different clusters run concurrently. A value of `0` waits indefinitely.")
+  public static final ConfigurationProperty<Integer> SERVER_CLUSTER_OPERATIONS_TIMEOUT = new ConfigurationProperty<>(
+      "server.cluster.operations.timeout", 600);
+
   /**
    * The size of the cache used to hold {@link HostRoleCommand} instances in-memory.
    */
@@ -1591,6 +1635,13 @@ public class Configuration {
   public static final ConfigurationProperty<Integer> THREAD_POOL_SIZE_FOR_EXTERNAL_SCRIPT = new ConfigurationProperty<>(
     "server.script.threads", 20);
 
+  /**
+   * The maximum disk space, in megabytes, used to cache generated client configuration archives.
+   */
+  @Markdown(description = "The maximum disk space, in megabytes, used in the server temporary directory to cache the generated client configuration archives, so that downloading the same client configurations again does not run the external script. A value of `0` disables the cache.")
+  public static final ConfigurationProperty<Integer> CLIENT_CONFIGS_CACHE_SIZE = new ConfigurationProperty<>(
+    "server.client.configs.cache.size", 256);
+
   public static final String DEF_ARCHIVE_EXTENSION;
   public static final String DEF_ARCHIVE_CONTENT_TYPE;
 
@@ -1874,6 +1925,13 @@ public class Configuration {
   public static final ConfigurationProperty<Integer> AGENTS_REGISTRATION_QUEUE_SIZE = new ConfigurationProperty<>(
       "agents.registration.queue.size", 200);
 
+  /**
+   * Rate of agents admitted to registration.
+   */
+  @Markdown(description = "Maximal number of agents admitted to registration per second. Agents which are not admitted are refused and reconnect later. 0 means no limit.")
+  public static final ConfigurationProperty<Integer> AGENTS_REGISTRATION_RATE = new ConfigurationProperty<>(
+      "agents.registration.rate", 0);
+
 
   /**
    * Period in seconds with agents reports will be processed.
@@ -2652,6 +2710,14 @@ public class Configuration {
   public static final ConfigurationProperty<Integer> AGENT_COMMAND_PUBLISHER_THREADPOOL_SIZE = new ConfigurationProperty<>(
     "server.pools.agent.command.publisher.size", 5);
 
+  @Markdown(description = "The number of threads delivering STOMP events to agents. The events of a host are always delivered in order, one at a time, and events which are not host-specific are delivered in order with them.")
+  public static final ConfigurationProperty<Integer> AGENT_HOST_EVENTS_THREADPOOL_SIZE = new ConfigurationProperty<>(
+    "server.pools.agent.host.events.size", 4);
+
+  @Markdown(description = "The number of threads building the host resources when many hosts are requested, like when listing the hosts of a cluster.")
+  public static final ConfigurationProperty<Integer> HOST_RESOURCES_THREADPOOL_SIZE = new ConfigurationProperty<>(
+    "server.pools.host.resources.size", 4);
+
   @Markdown(description = "Configures size of the default JOIN Fork pool used for Streams.")
   public static final ConfigurationProperty<Integer> DEFAULT_FORK_JOIN_THREADPOOL_SIZE = new ConfigurationProperty<>(
     "server.pools.default.size", 5);
@@ -3977,6 +4043,38 @@ public class Configuration {
     return getProperty(API_GZIP_MIN_COMPRESSION_SIZE);
   }
 
+  /**
+   * Gets the size of the smallest static content files worth precompressing, which is the
+   * {@link #getApiGzipMinSize()} parsed as a number of bytes the same way as the {@code minGzipSize}
+   * of the gzip filter.
+   *
+   * @return the size in bytes, or the default size if the configured value is not a number
+   */
+  public int getStaticContentPrecompressionMinSize() {
+    String value = getApiGzipMinSize();
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      LOG.warn("Invalid value {} of {}, using the default of {} bytes", value,
+          API_GZIP_MIN_COMPRESSION_SIZE.getKey(), API_GZIP_MIN_COMPRESSION_SIZE.getDefaultValue());
+      return Integer.parseInt(API_GZIP_MIN_COMPRESSION_SIZE.getDefaultValue());
+    }
+  }
+
+  /**
+   * @return true if compressed variants of the static web content should be generated at startup
+   */
+  public boolean isStaticContentPrecompressionEnabled() {
+    return Boolean.parseBoolean(getProperty(STATIC_CONTENT_PRECOMPRESSION_ENABLED));
+  }
+
+  /**
+   * @return the Cache-Control value for static web content - "" indicates that the value is not set
+   */
+  public String getStaticContentCacheControlHTTPResponseHeader() {
+    return getProperty(HTTP_STATIC_CACHE_CONTROL_HEADER_VALUE);
+  }
+
   /**
    * Check persistence type Ambari Server should use. Possible values:
    * in-memory - use in-memory Derby database to store data
@@ -4629,6 +4727,14 @@ public class Configuration {
     return Integer.parseInt(getProperty(THREAD_POOL_SIZE_FOR_EXTERNAL_SCRIPT));
   }
 
+  /**
+   * Get the maximum size of the client configuration archive cache
+   * @return the size in megabytes, 0 if the cache is disabled
+   */
+  public int getClientConfigsCacheSize() {
+    return Integer.parseInt(getProperty(CLIENT_CONFIGS_CACHE_SIZE));
+  }
+
   public boolean getParallelStageExecution() {
     return Boolean.parseBoolean(configsMap.get(PARALLEL_STAGE_EXECUTION.getKey()));
   }
@@ -4745,6 +4851,13 @@ public class Configuration {
     return Integer.parseInt(getProperty(AGENTS_REGISTRATION_QUEUE_SIZE));
   }
 
+  /**
+   * @return maximal number of agents admitted to registration per second, 0 if not limited.
+   */
+  public int getAgentsRegistrationRate() {
+    return Integer.parseInt(getProperty(AGENTS_REGISTRATION_RATE));
+  }
+
 
   /**
    * @return period in seconds with agents reports will be processed.
@@ -5420,6 +5533,28 @@ public class Configuration {
     return Boolean.parseBoolean(getProperty(SERVER_LOCKS_PROFILING));
   }
 
+  /**
+   * @return one of how many lock acquisitions LockFactory locks should sample, 0 if sampling is disabled
+   */
+  public int getServerLocksSamplingRate() {
+    return Integer.parseInt(getProperty(SERVER_LOCKS_SAMPLING_RATE));
+  }
+
+  /**
+   * @return true if the JPA queries executed per REST request should be counted and logged
+   */
+  public boolean isServerPersistenceQueryCountProfilingEnabled() {
+    return Boolean.parseBoolean(getProperty(SERVER_PERSISTENCE_QUERY_COUNT_PROFILING));
+  }
+
+  /**
+   * @return the time, in seconds, that a write operation waits for the other write operations on the same
+   *         cluster, 0 to wait indefinitely
+   */
+  public int getServerClusterOperationsTimeout() {
+    return Integer.parseInt(getProperty(SERVER_CLUSTER_OPERATIONS_TIMEOUT));
+  }
+
   /**
    * @return the capacity of async audit logger
    */
@@ -5670,6 +5805,20 @@ public class Configuration {
     return Integer.parseInt(getProperty(AGENT_COMMAND_PUBLISHER_THREADPOOL_SIZE));
   }
 
+  /**
+   * @return the number of threads delivering STOMP events to agents
+   */
+  public int getAgentHostEventsThreadPoolSize() {
+    return Integer.parseInt(getProperty(AGENT_HOST_EVENTS_THREADPOOL_SIZE));
+  }
+
+  /**
+   * @return the number of threads building the host resources
+   */
+  public int getHostResourcesThreadPoolSize() {
+    return Integer.parseInt(getProperty(HOST_RESOURCES_THREADPOOL_SIZE));
+  }
+
   /**
    * Determines the amount of threads used by default ForJoin Pool
    */
@@ -27,6 +27,7 @@ import org.apache.ambari.server.agent.AgentSessionManager;
 import org.apache.ambari.server.agent.stomp.AmbariSubscriptionRegistry;
 import org.apache.ambari.server.api.AmbariSendToMethodReturnValueHandler;
 import org.apache.ambari.server.events.DefaultMessageEmitter;
+import org.apache.ambari.server.events.MessageSendStatistics;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
 import org.eclipse.jetty.websocket.server.WebSocketServerFactory;
 import org.slf4j.Logger;
@@ -70,6 +71,7 @@ public class RootStompConfig {
     return new DefaultMessageEmitter(injector.getInstance(AgentSessionManager.class),
         brokerTemplate,
         injector.getInstance(AmbariEventPublisher.class),
+        injector.getInstance(MessageSendStatistics.class),
         configuration.getExecutionCommandsRetryCount(),
         configuration.getExecutionCommandsRetryInterval());
   }
@@ -17,11 +17,14 @@
  */
 package org.apache.ambari.server.controller;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,6 +47,7 @@ import org.apache.ambari.server.view.ViewInstanceHandlerList;
 import org.apache.ambari.server.view.ViewRegistry;
 import org.apache.ambari.view.SystemException;
 import org.apache.ambari.view.ViewContext;
+import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.handler.ErrorHandler;
@@ -71,6 +75,11 @@ public class AmbariHandlerList extends HandlerCollection implements ViewInstance
   private static final Pattern VIEW_RESOURCE_TARGET_PATTERN =
     Pattern.compile("/api/(\\S+)/views/(\\S+)/versions/(\\S+)/instances/(\\S+)/resources/(\\S+)");
 
+  /**
+   * The prefix of the context init parameters read by the default servlet of a view.
+   */
+  private static final String DEFAULT_SERVLET_INIT_PARAMETER_PREFIX = "org.eclipse.jetty.servlet.Default.";
+
   /**
    * The view registry.
    */
@@ -127,6 +136,11 @@ public class AmbariHandlerList extends HandlerCollection implements ViewInstance
    */
   private final Collection<Handler> nonViewHandlers = new HashSet<>();
 
+  /**
+   * The view archives whose static content was already compressed; all of the instances of a view share it.
+   */
+  private final Set<String> compressedViewArchives = ConcurrentHashMap.newKeySet();
+
   private static final Logger LOG = LoggerFactory.getLogger(AmbariHandlerList.class);
 
 
@@ -261,7 +275,7 @@ public class AmbariHandlerList extends HandlerCollection implements ViewInstance
     webAppContext.addFilter(new FilterHolder(persistFilter), "/*", AmbariServer.DISPATCHER_TYPES);
     webAppContext.addFilter(new FilterHolder(springSecurityFilter), "/*", AmbariServer.DISPATCHER_TYPES);
     webAppContext.setAllowNullPathInfo(true);
-
+    configureStaticContent(webAppContext, viewDefinition);
 
     if (webAppContext.getErrorHandler() != null) {
       ErrorHandler errorHandlerProxy = createAmbariViewErrorHandlerProxy(webAppContext.getErrorHandler());
@@ -274,6 +288,30 @@ public class AmbariHandlerList extends HandlerCollection implements ViewInstance
     return webAppContext;
   }
 
+  /**
+   * Configures the default servlet of the view to serve the precompressed variants of the view resources from
+   * memory mapped buffers, with strong ETags and the configured cache headers.
+   *
+   * @param webAppContext  the context of the view instance
+   * @param viewDefinition the view definition
+   */
+  private void configureStaticContent(WebAppContext webAppContext, ViewEntity viewDefinition) {
+    if (configuration.isStaticContentPrecompressionEnabled() && viewDefinition.getArchive() != null
+        && compressedViewArchives.add(viewDefinition.getArchive())) {
+      new StaticContentCompressor(configuration.getStaticContentPrecompressionMinSize())
+        .compressInBackground(new File(viewDefinition.getArchive()));
+    }
+
+    webAppContext.setInitParameter(DEFAULT_SERVLET_INIT_PARAMETER_PREFIX + "precompressed",
+      StaticContentCompressor.PRECOMPRESSED_FORMATS);
+    webAppContext.setInitParameter(DEFAULT_SERVLET_INIT_PARAMETER_PREFIX + "etags", "true");
+    webAppContext.setInitParameter(DEFAULT_SERVLET_INIT_PARAMETER_PREFIX + "useFileMappedBuffer", "true");
+    String cacheControl = configuration.getStaticContentCacheControlHTTPResponseHeader();
+    if (StringUtils.isNotEmpty(cacheControl)) {
+      webAppContext.setInitParameter(DEFAULT_SERVLET_INIT_PARAMETER_PREFIX + "cacheControl", cacheControl);
+    }
+  }
+
   private ErrorHandler createAmbariViewErrorHandlerProxy(ErrorHandler errorHandler) {
     ErrorHandler proxy = null;
     try {
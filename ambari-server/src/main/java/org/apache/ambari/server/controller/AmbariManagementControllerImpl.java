@@ -72,6 +72,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -387,6 +388,9 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   @Inject
   private HostComponentDesiredStateDAO hostComponentDesiredStateDAO;
 
+  @Inject
+  private Provider<ClusterOperationSerializer> clusterOperationSerializer;
+
   /**
    * The KerberosHelper to help setup for enabling for disabling Kerberos
    */
@@ -559,7 +563,7 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized void createHostComponents(Set<ServiceComponentHostRequest> requests)
+  public void createHostComponents(Set<ServiceComponentHostRequest> requests)
       throws AmbariException, AuthorizationException {
 
     createHostComponents(requests, false);
@@ -603,7 +607,25 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
 
 
   @Override
-  public synchronized void createHostComponents(Set<ServiceComponentHostRequest> requests, boolean isBlueprintProvisioned)
+  public void createHostComponents(Set<ServiceComponentHostRequest> requests, boolean isBlueprintProvisioned)
+     throws AmbariException, AuthorizationException {
+
+    Set<String> clusterNames = new HashSet<>();
+    for (ServiceComponentHostRequest request : requests) {
+      if (StringUtils.isNotEmpty(request.getClusterName())) {
+        clusterNames.add(request.getClusterName());
+      }
+    }
+
+    try (ClusterOperationSerializer.Permit permit = clusterOperationSerializer.get().acquire(clusterNames)) {
+      createHostComponentsSerialized(requests, isBlueprintProvisioned);
+    }
+  }
+
+  /**
+   * Creates the host components, while holding the permit of their clusters.
+   */
+  private void createHostComponentsSerialized(Set<ServiceComponentHostRequest> requests, boolean isBlueprintProvisioned)
      throws AmbariException, AuthorizationException {
 
     if (requests.isEmpty()) {
@@ -1030,7 +1052,20 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
    * @throws AmbariException when the configuration cannot be created.
    */
   @Override
-  public synchronized ConfigurationResponse createConfiguration(
+  public ConfigurationResponse createConfiguration(
+      ConfigurationRequest request, boolean refreshCluster) throws AmbariException, AuthorizationException {
+    Set<String> clusterNames = StringUtils.isEmpty(request.getClusterName())
+      ? Collections.emptySet() : Collections.singleton(request.getClusterName());
+
+    try (ClusterOperationSerializer.Permit permit = clusterOperationSerializer.get().acquire(clusterNames)) {
+      return createConfigurationSerialized(request, refreshCluster);
+    }
+  }
+
+  /**
+   * Creates the configuration, while holding the permit of its cluster.
+   */
+  private ConfigurationResponse createConfigurationSerialized(
       ConfigurationRequest request, boolean refreshCluster) throws AmbariException, AuthorizationException {
     if (null == request.getClusterName() || request.getClusterName().isEmpty()
         || null == request.getType() || request.getType().isEmpty()
@@ -1179,7 +1214,7 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized ConfigurationResponse createConfiguration(
+  public ConfigurationResponse createConfiguration(
       ConfigurationRequest request) throws AmbariException, AuthorizationException {
     return createConfiguration(request, true);
   }
@@ -1685,29 +1720,59 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
 
   @Override
   @Transactional
-  public synchronized RequestStatusResponse updateClusters(Set<ClusterRequest> requests,
-                                                           Map<String, String> requestProperties)
+  public RequestStatusResponse updateClusters(Set<ClusterRequest> requests,
+                                              Map<String, String> requestProperties)
       throws AmbariException, AuthorizationException {
     return updateClusters(requests, requestProperties, true, true);
   }
 
   @Override
   @Transactional
-  public synchronized RequestStatusResponse updateClusters(Set<ClusterRequest> requests,
-                                                           Map<String, String> requestProperties,
-                                                           boolean fireAgentUpdates, boolean refreshCluster)
+  public RequestStatusResponse updateClusters(Set<ClusterRequest> requests,
+                                              Map<String, String> requestProperties,
+                                              boolean fireAgentUpdates, boolean refreshCluster)
       throws AmbariException, AuthorizationException {
 
+    // resolved up front, as a request may rename its cluster
+    Map<ClusterRequest, Cluster> requestClusters = new LinkedHashMap<>();
+    Set<String> clusterNames = new HashSet<>();
+    for (ClusterRequest request : requests) {
+      Cluster cluster = getCluster(request);
+      requestClusters.put(request, cluster);
+      clusterNames.add(cluster.getClusterName());
+    }
+
     RequestStatusResponse response = null;
 
-    // We have to allow for multiple requests to account for multiple
-    // configuration updates (create multiple configuration resources)...
-    for (ClusterRequest request : requests) {
-      response = updateCluster(request, requestProperties, fireAgentUpdates, refreshCluster);
+    try (ClusterOperationSerializer.Permit permit = clusterOperationSerializer.get().acquire(clusterNames)) {
+      // We have to allow for multiple requests to account for multiple
+      // configuration updates (create multiple configuration resources)...
+      for (Map.Entry<ClusterRequest, Cluster> requestCluster : requestClusters.entrySet()) {
+        response = updateCluster(requestCluster.getKey(), requestCluster.getValue(), requestProperties,
+          fireAgentUpdates, refreshCluster);
+      }
     }
     return response;
   }
 
+  /**
+   * @param request the cluster request
+   * @return the cluster of the request, by id if set, by name otherwise
+   */
+  private Cluster getCluster(ClusterRequest request) throws AmbariException {
+    if (request.getClusterId() == null
+        && (request.getClusterName() == null
+        || request.getClusterName().isEmpty())) {
+      throw new IllegalArgumentException("Invalid arguments, cluster id or cluster name should not be null");
+    }
+
+    if (request.getClusterId() == null) {
+      return clusters.getCluster(request.getClusterName());
+    } else {
+      return clusters.getClusterById(request.getClusterId());
+    }
+  }
+
   /**
    * Get a dictionary of all config differences between existingConfig and newConfigValues where the key is the config name and the action is one of "changed", "added", or "deleted".
    * @param existingConfig
@@ -1802,33 +1867,20 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
     return output;
   }
 
-  private synchronized RequestStatusResponse updateCluster(ClusterRequest request,
-                                                           Map<String, String> requestProperties,
-                                                           boolean fireAgentUpdates, boolean refreshCluster
+  private RequestStatusResponse updateCluster(ClusterRequest request, Cluster cluster,
+                                              Map<String, String> requestProperties,
+                                              boolean fireAgentUpdates, boolean refreshCluster
   )
       throws AmbariException, AuthorizationException {
 
     RequestStageContainer requestStageContainer = null;
 
-    if (request.getClusterId() == null
-        && (request.getClusterName() == null
-        || request.getClusterName().isEmpty())) {
-      throw new IllegalArgumentException("Invalid arguments, cluster id or cluster name should not be null");
-    }
-
     LOG.info("Received a updateCluster request"
         + ", clusterId=" + request.getClusterId()
         + ", clusterName=" + request.getClusterName()
         + ", securityType=" + request.getSecurityType()
         + ", request=" + request);
 
-    final Cluster cluster;
-    if (request.getClusterId() == null) {
-      cluster = clusters.getCluster(request.getClusterName());
-    } else {
-      cluster = clusters.getClusterById(request.getClusterId());
-    }
-
     List<ConfigurationRequest> desiredConfigs = request.getDesiredConfig();
     if (desiredConfigs != null) {
       for (ConfigurationRequest configurationRequest : desiredConfigs) {
@@ -3639,7 +3691,7 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized void deleteCluster(ClusterRequest request)
+  public void deleteCluster(ClusterRequest request)
       throws AmbariException {
 
     if (request.getClusterName() == null
@@ -3652,7 +3704,11 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
       // FIXME treat this as removing a host from a cluster?
     } else {
       // deleting whole cluster
-      clusters.deleteCluster(request.getClusterName());
+      try (ClusterOperationSerializer.Permit permit =
+             clusterOperationSerializer.get().acquire(Collections.singleton(request.getClusterName()))) {
+        clusters.deleteCluster(request.getClusterName());
+      }
+      clusterOperationSerializer.get().removeCluster(request.getClusterName());
     }
   }
 
@@ -3989,7 +4045,8 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
     if (Boolean.TRUE.equals(request.getIsCurrent()) && serviceName != null) {
       serviceConfigVersionResponses.addAll(cluster.getActiveServiceConfigVersionResponse(serviceName));
     } else {
-      serviceConfigVersionResponses.addAll(cluster.getServiceConfigVersions());
+      serviceConfigVersionResponses.addAll(
+        cluster.getServiceConfigVersions(serviceName, request.isIncludeConfigurations()));
     }
 
     for (ServiceConfigVersionResponse response : serviceConfigVersionResponses) {
@@ -4321,7 +4378,8 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   @Override
   public synchronized RequestStatusResponse updateStacks() throws AmbariException {
 
-    try {
+    // cluster operations read the stacks
+    try (ClusterOperationSerializer.Permit permit = clusterOperationSerializer.get().acquireAll()) {
       ambariMetaInfo.init();
     } catch (AmbariException e) {
       throw e;
@@ -390,9 +390,14 @@ public class AmbariServer {
       }
       agentroot.addEventListener(new ContextLoaderListener(agentApiContext));
 
+      if (configs.isStaticContentPrecompressionEnabled()) {
+        new StaticContentCompressor(configs.getStaticContentPrecompressionMinSize())
+          .compressInBackground(new File(configs.getWebAppDir()));
+      }
+
       ServletHolder rootServlet = root.addServlet(DefaultServlet.class, "/");
       rootServlet.setInitParameter("dirAllowed", "false");
-      rootServlet.setInitParameter("precompressed", "gzip=.gz");
+      configureStaticContentServlet(rootServlet);
       rootServlet.setInitOrder(1);
 
       /* Configure default servlet for agent server */
@@ -858,6 +863,22 @@ public class AmbariServer {
     }
   }
 
+  /**
+   * Configures the default servlet to serve the precompressed variants of the static content from memory mapped
+   * buffers, with strong ETags and the configured cache headers.
+   *
+   * @param servlet the default servlet
+   */
+  protected void configureStaticContentServlet(ServletHolder servlet) {
+    servlet.setInitParameter("precompressed", StaticContentCompressor.PRECOMPRESSED_FORMATS);
+    servlet.setInitParameter("etags", "true");
+    servlet.setInitParameter("useFileMappedBuffer", "true");
+    String cacheControl = configs.getStaticContentCacheControlHTTPResponseHeader();
+    if (StringUtils.isNotEmpty(cacheControl)) {
+      servlet.setInitParameter("cacheControl", cacheControl);
+    }
+  }
+
   private void configureAdditionalContentTypes(ServletContextHandler root) {
     root.getMimeTypes().addMimeMapping("woff", "application/font-woff");
     root.getMimeTypes().addMimeMapping("ttf", "application/font-sfnt");
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.ambari.server.AmbariException;
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.logging.LockFactory;
+import org.apache.ambari.server.logging.LockStatistics;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Serializes the write operations of {@link AmbariManagementControllerImpl} and of the resource providers which
+ * bypass it (like the config group one) per cluster, so that operations on different clusters run concurrently,
+ * while operations on the same cluster run one at a time in arrival order.
+ * Operations spanning all clusters (like updating the stacks) wait for, and hold off, every cluster operation.
+ * <p/>
+ * Waiting is bounded by {@link Configuration#SERVER_CLUSTER_OPERATIONS_TIMEOUT}. Every wait, timeout and hold
+ * is recorded in the {@link LockStatistics} of the cluster, named {@value #STATISTICS_PREFIX} followed by the
+ * cluster name.
+ */
+@Singleton
+public class ClusterOperationSerializer {
+
+  static final String STATISTICS_PREFIX = "clusterOperations.";
+
+  /**
+   * Held for reading by cluster operations and for writing by operations spanning all clusters.
+   */
+  private final ReentrantReadWriteLock globalLock = new ReentrantReadWriteLock(true);
+
+  private final ConcurrentMap<String, ReentrantLock> clusterLocks = new ConcurrentHashMap<>();
+
+  private final LockFactory lockFactory;
+
+  private final long timeoutMillis;
+
+  @Inject
+  public ClusterOperationSerializer(Configuration configuration, LockFactory lockFactory) {
+    this.lockFactory = lockFactory;
+    timeoutMillis = TimeUnit.SECONDS.toMillis(configuration.getServerClusterOperationsTimeout());
+  }
+
+  /**
+   * Waits for the operations running or queued on the clusters.
+   *
+   * @param clusterNames the names of the clusters the operation writes to
+   * @return the permit to close when the operation completes
+   * @throws AmbariException if the operations on the clusters did not complete in time
+   */
+  public Permit acquire(Collection<String> clusterNames) throws AmbariException {
+    // ordered, so that operations on overlapping sets of clusters do not deadlock
+    Set<String> orderedClusterNames = new TreeSet<>();
+    for (String clusterName : clusterNames) {
+      if (clusterName != null) {
+        orderedClusterNames.add(clusterName);
+      }
+    }
+
+    Permit permit = new Permit();
+    try {
+      permit.acquire(globalLock.readLock(), null, "all clusters");
+      for (String clusterName : orderedClusterNames) {
+        permit.acquire(clusterLocks.computeIfAbsent(clusterName, name -> new ReentrantLock(true)),
+          lockFactory.getStatistics(STATISTICS_PREFIX + clusterName), "cluster " + clusterName);
+      }
+      return permit;
+    } catch (AmbariException | RuntimeException e) {
+      permit.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Waits for the operations running or queued on any cluster.
+   *
+   * @return the permit to close when the operation completes
+   * @throws AmbariException if the operations did not complete in time
+   */
+  public Permit acquireAll() throws AmbariException {
+    Permit permit = new Permit();
+    permit.acquire(globalLock.writeLock(), null, "all clusters");
+    return permit;
+  }
+
+  /**
+   * Drops the lock and the statistics of a deleted cluster, operations still waiting for the lock of the
+   * cluster keep running one at a time.
+   *
+   * @param clusterName the name of the cluster
+   */
+  public void removeCluster(String clusterName) {
+    clusterLocks.remove(clusterName);
+    lockFactory.removeStatistics(STATISTICS_PREFIX + clusterName);
+  }
+
+  /**
+   * @param clusterName the name of the cluster
+   * @return the number of operations waiting for the running operation of the cluster
+   */
+  public int getQueueLength(String clusterName) {
+    ReentrantLock lock = clusterLocks.get(clusterName);
+    return lock == null ? 0 : lock.getQueueLength();
+  }
+
+  /**
+   * The locks held by an operation, released in reverse order of acquisition on {@link #close()}.
+   */
+  public final class Permit implements AutoCloseable {
+
+    private final List<Lock> locks = new ArrayList<>();
+    private final List<LockStatistics> statistics = new ArrayList<>();
+    private final List<Long> acquireTimes = new ArrayList<>();
+
+    private Permit() {
+    }
+
+    private void acquire(Lock lock, LockStatistics lockStatistics, String description) throws AmbariException {
+      long start = System.nanoTime();
+      boolean acquired;
+      if (timeoutMillis > 0) {
+        try {
+          acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new AmbariException("Interrupted while waiting for the operations on " + description, e);
+        }
+      } else {
+        lock.lock();
+        acquired = true;
+      }
+
+      if (!acquired) {
+        if (lockStatistics != null) {
+          lockStatistics.recordFailedWait();
+        }
+        throw new AmbariException(String.format("Timed out after %d seconds waiting for the operations on %s",
+          TimeUnit.MILLISECONDS.toSeconds(timeoutMillis), description));
+      }
+
+      long now = System.nanoTime();
+      // nested operations are part of the outer one
+      boolean outermost = !(lock instanceof ReentrantLock) || ((ReentrantLock) lock).getHoldCount() == 1;
+      if (lockStatistics != null && outermost) {
+        lockStatistics.recordWait(now - start);
+      }
+      locks.add(lock);
+      statistics.add(outermost ? lockStatistics : null);
+      acquireTimes.add(now);
+    }
+
+    @Override
+    public void close() {
+      for (int i = locks.size() - 1; i >= 0; i--) {
+        locks.get(i).unlock();
+        if (statistics.get(i) != null) {
+          statistics.get(i).recordHold(System.nanoTime() - acquireTimes.get(i));
+        }
+      }
+      locks.clear();
+      statistics.clear();
+      acquireTimes.clear();
+    }
+  }
+}
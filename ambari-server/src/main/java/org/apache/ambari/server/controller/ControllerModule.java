@@ -72,6 +72,7 @@ import org.apache.ambari.server.controller.internal.HostComponentResourceProvide
 import org.apache.ambari.server.controller.internal.HostKerberosIdentityResourceProvider;
 import org.apache.ambari.server.controller.internal.HostResourceProvider;
 import org.apache.ambari.server.controller.internal.KerberosDescriptorResourceProvider;
+import org.apache.ambari.server.controller.internal.LockResourceProvider;
 import org.apache.ambari.server.controller.internal.MemberResourceProvider;
 import org.apache.ambari.server.controller.internal.RepositoryVersionResourceProvider;
 import org.apache.ambari.server.controller.internal.RootServiceComponentConfigurationResourceProvider;
@@ -109,6 +110,7 @@ import org.apache.ambari.server.notifications.dispatchers.SNMPDispatcher;
 import org.apache.ambari.server.orm.DBAccessor;
 import org.apache.ambari.server.orm.DBAccessorImpl;
 import org.apache.ambari.server.orm.PersistenceType;
+import org.apache.ambari.server.orm.QueryCountSessionListener;
 import org.apache.ambari.server.orm.dao.HostRoleCommandDAO;
 import org.apache.ambari.server.scheduler.ExecutionScheduler;
 import org.apache.ambari.server.scheduler.ExecutionSchedulerImpl;
@@ -259,6 +261,10 @@ public class ControllerModule extends AbstractModule {
         break;
     }
 
+    if (configuration.isServerPersistenceQueryCountProfilingEnabled()) {
+      properties.setProperty(QueryCountSessionListener.ENABLED_PROPERTY, Boolean.TRUE.toString());
+    }
+
     //allow to override values above
     // custom jdbc driver properties
     Properties customDatabaseDriverProperties = configuration.getDatabaseCustomProperties();
@@ -505,6 +511,7 @@ public class ControllerModule extends AbstractModule {
         .implement(ResourceProvider.class, Names.named("viewInstance"), ViewInstanceResourceProvider.class)
         .implement(ResourceProvider.class, Names.named("rootServiceHostComponentConfiguration"), RootServiceComponentConfigurationResourceProvider.class)
         .implement(ResourceProvider.class, Names.named("auth"), AuthResourceProvider.class)
+        .implement(ResourceProvider.class, Names.named("lock"), LockResourceProvider.class)
         .build(ResourceProviderFactory.class));
 
     install(new FactoryModuleBuilder().implement(
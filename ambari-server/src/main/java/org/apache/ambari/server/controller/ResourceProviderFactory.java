@@ -80,4 +80,7 @@ public interface ResourceProviderFactory {
   @Named("viewInstance")
   ViewInstanceResourceProvider getViewInstanceResourceProvider();
 
+  @Named("lock")
+  ResourceProvider getLockResourceProvider(AmbariManagementController managementController);
+
 }
\ No newline at end of file
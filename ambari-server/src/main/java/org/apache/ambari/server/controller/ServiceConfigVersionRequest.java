@@ -31,6 +31,7 @@ public class ServiceConfigVersionRequest {
   private String userName;
   private String note;
   private Boolean isCurrent;
+  private boolean includeConfigurations = true;
 
   public ServiceConfigVersionRequest() {
   }
@@ -117,6 +118,19 @@ public class ServiceConfigVersionRequest {
     this.isCurrent = isCurrent;
   }
 
+  /**
+   * @return whether the configurations of the versions should be returned,
+   *         which can be skipped when only the version history is listed
+   */
+  @ApiModelProperty(hidden = true)
+  public boolean isIncludeConfigurations() {
+    return includeConfigurations;
+  }
+
+  public void setIncludeConfigurations(boolean includeConfigurations) {
+    this.includeConfigurations = includeConfigurations;
+  }
+
   @Override
   public String toString() {
     return "ServiceConfigVersionRequest{" +
@@ -128,6 +142,7 @@ public class ServiceConfigVersionRequest {
         ", userName='" + userName + '\'' +
         ", note='" + note + '\'' +
         ", isCurrent=" + isCurrent +
+        ", includeConfigurations=" + includeConfigurations +
         '}';
   }
 }
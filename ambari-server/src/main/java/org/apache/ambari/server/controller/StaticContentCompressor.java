@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Writes gzip and deflate compressed variants of static web content next to the original files, which the
+ * Jetty {@code DefaultServlet} serves as is to clients accepting the encoding (see {@link #PRECOMPRESSED_FORMATS}),
+ * instead of compressing the same files on every request.
+ * <p/>
+ * The size and CRC32 of the original each variant was written from are kept in the {@link #MANIFEST_FILE_NAME}
+ * file at the root of the content, and a variant is only (re)written if it is missing or the original content
+ * differs. Modification times are not used, as unpacking an older archive may leave the originals older than
+ * the variants of the newer content. {@code WEB-INF} directories are not served and are skipped.
+ */
+public class StaticContentCompressor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StaticContentCompressor.class);
+
+  static final String GZIP_EXTENSION = ".gz";
+  static final String DEFLATE_EXTENSION = ".zz";
+
+  /**
+   * Value of the {@code precompressed} init parameter of the {@code DefaultServlet}, in order of preference.
+   */
+  public static final String PRECOMPRESSED_FORMATS = "gzip=" + GZIP_EXTENSION + ",deflate=" + DEFLATE_EXTENSION;
+
+  /**
+   * Name of the file holding the fingerprints of the originals of the written variants, by relative path.
+   */
+  static final String MANIFEST_FILE_NAME = ".precompressed";
+
+  private static final String WEB_INF = "WEB-INF";
+
+  /**
+   * Extensions of the files worth compressing, images and fonts other than svg are compressed already.
+   */
+  private static final ImmutableSet<String> COMPRESSIBLE_EXTENSIONS = ImmutableSet.of(
+    "html", "htm", "js", "css", "json", "map", "svg", "txt", "xml", "ttf", "eot");
+
+  private final long minSize;
+
+  /**
+   * @param minSize files smaller than this (in bytes) are not worth compressing
+   */
+  public StaticContentCompressor(long minSize) {
+    this.minSize = minSize;
+  }
+
+  /**
+   * Writes the missing or outdated compressed variants on a daemon thread of its own, so that compressing
+   * the content does not delay the startup. The content is served uncompressed until its variants are written.
+   *
+   * @param directory the root of the static content
+   */
+  public void compressInBackground(File directory) {
+    if (directory == null || !directory.isDirectory()) {
+      return;
+    }
+
+    Thread compressor = new Thread(() -> compress(directory), "static-content-compressor");
+    compressor.setDaemon(true);
+    compressor.start();
+  }
+
+  /**
+   * Writes the missing or outdated compressed variants of the compressible files in the directory tree.
+   * Failures are logged and do not prevent serving the content uncompressed.
+   *
+   * @param directory the root of the static content
+   * @return the number of compressed files written
+   */
+  public int compress(File directory) {
+    if (directory == null || !directory.isDirectory()) {
+      return 0;
+    }
+    if (!Files.isWritable(directory.toPath())) {
+      LOG.warn("Skipping the compression of the static content in {}, the directory is not writable", directory);
+      return 0;
+    }
+
+    Path root = directory.toPath();
+    List<Path> files;
+    try {
+      files = findCompressibleFiles(root);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Unable to scan {} for static content to compress", directory, e);
+      return 0;
+    }
+
+    Path manifestFile = root.resolve(MANIFEST_FILE_NAME);
+    Properties manifest = readManifest(manifestFile);
+    Properties updatedManifest = new Properties();
+    int written = 0;
+    boolean failed = false;
+    for (Path file : files) {
+      String key = FilenameUtils.separatorsToUnix(root.relativize(file).toString());
+      try {
+        String fingerprint = getFingerprint(file);
+        if (!fingerprint.equals(manifest.getProperty(key))
+            || !Files.exists(getVariant(file, GZIP_EXTENSION)) || !Files.exists(getVariant(file, DEFLATE_EXTENSION))) {
+          compress(file, GZIP_EXTENSION);
+          compress(file, DEFLATE_EXTENSION);
+          written += 2;
+        }
+        updatedManifest.setProperty(key, fingerprint);
+      } catch (IOException e) {
+        // typically the directory is not writable by the server, no need to try the rest
+        LOG.info("Unable to write compressed variants of the static content in {}, it will be compressed on " +
+          "every request: {}", directory, e.getMessage());
+        failed = true;
+        break;
+      }
+    }
+
+    // entries of removed files are dropped as well
+    if (written > 0 || (!failed && !updatedManifest.equals(manifest))) {
+      writeManifest(manifestFile, updatedManifest);
+    }
+    if (written > 0) {
+      LOG.info("Wrote {} compressed variants of the static content in {}", written, directory);
+    }
+    return written;
+  }
+
+  private List<Path> findCompressibleFiles(Path root) throws IOException {
+    List<Path> files = new ArrayList<>();
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        return WEB_INF.equalsIgnoreCase(String.valueOf(dir.getFileName())) ?
+          FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        if (attrs.isRegularFile() && attrs.size() >= minSize
+            && COMPRESSIBLE_EXTENSIONS.contains(FilenameUtils.getExtension(file.toString()).toLowerCase())) {
+          files.add(file);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    return files;
+  }
+
+  /**
+   * @return the size and the CRC32 of the file content
+   */
+  private static String getFingerprint(Path file) throws IOException {
+    try (CheckedInputStream in = new CheckedInputStream(Files.newInputStream(file), new CRC32())) {
+      long size = IOUtils.copyLarge(in, NullOutputStream.NULL_OUTPUT_STREAM);
+      return size + ":" + Long.toHexString(in.getChecksum().getValue());
+    }
+  }
+
+  private static Path getVariant(Path file, String extension) {
+    return file.resolveSibling(file.getFileName() + extension);
+  }
+
+  private static Properties readManifest(Path manifestFile) {
+    Properties manifest = new Properties();
+    if (Files.isRegularFile(manifestFile)) {
+      try (InputStream in = Files.newInputStream(manifestFile)) {
+        manifest.load(in);
+      } catch (IOException | IllegalArgumentException e) {
+        // all of the variants are rewritten
+        LOG.warn("Unable to read {}", manifestFile, e);
+        manifest.clear();
+      }
+    }
+    return manifest;
+  }
+
+  private static void writeManifest(Path manifestFile, Properties manifest) {
+    try {
+      Path temp = Files.createTempFile(manifestFile.getParent(), MANIFEST_FILE_NAME, ".tmp");
+      try {
+        try (OutputStream out = Files.newOutputStream(temp)) {
+          manifest.store(out, null);
+        }
+        Files.move(temp, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      // the variants are rewritten on the next start
+      LOG.warn("Unable to write {}", manifestFile, e);
+    }
+  }
+
+  private static void compress(Path file, String extension) throws IOException {
+    Path compressed = getVariant(file, extension);
+
+    // written aside and moved, so a concurrent request never serves a partially written variant
+    Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), extension + ".tmp");
+    try {
+      try (InputStream in = Files.newInputStream(file);
+           OutputStream out = GZIP_EXTENSION.equals(extension)
+             ? new GZIPOutputStream(Files.newOutputStream(temp))
+             : new DeflaterOutputStream(Files.newOutputStream(temp))) {
+        IOUtils.copy(in, out);
+      }
+      Files.move(temp, compressed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+}
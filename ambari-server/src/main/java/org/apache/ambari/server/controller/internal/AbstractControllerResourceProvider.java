@@ -249,6 +249,8 @@ public abstract class AbstractControllerResourceProvider extends AbstractAuthori
         return resourceProviderFactory.getViewInstanceResourceProvider();
       case Auth:
         return resourceProviderFactory.getAuthResourceProvider(managementController);
+      case Lock:
+        return resourceProviderFactory.getLockResourceProvider(managementController);
       default:
         throw new IllegalArgumentException("Unknown type " + type);
     }
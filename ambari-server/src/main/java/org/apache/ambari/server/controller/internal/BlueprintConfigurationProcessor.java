@@ -187,6 +187,16 @@ public class BlueprintConfigurationProcessor {
    */
   private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{.*\\}\\}");
 
+  /**
+   * Compiled regex for the brackets of a YAML array
+   */
+  private static final Pattern BRACKETS = Pattern.compile("[\\[\\]]");
+
+  /**
+   * Compiled regex for comma
+   */
+  private static final Pattern COMMA = Pattern.compile(",");
+
   /**
    * Special network address
    */
@@ -348,6 +358,9 @@ public class BlueprintConfigurationProcessor {
     Set<String> requiredHostGroups = new HashSet<>();
     Collection<Map<String, Map<String, PropertyUpdater>>> updaters = createCollectionOfUpdaters();
 
+    // cluster scoped configuration which also includes all default and BP properties
+    Map<String, Map<String, String>> clusterProps = clusterTopology.getConfiguration().getFullProperties();
+
     // Iterate all registered updaters and collect host groups referenced by related properties and
     // extracted by the updaters
     for (Map<String, Map<String, PropertyUpdater>> updaterMap : updaters) {
@@ -357,8 +370,6 @@ public class BlueprintConfigurationProcessor {
           String propertyName = updaterEntry.getKey();
           PropertyUpdater updater = updaterEntry.getValue();
 
-          // cluster scoped configuration which also includes all default and BP properties
-          Map<String, Map<String, String>> clusterProps = clusterTopology.getConfiguration().getFullProperties();
           Map<String, String> typeMap = clusterProps.get(type);
           if (typeMap != null && typeMap.containsKey(propertyName) && typeMap.get(propertyName) != null) {
             requiredHostGroups.addAll(updater.getRequiredHostGroups(
@@ -653,6 +664,9 @@ public class BlueprintConfigurationProcessor {
   private void doGeneralPropertyUpdatesForClusterCreate(Configuration clusterConfig,
                                                         Map<String, Map<String, String>> clusterProps,
                                                         Set<String> configTypesUpdated) {
+    // the host groups and hosts of the components do not change while the properties are updated
+    ClusterTopology topology = new MemoizingClusterTopology(clusterTopology);
+
     // Iterate through the updaters and apply them in case applicable properties exist
     Collection<Map<String, Map<String, PropertyUpdater>>> updaters = createCollectionOfUpdaters();
     for (Map<String, Map<String, PropertyUpdater>> updaterMap : updaters) {
@@ -667,7 +681,7 @@ public class BlueprintConfigurationProcessor {
           if (typeMap != null && typeMap.containsKey(propertyName) && typeMap.get(propertyName) != null) {
             final String originalValue = typeMap.get(propertyName);
             final String updatedValue =
-              updateValue(configType, propertyName, originalValue, updater, clusterProps, clusterConfig, configTypesUpdated, true);
+              updateValue(configType, propertyName, originalValue, updater, clusterProps, clusterConfig, configTypesUpdated, true, topology);
             if (null == updatedValue) {
               continue;
             }
@@ -679,7 +693,7 @@ public class BlueprintConfigurationProcessor {
             Map<String, String> hgTypeMap = hgConfigProps.get(configType);
             if (hgTypeMap != null && hgTypeMap.containsKey(propertyName)) {
               final String originalValue = hgTypeMap.get(propertyName);
-              updateValue(configType, propertyName, originalValue, updater, hgConfigProps, hgConfig, configTypesUpdated, true);
+              updateValue(configType, propertyName, originalValue, updater, hgConfigProps, hgConfig, configTypesUpdated, true, topology);
             }
           }
         }
@@ -690,13 +704,14 @@ public class BlueprintConfigurationProcessor {
     // which don't have a configured updater. This is to make sure that %HOSTGROUP::name% tokens are replaced for each property
     Set<Pair<String, String>> propertiesWithUpdaters = getAllPropertiesWithUpdaters(updaters);
     // apply default updater on cluster config
-    applyDefaultUpdater(clusterConfig, clusterConfig.getFullProperties(1), configTypesUpdated, propertiesWithUpdaters);
+    applyDefaultUpdater(clusterConfig, clusterConfig.getFullProperties(1), configTypesUpdated, propertiesWithUpdaters,
+      topology);
     // apply default updater on hostgroup configs
     clusterTopology.getHostGroupInfo().values().stream().forEach(
       hostGroup -> {
         Configuration hostGroupConfig = hostGroup.getConfiguration();
         Map<String, Map<String, String>> hostGroupConfigProps = hostGroupConfig.getFullProperties(1);
-        applyDefaultUpdater(hostGroupConfig, hostGroupConfigProps, configTypesUpdated, propertiesWithUpdaters);
+        applyDefaultUpdater(hostGroupConfig, hostGroupConfigProps, configTypesUpdated, propertiesWithUpdaters, topology);
       });
   }
 
@@ -722,7 +737,8 @@ public class BlueprintConfigurationProcessor {
   private void applyDefaultUpdater(Configuration configuration,
                                    Map<String, Map<String, String>> properties,
                                    Set<String> configTypesUpdated,
-                                   Set<Pair<String, String>> propertiesWithUpdaters) {
+                                   Set<Pair<String, String>> propertiesWithUpdaters,
+                                   ClusterTopology topology) {
     properties.entrySet().forEach(
       configTypeEntry -> {
         String configType = configTypeEntry.getKey();
@@ -732,7 +748,7 @@ public class BlueprintConfigurationProcessor {
             if (!propertiesWithUpdaters.contains(Pair.of(configType, propertyName))) {
               String oldValue = propertyEntry.getValue();
               String newValue = updateValue(configType, propertyName, oldValue, PropertyUpdater.defaultUpdater(), properties,
-                configuration, configTypesUpdated, false);
+                configuration, configTypesUpdated, false, topology);
               if (!Objects.equals(oldValue, newValue)) {
                 LOG.info("Property {}/{} was updated by the default updater from [{}] to [{}]",
                   configType, propertyName, oldValue, newValue);
@@ -755,6 +771,7 @@ public class BlueprintConfigurationProcessor {
    * @param alwaysUpdateConfig boolean to indicate whether the {@link Configuration} received as parameter should always
    *                           (except when new value is {@code null}) be updated or only in case the new value differs
    *                           from the original. (TODO: what is the reason for always updating the configuration?)
+   * @param topology the topology passed to the updater
    * @return the updated value
    */
   private String updateValue(String configType,
@@ -764,8 +781,9 @@ public class BlueprintConfigurationProcessor {
                              Map<String, Map<String, String>> allProps,
                              Configuration configuration,
                              Set<String> configTypesUpdated,
-                             boolean alwaysUpdateConfig) {
-    String newValue = updater.updateForClusterCreate(propertyName, oldValue, allProps, clusterTopology);
+                             boolean alwaysUpdateConfig,
+                             ClusterTopology topology) {
+    String newValue = updater.updateForClusterCreate(propertyName, oldValue, allProps, topology);
     if (null != newValue) {
       if (!newValue.equals(oldValue)) {
         configTypesUpdated.add(configType);
@@ -1632,7 +1650,7 @@ public class BlueprintConfigurationProcessor {
           }
           boolean firstTok = true;
           for (String tok : toks) {
-            tok = tok.replaceAll("[\\[\\]]", "");
+            tok = BRACKETS.matcher(tok).replaceAll("");
 
             if (addedGroups.add(tok)) {
               if (! firstTok) {
@@ -2781,7 +2799,7 @@ public class BlueprintConfigurationProcessor {
           // this is required due to the specific syntax of templeton.hive.properties
           updatedResult.append(key);
           updatedResult.append("=");
-          updatedResult.append(result.replaceAll(",", Matcher.quoteReplacement("\\,")));
+          updatedResult.append(COMMA.matcher(result).replaceAll(Matcher.quoteReplacement("\\,")));
         } else {
           updatedResult.append(keyValuePair);
         }
@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.apache.ambari.server.Role;
 import org.apache.ambari.server.actionmanager.HostRoleCommand;
@@ -652,11 +653,27 @@ public class CalculatedStatus {
    * @param skippable {Boolean} <code>TRUE<code/> if failure of any of the task should not fail the stage
    * @return {@link HostRoleStatus} based on success factor
    */
-  public static HostRoleStatus calculateStageStatus(List <HostRoleCommand> hostRoleCommands, Map<HostRoleStatus, Integer> counters, Map<Role, Float> successFactors,
+  public static HostRoleStatus calculateStageStatus(final List <HostRoleCommand> hostRoleCommands, Map<HostRoleStatus, Integer> counters, Map<Role, Float> successFactors,
+                                                    boolean skippable) {
+    return calculateStageStatus(hostRoleCommands.size(), () -> hostRoleCommands, counters, successFactors, skippable);
+  }
+
+  /**
+   * Same as {@link #calculateStageStatus(List, Map, Map, boolean)}, but the tasks of the stage are only
+   * requested when the success factors of failed, timed out or aborted tasks have to be checked.
+   *
+   * @param total number of tasks of the stage
+   * @param hostRoleCommandsSupplier supplies the list of {@link HostRoleCommand} for a stage
+   * @param counters counts of resources that are in various states
+   * @param successFactors Map of roles to their successfactor for a stage
+   * @param skippable {Boolean} <code>TRUE<code/> if failure of any of the task should not fail the stage
+   * @return {@link HostRoleStatus} based on success factor
+   */
+  public static HostRoleStatus calculateStageStatus(int total, Supplier<List<HostRoleCommand>> hostRoleCommandsSupplier,
+                                                    Map<HostRoleStatus, Integer> counters, Map<Role, Float> successFactors,
                                                     boolean skippable) {
 
     // when there are 0 tasks, return COMPLETED
-    int total = hostRoleCommands.size();
     if (total == 0) {
       return HostRoleStatus.COMPLETED;
     }
@@ -674,6 +691,7 @@ public class CalculatedStatus {
 
 
     if (counters.get(HostRoleStatus.FAILED) > 0 && !skippable) {
+      List<HostRoleCommand> hostRoleCommands = hostRoleCommandsSupplier.get();
       Set<Role> rolesWithFailedTasks = getRolesOfFailedTasks(hostRoleCommands);
       Boolean didStageFailed = didStageFailed(hostRoleCommands, rolesWithFailedTasks, successFactors);
       if (didStageFailed) return HostRoleStatus.FAILED;
@@ -681,6 +699,7 @@ public class CalculatedStatus {
 
 
     if (counters.get(HostRoleStatus.TIMEDOUT) > 0  && !skippable) {
+      List<HostRoleCommand> hostRoleCommands = hostRoleCommandsSupplier.get();
       Set<Role> rolesWithTimedOutTasks = getRolesOfTimedOutTasks(hostRoleCommands);
       Boolean didStageFailed = didStageFailed(hostRoleCommands, rolesWithTimedOutTasks, successFactors);
       if (didStageFailed) return HostRoleStatus.TIMEDOUT;
@@ -691,6 +710,7 @@ public class CalculatedStatus {
     if (numActiveTasks > 0) {
       return HostRoleStatus.IN_PROGRESS;
     } else if (counters.get(HostRoleStatus.ABORTED) > 0) {
+      List<HostRoleCommand> hostRoleCommands = hostRoleCommandsSupplier.get();
       Set<Role> rolesWithTimedOutTasks = getRolesOfAbortedTasks(hostRoleCommands);
       Boolean didStageFailed = didStageFailed(hostRoleCommands, rolesWithTimedOutTasks, successFactors);
       if (didStageFailed) return HostRoleStatus.ABORTED;
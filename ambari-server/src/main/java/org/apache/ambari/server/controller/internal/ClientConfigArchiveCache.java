@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.events.ClusterConfigChangedEvent;
+import org.apache.ambari.server.events.HostsAddedEvent;
+import org.apache.ambari.server.events.HostsRemovedEvent;
+import org.apache.ambari.server.events.ServiceComponentInstalledEvent;
+import org.apache.ambari.server.events.ServiceComponentUninstalledEvent;
+import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.Subscribe;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Disk cache of the client configuration archives generated by {@link ClientConfigResourceProvider}.
+ * Archives are addressed by a digest of the command script and the command json it is run with, which
+ * holds the effective configurations of the host, the cluster topology and the stack and cluster level
+ * parameters, so a change of any of them simply leads to a new entry. Entries are evicted in least
+ * recently used order once their total size exceeds {@link Configuration#CLIENT_CONFIGS_CACHE_SIZE}, and
+ * all of them are dropped on configuration and topology changes, as they are not going to be used again.
+ */
+@Singleton
+public class ClientConfigArchiveCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ClientConfigArchiveCache.class);
+
+  static final String CACHE_DIRECTORY = "client-configs-cache";
+
+  private final File directory;
+
+  private final long maxSize;
+
+  /**
+   * Archive size by key, in access order.
+   */
+  private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long size;
+
+  @Inject
+  public ClientConfigArchiveCache(Configuration configuration, AmbariEventPublisher eventPublisher) {
+    this(new File(configuration.getServerTempDir(), CACHE_DIRECTORY),
+      configuration.getClientConfigsCacheSize() * FileUtils.ONE_MB);
+    eventPublisher.register(this);
+  }
+
+  ClientConfigArchiveCache(File directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    // entries of a previous run are not known, start from scratch
+    FileUtils.deleteQuietly(directory);
+  }
+
+  /**
+   * @return whether archives are cached
+   */
+  public boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  /**
+   * @param commandScript the script generating the archive
+   * @param commandJson   the command json the script is run with
+   * @return the key of the archive
+   */
+  public String getKey(String commandScript, String commandJson) {
+    return DigestUtils.sha256Hex((commandScript + '\n' + commandJson).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Copies the cached archive to the target file.
+   *
+   * @param key    the key of the archive
+   * @param target the file to copy the archive to
+   * @return {@code true} if the archive was cached and copied
+   */
+  public boolean restore(String key, File target) {
+    if (!isEnabled()) {
+      return false;
+    }
+    synchronized (this) {
+      if (!entries.containsKey(key)) {
+        return false;
+      }
+      // updates the access order
+      entries.get(key);
+    }
+
+    try {
+      copy(getFile(key).toPath(), target.toPath());
+      return true;
+    } catch (IOException e) {
+      // evicted meanwhile
+      LOG.debug("Unable to restore the client configuration archive {}", key, e);
+      return false;
+    }
+  }
+
+  /**
+   * Adds a generated archive to the cache, evicting the least recently used archives if needed.
+   *
+   * @param key     the key of the archive
+   * @param archive the generated archive
+   */
+  public void store(String key, File archive) {
+    if (!isEnabled() || !archive.isFile() || archive.length() > maxSize) {
+      return;
+    }
+
+    File file = getFile(key);
+    try {
+      Files.createDirectories(directory.toPath());
+      copy(archive.toPath(), file.toPath());
+    } catch (IOException e) {
+      LOG.warn("Unable to cache the client configuration archive {}", archive, e);
+      return;
+    }
+
+    synchronized (this) {
+      Long previous = entries.put(key, file.length());
+      size += file.length() - (previous == null ? 0 : previous);
+      for (Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator(); size > maxSize && iterator.hasNext(); ) {
+        Map.Entry<String, Long> eldest = iterator.next();
+        if (!eldest.getKey().equals(key)) {
+          iterator.remove();
+          size -= eldest.getValue();
+          FileUtils.deleteQuietly(getFile(eldest.getKey()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all cached archives.
+   */
+  public synchronized void invalidate() {
+    for (String key : entries.keySet()) {
+      FileUtils.deleteQuietly(getFile(key));
+    }
+    entries.clear();
+    size = 0;
+  }
+
+  @Subscribe
+  public void onConfigChanged(ClusterConfigChangedEvent event) {
+    invalidate();
+  }
+
+  @Subscribe
+  public void onComponentInstalled(ServiceComponentInstalledEvent event) {
+    invalidate();
+  }
+
+  @Subscribe
+  public void onComponentUninstalled(ServiceComponentUninstalledEvent event) {
+    invalidate();
+  }
+
+  @Subscribe
+  public void onHostsAdded(HostsAddedEvent event) {
+    invalidate();
+  }
+
+  @Subscribe
+  public void onHostsRemoved(HostsRemovedEvent event) {
+    invalidate();
+  }
+
+  private File getFile(String key) {
+    return new File(directory, key + Configuration.DEF_ARCHIVE_EXTENSION);
+  }
+
+  /**
+   * Copies aside and moves, so that readers of the target never see a partially written archive.
+   */
+  private static void copy(Path source, Path target) throws IOException {
+    Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    try {
+      Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+}
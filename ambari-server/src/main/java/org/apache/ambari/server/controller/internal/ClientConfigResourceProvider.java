@@ -48,6 +48,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.apache.ambari.server.AmbariException;
+import org.apache.ambari.server.StaticallyInject;
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.controller.AmbariManagementController;
@@ -95,12 +96,14 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import com.google.gson.Gson;
+import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 
 /**
  * Resource provider for client config resources.
  */
+@StaticallyInject
 public class ClientConfigResourceProvider extends AbstractControllerResourceProvider {
 
 
@@ -134,6 +137,13 @@ public class ClientConfigResourceProvider extends AbstractControllerResourceProv
       HOST_COMPONENT_HOST_NAME_PROPERTY_ID);
 
   private MaintenanceStateHelper maintenanceStateHelper;
+
+  /**
+   * Cache of the generated archives, {@code null} if not injected.
+   */
+  @Inject
+  private static ClientConfigArchiveCache archiveCache;
+
   private static final Logger LOG = LoggerFactory.getLogger(ClientConfigResourceProvider.class);
 
   // ----- Constructors ----------------------------------------------------
@@ -213,6 +223,9 @@ public class ClientConfigResourceProvider extends AbstractControllerResourceProv
     String pythonCmd = configMap.get(Configuration.AMBARI_PYTHON_WRAP.getKey());
     List<String> pythonCompressFilesCmds = new ArrayList<>();
     List<File> commandFiles = new ArrayList<>();
+    boolean cacheArchives = archiveCache != null && archiveCache.isEnabled();
+    // cache key of the archives to generate by component
+    Map<String, String> archiveKeys = new HashMap<>();
 
     for (ServiceComponentHostResponse response : componentMap.values()){
 
@@ -451,6 +464,17 @@ public class ClientConfigResourceProvider extends AbstractControllerResourceProv
             throw new SystemException("Failed to get temporary directory to store configurations", se);
           }
         }
+
+        if (cacheArchives) {
+          String archiveKey = archiveCache.getKey(commandScriptAbsolute, jsonConfigurations);
+          File archive = new File(TMP_PATH, componentName + "-configs" + Configuration.DEF_ARCHIVE_EXTENSION);
+          if (archiveCache.restore(archiveKey, archive)) {
+            LOG.debug("Using the cached client configuration archive of {}", componentName);
+            continue;
+          }
+          archiveKeys.put(componentName, archiveKey);
+        }
+
         File jsonFile = File.createTempFile(componentName, "-configuration.json", tmpDirectory);
         try {
           jsonFile.setWritable(true, true);
@@ -483,20 +507,28 @@ public class ClientConfigResourceProvider extends AbstractControllerResourceProv
       throw new SystemException("No configuration files defined for any component" );
     }
 
-    Integer totalCommands = pythonCompressFilesCmds.size() * 2;
-    Integer threadPoolSize = Math.min(totalCommands,configs.getExternalScriptThreadPoolSize());
-    ExecutorService processExecutor = Executors.newFixedThreadPool(threadPoolSize);
+    // every archive may have been cached
+    if (!pythonCompressFilesCmds.isEmpty()) {
+      Integer totalCommands = pythonCompressFilesCmds.size() * 2;
+      Integer threadPoolSize = Math.min(totalCommands, configs.getExternalScriptThreadPoolSize());
+      ExecutorService processExecutor = Executors.newFixedThreadPool(threadPoolSize);
 
-    // put all threads that starts process to compress each component config files in the executor
-    try {
-      List<CommandLineThreadWrapper> pythonCmdThreads = executeCommands(processExecutor, pythonCompressFilesCmds);
-
-      // wait for all threads to finish
-      Integer timeout = configs.getExternalScriptTimeout();
-      waitForAllThreadsToJoin(processExecutor, pythonCmdThreads, timeout);
-    } finally {
-      for (File each : commandFiles) {
-        each.delete();
+      // put all threads that starts process to compress each component config files in the executor
+      try {
+        List<CommandLineThreadWrapper> pythonCmdThreads = executeCommands(processExecutor, pythonCompressFilesCmds);
+
+        // wait for all threads to finish
+        Integer timeout = configs.getExternalScriptTimeout();
+        waitForAllThreadsToJoin(processExecutor, pythonCmdThreads, timeout);
+      } finally {
+        for (File each : commandFiles) {
+          each.delete();
+        }
+      }
+
+      for (Map.Entry<String, String> archiveKey : archiveKeys.entrySet()) {
+        archiveCache.store(archiveKey.getValue(),
+          new File(TMP_PATH, archiveKey.getKey() + "-configs" + Configuration.DEF_ARCHIVE_EXTENSION));
       }
     }
 
@@ -35,6 +35,7 @@ import org.apache.ambari.server.HostNotFoundException;
 import org.apache.ambari.server.ParentObjectNotFoundException;
 import org.apache.ambari.server.StaticallyInject;
 import org.apache.ambari.server.controller.AmbariManagementController;
+import org.apache.ambari.server.controller.ClusterOperationSerializer;
 import org.apache.ambari.server.controller.ConfigGroupRequest;
 import org.apache.ambari.server.controller.ConfigGroupResponse;
 import org.apache.ambari.server.controller.spi.NoSuchParentResourceException;
@@ -146,6 +147,13 @@ public class ConfigGroupResourceProvider extends
   @Inject
   private static Provider<ConfigHelper> m_configHelper;
 
+  /**
+   * Serializes the config group changes per cluster, reads take no lock and
+   * work on the immutable snapshot of {@link Cluster#getConfigGroups()}.
+   */
+  @Inject
+  private static Provider<ClusterOperationSerializer> clusterOperationSerializer;
+
   /**
    * Create a  new resource provider for the given management controller.
    *
@@ -356,7 +364,7 @@ public class ConfigGroupResourceProvider extends
     return getRequestStatus(null);
   }
 
-  private synchronized  Set<ConfigGroupResponse> getConfigGroups
+  private Set<ConfigGroupResponse> getConfigGroups
     (Set<ConfigGroupRequest> requests) throws AmbariException {
     Set<ConfigGroupResponse> responses = new HashSet<>();
     if (requests != null) {
@@ -481,12 +489,24 @@ public class ConfigGroupResourceProvider extends
     }
   }
 
-  private synchronized void deleteConfigGroup(ConfigGroupRequest request)
+  private void deleteConfigGroup(ConfigGroupRequest request)
       throws AmbariException, AuthorizationException {
     if (request.getId() == null) {
       throw new AmbariException("Config group id is a required field.");
     }
 
+    try (ClusterOperationSerializer.Permit permit =
+             clusterOperationSerializer.get().acquire(Collections.singleton(request.getClusterName()))) {
+      deleteConfigGroupSerialized(request);
+    }
+  }
+
+  /**
+   * Deletes the config group, while holding the permit of its cluster.
+   */
+  private void deleteConfigGroupSerialized(ConfigGroupRequest request)
+      throws AmbariException, AuthorizationException {
+
     Clusters clusters = getManagementController().getClusters();
 
     Cluster cluster;
@@ -521,6 +541,19 @@ public class ConfigGroupResourceProvider extends
     cluster.deleteConfigGroup(request.getId());
   }
 
+  /**
+   * @return the names of the clusters the requests write to
+   */
+  private Set<String> getClusterNames(Set<ConfigGroupRequest> requests) {
+    Set<String> clusterNames = new HashSet<>();
+    for (ConfigGroupRequest request : requests) {
+      if (StringUtils.isNotEmpty(request.getClusterName())) {
+        clusterNames.add(request.getClusterName());
+      }
+    }
+    return clusterNames;
+  }
+
   private void validateRequest(ConfigGroupRequest request) {
     if (request.getClusterName() == null
       || request.getClusterName().isEmpty()
@@ -537,7 +570,7 @@ public class ConfigGroupResourceProvider extends
     }
   }
 
-  private synchronized Set<ConfigGroupResponse> createConfigGroups
+  private Set<ConfigGroupResponse> createConfigGroups
     (Set<ConfigGroupRequest> requests) throws AmbariException, AuthorizationException {
 
     if (requests.isEmpty()) {
@@ -545,6 +578,18 @@ public class ConfigGroupResourceProvider extends
       return null;
     }
 
+    try (ClusterOperationSerializer.Permit permit =
+             clusterOperationSerializer.get().acquire(getClusterNames(requests))) {
+      return createConfigGroupsSerialized(requests);
+    }
+  }
+
+  /**
+   * Creates the config groups, while holding the permit of their clusters.
+   */
+  private Set<ConfigGroupResponse> createConfigGroupsSerialized
+    (Set<ConfigGroupRequest> requests) throws AmbariException, AuthorizationException {
+
     Set<ConfigGroupResponse> configGroupResponses = new
       HashSet<>();
 
@@ -648,12 +693,23 @@ public class ConfigGroupResourceProvider extends
     return configGroupResponses;
   }
 
-  private synchronized void updateConfigGroups (Set<ConfigGroupRequest> requests) throws AmbariException, AuthorizationException {
+  private void updateConfigGroups (Set<ConfigGroupRequest> requests) throws AmbariException, AuthorizationException {
     if (requests.isEmpty()) {
       LOG.warn("Received an empty requests set");
       return;
     }
 
+    try (ClusterOperationSerializer.Permit permit =
+             clusterOperationSerializer.get().acquire(getClusterNames(requests))) {
+      updateConfigGroupsSerialized(requests);
+    }
+  }
+
+  /**
+   * Updates the config groups, while holding the permit of their clusters.
+   */
+  private void updateConfigGroupsSerialized(Set<ConfigGroupRequest> requests) throws AmbariException, AuthorizationException {
+
     Clusters clusters = getManagementController().getClusters();
 
     Set<String> updatedClusters = new HashSet<>();
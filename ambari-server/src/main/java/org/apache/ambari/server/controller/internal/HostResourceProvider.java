@@ -29,6 +29,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.ClusterNotFoundException;
@@ -72,6 +75,7 @@ import org.apache.ambari.server.state.DesiredConfig;
 import org.apache.ambari.server.state.Host;
 import org.apache.ambari.server.state.MaintenanceState;
 import org.apache.ambari.server.state.ServiceComponentHost;
+import org.apache.ambari.server.state.services.HostResponseExecutionService;
 import org.apache.ambari.server.state.stack.OsFamily;
 import org.apache.ambari.server.topology.ClusterTopology;
 import org.apache.ambari.server.topology.InvalidTopologyException;
@@ -84,6 +88,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
@@ -209,6 +214,14 @@ public class HostResourceProvider extends AbstractControllerResourceProvider {
   @Inject
   private RecoveryConfigHelper recoveryConfigHelper;
 
+  @Inject
+  private HostResponseExecutionService hostResponseExecutionService;
+
+  /**
+   * Hosts whose responses are built together when many hosts are requested.
+   */
+  private static final int HOST_RESPONSE_BATCH_SIZE = 100;
+
 
   // ----- Constructors ----------------------------------------------------
 
@@ -267,9 +280,10 @@ public class HostResourceProvider extends AbstractControllerResourceProvider {
       }
     }
 
-    Set<HostResponse> responses = getResources(() -> getHosts(requests));
-
     Set<String>   requestedIds = getRequestPropertyIds(request, predicate);
+
+    Set<HostResponse> responses = getResources(() -> getHosts(requests, requestedIds));
+
     Set<Resource> resources    = new HashSet<>();
 
     for (HostResponse response : responses) {
@@ -674,13 +688,22 @@ public class HostResourceProvider extends AbstractControllerResourceProvider {
   }
 
   protected Set<HostResponse> getHosts(Set<HostRequest> requests) throws AmbariException {
+    return getHosts(requests, null);
+  }
+
+  /**
+   * @param requestedIds the requested property ids; {@code null} if all properties are needed
+   */
+  private Set<HostResponse> getHosts(Set<HostRequest> requests, Set<String> requestedIds) throws AmbariException {
     Set<HostResponse> response = new HashSet<>();
 
     AmbariManagementController controller = getManagementController();
+    boolean includeDesiredConfigs = requestedIds == null
+        || isPropertyRequested(HOST_DESIRED_CONFIGS_PROPERTY_ID, requestedIds);
 
     for (HostRequest request : requests) {
       try {
-        response.addAll(getHosts(controller, request, osFamily));
+        response.addAll(getHosts(controller, request, osFamily, includeDesiredConfigs, hostResponseExecutionService.getExecutor()));
       } catch (HostNotFoundException e) {
         if (requests.size() == 1) {
           // only throw exception if 1 request.
@@ -697,6 +720,18 @@ public class HostResourceProvider extends AbstractControllerResourceProvider {
    */
   protected static Set<HostResponse> getHosts(AmbariManagementController controller, HostRequest request, OsFamily osFamily)
       throws AmbariException {
+    return getHosts(controller, request, osFamily, true, null);
+  }
+
+  /**
+   * @param osFamily provides OS to OS family lookup; may be null if OS family is ignored anyway (eg. for liveness check)
+   * @param includeDesiredConfigs whether to resolve the desired configs of the hosts
+   * @param executor builds the responses in batches when many hosts are requested; may be null to build them
+   *                 in the calling thread
+   */
+  private static Set<HostResponse> getHosts(AmbariManagementController controller, HostRequest request,
+                                            OsFamily osFamily, boolean includeDesiredConfigs, Executor executor)
+      throws AmbariException {
 
     //TODO/FIXME host can only belong to a single cluster so get host directly from Cluster
     //TODO/FIXME what is the requirement for filtering on host attributes?
@@ -733,48 +768,105 @@ public class HostResourceProvider extends AbstractControllerResourceProvider {
 
     // retrieve the cluster desired configs once instead of per host
     Map<String, DesiredConfig> desiredConfigs = null;
-    if (null != cluster) {
+    if (null != cluster && includeDesiredConfigs) {
       desiredConfigs = cluster.getDesiredConfigs();
     }
 
-    for (Host h : hosts) {
-      if (clusterName != null) {
-        if (clusters.getClustersForHost(h.getHostName()).contains(cluster)) {
-          HostResponse r = h.convertToResponse();
-
-          r.setClusterName(clusterName);
-          r.setDesiredHostConfigs(h.getDesiredHostConfigs(cluster, desiredConfigs));
-          r.setMaintenanceState(h.getMaintenanceState(cluster.getClusterId()));
-          if (osFamily != null) {
-            String hostOsFamily = osFamily.find(r.getOsType());
-            if (hostOsFamily == null) {
-              LOG.error("Can not find host OS family. For OS type = '{}' and host name = '{}'", r.getOsType(), r.getHostname());
-            }
-            r.setOsFamily(hostOsFamily);
-          }
-
+    if (executor == null || hosts.size() <= HOST_RESPONSE_BATCH_SIZE) {
+      for (Host h : hosts) {
+        HostResponse r = convertToResponse(h, clusterName, cluster, clusters, desiredConfigs, osFamily,
+            includeDesiredConfigs);
+        if (r != null) {
           response.add(r);
         } else if (hostName != null) {
           throw new HostNotFoundException(clusterName, hostName);
         }
-      } else {
-        HostResponse r = h.convertToResponse();
-
-        Set<Cluster> clustersForHost = clusters.getClustersForHost(h.getHostName());
-        //todo: host can only belong to a single cluster
-        if (clustersForHost != null && clustersForHost.size() != 0) {
-          Cluster clusterForHost = clustersForHost.iterator().next();
-          r.setClusterName(clusterForHost.getClusterName());
-          r.setDesiredHostConfigs(h.getDesiredHostConfigs(clusterForHost, null));
-          r.setMaintenanceState(h.getMaintenanceState(clusterForHost.getClusterId()));
+      }
+      return response;
+    }
+
+    final Cluster requestCluster = cluster;
+    final Map<String, DesiredConfig> clusterDesiredConfigs = desiredConfigs;
+    List<CompletableFuture<List<HostResponse>>> batches = new ArrayList<>();
+    for (List<Host> batch : Lists.partition(hosts, HOST_RESPONSE_BATCH_SIZE)) {
+      batches.add(CompletableFuture.supplyAsync(() -> {
+        List<HostResponse> batchResponse = new ArrayList<>(batch.size());
+        for (Host h : batch) {
+          try {
+            HostResponse r = convertToResponse(h, clusterName, requestCluster, clusters, clusterDesiredConfigs,
+                osFamily, includeDesiredConfigs);
+            if (r != null) {
+              batchResponse.add(r);
+            }
+          } catch (AmbariException e) {
+            throw new CompletionException(e);
+          }
         }
+        return batchResponse;
+      }, executor));
+    }
 
-        response.add(r);
+    try {
+      for (CompletableFuture<List<HostResponse>> batch : batches) {
+        response.addAll(batch.join());
+      }
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof AmbariException) {
+        throw (AmbariException) e.getCause();
       }
+      throw e;
     }
     return response;
   }
 
+  /**
+   * Creates the response of a host.
+   *
+   * @param clusterName the name of the cluster of the request
+   * @param cluster the cluster of the request; {@code null} if the request is not for a cluster
+   * @param desiredConfigs the desired configs of the cluster of the request
+   * @return the response; {@code null} if the host is not in the cluster of the request
+   */
+  private static HostResponse convertToResponse(Host h, String clusterName, Cluster cluster, Clusters clusters,
+                                                Map<String, DesiredConfig> desiredConfigs, OsFamily osFamily,
+                                                boolean includeDesiredConfigs) throws AmbariException {
+    if (cluster != null) {
+      if (!clusters.getClustersForHost(h.getHostName()).contains(cluster)) {
+        return null;
+      }
+
+      HostResponse r = h.convertToResponse();
+
+      r.setClusterName(clusterName);
+      if (includeDesiredConfigs) {
+        r.setDesiredHostConfigs(h.getDesiredHostConfigs(cluster, desiredConfigs));
+      }
+      r.setMaintenanceState(h.getMaintenanceState(cluster.getClusterId()));
+      if (osFamily != null) {
+        String hostOsFamily = osFamily.find(r.getOsType());
+        if (hostOsFamily == null) {
+          LOG.error("Can not find host OS family. For OS type = '{}' and host name = '{}'", r.getOsType(), r.getHostname());
+        }
+        r.setOsFamily(hostOsFamily);
+      }
+      return r;
+    }
+
+    HostResponse r = h.convertToResponse();
+
+    Set<Cluster> clustersForHost = clusters.getClustersForHost(h.getHostName());
+    //todo: host can only belong to a single cluster
+    if (clustersForHost != null && clustersForHost.size() != 0) {
+      Cluster clusterForHost = clustersForHost.iterator().next();
+      r.setClusterName(clusterForHost.getClusterName());
+      if (includeDesiredConfigs) {
+        r.setDesiredHostConfigs(h.getDesiredHostConfigs(clusterForHost, null));
+      }
+      r.setMaintenanceState(h.getMaintenanceState(clusterForHost.getClusterId()));
+    }
+    return r;
+  }
+
   protected synchronized void updateHosts(Set<HostRequest> requests) throws AmbariException, AuthorizationException {
 
     if (requests.isEmpty()) {
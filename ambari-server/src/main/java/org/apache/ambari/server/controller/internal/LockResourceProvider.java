@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.controller.internal;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.controller.AmbariManagementController;
+import org.apache.ambari.server.controller.spi.NoSuchParentResourceException;
+import org.apache.ambari.server.controller.spi.NoSuchResourceException;
+import org.apache.ambari.server.controller.spi.Predicate;
+import org.apache.ambari.server.controller.spi.Request;
+import org.apache.ambari.server.controller.spi.RequestStatus;
+import org.apache.ambari.server.controller.spi.Resource;
+import org.apache.ambari.server.controller.spi.ResourceAlreadyExistsException;
+import org.apache.ambari.server.controller.spi.SystemException;
+import org.apache.ambari.server.controller.spi.UnsupportedPropertyException;
+import org.apache.ambari.server.controller.utilities.PropertyHelper;
+import org.apache.ambari.server.logging.LockFactory;
+import org.apache.ambari.server.logging.LockStatistics;
+import org.apache.ambari.server.security.authorization.ResourceType;
+import org.apache.ambari.server.security.authorization.RoleAuthorization;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+
+/**
+ * A read-only resource provider for the wait and hold time statistics of the sampled server locks.
+ *
+ * @see LockFactory#getLockStatistics()
+ */
+public class LockResourceProvider extends AbstractControllerResourceProvider {
+
+  private static final String READ_ONLY_MSG = "Read-only resource";
+
+  // ----- Property ID constants ---------------------------------------------
+
+  public static final String LOCK_NAME_PROPERTY_ID = PropertyHelper.getPropertyId("Lock", "name");
+  public static final String SAMPLES_PROPERTY_ID = PropertyHelper.getPropertyId("Lock", "samples");
+  public static final String FAILED_SAMPLES_PROPERTY_ID = PropertyHelper.getPropertyId("Lock", "failed_samples");
+
+  private static final String WAIT_TIME_CATEGORY = "Lock/wait_time";
+  private static final String HOLD_TIME_CATEGORY = "Lock/hold_time";
+  private static final int[] PERCENTILES = {50, 95, 99};
+
+  private static final Set<String> PK_PROPERTY_IDS = ImmutableSet.of(LOCK_NAME_PROPERTY_ID);
+  private static final Set<String> PROPERTY_IDS;
+  private static final Map<Resource.Type, String> KEY_PROPERTY_IDS =
+    ImmutableMap.of(Resource.Type.Lock, LOCK_NAME_PROPERTY_ID);
+
+  static {
+    Set<String> set = new HashSet<>();
+    set.add(LOCK_NAME_PROPERTY_ID);
+    set.add(SAMPLES_PROPERTY_ID);
+    set.add(FAILED_SAMPLES_PROPERTY_ID);
+    for (String category : new String[] {WAIT_TIME_CATEGORY, HOLD_TIME_CATEGORY}) {
+      set.add(PropertyHelper.getPropertyId(category, "total_ms"));
+      set.add(PropertyHelper.getPropertyId(category, "max_ms"));
+      for (int percentile : PERCENTILES) {
+        set.add(PropertyHelper.getPropertyId(category, "p" + percentile + "_ms"));
+      }
+    }
+    PROPERTY_IDS = Collections.unmodifiableSet(set);
+  }
+
+  private final LockFactory lockFactory;
+
+  /**
+   * Create a new resource provider.
+   */
+  @AssistedInject
+  LockResourceProvider(@Assisted AmbariManagementController managementController, LockFactory lockFactory) {
+    super(Resource.Type.Lock, PROPERTY_IDS, KEY_PROPERTY_IDS, managementController);
+    this.lockFactory = lockFactory;
+
+    setRequiredGetAuthorizations(EnumSet.of(RoleAuthorization.AMBARI_MANAGE_SETTINGS));
+  }
+
+  @Override
+  protected Set<Resource> getResourcesAuthorized(Request request, Predicate predicate)
+      throws SystemException, UnsupportedPropertyException, NoSuchResourceException, NoSuchParentResourceException {
+
+    Set<String> requestedIds = getRequestPropertyIds(request, predicate);
+    Set<Resource> resources = new HashSet<>();
+    for (LockStatistics statistics : lockFactory.getLockStatistics()) {
+      resources.add(toResource(statistics, requestedIds));
+    }
+    return resources;
+  }
+
+  @Override
+  public RequestStatus createResources(Request request)
+      throws SystemException, UnsupportedPropertyException, ResourceAlreadyExistsException, NoSuchParentResourceException {
+    throw new SystemException(READ_ONLY_MSG, null);
+  }
+
+  @Override
+  public RequestStatus updateResources(Request request, Predicate predicate)
+      throws SystemException, UnsupportedPropertyException, NoSuchResourceException, NoSuchParentResourceException {
+    throw new SystemException(READ_ONLY_MSG, null);
+  }
+
+  @Override
+  public RequestStatus deleteResources(Request request, Predicate predicate)
+      throws SystemException, UnsupportedPropertyException, NoSuchResourceException, NoSuchParentResourceException {
+    throw new SystemException(READ_ONLY_MSG, null);
+  }
+
+  @Override
+  protected ResourceType getResourceType(Request request, Predicate predicate) {
+    return ResourceType.AMBARI;
+  }
+
+  @Override
+  protected Set<String> getPKPropertyIds() {
+    return PK_PROPERTY_IDS;
+  }
+
+  /**
+   * Creates a new resource from the given statistics, with times in milliseconds.
+   *
+   * @param statistics   the statistics of the locks sharing a name
+   * @param requestedIds the properties to include in the resulting resource instance
+   * @return a resource
+   */
+  private Resource toResource(LockStatistics statistics, Set<String> requestedIds) {
+    Resource resource = new ResourceImpl(Resource.Type.Lock);
+    setResourceProperty(resource, LOCK_NAME_PROPERTY_ID, statistics.getName(), requestedIds);
+    setResourceProperty(resource, SAMPLES_PROPERTY_ID, statistics.getSampleCount(), requestedIds);
+    setResourceProperty(resource, FAILED_SAMPLES_PROPERTY_ID, statistics.getFailedSampleCount(), requestedIds);
+    setTimeProperties(resource, WAIT_TIME_CATEGORY, statistics.getTotalWaitTime(TimeUnit.MILLISECONDS),
+      statistics.getMaxWaitTime(TimeUnit.MILLISECONDS), statistics.getWaitTimeHistogram(), requestedIds);
+    setTimeProperties(resource, HOLD_TIME_CATEGORY, statistics.getTotalHoldTime(TimeUnit.MILLISECONDS),
+      statistics.getMaxHoldTime(TimeUnit.MILLISECONDS), statistics.getHoldTimeHistogram(), requestedIds);
+    return resource;
+  }
+
+  private void setTimeProperties(Resource resource, String category, long total, long max, long[] histogram,
+                                 Set<String> requestedIds) {
+    setResourceProperty(resource, PropertyHelper.getPropertyId(category, "total_ms"), total, requestedIds);
+    setResourceProperty(resource, PropertyHelper.getPropertyId(category, "max_ms"), max, requestedIds);
+    for (int percentile : PERCENTILES) {
+      setResourceProperty(resource, PropertyHelper.getPropertyId(category, "p" + percentile + "_ms"),
+        LockStatistics.getPercentile(histogram, max, percentile), requestedIds);
+    }
+  }
+}
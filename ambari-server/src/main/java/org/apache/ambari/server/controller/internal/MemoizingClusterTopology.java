@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ambari.server.controller.RequestStatusResponse;
+import org.apache.ambari.server.topology.AdvisedConfiguration;
+import org.apache.ambari.server.topology.AmbariContext;
+import org.apache.ambari.server.topology.Blueprint;
+import org.apache.ambari.server.topology.ClusterTopology;
+import org.apache.ambari.server.topology.ConfigRecommendationStrategy;
+import org.apache.ambari.server.topology.Configuration;
+import org.apache.ambari.server.topology.HostGroupInfo;
+import org.apache.ambari.server.topology.InvalidTopologyException;
+import org.apache.ambari.server.topology.NoSuchHostGroupException;
+import org.apache.ambari.server.topology.TopologyRequest;
+
+/**
+ * View of a {@link ClusterTopology} which resolves the host groups and hosts of a component only once.
+ * Meant for passes like the property updates of {@link BlueprintConfigurationProcessor}, which resolve the
+ * same components for hundreds of properties while the host group membership does not change. Changing the
+ * topology through the view drops the resolved values; changes made directly to the underlying topology
+ * are not noticed, so the view should not outlive the pass it was created for.
+ */
+class MemoizingClusterTopology implements ClusterTopology {
+
+  private final ClusterTopology topology;
+
+  private final ConcurrentMap<String, Collection<String>> hostGroupsByComponent = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, Collection<String>> hostsByComponent = new ConcurrentHashMap<>();
+
+  /**
+   * @param topology the topology to resolve the components in
+   */
+  MemoizingClusterTopology(ClusterTopology topology) {
+    this.topology = topology;
+  }
+
+  /**
+   * @return an unmodifiable collection of the host groups containing the component
+   */
+  @Override
+  public Collection<String> getHostGroupsForComponent(String component) {
+    return hostGroupsByComponent.computeIfAbsent(component,
+        c -> Collections.unmodifiableCollection(topology.getHostGroupsForComponent(c)));
+  }
+
+  /**
+   * @return an unmodifiable collection of the hosts the component is assigned to
+   */
+  @Override
+  public Collection<String> getHostAssignmentsForComponent(String component) {
+    return hostsByComponent.computeIfAbsent(component,
+        c -> Collections.unmodifiableCollection(topology.getHostAssignmentsForComponent(c)));
+  }
+
+  @Override
+  public Long getClusterId() {
+    return topology.getClusterId();
+  }
+
+  @Override
+  public void setClusterId(Long clusterId) {
+    topology.setClusterId(clusterId);
+  }
+
+  @Override
+  public Blueprint getBlueprint() {
+    return topology.getBlueprint();
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return topology.getConfiguration();
+  }
+
+  @Override
+  public Map<String, HostGroupInfo> getHostGroupInfo() {
+    return topology.getHostGroupInfo();
+  }
+
+  @Override
+  public Set<String> getAllHosts() {
+    return topology.getAllHosts();
+  }
+
+  @Override
+  public String getHostGroupForHost(String hostname) {
+    return topology.getHostGroupForHost(hostname);
+  }
+
+  @Override
+  public void update(TopologyRequest topologyRequest) throws InvalidTopologyException {
+    topology.update(topologyRequest);
+    clear();
+  }
+
+  @Override
+  public void addHostToTopology(String hostGroupName, String host)
+      throws InvalidTopologyException, NoSuchHostGroupException {
+    topology.addHostToTopology(hostGroupName, host);
+    clear();
+  }
+
+  @Override
+  public boolean isNameNodeHAEnabled() {
+    return topology.isNameNodeHAEnabled();
+  }
+
+  @Override
+  public boolean isYarnResourceManagerHAEnabled() {
+    return topology.isYarnResourceManagerHAEnabled();
+  }
+
+  @Override
+  public boolean isClusterKerberosEnabled() {
+    return topology.isClusterKerberosEnabled();
+  }
+
+  @Override
+  public RequestStatusResponse installHost(String hostName, boolean skipInstallTaskCreate, boolean skipFailure) {
+    return topology.installHost(hostName, skipInstallTaskCreate, skipFailure);
+  }
+
+  @Override
+  public RequestStatusResponse startHost(String hostName, boolean skipFailure) {
+    return topology.startHost(hostName, skipFailure);
+  }
+
+  @Override
+  public void setConfigRecommendationStrategy(ConfigRecommendationStrategy strategy) {
+    topology.setConfigRecommendationStrategy(strategy);
+  }
+
+  @Override
+  public ConfigRecommendationStrategy getConfigRecommendationStrategy() {
+    return topology.getConfigRecommendationStrategy();
+  }
+
+  @Override
+  public void setProvisionAction(ProvisionAction provisionAction) {
+    topology.setProvisionAction(provisionAction);
+  }
+
+  @Override
+  public ProvisionAction getProvisionAction() {
+    return topology.getProvisionAction();
+  }
+
+  @Override
+  public Map<String, AdvisedConfiguration> getAdvisedConfigurations() {
+    return topology.getAdvisedConfigurations();
+  }
+
+  @Override
+  public AmbariContext getAmbariContext() {
+    return topology.getAmbariContext();
+  }
+
+  @Override
+  public void removeHost(String hostname) {
+    topology.removeHost(hostname);
+    clear();
+  }
+
+  @Override
+  public String getDefaultPassword() {
+    return topology.getDefaultPassword();
+  }
+
+  @Override
+  public boolean hasHadoopCompatibleService() {
+    return topology.hasHadoopCompatibleService();
+  }
+
+  private void clear() {
+    hostGroupsByComponent.clear();
+    hostsByComponent.clear();
+  }
+}
@@ -135,9 +135,15 @@ public class ServiceConfigVersionResourceProvider extends
 
   @Override
   public Set<Resource> getResourcesAuthorized(Request request, Predicate predicate) throws SystemException, UnsupportedPropertyException, NoSuchResourceException, NoSuchParentResourceException {
+    // the configurations are only loaded when asked for, listing the version history does not need them
+    boolean includeConfigurations = isPropertyRequested(CONFIGURATIONS_PROPERTY_ID,
+        getRequestPropertyIds(request, predicate));
+
     final Set<ServiceConfigVersionRequest> requests = new HashSet<>();
     for (Map<String, Object> properties : getPropertyMaps(predicate)) {
-      requests.add(createRequest(properties));
+      ServiceConfigVersionRequest serviceConfigVersionRequest = createRequest(properties);
+      serviceConfigVersionRequest.setIncludeConfigurations(includeConfigurations);
+      requests.add(serviceConfigVersionRequest);
     }
 
     Set<ServiceConfigVersionResponse> responses = getResources(new Command<Set<ServiceConfigVersionResponse>>() {
@@ -151,7 +157,8 @@ public class ServiceConfigVersionResourceProvider extends
     for (ServiceConfigVersionResponse response : responses) {
       String clusterName = response.getClusterName();
       List<ConfigurationResponse> configurationResponses = response.getConfigurations();
-      List<Map<String,Object>> configVersionConfigurations = convertToSubResources(clusterName, configurationResponses);
+      List<Map<String,Object>> configVersionConfigurations = configurationResponses == null
+          ? new ArrayList<>() : convertToSubResources(clusterName, configurationResponses);
 
       Resource resource = new ResourceImpl(Resource.Type.ServiceConfigVersion);
       resource.setProperty(CLUSTER_NAME_PROPERTY_ID, clusterName);
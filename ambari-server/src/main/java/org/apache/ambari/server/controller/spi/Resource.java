@@ -164,7 +164,8 @@ public interface Resource {
     ClusterKerberosDescriptor,
     LoggingQuery,
     RemoteCluster,
-    Auth;
+    Auth,
+    Lock;
 
     /**
      * Get the {@link Type} that corresponds to this InternalType.
@@ -290,6 +291,7 @@ public interface Resource {
     public static final Type LoggingQuery = InternalType.LoggingQuery.getType();
     public static final Type RemoteCluster = InternalType.RemoteCluster.getType();
     public static final Type Auth = InternalType.Auth.getType();
+    public static final Type Lock = InternalType.Lock.getType();
 
 
     /**
@@ -82,8 +82,10 @@ public class DefaultMessageEmitter extends MessageEmitter {
   )));
 
   public DefaultMessageEmitter(AgentSessionManager agentSessionManager, SimpMessagingTemplate simpMessagingTemplate,
-                               AmbariEventPublisher ambariEventPublisher, int retryCount, int retryInterval) {
-    super(agentSessionManager, simpMessagingTemplate, ambariEventPublisher, retryCount, retryInterval);
+                               AmbariEventPublisher ambariEventPublisher, MessageSendStatistics sendStatistics,
+                               int retryCount, int retryInterval) {
+    super(agentSessionManager, simpMessagingTemplate, ambariEventPublisher, sendStatistics, retryCount,
+        retryInterval);
   }
 
   @Override
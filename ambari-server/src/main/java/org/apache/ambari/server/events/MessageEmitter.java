@@ -66,13 +66,17 @@ public abstract class MessageEmitter {
       new ScheduledExecutorCompletionService(emitExecutor, new LinkedBlockingQueue<>());
   protected ConcurrentHashMap<Long, EmitTaskWrapper> unconfirmedMessages = new ConcurrentHashMap<>();
   protected ConcurrentHashMap<Long, BlockingQueue<EmitTaskWrapper>> messagesToEmit = new ConcurrentHashMap<>();
+
+  protected final MessageSendStatistics sendStatistics;
   private AmbariEventPublisher ambariEventPublisher;
 
   public MessageEmitter(AgentSessionManager agentSessionManager, SimpMessagingTemplate simpMessagingTemplate,
-                        AmbariEventPublisher ambariEventPublisher, int retryCount, int retryInterval) {
+                        AmbariEventPublisher ambariEventPublisher, MessageSendStatistics sendStatistics,
+                        int retryCount, int retryInterval) {
     this.agentSessionManager = agentSessionManager;
     this.simpMessagingTemplate = simpMessagingTemplate;
     this.ambariEventPublisher = ambariEventPublisher;
+    this.sendStatistics = sendStatistics;
     this.retryCount = retryCount;
     this.retryInterval = retryInterval;
     ambariEventPublisher.register(this);
@@ -156,7 +160,9 @@ public abstract class MessageEmitter {
    */
   protected void emitMessageToAll(STOMPEvent event) {
     LOG.debug("Received status update event {}", event);
+    long start = System.nanoTime();
     simpMessagingTemplate.convertAndSend(getDestination(event), event);
+    recordSendTime(event, start);
   }
 
   /**
@@ -170,7 +176,9 @@ public abstract class MessageEmitter {
     String sessionId = agentSessionManager.getSessionId(hostId);
     LOG.debug("Received status update event {} for host {} registered with session ID {}", event, hostId, sessionId);
     MessageHeaders headers = createHeaders(sessionId);
+    long start = System.nanoTime();
     simpMessagingTemplate.convertAndSendToUser(sessionId, getDestination(event), event, headers);
+    recordSendTime(event, start);
   }
 
   /**
@@ -186,7 +194,23 @@ public abstract class MessageEmitter {
     String sessionId = agentSessionManager.getSessionId(hostId);
     LOG.debug("Received status update event {} for host {} registered with session ID {}", event, hostId, sessionId);
     MessageHeaders headers = createHeaders(sessionId, messageId);
+    long start = System.nanoTime();
     simpMessagingTemplate.convertAndSendToUser(sessionId, getDestination(event), event, headers);
+    recordSendTime(event, start);
+  }
+
+  /**
+   * Records the time spent on sending an event to its destination.
+   *
+   * @param event the sent event
+   * @param start {@link System#nanoTime()} before sending
+   */
+  protected void recordSendTime(STOMPEvent event, long start) {
+    long elapsed = System.nanoTime() - start;
+    sendStatistics.record(event.getType(), elapsed);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Sent {} event in {} ms", event.getType(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
   }
 
   @Subscribe
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.events;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.inject.Singleton;
+
+/**
+ * Send latency statistics of the STOMP destinations, shared by the {@link MessageEmitter} and the
+ * metrics source which publishes them. Every event type has its own destination.
+ */
+@Singleton
+public class MessageSendStatistics {
+  private final Map<STOMPEvent.Type, SendStatistics> statistics = new ConcurrentHashMap<>();
+
+  void record(STOMPEvent.Type type, long nanos) {
+    statistics.computeIfAbsent(type, t -> new SendStatistics()).record(nanos);
+  }
+
+  /**
+   * @return send latency statistics per destination, keyed by the event type of the destination
+   */
+  public Map<STOMPEvent.Type, SendStatistics> getStatistics() {
+    return Collections.unmodifiableMap(statistics);
+  }
+
+  /**
+   * Number of sends and the total and longest send time for a destination.
+   */
+  public static class SendStatistics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos) {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+      return count.sum();
+    }
+
+    public long getTotalTime(TimeUnit unit) {
+      return unit.convert(totalNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxTime(TimeUnit unit) {
+      return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Moves the statistics collected so far into a new instance and starts over, so that every
+     * metrics interval reports its own sends.
+     *
+     * @return the statistics collected since the previous call
+     */
+    public SendStatistics reset() {
+      SendStatistics interval = new SendStatistics();
+      interval.count.add(count.sumThenReset());
+      interval.totalNanos.add(totalNanos.sumThenReset());
+      interval.maxNanos.set(maxNanos.getAndSet(0));
+      return interval;
+    }
+
+    @Override
+    public String toString() {
+      return "SendStatistics{count=" + getCount() + ", totalMs=" + getTotalTime(TimeUnit.MILLISECONDS)
+          + ", maxMs=" + getMaxTime(TimeUnit.MILLISECONDS) + "}";
+    }
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.ambari.server.events;
 
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.apache.ambari.server.agent.stomp.dto.Hashable;
 import org.apache.ambari.server.agent.stomp.dto.MetadataCluster;
@@ -86,6 +87,20 @@ public class MetadataUpdateEvent extends STOMPEvent implements Hashable {
     return eventType;
   }
 
+  public MetadataUpdateEvent deepCopy() {
+    SortedMap<String, MetadataCluster> copiedClusters = null;
+    if (metadataClusters != null) {
+      copiedClusters = new TreeMap<>();
+      for (Map.Entry<String, MetadataCluster> metadataClusterEntry : metadataClusters.entrySet()) {
+        copiedClusters.put(metadataClusterEntry.getKey(), metadataClusterEntry.getValue().deepCopy());
+      }
+    }
+    // ambari level params are already contained in the copied clusters
+    MetadataUpdateEvent copiedEvent = new MetadataUpdateEvent(copiedClusters, null, null, eventType);
+    copiedEvent.setHash(getHash());
+    return copiedEvent;
+  }
+
   public static MetadataUpdateEvent emptyUpdate() {
     return new MetadataUpdateEvent();
   }
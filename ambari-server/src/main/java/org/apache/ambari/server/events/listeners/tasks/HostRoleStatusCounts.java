@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.events.listeners.tasks;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.apache.ambari.server.actionmanager.HostRoleStatus;
+import org.apache.ambari.server.controller.internal.CalculatedStatus;
+
+/**
+ * Number of tasks (or stages) in each {@link HostRoleStatus}, kept up to date as statuses change
+ * instead of being recounted from the complete set of tasks on every update.
+ * The counts are stored in an array indexed by the {@link HostRoleStatus} ordinal.
+ */
+public class HostRoleStatusCounts {
+
+  private static final HostRoleStatus[] STATUSES = HostRoleStatus.values();
+
+  private final int[] counts = new int[STATUSES.length];
+
+  private int total;
+
+  /**
+   * Counts a new entry with the given status.
+   * @param status status of the entry
+   */
+  public synchronized void add(HostRoleStatus status) {
+    counts[status.ordinal()]++;
+    total++;
+  }
+
+  /**
+   * Moves an entry from one status to another.
+   * @param oldStatus previous status of the entry
+   * @param newStatus current status of the entry
+   */
+  public synchronized void update(HostRoleStatus oldStatus, HostRoleStatus newStatus) {
+    if (oldStatus != newStatus) {
+      counts[oldStatus.ordinal()]--;
+      counts[newStatus.ordinal()]++;
+    }
+  }
+
+  /**
+   * @param status status
+   * @return number of entries that currently have exactly the given status
+   */
+  public synchronized int getCount(HostRoleStatus status) {
+    return counts[status.ordinal()];
+  }
+
+  /**
+   * @return number of entries counted
+   */
+  public synchronized int getTotal() {
+    return total;
+  }
+
+  /**
+   * @return <code>true</code> if every entry is in a completed state
+   */
+  public synchronized boolean isAllCompleted() {
+    int completed = 0;
+    for (HostRoleStatus status : STATUSES) {
+      if (status.isCompletedState()) {
+        completed += counts[status.ordinal()];
+      }
+    }
+    return completed == total;
+  }
+
+  /**
+   * Returns the counts in the form produced by {@link CalculatedStatus#calculateStatusCounts},
+   * i.e. with all completed states counted as {@link HostRoleStatus#COMPLETED} as well, and
+   * {@link HostRoleStatus#IN_PROGRESS} covering everything that is neither completed, queued nor pending.
+   * @return a map of counts keyed by status
+   */
+  public synchronized Map<HostRoleStatus, Integer> toStatusCounts() {
+    Map<HostRoleStatus, Integer> counters = new EnumMap<>(HostRoleStatus.class);
+    int completed = 0;
+    for (HostRoleStatus status : STATUSES) {
+      int count = counts[status.ordinal()];
+      counters.put(status, count);
+      if (status.isCompletedState()) {
+        completed += count;
+      }
+    }
+    counters.put(HostRoleStatus.COMPLETED, completed);
+    counters.put(HostRoleStatus.IN_PROGRESS, total - completed
+        - counts[HostRoleStatus.QUEUED.ordinal()] - counts[HostRoleStatus.PENDING.ordinal()]);
+    return counters;
+  }
+}
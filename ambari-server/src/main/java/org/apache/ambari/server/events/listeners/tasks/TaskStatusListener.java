@@ -22,7 +22,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,7 +50,6 @@ import org.apache.ambari.server.orm.entities.StageEntityPK;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Sets;
@@ -131,7 +129,7 @@ public class TaskStatusListener {
     LOG.debug("Received task update event {}", event);
     List<HostRoleCommand> hostRoleCommandListAll = event.getHostRoleCommands();
     List<HostRoleCommand>  hostRoleCommandWithReceivedStatus =  new ArrayList<>();
-    Set<StageEntityPK> stagesWithReceivedTaskStatus = new HashSet<>();
+    Map<StageEntityPK, List<HostRoleCommand>> stagesWithReceivedTaskStatus = new HashMap<>();
     Set<Long> requestIdsWithReceivedTaskStatus =  new HashSet<>();
     Set<RequestUpdateEvent> requestsToPublish = new HashSet<>();
     Set<NamedTaskUpdateEvent> namedTasksToPublish = new HashSet<>();
@@ -143,10 +141,8 @@ public class TaskStatusListener {
         LOG.error(String.format("Received update for a task %d which is not being tracked as running task", reportedTaskId));
       } else  {
         hostRoleCommandWithReceivedStatus.add(hostRoleCommand);
-        StageEntityPK stageEntityPK = new StageEntityPK();
-        stageEntityPK.setRequestId(hostRoleCommand.getRequestId());
-        stageEntityPK.setStageId(hostRoleCommand.getStageId());
-        stagesWithReceivedTaskStatus.add(stageEntityPK);
+        StageEntityPK stageEntityPK = getStageEntityPK(hostRoleCommand);
+        stagesWithReceivedTaskStatus.computeIfAbsent(stageEntityPK, pk -> new ArrayList<>()).add(hostRoleCommand);
         requestIdsWithReceivedTaskStatus.add(hostRoleCommand.getRequestId());
 
         NamedTaskUpdateEvent namedTaskUpdateEvent = new NamedTaskUpdateEvent(hostRoleCommand);
@@ -186,11 +182,11 @@ public class TaskStatusListener {
       }
     }
     updateActiveTasksMap(hostRoleCommandWithReceivedStatus);
-    Boolean didAnyStageStatusUpdated = updateActiveStagesStatus(stagesWithReceivedTaskStatus, hostRoleCommandListAll);
+    Boolean didAnyStageStatusUpdated = updateActiveStagesStatus(stagesWithReceivedTaskStatus);
     // Presumption: If there is no update in any of the running stage's status
     // then none of the running request status needs to be updated
     if (didAnyStageStatusUpdated) {
-      updateActiveRequestsStatus(requestIdsWithReceivedTaskStatus, stagesWithReceivedTaskStatus);
+      updateActiveRequestsStatus(requestIdsWithReceivedTaskStatus, stagesWithReceivedTaskStatus.keySet());
     }
     for (RequestUpdateEvent requestToPublish : requestsToPublish) {
       STOMPUpdatePublisher.publish(requestToPublish);
@@ -211,9 +207,10 @@ public class TaskStatusListener {
     List<HostRoleCommand> hostRoleCommandListAll = event.getHostRoleCommands();
 
     for (HostRoleCommand hostRoleCommand : hostRoleCommandListAll) {
-      activeTasksMap.put(hostRoleCommand.getTaskId(), hostRoleCommand);
+      HostRoleCommand previousHostRoleCommand = activeTasksMap.put(hostRoleCommand.getTaskId(), hostRoleCommand);
       addStagePK(hostRoleCommand);
       addRequestId(hostRoleCommand);
+      updateTaskStatusCounts(previousHostRoleCommand, hostRoleCommand);
     }
   }
 
@@ -225,19 +222,50 @@ public class TaskStatusListener {
   private void updateActiveTasksMap(List<HostRoleCommand> hostRoleCommandWithReceivedStatus) {
     for (HostRoleCommand hostRoleCommand : hostRoleCommandWithReceivedStatus) {
       Long taskId = hostRoleCommand.getTaskId();
-      activeTasksMap.put(taskId , hostRoleCommand);
+      HostRoleCommand previousHostRoleCommand = activeTasksMap.put(taskId , hostRoleCommand);
+      updateTaskStatusCounts(previousHostRoleCommand, hostRoleCommand);
     }
   }
 
+  /**
+   * Accounts the status of a created or updated task in the task status counts of its stage and request
+   * @param previousHostRoleCommand the tracked {@link HostRoleCommand} that was replaced, <code>null</code> for a new task
+   * @param hostRoleCommand the tracked {@link HostRoleCommand}
+   */
+  private void updateTaskStatusCounts(HostRoleCommand previousHostRoleCommand, HostRoleCommand hostRoleCommand) {
+    ActiveStage stage = activeStageMap.get(getStageEntityPK(hostRoleCommand));
+    if (stage != null) {
+      updateTaskStatusCounts(stage.getTaskStatusCounts(), previousHostRoleCommand, hostRoleCommand);
+    }
+    ActiveRequest request = activeRequestMap.get(hostRoleCommand.getRequestId());
+    if (request != null) {
+      updateTaskStatusCounts(request.getTaskStatusCounts(), previousHostRoleCommand, hostRoleCommand);
+    }
+  }
+
+  private static void updateTaskStatusCounts(HostRoleStatusCounts taskStatusCounts,
+                                             HostRoleCommand previousHostRoleCommand, HostRoleCommand hostRoleCommand) {
+    if (previousHostRoleCommand == null) {
+      taskStatusCounts.add(hostRoleCommand.getStatus());
+    } else {
+      taskStatusCounts.update(previousHostRoleCommand.getStatus(), hostRoleCommand.getStatus());
+    }
+  }
+
+  private static StageEntityPK getStageEntityPK(HostRoleCommand hostRoleCommand) {
+    StageEntityPK stageEntityPK = new StageEntityPK();
+    stageEntityPK.setRequestId(hostRoleCommand.getRequestId());
+    stageEntityPK.setStageId(hostRoleCommand.getStageId());
+    return stageEntityPK;
+  }
+
 
   /**
    * Adds new {@link StageEntityPK} to be tracked as running stage in {@link #activeStageMap}
    * @param hostRoleCommand newly created {@link HostRoleCommand} in {@link #activeTasksMap}
    */
   private void addStagePK(HostRoleCommand hostRoleCommand) {
-    StageEntityPK stageEntityPK = new StageEntityPK();
-    stageEntityPK.setRequestId(hostRoleCommand.getRequestId());
-    stageEntityPK.setStageId(hostRoleCommand.getStageId());
+    StageEntityPK stageEntityPK = getStageEntityPK(hostRoleCommand);
     if (activeStageMap.containsKey(stageEntityPK)) {
       activeStageMap.get(stageEntityPK).addTaskId(hostRoleCommand.getTaskId());
     } else {
@@ -259,18 +287,25 @@ public class TaskStatusListener {
 
   /**
    * update and persist all changed stage status
-   * @param stagesWithReceivedTaskStatus set of stages that has received task status
-   * @param hostRoleCommandListAll list of all task updates received from agent
+   * @param stagesWithReceivedTaskStatus stages that have received task status, mapped to the received tasks of the stage
    * @return  <code>true</code> if any of the stage has changed it's existing status;
    *          <code>false</code> otherwise
    */
-  private Boolean updateActiveStagesStatus(final Set<StageEntityPK> stagesWithReceivedTaskStatus, List<HostRoleCommand> hostRoleCommandListAll) {
+  private Boolean updateActiveStagesStatus(final Map<StageEntityPK, List<HostRoleCommand>> stagesWithReceivedTaskStatus) {
     Boolean didAnyStageStatusUpdated = Boolean.FALSE;
-    for (StageEntityPK reportedStagePK : stagesWithReceivedTaskStatus) {
-      if (activeStageMap.containsKey(reportedStagePK)) {
-        Boolean didStatusChange = updateStageStatus(reportedStagePK, hostRoleCommandListAll);
+    for (Map.Entry<StageEntityPK, List<HostRoleCommand>> entry : stagesWithReceivedTaskStatus.entrySet()) {
+      StageEntityPK reportedStagePK = entry.getKey();
+      ActiveStage reportedStage = activeStageMap.get(reportedStagePK);
+      if (reportedStage != null) {
+        HostRoleStatus previousStatus = reportedStage.getStatus();
+        HostRoleStatus previousDisplayStatus = reportedStage.getDisplayStatus();
+        Boolean didStatusChange = updateStageStatus(reportedStagePK, entry.getValue());
         if (didStatusChange) {
-          ActiveStage reportedStage = activeStageMap.get(reportedStagePK);
+          ActiveRequest request = activeRequestMap.get(reportedStagePK.getRequestId());
+          if (request != null) {
+            request.getStageStatusCounts().update(previousStatus, reportedStage.getStatus());
+            request.getStageDisplayStatusCounts().update(previousDisplayStatus, reportedStage.getDisplayStatus());
+          }
           stageDAO.updateStatus(reportedStagePK, reportedStage.getStatus(), reportedStage.getDisplayStatus());
           didAnyStageStatusUpdated = Boolean.TRUE;
         }
@@ -288,20 +323,17 @@ public class TaskStatusListener {
    */
   private void addRequestId(HostRoleCommand hostRoleCommand) {
     Long requestId = hostRoleCommand.getRequestId();
-    StageEntityPK stageEntityPK = new StageEntityPK();
-    stageEntityPK.setRequestId(hostRoleCommand.getRequestId());
-    stageEntityPK.setStageId(hostRoleCommand.getStageId());
-    if (activeRequestMap.containsKey(requestId)) {
-      activeRequestMap.get(requestId).addStageEntityPK(stageEntityPK);
-    } else {
+    StageEntityPK stageEntityPK = getStageEntityPK(hostRoleCommand);
+    ActiveRequest request = activeRequestMap.get(requestId);
+    if (request == null) {
       RequestEntity requestEntity = requestDAO.findByPK(requestId);
       // Request entity of the hostrolecommand should be persisted before publishing task create event
       assert requestEntity != null;
-      Set<StageEntityPK> stageEntityPKs =  Sets.newHashSet(stageEntityPK);
-      ActiveRequest request = new ActiveRequest(requestEntity.getStatus(),requestEntity.getDisplayStatus(),
-          stageEntityPKs, requestEntity.getClusterId());
+      request = new ActiveRequest(requestEntity.getStatus(),requestEntity.getDisplayStatus(),
+          new HashSet<>(), requestEntity.getClusterId());
       activeRequestMap.put(requestId, request);
     }
+    request.addStageEntityPK(stageEntityPK, activeStageMap.get(stageEntityPK));
   }
 
 
@@ -318,7 +350,7 @@ public class TaskStatusListener {
         if (didStatusChange) {
           requestDAO.updateStatus(reportedRequestId, request.getStatus(), request.getDisplayStatus());
         }
-        if (request.isCompleted() && isAllTasksCompleted(reportedRequestId)) {
+        if (request.isCompleted() && request.getTaskStatusCounts().isAllCompleted()) {
           // Request is considered ton have been finished if request status and all of it's tasks status are completed
           // in that case, request and it's stages
           // and tasks should no longer be tracked as active(running)
@@ -331,22 +363,6 @@ public class TaskStatusListener {
     }
   }
 
-  /**
-   *
-   * @param requestId request Id
-   * @return  <code>false</code> if any of the task belonging to requestId has incomplete status
-   *          <code>true</code> otherwise
-   */
-  private Boolean isAllTasksCompleted(Long requestId) {
-    Boolean result = Boolean.TRUE;
-    for (Map.Entry<Long, HostRoleCommand> entry : activeTasksMap.entrySet()) {
-      if (entry.getValue().getRequestId() == requestId && !entry.getValue().getStatus().isCompletedState()) {
-        result = Boolean.FALSE;
-      }
-    }
-    return result;
-  }
-
   /**
    * Removes entries from {@link #activeTasksMap},{@link #activeStageMap} and {@link #activeRequestMap}
    * @param requestId request id whose entry and it's stage and task entries is to be removed
@@ -380,10 +396,10 @@ public class TaskStatusListener {
   /**
    * Returns the computed status of the stage from the status of it's host role commands
    * @param stagePK {@link StageEntityPK} primary key for the stage entity
-   * @param hostRoleCommandListAll list of all hrc received whose status has been received from agent
+   * @param receivedHostRoleCommands list of the stage's hrc whose status has been received from agent
    * @return {@link Boolean} <code>TRUE</code> if status of the given stage changed.
    */
-  private Boolean updateStageStatus(final StageEntityPK stagePK, List<HostRoleCommand> hostRoleCommandListAll) {
+  private Boolean updateStageStatus(final StageEntityPK stagePK, List<HostRoleCommand> receivedHostRoleCommands) {
     Boolean didAnyStatusChanged = Boolean.FALSE;
     ActiveStage reportedStage = activeStageMap.get(stagePK);
     HostRoleStatus stageCurrentStatus = reportedStage.getStatus();
@@ -393,23 +409,17 @@ public class TaskStatusListener {
     // if stage is already marked to be completed then do not calculate reported status from host role commands
     // Presumption: There will be no status transition of the host role command from one completed state to another
     if (!stageCurrentDisplayStatus.isCompletedState() || !stageCurrentStatus.isCompletedState()) {
-      Map<HostRoleStatus, Integer> receivedTaskStatusCount = CalculatedStatus.calculateStatusCountsForTasks(hostRoleCommandListAll, stagePK);
+      Map<HostRoleStatus, Integer> receivedTaskStatusCount = CalculatedStatus.calculateStatusCountsForTasks(receivedHostRoleCommands);
       HostRoleStatus statusFromPartialSet = CalculatedStatus.calculateSummaryStatusFromPartialSet(receivedTaskStatusCount, reportedStage.getSkippable());
       HostRoleStatus displayStatusFromPartialSet = CalculatedStatus.calculateSummaryStatusFromPartialSet(receivedTaskStatusCount, Boolean.FALSE);
       if (statusFromPartialSet == HostRoleStatus.PENDING || displayStatusFromPartialSet == HostRoleStatus.PENDING) {
-        Function<Long,HostRoleCommand> transform = new Function<Long,HostRoleCommand>(){
-          @Override
-          public HostRoleCommand apply(Long taskId) {
-            return activeTasksMap.get(taskId);
-          }
-        };
-
-        List<HostRoleCommand> activeHostRoleCommandsOfStage = FluentIterable.from(reportedStage.getTaskIds())
-            .transform(transform).toList();
-        Map<HostRoleStatus, Integer> statusCount = CalculatedStatus.calculateStatusCountsForTasks(activeHostRoleCommandsOfStage);
+        // the counts of all tasks of the stage are kept up to date as task statuses are received,
+        // the tasks themselves are only needed to check success factors
+        Map<HostRoleStatus, Integer> statusCount = reportedStage.getTaskStatusCounts().toStatusCounts();
+        int taskCount = reportedStage.getTaskStatusCounts().getTotal();
         if (displayStatusFromPartialSet == HostRoleStatus.PENDING) {
           // calculate and get new display status of the stage as per the new status of received host role commands
-          HostRoleStatus display_status = CalculatedStatus.calculateSummaryDisplayStatus(statusCount, activeHostRoleCommandsOfStage.size(), reportedStage.getSkippable());
+          HostRoleStatus display_status = CalculatedStatus.calculateSummaryDisplayStatus(statusCount, taskCount, reportedStage.getSkippable());
           if (display_status != stageCurrentDisplayStatus) {
             reportedStage.setDisplayStatus(display_status);
             didAnyStatusChanged = Boolean.TRUE;
@@ -422,7 +432,8 @@ public class TaskStatusListener {
 
         if (statusFromPartialSet == HostRoleStatus.PENDING) {
           // calculate status of the stage as per the new status of received host role commands
-          HostRoleStatus status = CalculatedStatus.calculateStageStatus(activeHostRoleCommandsOfStage, statusCount, reportedStage.getSuccessFactors(), reportedStage.getSkippable());
+          HostRoleStatus status = CalculatedStatus.calculateStageStatus(taskCount, () -> getActiveTasks(reportedStage),
+              statusCount, reportedStage.getSuccessFactors(), reportedStage.getSkippable());
           if (status != stageCurrentStatus) {
             reportedStage.setStatus(status);
             didAnyStatusChanged = Boolean.TRUE;
@@ -441,6 +452,18 @@ public class TaskStatusListener {
     return didAnyStatusChanged;
   }
 
+  /**
+   * @param stage active stage
+   * @return the tracked {@link HostRoleCommand}s of the stage
+   */
+  private List<HostRoleCommand> getActiveTasks(ActiveStage stage) {
+    List<HostRoleCommand> hostRoleCommands = new ArrayList<>(stage.getTaskIds().size());
+    for (Long taskId : stage.getTaskIds()) {
+      hostRoleCommands.add(activeTasksMap.get(taskId));
+    }
+    return hostRoleCommands;
+  }
+
   /**
    *
    * @param requestId {@link Request} whose status is to be updated
@@ -468,17 +491,13 @@ public class TaskStatusListener {
       HostRoleStatus displayStatusFromPartialSet = CalculatedStatus.calculateSummaryStatusFromPartialSet(stageStatusCountFromPartialSet.get(CalculatedStatus.StatusType.DISPLAY_STATUS), Boolean.FALSE);
 
       if (statusFromPartialSet == HostRoleStatus.PENDING || displayStatusFromPartialSet == HostRoleStatus.PENDING) {
-        List <ActiveStage> allActiveStages = new ArrayList<>();
-        for (StageEntityPK stageEntityPK:request.getStageEntityPks()) {
-          ActiveStage activeStage = activeStageMap.get(stageEntityPK);
-          allActiveStages.add(activeStage);
-        }
-        Map<CalculatedStatus.StatusType,Map<HostRoleStatus, Integer>> stageStatusCount = CalculatedStatus.calculateStatusCountsForStage(allActiveStages);
+        // the stage status counts of the request are kept up to date as stage statuses change
+        int stageCount = request.getStageStatusCounts().getTotal();
 
         if (displayStatusFromPartialSet == HostRoleStatus.PENDING) {
           // calculate and get new display status of the stage as per the new status of received host role commands
 
-          HostRoleStatus display_status = CalculatedStatus.calculateSummaryDisplayStatus(stageStatusCount.get(CalculatedStatus.StatusType.DISPLAY_STATUS), allActiveStages.size(), false);
+          HostRoleStatus display_status = CalculatedStatus.calculateSummaryDisplayStatus(request.getStageDisplayStatusCounts().toStatusCounts(), stageCount, false);
           if (display_status != requestCurrentDisplayStatus) {
             request.setDisplayStatus(display_status);
             didStatusChanged = Boolean.TRUE;
@@ -491,7 +510,7 @@ public class TaskStatusListener {
 
         if (statusFromPartialSet == HostRoleStatus.PENDING) {
           // calculate status of the stage as per the new status of received host role commands
-          HostRoleStatus status = CalculatedStatus.calculateSummaryStatus(stageStatusCount.get(CalculatedStatus.StatusType.STATUS), allActiveStages.size(), false);
+          HostRoleStatus status = CalculatedStatus.calculateSummaryStatus(request.getStageStatusCounts().toStatusCounts(), stageCount, false);
           if (status != requestCurrentStatus) {
             request.setStatus(status);
             didStatusChanged = Boolean.TRUE;
@@ -516,15 +535,20 @@ public class TaskStatusListener {
    * @param requestId request id
    */
   private void removeTasks(Long requestId) {
-    Iterator<Map.Entry<Long, HostRoleCommand>> iter = activeTasksMap.entrySet().iterator();
-    while (iter.hasNext()) {
-      Map.Entry<Long, HostRoleCommand> entry = iter.next();
-      HostRoleCommand hrc = entry.getValue();
-      if (hrc.getRequestId() == requestId) {
-        if (!hrc.getStatus().isCompletedState()) {
+    ActiveRequest request = activeRequestMap.get(requestId);
+    if (request == null) {
+      return;
+    }
+    for (StageEntityPK stageEntityPK : request.getStageEntityPks()) {
+      ActiveStage stage = activeStageMap.get(stageEntityPK);
+      if (stage == null) {
+        continue;
+      }
+      for (Long taskId : stage.getTaskIds()) {
+        HostRoleCommand hrc = activeTasksMap.remove(taskId);
+        if (hrc != null && !hrc.getStatus().isCompletedState()) {
           LOG.error(String.format("Task %d should have been completed before being removed from running task cache(activeTasksMap)", hrc.getTaskId()));
         }
-        iter.remove();
       }
     }
   }
@@ -560,6 +584,9 @@ public class TaskStatusListener {
     private HostRoleStatus displayStatus;
     private Set <StageEntityPK> stageEntityPks;
     private Long clusterId;
+    private final HostRoleStatusCounts taskStatusCounts = new HostRoleStatusCounts();
+    private final HostRoleStatusCounts stageStatusCounts = new HostRoleStatusCounts();
+    private final HostRoleStatusCounts stageDisplayStatusCounts = new HostRoleStatusCounts();
 
     public ActiveRequest(HostRoleStatus status, HostRoleStatus displayStatus, Set<StageEntityPK> stageEntityPks,
                          Long clusterId) {
@@ -593,8 +620,37 @@ public class TaskStatusListener {
       return stageEntityPks;
     }
 
-    public void addStageEntityPK(StageEntityPK stageEntityPK) {
-      stageEntityPks.add(stageEntityPK);
+    /**
+     * Adds a stage to the request and accounts its status in the stage status counts
+     * @param stageEntityPK primary key of the stage
+     * @param stage the tracked stage
+     */
+    public void addStageEntityPK(StageEntityPK stageEntityPK, ActiveStage stage) {
+      if (stageEntityPks.add(stageEntityPK) && stage != null) {
+        stageStatusCounts.add(stage.getStatus());
+        stageDisplayStatusCounts.add(stage.getDisplayStatus());
+      }
+    }
+
+    /**
+     * @return status counts of all tasks of the request
+     */
+    public HostRoleStatusCounts getTaskStatusCounts() {
+      return taskStatusCounts;
+    }
+
+    /**
+     * @return counts of the statuses of all stages of the request
+     */
+    public HostRoleStatusCounts getStageStatusCounts() {
+      return stageStatusCounts;
+    }
+
+    /**
+     * @return counts of the display statuses of all stages of the request
+     */
+    public HostRoleStatusCounts getStageDisplayStatusCounts() {
+      return stageDisplayStatusCounts;
     }
 
     public Long getClusterId() {
@@ -615,6 +671,7 @@ public class TaskStatusListener {
     private HostRoleStatus displayStatus;
     private Boolean skippable;
     private Set <Long> taskIds;
+    private final HostRoleStatusCounts taskStatusCounts = new HostRoleStatusCounts();
 
     //Map of roles to successFactors for this stage. Default is 1 i.e. 100%
     private Map<Role, Float> successFactors = new HashMap<>();
@@ -668,5 +725,12 @@ public class TaskStatusListener {
       taskIds.add(taskId);
     }
 
+    /**
+     * @return status counts of all tasks of the stage
+     */
+    public HostRoleStatusCounts getTaskStatusCounts() {
+      return taskStatusCounts;
+    }
+
   }
 }
@@ -19,16 +19,25 @@ package org.apache.ambari.server.events.publishers;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.ambari.server.AmbariRuntimeException;
+import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.events.DefaultMessageEmitter;
 import org.apache.ambari.server.events.STOMPEvent;
+import org.apache.ambari.server.events.STOMPHostEvent;
 import org.apache.ambari.server.utils.ThreadPools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 @Singleton
@@ -39,12 +48,49 @@ public class STOMPUpdatePublisher {
   private final EventBus agentEventBus;
   private final EventBus apiEventBus;
 
+  /**
+   * Queues of the agent events to deliver. The events of a host always go to the same lane, so they
+   * stay in order, while the lanes are drained in parallel. Events which are not host-specific are
+   * added to every lane, see {@link #publishAgentClusterEvent(STOMPEvent)}.
+   */
+  private final AgentEventLane[] agentEventLanes;
+
+  /**
+   * Threads draining the lanes.
+   */
+  private volatile Executor agentEventExecutor;
+
+  /**
+   * Serializes the adding of events which are not host-specific to the lanes, so that all the lanes
+   * have them in the same order.
+   */
+  private final Object agentClusterEventLock = new Object();
+
   private final List<BufferedUpdateEventPublisher> publishers = new ArrayList<>();
 
 
-  public STOMPUpdatePublisher() {
-    agentEventBus = new AsyncEventBus("agent-update-bus", ThreadPools.getSingleThreadedExecutor("stomp-agent-bus"));
+  @Inject
+  public STOMPUpdatePublisher(Configuration configuration) {
+    agentEventBus = new EventBus("agent-update-bus");
     apiEventBus = new AsyncEventBus("api-update-bus", ThreadPools.getSingleThreadedExecutor("stomp-api-bus"));
+
+    int agentThreads = Math.max(1, configuration.getAgentHostEventsThreadPoolSize());
+    agentEventExecutor = Executors.newFixedThreadPool(agentThreads,
+        new ThreadFactoryBuilder().setNameFormat("stomp-agent-bus-%d").build());
+    agentEventLanes = new AgentEventLane[agentThreads];
+    for (int i = 0; i < agentThreads; i++) {
+      agentEventLanes[i] = new AgentEventLane();
+    }
+  }
+
+  /**
+   * Delivers the agent events with the given executor, like one running them on the publishing
+   * thread for tools and tests which need the events to be delivered synchronously.
+   *
+   * @param executor the executor draining the lanes of the agent events
+   */
+  public void setAgentEventExecutor(Executor executor) {
+    agentEventExecutor = executor;
   }
 
   public void registerPublisher(BufferedUpdateEventPublisher publisher) {
@@ -81,7 +127,38 @@ public class STOMPUpdatePublisher {
   }
 
   private void publishAgent(STOMPEvent event) {
-    agentEventBus.post(event);
+    Long hostId = event instanceof STOMPHostEvent ? ((STOMPHostEvent) event).getHostId() : null;
+    if (hostId == null) {
+      publishAgentClusterEvent(event);
+    } else {
+      agentEventLanes[(int) Math.floorMod(hostId, (long) agentEventLanes.length)].add(event);
+    }
+  }
+
+  /**
+   * Delivers an agent event which is not host-specific, like a topology or metadata update, in
+   * order with the host-specific events. The event is added to every lane and delivered by the last
+   * lane reaching it, so it goes out after all previously published host events. The lanes which
+   * reach it earlier hand over instead of waiting: they stop draining, without holding a thread,
+   * and are resumed once the event is delivered, so it also goes out before all later host events.
+   *
+   * @param event the event to deliver
+   */
+  private void publishAgentClusterEvent(STOMPEvent event) {
+    ClusterEvent clusterEvent = new ClusterEvent(event, agentEventLanes.length);
+    synchronized (agentClusterEventLock) {
+      for (AgentEventLane lane : agentEventLanes) {
+        lane.add(clusterEvent);
+      }
+    }
+  }
+
+  private void post(STOMPEvent event) {
+    try {
+      agentEventBus.post(event);
+    } catch (RuntimeException e) {
+      LOG.error("Unable to deliver agent event {}", event, e);
+    }
   }
 
   public void registerAgent(Object object) {
@@ -91,4 +168,86 @@ public class STOMPUpdatePublisher {
   public void registerAPI(Object object) {
     apiEventBus.register(object);
   }
+
+  /**
+   * The events of a set of hosts, drained in order by at most one thread at a time.
+   */
+  private final class AgentEventLane {
+    private final Queue<Object> events = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether a thread is draining the lane, or the lane waits for a cluster event to be delivered.
+     */
+    private final AtomicBoolean active = new AtomicBoolean();
+
+    private void add(Object event) {
+      events.add(event);
+      if (active.compareAndSet(false, true)) {
+        agentEventExecutor.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      while (true) {
+        Object event = events.peek();
+        if (event == null) {
+          active.set(false);
+          // an event may have been added after the lane was found empty
+          if (events.isEmpty() || !active.compareAndSet(false, true)) {
+            return;
+          }
+          continue;
+        }
+        if (event instanceof ClusterEvent) {
+          if (!((ClusterEvent) event).arrive(this)) {
+            // stays active, the lane delivering the cluster event resumes it
+            return;
+          }
+        } else {
+          post((STOMPEvent) event);
+        }
+        events.poll();
+      }
+    }
+
+    // continue after the cluster event at the head of the lane was delivered by another lane
+    private void resume() {
+      agentEventExecutor.execute(() -> {
+        events.poll();
+        drain();
+      });
+    }
+  }
+
+  /**
+   * An event which is not host-specific, delivered once all the lanes reached it.
+   */
+  private final class ClusterEvent {
+    private final STOMPEvent event;
+    private final List<AgentEventLane> waiting = new ArrayList<>();
+    private int remaining;
+
+    private ClusterEvent(STOMPEvent event, int lanes) {
+      this.event = event;
+      remaining = lanes;
+    }
+
+    /**
+     * @param lane the lane which reached this event
+     * @return true if the lane delivered the event and can go on, false if it has to wait
+     */
+    private boolean arrive(AgentEventLane lane) {
+      synchronized (this) {
+        if (--remaining > 0) {
+          waiting.add(lane);
+          return false;
+        }
+      }
+      post(event);
+      for (AgentEventLane waitingLane : waiting) {
+        waitingLane.resume();
+      }
+      return true;
+    }
+  }
 }
@@ -17,7 +17,12 @@
  */
 package org.apache.ambari.server.logging;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -35,9 +40,11 @@ import com.google.inject.Singleton;
 /**
  * Factory to create locks depending on configuration.  If lock profiling is enabled,
  * it creates instrumented locks that collect statistics and log requests.  If profiling is
- * disabled, it creates regular reentrant locks.
+ * disabled but lock sampling is enabled, it creates locks that sample their acquisitions and aggregate
+ * wait and hold times by lock label.  Otherwise it creates regular reentrant locks.
  *
  * @see Configuration#isServerLocksProfilingEnabled()
+ * @see Configuration#getServerLocksSamplingRate()
  */
 @Singleton
 public class LockFactory {
@@ -46,12 +53,22 @@ public class LockFactory {
 
   private final boolean profiling;
   private final Set<ProfiledLock> profiledLocks;
+  private final int samplingRate;
+
+  /**
+   * Statistics of the sampled locks by label, shared by all locks with the same label.
+   */
+  private final ConcurrentMap<String, LockStatistics> lockStatistics = new ConcurrentHashMap<>();
 
   @Inject
   public LockFactory(Configuration config) {
     profiling = config.isServerLocksProfilingEnabled();
     profiledLocks = profiling ? new CopyOnWriteArraySet<>() : null;
+    samplingRate = profiling ? 0 : Math.max(0, config.getServerLocksSamplingRate());
     LOG.info("Lock profiling is {}", profiling ? "enabled" : "disabled");
+    if (isSampling()) {
+      LOG.info("Lock sampling is enabled for one of every {} lock acquisitions", samplingRate);
+    }
   }
 
   /**
@@ -71,6 +88,9 @@ public class LockFactory {
       profiledLocks.add(profiledLock);
       return profiledLock;
     }
+    if (isSampling()) {
+      return new SampledReentrantLock(baseLock, getStatistics(label), samplingRate, Ticker.systemTicker());
+    }
     return baseLock;
   }
 
@@ -92,9 +112,50 @@ public class LockFactory {
       profiledLocks.add(profiledLock.writeLock());
       return profiledLock;
     }
+    if (isSampling()) {
+      return new SampledReentrantReadWriteLock(baseLock, getStatistics(label + ".read"),
+        getStatistics(label + ".write"), samplingRate, Ticker.systemTicker());
+    }
     return baseLock;
   }
 
+  /**
+   * @return true if locks sample their acquisitions
+   */
+  public boolean isSampling() {
+    return samplingRate > 0;
+  }
+
+  /**
+   * @return statistics of the sampled locks and of those recorded by the callers of {@link #getStatistics(String)},
+   *         ordered by label
+   */
+  public List<LockStatistics> getLockStatistics() {
+    List<LockStatistics> statistics = new ArrayList<>(lockStatistics.values());
+    statistics.sort(Comparator.comparing(LockStatistics::getName));
+    return statistics;
+  }
+
+  /**
+   * Returns the statistics shared by the locks with the label, for callers which record the acquisitions of
+   * their own locks whether sampling is enabled or not.
+   *
+   * @param label the label of the locks
+   * @return the statistics of the label
+   */
+  public LockStatistics getStatistics(String label) {
+    return lockStatistics.computeIfAbsent(label, LockStatistics::new);
+  }
+
+  /**
+   * Drops the statistics of the label, for callers whose locks are gone (eg. the locks of a deleted cluster).
+   *
+   * @param label the label of the locks
+   */
+  public void removeStatistics(String label) {
+    lockStatistics.remove(label);
+  }
+
   /**
    * If lock profiling is enabled, append summary statistics about lock usage to <code>sb</code>
    * @param sb the buffer to append the statistics to
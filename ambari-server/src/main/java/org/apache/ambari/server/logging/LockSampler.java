@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Samples the acquisitions of a lock and records their wait and hold time in {@link LockStatistics}.
+ * Unlike {@link LockProfileDelegate} it neither logs nor keeps per thread data, so the cost of an
+ * acquisition which is not sampled is a random number and a thread local lookup on unlock.
+ */
+final class LockSampler {
+
+  /**
+   * Marks an acquisition which is not sampled.
+   */
+  static final long NOT_SAMPLED = -1;
+
+  private final ThreadLocal<Long> lockAcquireTime = new ThreadLocal<>();
+  private final LockStatistics statistics;
+  private final int samplingRate;
+  private final Ticker ticker;
+
+  /**
+   * @param statistics the statistics to record the samples in
+   * @param samplingRate one of how many acquisitions to sample
+   * @param ticker is the source of time information, replaceable for testing purpose
+   */
+  LockSampler(LockStatistics statistics, int samplingRate, Ticker ticker) {
+    this.statistics = statistics;
+    this.samplingRate = samplingRate;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Should be called by the lock before it is requested.
+   *
+   * @param alreadyOwned whether the current thread already owns the lock (reentrant acquisitions are not sampled)
+   * @return the request time if the acquisition is sampled, {@link #NOT_SAMPLED} otherwise
+   */
+  long beforeRequest(boolean alreadyOwned) {
+    if (alreadyOwned || ThreadLocalRandom.current().nextInt(samplingRate) != 0) {
+      return NOT_SAMPLED;
+    }
+    return ticker.read();
+  }
+
+  /**
+   * Should be called by the lock when the request completed.
+   *
+   * @param requestTime the value returned by {@link #beforeRequest(boolean)}
+   * @param acquired whether the lock was acquired by the requestor
+   */
+  void requestCompleted(long requestTime, boolean acquired) {
+    if (requestTime == NOT_SAMPLED) {
+      return;
+    }
+    if (acquired) {
+      long now = ticker.read();
+      statistics.recordWait(now - requestTime);
+      lockAcquireTime.set(now);
+    } else {
+      statistics.recordFailedWait();
+    }
+  }
+
+  /**
+   * Should be called by the lock after it was unlocked.
+   *
+   * @param released whether the current thread no longer holds the lock
+   */
+  void unlocked(boolean released) {
+    if (released) {
+      Long acquireTime = lockAcquireTime.get();
+      if (acquireTime != null) {
+        lockAcquireTime.remove();
+        statistics.recordHold(ticker.read() - acquireTime);
+      }
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wait and hold time statistics of the sampled acquisitions (or all of them, for coarse grained locks) of all
+ * locks sharing a name.  Times are aggregated into histograms with exponentially growing buckets, the upper
+ * bound of bucket {@code i} being 2<sup>i</sup> milliseconds, except for the last bucket which is unbounded.
+ */
+public final class LockStatistics {
+
+  /**
+   * Number of histogram buckets, the last one collects everything above 2<sup>14</sup> ms (about 16 seconds).
+   */
+  public static final int BUCKET_COUNT = 16;
+
+  private final String name;
+  private final LongAdder samples = new LongAdder();
+  private final LongAdder failedSamples = new LongAdder();
+  private final Histogram waitTime = new Histogram();
+  private final Histogram holdTime = new Histogram();
+
+  LockStatistics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return the name of the locks
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the number of sampled acquisitions
+   */
+  public long getSampleCount() {
+    return samples.sum();
+  }
+
+  /**
+   * @return the number of sampled acquisition attempts which did not get the lock (eg. tryLock timed out)
+   */
+  public long getFailedSampleCount() {
+    return failedSamples.sum();
+  }
+
+  /**
+   * @param unit the unit of the returned time
+   * @return total time the sampled acquisitions waited for the lock
+   */
+  public long getTotalWaitTime(TimeUnit unit) {
+    return unit.convert(waitTime.total.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @param unit the unit of the returned time
+   * @return longest time a sampled acquisition waited for the lock
+   */
+  public long getMaxWaitTime(TimeUnit unit) {
+    return unit.convert(waitTime.max.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return number of sampled acquisitions by wait time bucket
+   */
+  public long[] getWaitTimeHistogram() {
+    return waitTime.getCounts();
+  }
+
+  /**
+   * @param unit the unit of the returned time
+   * @return total time the lock was held after the sampled acquisitions
+   */
+  public long getTotalHoldTime(TimeUnit unit) {
+    return unit.convert(holdTime.total.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @param unit the unit of the returned time
+   * @return longest time the lock was held after a sampled acquisition
+   */
+  public long getMaxHoldTime(TimeUnit unit) {
+    return unit.convert(holdTime.max.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return number of sampled acquisitions by hold time bucket
+   */
+  public long[] getHoldTimeHistogram() {
+    return holdTime.getCounts();
+  }
+
+  /**
+   * @param bucket index of the bucket
+   * @return upper bound of the bucket in milliseconds, {@link Long#MAX_VALUE} for the last bucket
+   */
+  public static long getBucketUpperBound(int bucket) {
+    return bucket < BUCKET_COUNT - 1 ? 1L << bucket : Long.MAX_VALUE;
+  }
+
+  /**
+   * Estimates a percentile from a wait or hold time histogram as the upper bound of the bucket it falls in,
+   * which is at most twice the actual value. The result is capped by the max time, which also stands in for the
+   * upper bound of the last, unbounded bucket.
+   *
+   * @param histogram number of samples by bucket
+   * @param max the longest time recorded, in milliseconds
+   * @param percentile the percentile, between 0 and 100
+   * @return the estimated percentile in milliseconds, 0 if there are no samples
+   */
+  public static long getPercentile(long[] histogram, long max, int percentile) {
+    long count = 0;
+    for (long bucketCount : histogram) {
+      count += bucketCount;
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = (count * percentile + 99) / 100;
+    long cumulative = 0;
+    for (int i = 0; i < histogram.length; i++) {
+      cumulative += histogram[i];
+      if (cumulative >= rank) {
+        return Math.min(getBucketUpperBound(i), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Records an acquisition of a lock.
+   *
+   * @param nanos the time waited for the lock, in nanoseconds
+   */
+  public void recordWait(long nanos) {
+    samples.increment();
+    waitTime.record(nanos);
+  }
+
+  /**
+   * Records an attempt which did not get the lock.
+   */
+  public void recordFailedWait() {
+    failedSamples.increment();
+  }
+
+  /**
+   * Records the release of a lock.
+   *
+   * @param nanos the time the lock was held, in nanoseconds
+   */
+  public void recordHold(long nanos) {
+    holdTime.record(nanos);
+  }
+
+  private static final class Histogram {
+    private final LongAdder[] counts = new LongAdder[BUCKET_COUNT];
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    private Histogram() {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = new LongAdder();
+      }
+    }
+
+    private void record(long nanos) {
+      nanos = Math.max(0, nanos);
+      long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+      // index of the smallest power of two which is not below the time
+      int bucket = millis <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(millis - 1);
+      counts[Math.min(bucket, BUCKET_COUNT - 1)].increment();
+      total.add(nanos);
+      max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private long[] getCounts() {
+      long[] result = new long[counts.length];
+      for (int i = 0; i < counts.length; i++) {
+        result[i] = counts[i].sum();
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Implements sampling of wait and hold times for a ReentrantLock.
+ */
+final class SampledReentrantLock implements Lock {
+
+  private final ReentrantLock delegate;
+  private final LockSampler sampler;
+
+  /**
+   * @param delegate the lock to sample
+   * @param statistics the statistics to record the samples in
+   * @param samplingRate one of how many acquisitions to sample
+   * @param ticker is the source of time information, replaceable for testing purpose
+   */
+  SampledReentrantLock(ReentrantLock delegate, LockStatistics statistics, int samplingRate, Ticker ticker) {
+    this.delegate = delegate;
+    sampler = new LockSampler(statistics, samplingRate, ticker);
+  }
+
+  @Override
+  public void lock() {
+    long requestTime = sampler.beforeRequest(delegate.isHeldByCurrentThread());
+    delegate.lock();
+    sampler.requestCompleted(requestTime, true);
+  }
+
+  @Override
+  public void lockInterruptibly() throws InterruptedException {
+    long requestTime = sampler.beforeRequest(delegate.isHeldByCurrentThread());
+    delegate.lockInterruptibly();
+    sampler.requestCompleted(requestTime, true);
+  }
+
+  @Override
+  public boolean tryLock() {
+    long requestTime = sampler.beforeRequest(delegate.isHeldByCurrentThread());
+    boolean result = delegate.tryLock();
+    sampler.requestCompleted(requestTime, result);
+    return result;
+  }
+
+  @Override
+  public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+    long requestTime = sampler.beforeRequest(delegate.isHeldByCurrentThread());
+    boolean result = delegate.tryLock(timeout, unit);
+    sampler.requestCompleted(requestTime, result);
+    return result;
+  }
+
+  @Override
+  public void unlock() {
+    delegate.unlock();
+    sampler.unlocked(!delegate.isHeldByCurrentThread());
+  }
+
+  @Override
+  public Condition newCondition() {
+    return delegate.newCondition();
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
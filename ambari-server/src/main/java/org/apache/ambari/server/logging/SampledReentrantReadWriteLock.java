@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Implements sampling of wait and hold times for a ReentrantReadWriteLock.
+ */
+final class SampledReentrantReadWriteLock implements ReadWriteLock {
+
+  private final SampledReadLock readLock;
+  private final SampledWriteLock writeLock;
+
+  /**
+   * @param delegate the lock to sample
+   * @param readStatistics the statistics to record the samples of the read lock in
+   * @param writeStatistics the statistics to record the samples of the write lock in
+   * @param samplingRate one of how many acquisitions to sample
+   * @param ticker is the source of time information, replaceable for testing purpose
+   */
+  SampledReentrantReadWriteLock(ReentrantReadWriteLock delegate, LockStatistics readStatistics,
+                                LockStatistics writeStatistics, int samplingRate, Ticker ticker) {
+    readLock = new SampledReadLock(delegate, new LockSampler(readStatistics, samplingRate, ticker));
+    writeLock = new SampledWriteLock(delegate, new LockSampler(writeStatistics, samplingRate, ticker));
+  }
+
+  @Override
+  public ReentrantReadWriteLock.ReadLock readLock() {
+    return readLock;
+  }
+
+  @Override
+  public ReentrantReadWriteLock.WriteLock writeLock() {
+    return writeLock;
+  }
+
+  private static class SampledReadLock extends ReentrantReadWriteLock.ReadLock {
+
+    private final LockSampler sampler;
+    private final ReentrantReadWriteLock delegate;
+
+    SampledReadLock(ReentrantReadWriteLock delegate, LockSampler sampler) {
+      super(delegate);
+      this.delegate = delegate;
+      this.sampler = sampler;
+    }
+
+    @Override
+    public void lock() {
+      long requestTime = sampler.beforeRequest(delegate.getReadHoldCount() > 0);
+      super.lock();
+      sampler.requestCompleted(requestTime, true);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+      long requestTime = sampler.beforeRequest(delegate.getReadHoldCount() > 0);
+      super.lockInterruptibly();
+      sampler.requestCompleted(requestTime, true);
+    }
+
+    @Override
+    public boolean tryLock() {
+      long requestTime = sampler.beforeRequest(delegate.getReadHoldCount() > 0);
+      boolean result = super.tryLock();
+      sampler.requestCompleted(requestTime, result);
+      return result;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+      long requestTime = sampler.beforeRequest(delegate.getReadHoldCount() > 0);
+      boolean result = super.tryLock(timeout, unit);
+      sampler.requestCompleted(requestTime, result);
+      return result;
+    }
+
+    @Override
+    public void unlock() {
+      super.unlock();
+      sampler.unlocked(delegate.getReadHoldCount() == 0);
+    }
+
+    @Override
+    public String toString() {
+      return delegate.readLock().toString();
+    }
+  }
+
+  private static class SampledWriteLock extends ReentrantReadWriteLock.WriteLock {
+
+    private final LockSampler sampler;
+    private final ReentrantReadWriteLock delegate;
+
+    SampledWriteLock(ReentrantReadWriteLock delegate, LockSampler sampler) {
+      super(delegate);
+      this.delegate = delegate;
+      this.sampler = sampler;
+    }
+
+    @Override
+    public void lock() {
+      long requestTime = sampler.beforeRequest(isHeldByCurrentThread());
+      super.lock();
+      sampler.requestCompleted(requestTime, true);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+      long requestTime = sampler.beforeRequest(isHeldByCurrentThread());
+      super.lockInterruptibly();
+      sampler.requestCompleted(requestTime, true);
+    }
+
+    @Override
+    public boolean tryLock() {
+      long requestTime = sampler.beforeRequest(isHeldByCurrentThread());
+      boolean result = super.tryLock();
+      sampler.requestCompleted(requestTime, result);
+      return result;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+      long requestTime = sampler.beforeRequest(isHeldByCurrentThread());
+      boolean result = super.tryLock(timeout, unit);
+      sampler.requestCompleted(requestTime, result);
+      return result;
+    }
+
+    @Override
+    public void unlock() {
+      super.unlock();
+      sampler.unlocked(!isHeldByCurrentThread());
+    }
+
+    @Override
+    public String toString() {
+      return delegate.writeLock().toString();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.metrics.system.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.agent.stomp.AgentRegistrationStatistics;
+import org.apache.ambari.server.metrics.system.MetricsSink;
+import org.apache.ambari.server.metrics.system.SingleMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the admission counts of the agents registration queue and the time registration requests
+ * wait for a registration processor thread to the configured Metric Sink.
+ */
+public class AgentRegistrationMetricsSource extends AbstractMetricsSource {
+  private static final Logger LOG = LoggerFactory.getLogger(AgentRegistrationMetricsSource.class);
+  private static final String REGISTRATION_PREFIX = "agents.registration.";
+
+  private ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+  private AgentRegistrationStatistics statistics;
+  private int interval = 60;
+
+  @Override
+  public void init(MetricsConfiguration configuration, MetricsSink sink) {
+    super.init(configuration, sink);
+    interval = Integer.parseInt(configuration.getProperty("interval", "60"));
+    LOG.info("Initialized agent registration metrics source...");
+  }
+
+  /**
+   * @param statistics the counters of agent registration
+   */
+  void setStatistics(AgentRegistrationStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public void start() {
+    if (statistics == null) {
+      LOG.info("Agent registration statistics are not available, agent registration metrics source is not started");
+      return;
+    }
+    try {
+      executor.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            sink.publish(getMetrics());
+            LOG.debug("Published agent registration metrics to sink");
+          } catch (Exception e) {
+            LOG.debug("Error in publishing agent registration metrics to sink.", e);
+          }
+        }
+      }, interval, interval, TimeUnit.SECONDS);
+      LOG.info("Started agent registration metrics source...");
+    } catch (Exception e) {
+      LOG.info("Throwing exception when starting agent registration metrics source", e);
+    }
+  }
+
+  List<SingleMetric> getMetrics() {
+    List<SingleMetric> metrics = new ArrayList<>();
+    long now = System.currentTimeMillis();
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "admitted", statistics.getAdmittedCount(), now));
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "refused", statistics.getRefusedCount(), now));
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "completed", statistics.getRegisteredCount(), now));
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "time.total",
+        statistics.getTotalRegistrationTime(TimeUnit.MILLISECONDS), now));
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "time.max",
+        statistics.getMaxRegistrationTime(TimeUnit.MILLISECONDS), now));
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "processed", statistics.getProcessedCount(), now));
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "rejected", statistics.getRejectedCount(), now));
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "queue.wait.total",
+        statistics.getTotalQueueWaitTime(TimeUnit.MILLISECONDS), now));
+    metrics.add(new SingleMetric(REGISTRATION_PREFIX + "queue.wait.max",
+        statistics.getMaxQueueWaitTime(TimeUnit.MILLISECONDS), now));
+    return metrics;
+  }
+}
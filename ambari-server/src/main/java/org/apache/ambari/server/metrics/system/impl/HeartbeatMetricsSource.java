@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.metrics.system.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.agent.HeartbeatMonitor;
+import org.apache.ambari.server.metrics.system.MetricsSink;
+import org.apache.ambari.server.metrics.system.SingleMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the number of hosts detected to have lost heartbeat and how long after the heartbeat expiry
+ * the loss was detected to the configured Metric Sink.
+ */
+public class HeartbeatMetricsSource extends AbstractMetricsSource {
+  private static final Logger LOG = LoggerFactory.getLogger(HeartbeatMetricsSource.class);
+  private static final String HEARTBEAT_PREFIX = "agents.heartbeat.";
+
+  private ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+  private HeartbeatMonitor heartbeatMonitor;
+  private int interval = 60;
+
+  @Override
+  public void init(MetricsConfiguration configuration, MetricsSink sink) {
+    super.init(configuration, sink);
+    interval = Integer.parseInt(configuration.getProperty("interval", "60"));
+    LOG.info("Initialized heartbeat metrics source...");
+  }
+
+  /**
+   * @param heartbeatMonitor the monitor detecting the lost heartbeats
+   */
+  void setHeartbeatMonitor(HeartbeatMonitor heartbeatMonitor) {
+    this.heartbeatMonitor = heartbeatMonitor;
+  }
+
+  @Override
+  public void start() {
+    if (heartbeatMonitor == null) {
+      LOG.info("Heartbeat monitor is not available, heartbeat metrics source is not started");
+      return;
+    }
+    try {
+      executor.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            sink.publish(getMetrics());
+            LOG.debug("Published heartbeat metrics to sink");
+          } catch (Exception e) {
+            LOG.debug("Error in publishing heartbeat metrics to sink.", e);
+          }
+        }
+      }, interval, interval, TimeUnit.SECONDS);
+      LOG.info("Started heartbeat metrics source...");
+    } catch (Exception e) {
+      LOG.info("Throwing exception when starting heartbeat metrics source", e);
+    }
+  }
+
+  List<SingleMetric> getMetrics() {
+    List<SingleMetric> metrics = new ArrayList<>();
+    long now = System.currentTimeMillis();
+    metrics.add(new SingleMetric(HEARTBEAT_PREFIX + "lost", heartbeatMonitor.getHeartbeatLostCount(), now));
+    metrics.add(new SingleMetric(HEARTBEAT_PREFIX + "detection.delay.total",
+        heartbeatMonitor.getTotalDetectionDelay(TimeUnit.MILLISECONDS), now));
+    metrics.add(new SingleMetric(HEARTBEAT_PREFIX + "detection.delay.max",
+        heartbeatMonitor.getMaxDetectionDelay(TimeUnit.MILLISECONDS), now));
+    return metrics;
+  }
+}
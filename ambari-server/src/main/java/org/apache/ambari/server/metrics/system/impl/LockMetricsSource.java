@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.metrics.system.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.logging.LockFactory;
+import org.apache.ambari.server.logging.LockStatistics;
+import org.apache.ambari.server.metrics.system.MetricsSink;
+import org.apache.ambari.server.metrics.system.SingleMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the wait and hold time statistics of the sampled server locks to the configured Metric Sink.
+ * Requires lock sampling to be enabled by {@code server.locks.sampling.rate}.
+ */
+public class LockMetricsSource extends AbstractMetricsSource {
+  private static final Logger LOG = LoggerFactory.getLogger(LockMetricsSource.class);
+  private static final String LOCKS_PREFIX = "locks.";
+  private static final int[] PERCENTILES = {50, 95, 99};
+
+  private ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+  private LockFactory lockFactory;
+  private int interval = 60;
+
+  @Override
+  public void init(MetricsConfiguration configuration, MetricsSink sink) {
+    super.init(configuration, sink);
+    interval = Integer.parseInt(configuration.getProperty("interval", "60"));
+    LOG.info("Initialized lock metrics source...");
+  }
+
+  /**
+   * @param lockFactory the factory of the sampled locks
+   */
+  void setLockFactory(LockFactory lockFactory) {
+    this.lockFactory = lockFactory;
+  }
+
+  @Override
+  public void start() {
+    if (lockFactory == null || !lockFactory.isSampling()) {
+      LOG.info("Lock sampling is disabled, lock metrics source is not started");
+      return;
+    }
+    try {
+      executor.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            sink.publish(getMetrics());
+            LOG.debug("Published lock metrics to sink");
+          } catch (Exception e) {
+            LOG.debug("Error in publishing lock metrics to sink.", e);
+          }
+        }
+      }, interval, interval, TimeUnit.SECONDS);
+      LOG.info("Started lock metrics source...");
+    } catch (Exception e) {
+      LOG.info("Throwing exception when starting lock metrics source", e);
+    }
+  }
+
+  List<SingleMetric> getMetrics() {
+    List<SingleMetric> metrics = new ArrayList<>();
+    long now = System.currentTimeMillis();
+    for (LockStatistics statistics : lockFactory.getLockStatistics()) {
+      String prefix = LOCKS_PREFIX + getMetricName(statistics.getName()) + ".";
+      metrics.add(new SingleMetric(prefix + "samples", statistics.getSampleCount(), now));
+      metrics.add(new SingleMetric(prefix + "samples.failed", statistics.getFailedSampleCount(), now));
+      metrics.add(new SingleMetric(prefix + "wait.total", statistics.getTotalWaitTime(TimeUnit.MILLISECONDS), now));
+      metrics.add(new SingleMetric(prefix + "wait.max", statistics.getMaxWaitTime(TimeUnit.MILLISECONDS), now));
+      metrics.add(new SingleMetric(prefix + "hold.total", statistics.getTotalHoldTime(TimeUnit.MILLISECONDS), now));
+      metrics.add(new SingleMetric(prefix + "hold.max", statistics.getMaxHoldTime(TimeUnit.MILLISECONDS), now));
+      addPercentiles(metrics, prefix + "wait.", statistics.getWaitTimeHistogram(),
+        statistics.getMaxWaitTime(TimeUnit.MILLISECONDS), now);
+      addPercentiles(metrics, prefix + "hold.", statistics.getHoldTimeHistogram(),
+        statistics.getMaxHoldTime(TimeUnit.MILLISECONDS), now);
+    }
+    return metrics;
+  }
+
+  private static void addPercentiles(List<SingleMetric> metrics, String prefix, long[] histogram, long max, long now) {
+    for (int percentile : PERCENTILES) {
+      metrics.add(new SingleMetric(prefix + "p" + percentile, LockStatistics.getPercentile(histogram, max, percentile), now));
+    }
+  }
+
+  /**
+   * Lock names may be file names with line numbers or contain spaces, which are not welcome in metric names.
+   */
+  private static String getMetricName(String lockName) {
+    return lockName.trim().replaceAll("[^A-Za-z0-9._-]", "_");
+  }
+}
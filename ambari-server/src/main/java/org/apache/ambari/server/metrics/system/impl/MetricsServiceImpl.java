@@ -22,8 +22,12 @@ import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.ambari.server.agent.HeartBeatHandler;
+import org.apache.ambari.server.agent.stomp.AgentRegistrationStatistics;
 import org.apache.ambari.server.controller.AmbariManagementController;
+import org.apache.ambari.server.events.MessageSendStatistics;
 import org.apache.ambari.server.events.publishers.STOMPUpdatePublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.metrics.system.MetricsService;
 import org.apache.ambari.server.metrics.system.MetricsSink;
 import org.apache.ambari.server.metrics.system.MetricsSource;
@@ -45,6 +49,14 @@ public class MetricsServiceImpl implements MetricsService {
   AmbariManagementController amc;
   @Inject
   STOMPUpdatePublisher STOMPUpdatePublisher;
+  @Inject
+  LockFactory lockFactory;
+  @Inject
+  AgentRegistrationStatistics agentRegistrationStatistics;
+  @Inject
+  HeartBeatHandler heartBeatHandler;
+  @Inject
+  MessageSendStatistics messageSendStatistics;
 
   @Override
   public void start() {
@@ -118,6 +130,16 @@ public class MetricsServiceImpl implements MetricsService {
         if (src instanceof StompEventsMetricsSource) {
           STOMPUpdatePublisher.registerAPI(src);
           STOMPUpdatePublisher.registerAgent(src);
+          ((StompEventsMetricsSource) src).setSendStatistics(messageSendStatistics);
+        }
+        if (src instanceof LockMetricsSource) {
+          ((LockMetricsSource) src).setLockFactory(lockFactory);
+        }
+        if (src instanceof AgentRegistrationMetricsSource) {
+          ((AgentRegistrationMetricsSource) src).setStatistics(agentRegistrationStatistics);
+        }
+        if (src instanceof HeartbeatMetricsSource) {
+          ((HeartbeatMetricsSource) src).setHeartbeatMonitor(heartBeatHandler.getHeartbeatMonitor());
         }
         src.start();
       }
@@ -18,32 +18,45 @@
 package org.apache.ambari.server.metrics.system.impl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.apache.ambari.server.events.MessageSendStatistics;
+import org.apache.ambari.server.events.MessageSendStatistics.SendStatistics;
 import org.apache.ambari.server.events.STOMPEvent;
 import org.apache.ambari.server.metrics.system.MetricsSink;
 import org.apache.ambari.server.metrics.system.SingleMetric;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.eventbus.AllowConcurrentEvents;
 import com.google.common.eventbus.Subscribe;
 
 /**
- * Collects metrics about number of events by types and publishes to configured Metric Sink.
+ * Collects metrics about number of events by types and the time spent sending them, and publishes
+ * them to configured Metric Sink.
  */
 public class StompEventsMetricsSource extends AbstractMetricsSource {
   private static Logger LOG = LoggerFactory.getLogger(StompEventsMetricsSource.class);
 
-  private Map<STOMPEvent.Type, Long> events = new HashMap<>();
+  /**
+   * Event counts by type. Events are counted concurrently by the threads of the API and the agent
+   * buses.
+   */
+  private final Map<STOMPEvent.Type, LongAdder> events = new ConcurrentHashMap<>();
   private ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+  private MessageSendStatistics sendStatistics;
 
   private final String EVENTS_TOTAL_METRIC = "events.total";
   private final String AVERAGE_METRIC_SUFFIX = ".avg";
+  private final String SEND_COUNT_METRIC_SUFFIX = ".send.count";
+  private final String SEND_AVERAGE_TIME_METRIC_SUFFIX = ".send.avg_ms";
+  private final String SEND_MAX_TIME_METRIC_SUFFIX = ".send.max_ms";
 
   private int interval = 60;
 
@@ -51,11 +64,15 @@ public class StompEventsMetricsSource extends AbstractMetricsSource {
   public void init(MetricsConfiguration configuration, MetricsSink sink) {
     super.init(configuration, sink);
     for (STOMPEvent.Type type : STOMPEvent.Type.values()) {
-      events.put(type, 0L);
+      events.put(type, new LongAdder());
     }
 
   }
 
+  public void setSendStatistics(MessageSendStatistics sendStatistics) {
+    this.sendStatistics = sendStatistics;
+  }
+
   @Override
   public void start() {
     LOG.info("Starting stomp events source...");
@@ -75,31 +92,42 @@ public class StompEventsMetricsSource extends AbstractMetricsSource {
 
   private List<SingleMetric> getEvents() {
     List<SingleMetric> metrics = new ArrayList<>();
-    Long totalEventsCounter = 0L;
-    synchronized (events) {
-      for (Map.Entry<STOMPEvent.Type, Long> event : events.entrySet()) {
-        totalEventsCounter += event.getValue();
-        metrics.add(new SingleMetric(event.getKey().getMetricName(), event.getValue(), System.currentTimeMillis()));
-
-        String averageMetricName = event.getKey().getMetricName() + AVERAGE_METRIC_SUFFIX;
-        Double eventsPerSecond = event.getValue() == 0 ? -1 : (double) interval / (double) event.getValue();
-        metrics.add(new SingleMetric(averageMetricName,
-                eventsPerSecond, System.currentTimeMillis()));
-        events.put(event.getKey(), 0L);
-      }
-      metrics.add(new SingleMetric(EVENTS_TOTAL_METRIC, totalEventsCounter, System.currentTimeMillis()));
-
-      String totalAverageMetricName = EVENTS_TOTAL_METRIC + AVERAGE_METRIC_SUFFIX;
-      Double eventsPerSecond = totalEventsCounter == 0 ? -1 : (double) interval / (double) totalEventsCounter;
-      metrics.add(new SingleMetric(totalAverageMetricName,
-              eventsPerSecond, System.currentTimeMillis()));
+    long totalEventsCounter = 0L;
+    long timestamp = System.currentTimeMillis();
+    for (Map.Entry<STOMPEvent.Type, LongAdder> event : events.entrySet()) {
+      long count = event.getValue().sumThenReset();
+      totalEventsCounter += count;
+      metrics.add(new SingleMetric(event.getKey().getMetricName(), count, timestamp));
+
+      String averageMetricName = event.getKey().getMetricName() + AVERAGE_METRIC_SUFFIX;
+      Double eventsPerSecond = count == 0 ? -1 : (double) interval / (double) count;
+      metrics.add(new SingleMetric(averageMetricName, eventsPerSecond, timestamp));
+    }
+    metrics.add(new SingleMetric(EVENTS_TOTAL_METRIC, totalEventsCounter, timestamp));
+
+    String totalAverageMetricName = EVENTS_TOTAL_METRIC + AVERAGE_METRIC_SUFFIX;
+    Double eventsPerSecond = totalEventsCounter == 0 ? -1 : (double) interval / (double) totalEventsCounter;
+    metrics.add(new SingleMetric(totalAverageMetricName, eventsPerSecond, timestamp));
+
+    if (sendStatistics == null) {
+      return metrics;
+    }
+    for (Map.Entry<STOMPEvent.Type, SendStatistics> send : sendStatistics.getStatistics().entrySet()) {
+      SendStatistics statistics = send.getValue().reset();
+      String metricName = send.getKey().getMetricName();
+      long count = statistics.getCount();
+      metrics.add(new SingleMetric(metricName + SEND_COUNT_METRIC_SUFFIX, count, timestamp));
+      metrics.add(new SingleMetric(metricName + SEND_AVERAGE_TIME_METRIC_SUFFIX,
+          count == 0 ? 0 : (double) statistics.getTotalTime(TimeUnit.MICROSECONDS) / count / 1000, timestamp));
+      metrics.add(new SingleMetric(metricName + SEND_MAX_TIME_METRIC_SUFFIX,
+          statistics.getMaxTime(TimeUnit.MILLISECONDS), timestamp));
     }
     return metrics;
   }
 
   @Subscribe
+  @AllowConcurrentEvents
   public void onUpdateEvent(STOMPEvent STOMPEvent) {
-    STOMPEvent.Type metricType = STOMPEvent.getType();
-    events.put(metricType, events.get(metricType) + 1);
+    events.computeIfAbsent(STOMPEvent.getType(), type -> new LongAdder()).increment();
   }
 }
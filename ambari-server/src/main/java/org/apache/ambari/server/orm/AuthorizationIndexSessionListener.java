@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.orm;
+
+import org.apache.ambari.server.security.authorization.AuthorizationIndex;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+/**
+ * The {@link AuthorizationIndexSessionListener} marks the
+ * {@link AuthorizationIndex}es as stale after a transaction which changed
+ * privileges or permissions is committed. It is registered by
+ * {@link EclipseLinkSessionCustomizer}, and the changes are recorded by the
+ * DAOs through {@link AuthorizationIndex#invalidateAllOnCommit()}.
+ * <p/>
+ * The transaction events are raised on the thread which commits or rolls back
+ * the transaction, which is the thread that made the changes.
+ */
+public class AuthorizationIndexSessionListener extends SessionEventAdapter {
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void postCommitTransaction(SessionEvent event) {
+    AuthorizationIndex.transactionCommitted();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void postRollbackTransaction(SessionEvent event) {
+    AuthorizationIndex.transactionRolledBack();
+  }
+}
@@ -73,5 +73,14 @@ public class EclipseLinkSessionCustomizer implements SessionCustomizer {
       // codes Vector
       ContainerPolicy.setDefaultContainerClass(ArrayList.class);
     }
+
+    // advance the privilege generation of the authorization indexes once privilege changes are committed
+    session.getEventManager().addListener(new AuthorizationIndexSessionListener());
+
+    // count the queries per REST request to spot entities loaded one by one
+    Object queryCountProfiling = session.getProperty(QueryCountSessionListener.ENABLED_PROPERTY);
+    if (null != queryCountProfiling && Boolean.parseBoolean(queryCountProfiling.toString())) {
+      session.getEventManager().addListener(new QueryCountSessionListener());
+    }
   }
 }
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.orm;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+/**
+ * The {@link QueryCountSessionListener} counts the queries which EclipseLink
+ * executes on the current thread. It is registered by
+ * {@link EclipseLinkSessionCustomizer} when the
+ * {@link #ENABLED_PROPERTY} session property is set, and the counting is
+ * started and stopped around each REST request by
+ * {@link org.apache.ambari.server.api.AmbariPersistFilter}. Threads working
+ * on behalf of a request add to its counts with {@link #resume(QueryCount)}.
+ * <p/>
+ * Every executed query is counted, including the ones answered from the
+ * cache, while only the calls which actually reach the database are counted
+ * as statements.
+ */
+public class QueryCountSessionListener extends SessionEventAdapter {
+
+  /**
+   * The session property which registers this listener.
+   */
+  public static final String ENABLED_PROPERTY = "ambari.query.count.profiling";
+
+  /**
+   * The counts of the current thread, {@code null} when not counting.
+   */
+  private static final ThreadLocal<QueryCount> COUNTS = new ThreadLocal<>();
+
+  /**
+   * Starts counting the queries executed by the current thread.
+   */
+  public static void start() {
+    COUNTS.set(new QueryCount());
+  }
+
+  /**
+   * Counts the queries executed by the current thread into the counts of
+   * another thread, until {@link #stop()}.
+   *
+   * @param count the counts returned by {@link #getCurrent()} on the other
+   *          thread, or {@code null} not to count
+   */
+  public static void resume(QueryCount count) {
+    if (null == count) {
+      COUNTS.remove();
+    } else {
+      COUNTS.set(count);
+    }
+  }
+
+  /**
+   * @return the counts of the current thread, or {@code null} if the counting
+   *         was not started
+   */
+  public static QueryCount getCurrent() {
+    return COUNTS.get();
+  }
+
+  /**
+   * Stops counting the queries executed by the current thread.
+   *
+   * @return the counts since {@link #start()}, or {@code null} if the counting
+   *         was not started
+   */
+  public static QueryCount stop() {
+    QueryCount count = COUNTS.get();
+    COUNTS.remove();
+    return count;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void preExecuteQuery(SessionEvent event) {
+    QueryCount count = COUNTS.get();
+    if (null != count) {
+      count.queries.incrementAndGet();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void preExecuteCall(SessionEvent event) {
+    QueryCount count = COUNTS.get();
+    if (null != count) {
+      count.statements.incrementAndGet();
+    }
+  }
+
+  /**
+   * The queries and statements executed by a thread, and by the threads
+   * which resumed its counting.
+   */
+  public static final class QueryCount {
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger statements = new AtomicInteger();
+
+    /**
+     * @return the number of executed queries, including those answered from
+     *         the cache
+     */
+    public int getQueries() {
+      return queries.get();
+    }
+
+    /**
+     * @return the number of statements sent to the database
+     */
+    public int getStatements() {
+      return statements.get();
+    }
+  }
+}
@@ -17,6 +17,7 @@
  */
 package org.apache.ambari.server.orm.dao;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -190,6 +191,31 @@ public class ConfigGroupHostMappingDAO {
     set.add(buildConfigGroupHostMapping(configGroupHostMappingEntity));
   }
 
+  /**
+   * Persists the mappings in a single transaction, loading the cache only once
+   * for the whole batch instead of once per mapping.
+   *
+   * @param configGroupHostMappingEntities the mappings to persist
+   */
+  @Transactional
+  public void createAll(Collection<ConfigGroupHostMappingEntity>
+                            configGroupHostMappingEntities) {
+    populateCache();
+
+    EntityManager entityManager = entityManagerProvider.get();
+    for (ConfigGroupHostMappingEntity configGroupHostMappingEntity : configGroupHostMappingEntities) {
+      entityManager.persist(configGroupHostMappingEntity);
+
+      Set<ConfigGroupHostMapping> set = configGroupHostMappingByHost.get(configGroupHostMappingEntity.getHostId());
+      if (set == null){
+        set = new HashSet<>();
+        configGroupHostMappingByHost.put(configGroupHostMappingEntity.getHostId(), set);
+      }
+
+      set.add(buildConfigGroupHostMapping(configGroupHostMappingEntity));
+    }
+  }
+
   @Transactional
   public ConfigGroupHostMappingEntity merge(ConfigGroupHostMappingEntity configGroupHostMappingEntity) {
 
@@ -126,6 +126,32 @@ public class HostComponentDesiredStateDAO {
     return daoUtils.selectList(query);
   }
 
+  /**
+   * Retrieve the Host Component Desired States of the given components of a service. The component
+   * names are queried in chunks which fit into an {@code IN} clause.
+   *
+   * @param clusterId Cluster ID
+   * @param serviceName Service Name
+   * @param componentNames Component Names
+   * @return Return the Host Component Desired State entities of all of the components.
+   */
+  @RequiresSession
+  public List<HostComponentDesiredStateEntity> findByServiceAndComponents(Long clusterId, String serviceName,
+                                                                          Collection<String> componentNames) {
+    final TypedQuery<HostComponentDesiredStateEntity> query = entityManagerProvider.get()
+      .createNamedQuery("HostComponentDesiredStateEntity.findByServiceAndComponents", HostComponentDesiredStateEntity.class);
+
+    final List<HostComponentDesiredStateEntity> result = new ArrayList<>();
+    SQLOperations.batch(componentNames, SQLConstants.IN_ARGUMENT_MAX_SIZE, (chunk, currentBatch, totalBatches, totalSize) -> {
+      query.setParameter("clusterId", clusterId);
+      query.setParameter("serviceName", serviceName);
+      query.setParameter("componentNames", chunk);
+      result.addAll(daoUtils.selectList(query));
+      return 0;
+    });
+    return result;
+  }
+
   @RequiresSession
   public List<HostComponentDesiredStateEntity> findByHostsAndCluster(Collection<Long> hostIds, Long clusterId) {
     final EntityManager entityManager = entityManagerProvider.get();
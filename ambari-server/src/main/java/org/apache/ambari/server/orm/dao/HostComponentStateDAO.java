@@ -18,6 +18,8 @@
 
 package org.apache.ambari.server.orm.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.persistence.EntityManager;
@@ -26,6 +28,8 @@ import javax.persistence.TypedQuery;
 
 import org.apache.ambari.server.orm.RequiresSession;
 import org.apache.ambari.server.orm.entities.HostComponentStateEntity;
+import org.apache.ambari.server.orm.helpers.SQLConstants;
+import org.apache.ambari.server.orm.helpers.SQLOperations;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -146,6 +150,36 @@ public class HostComponentStateDAO {
     return daoUtils.selectSingle(query);
   }
 
+  /**
+   * Retrieve all of the Host Component States of the given components of a
+   * service. The component names are queried in chunks which fit into an
+   * {@code IN} clause.
+   *
+   * @param clusterId
+   *          Cluster ID
+   * @param serviceName
+   *          Service Name
+   * @param componentNames
+   *          Component Names
+   * @return Return all of the Host Component States that match the criteria.
+   */
+  @RequiresSession
+  public List<HostComponentStateEntity> findByServiceAndComponents(Long clusterId, String serviceName,
+      Collection<String> componentNames) {
+    final TypedQuery<HostComponentStateEntity> query = entityManagerProvider.get().createNamedQuery(
+        "HostComponentStateEntity.findByServiceAndComponents", HostComponentStateEntity.class);
+
+    final List<HostComponentStateEntity> result = new ArrayList<>();
+    SQLOperations.batch(componentNames, SQLConstants.IN_ARGUMENT_MAX_SIZE, (chunk, currentBatch, totalBatches, totalSize) -> {
+      query.setParameter("clusterId", clusterId);
+      query.setParameter("serviceName", serviceName);
+      query.setParameter("componentNames", chunk);
+      result.addAll(daoUtils.selectList(query));
+      return 0;
+    });
+    return result;
+  }
+
   @Transactional
   public void refresh(HostComponentStateEntity hostComponentStateEntity) {
     entityManagerProvider.get().refresh(hostComponentStateEntity);
@@ -30,6 +30,7 @@ import org.apache.ambari.server.orm.entities.PrincipalEntity;
 import org.apache.ambari.server.orm.entities.ResourceTypeEntity;
 import org.apache.ambari.server.orm.helpers.SQLConstants;
 import org.apache.ambari.server.orm.helpers.SQLOperations;
+import org.apache.ambari.server.security.authorization.AuthorizationIndex;
 
 import com.google.common.collect.Lists;
 import com.google.inject.Inject;
@@ -60,6 +61,7 @@ public class PermissionDAO {
   @Transactional
   public void create(PermissionEntity permissionEntity) {
     entityManagerProvider.get().persist(permissionEntity);
+    AuthorizationIndex.invalidateAllOnCommit();
   }
 
   /**
@@ -69,7 +71,9 @@ public class PermissionDAO {
    */
   @Transactional
   public PermissionEntity merge(PermissionEntity permissionEntity) {
-    return entityManagerProvider.get().merge(permissionEntity);
+    PermissionEntity merged = entityManagerProvider.get().merge(permissionEntity);
+    AuthorizationIndex.invalidateAllOnCommit();
+    return merged;
   }
 
   /**
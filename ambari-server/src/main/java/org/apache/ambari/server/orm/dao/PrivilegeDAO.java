@@ -31,6 +31,7 @@ import org.apache.ambari.server.orm.entities.PrivilegeEntity;
 import org.apache.ambari.server.orm.entities.ResourceEntity;
 import org.apache.ambari.server.orm.helpers.SQLConstants;
 import org.apache.ambari.server.orm.helpers.SQLOperations;
+import org.apache.ambari.server.security.authorization.AuthorizationIndex;
 
 import com.google.common.collect.Lists;
 import com.google.inject.Inject;
@@ -151,6 +152,7 @@ public class PrivilegeDAO {
   @Transactional
   public void create(PrivilegeEntity entity) {
     entityManagerProvider.get().persist(entity);
+    AuthorizationIndex.invalidateAllOnCommit();
   }
 
   /**
@@ -162,7 +164,9 @@ public class PrivilegeDAO {
    */
   @Transactional
   public PrivilegeEntity merge(PrivilegeEntity entity) {
-    return entityManagerProvider.get().merge(entity);
+    PrivilegeEntity merged = entityManagerProvider.get().merge(entity);
+    AuthorizationIndex.invalidateAllOnCommit();
+    return merged;
   }
   /**
    * Remove the entity instance.
@@ -172,6 +176,7 @@ public class PrivilegeDAO {
   @Transactional
   public void remove(PrivilegeEntity entity) {
     entityManagerProvider.get().remove(merge(entity));
+    AuthorizationIndex.invalidateAllOnCommit();
   }
 
   /**
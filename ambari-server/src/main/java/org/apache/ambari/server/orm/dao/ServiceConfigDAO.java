@@ -269,6 +269,24 @@ public class ServiceConfigDAO {
     return daoUtils.selectList(query);
   }
 
+  /**
+   * Get all service configs of a service in the given cluster. The cluster configs of
+   * each version are not loaded until they are accessed.
+   * @param clusterId Cluster Id
+   * @param serviceName Service name
+   * @return Collection of service configs of the service, newest version first.
+   */
+  @RequiresSession
+  public List<ServiceConfigEntity> getServiceConfigsForService(Long clusterId, String serviceName) {
+    TypedQuery<ServiceConfigEntity> query = entityManagerProvider.get().createNamedQuery(
+        "ServiceConfigEntity.findAllByService", ServiceConfigEntity.class);
+
+    query.setParameter("clusterId", clusterId);
+    query.setParameter("serviceName", serviceName);
+
+    return daoUtils.selectList(query);
+  }
+
   /**
    * Get all service configs
    * @return Collection of all service configs.
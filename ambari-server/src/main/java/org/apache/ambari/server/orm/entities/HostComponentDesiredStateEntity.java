@@ -73,6 +73,9 @@ import com.google.common.base.Objects;
   @NamedQuery(name = "HostComponentDesiredStateEntity.findByIndex", query =
     "SELECT hcds from HostComponentDesiredStateEntity hcds WHERE hcds.clusterId=:clusterId AND hcds.serviceName=:serviceName AND hcds.componentName=:componentName"),
 
+  @NamedQuery(name = "HostComponentDesiredStateEntity.findByServiceAndComponents", query =
+    "SELECT hcds from HostComponentDesiredStateEntity hcds WHERE hcds.clusterId=:clusterId AND hcds.serviceName=:serviceName AND hcds.componentName IN :componentNames"),
+
   @NamedQuery(name = "HostComponentDesiredStateEntity.findByHostsAndCluster", query =
     "SELECT hcds from HostComponentDesiredStateEntity hcds WHERE hcds.hostId IN :hostIds AND hcds.clusterId=:clusterId"),
 })
@@ -66,6 +66,9 @@ import com.google.common.base.MoreObjects;
     @NamedQuery(
         name = "HostComponentStateEntity.findByIndex",
         query = "SELECT hcs from HostComponentStateEntity hcs WHERE hcs.clusterId=:clusterId AND hcs.serviceName=:serviceName AND hcs.componentName=:componentName AND hcs.hostId=:hostId"),
+    @NamedQuery(
+        name = "HostComponentStateEntity.findByServiceAndComponents",
+        query = "SELECT hcs from HostComponentStateEntity hcs WHERE hcs.clusterId=:clusterId AND hcs.serviceName=:serviceName AND hcs.componentName IN :componentNames"),
     @NamedQuery(
         name = "HostComponentStateEntity.findByServiceAndComponentAndNotVersion",
         query = "SELECT hcs from HostComponentStateEntity hcs WHERE hcs.serviceName=:serviceName AND hcs.componentName=:componentName AND hcs.version != :version")
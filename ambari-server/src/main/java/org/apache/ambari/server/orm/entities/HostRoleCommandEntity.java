@@ -48,6 +48,14 @@ import org.apache.ambari.server.RoleCommand;
 import org.apache.ambari.server.actionmanager.HostRoleStatus;
 import org.apache.commons.lang.ArrayUtils;
 
+/**
+ * Models a single task of a {@link StageEntity}.
+ * <p/>
+ * Since {@link HostRoleCommandEntity} instances are created in bulk, often
+ * thousands for a single request, we have a high {@code allocationSize} for
+ * the {@link TableGenerator}. This keeps the task IDs of a request from being
+ * allocated in many round trips to the sequence ID table.
+ */
 @Entity
 @Table(name = "host_role_command"
        , indexes = {
@@ -58,6 +66,7 @@ import org.apache.commons.lang.ArrayUtils;
     table = "ambari_sequences", pkColumnName = "sequence_name", valueColumnName = "sequence_value"
     , pkColumnValue = "host_role_command_id_seq"
     , initialValue = 1
+    , allocationSize = 1000
 )
 @NamedQueries({
     @NamedQuery(
@@ -19,6 +19,7 @@ package org.apache.ambari.server.security.authentication;
 
 import java.util.Collection;
 
+import org.apache.ambari.server.security.authorization.AuthorizationIndex;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -31,6 +32,11 @@ public class AmbariUserAuthentication implements Authentication {
 
   private boolean authenticated;
 
+  /**
+   * The index of the authorizations granted to the user, built on first use.
+   */
+  private transient volatile AuthorizationIndex authorizationIndex;
+
   public AmbariUserAuthentication(String token, AmbariUserDetails userDetails) {
     this(token, userDetails, false);
   }
@@ -80,4 +86,20 @@ public class AmbariUserAuthentication implements Authentication {
   public Integer getUserId() {
     return (userDetails == null) ? null : userDetails.getUserId();
   }
+
+  /**
+   * Gets the index of the authorizations granted by this authentication's authorities, rebuilding
+   * it if privileges or permissions have changed since it was built.
+   *
+   * @return the authorization index
+   */
+  @JsonIgnore
+  public AuthorizationIndex getAuthorizationIndex() {
+    AuthorizationIndex index = authorizationIndex;
+    if ((index == null) || index.isStale()) {
+      index = AuthorizationIndex.create(getAuthorities());
+      authorizationIndex = index;
+    }
+    return index;
+  }
 }
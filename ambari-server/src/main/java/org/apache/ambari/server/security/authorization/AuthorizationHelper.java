@@ -30,6 +30,7 @@ import org.apache.ambari.server.orm.entities.PrivilegeEntity;
 import org.apache.ambari.server.orm.entities.ResourceEntity;
 import org.apache.ambari.server.orm.entities.RoleAuthorizationEntity;
 import org.apache.ambari.server.security.authentication.AmbariProxiedUserDetailsImpl;
+import org.apache.ambari.server.security.authentication.AmbariUserAuthentication;
 import org.apache.ambari.server.security.authentication.AmbariUserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -215,6 +216,10 @@ public class AuthorizationHelper {
       return true;
     } else if (authentication == null) {
       return false;
+    } else if (authentication instanceof AmbariUserAuthentication) {
+      // Authenticated users carry a precomputed index of their authorizations
+      return ((AmbariUserAuthentication) authentication).getAuthorizationIndex()
+          .isAuthorized(resourceType, resourceId, requiredAuthorizations);
     } else {
       // Iterate through the set of required authorizations to see if at least one match is found.
       // If the user has at least one authorization that exists in the set of required authorizations,
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.security.authorization;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ambari.server.orm.entities.PermissionEntity;
+import org.apache.ambari.server.orm.entities.PrivilegeEntity;
+import org.apache.ambari.server.orm.entities.ResourceEntity;
+import org.apache.ambari.server.orm.entities.RoleAuthorizationEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * An immutable index of the {@link RoleAuthorization}s granted by a set of
+ * {@link AmbariGrantedAuthority}s, keyed by resource type and resource id.
+ * <p/>
+ * Authorization checks against the index are map lookups and {@link EnumSet}
+ * bit tests instead of walks over the privilege, permission and authorization
+ * entities of each granted authority.  The results are the same as those of
+ * {@link AuthorizationHelper#isAuthorized(org.springframework.security.core.Authentication, ResourceType, Long, Set)}
+ * evaluated against the authorities the index was built from.
+ * <p/>
+ * Since privileges and permissions may change after an index is built, every
+ * index records the privilege generation at build time; the generation is
+ * advanced whenever privileges or permissions are changed so that holders of
+ * an index know to rebuild it.  Changes made in a transaction only advance the
+ * generation once the transaction is committed (see
+ * {@link #invalidateAllOnCommit()}), otherwise an index built from the old
+ * privileges between the change and the commit would be taken as current.
+ */
+public final class AuthorizationIndex {
+  private final static Logger LOG = LoggerFactory.getLogger(AuthorizationIndex.class);
+
+  /**
+   * The current privilege generation.
+   */
+  private static final AtomicLong GENERATION = new AtomicLong();
+
+  /**
+   * Whether the transaction of the current thread changed privileges or permissions.
+   */
+  private static final ThreadLocal<Boolean> INVALIDATE_ON_COMMIT = new ThreadLocal<>();
+
+  /**
+   * The privilege generation this index was built at.
+   */
+  private final long generation;
+
+  /**
+   * Authorizations granted on the Ambari resource, which apply to all resources.
+   */
+  private final Set<RoleAuthorization> ambariAuthorizations;
+
+  /**
+   * Authorizations granted on any resource.
+   */
+  private final Set<RoleAuthorization> allAuthorizations;
+
+  /**
+   * Authorizations granted on any resource of a type.
+   */
+  private final Map<ResourceType, Set<RoleAuthorization>> authorizationsByType;
+
+  /**
+   * Authorizations granted on a resource id, regardless of the resource type.
+   */
+  private final Map<Long, Set<RoleAuthorization>> authorizationsById;
+
+  /**
+   * Authorizations granted on a resource id of a resource type.
+   */
+  private final Map<ResourceType, Map<Long, Set<RoleAuthorization>>> authorizationsByTypeAndId;
+
+  private AuthorizationIndex(long generation, Set<RoleAuthorization> ambariAuthorizations,
+                             Set<RoleAuthorization> allAuthorizations,
+                             Map<ResourceType, Set<RoleAuthorization>> authorizationsByType,
+                             Map<Long, Set<RoleAuthorization>> authorizationsById,
+                             Map<ResourceType, Map<Long, Set<RoleAuthorization>>> authorizationsByTypeAndId) {
+    this.generation = generation;
+    this.ambariAuthorizations = ambariAuthorizations;
+    this.allAuthorizations = allAuthorizations;
+    this.authorizationsByType = authorizationsByType;
+    this.authorizationsById = authorizationsById;
+    this.authorizationsByTypeAndId = authorizationsByTypeAndId;
+  }
+
+  /**
+   * Builds an index of the authorizations granted by the given authorities.
+   *
+   * @param authorities the granted authorities, all of which are expected to be {@link AmbariGrantedAuthority}s
+   * @return the index
+   */
+  public static AuthorizationIndex create(Collection<? extends GrantedAuthority> authorities) {
+    // read the generation first so that concurrent changes result in a stale index rather than a lost update
+    long generation = GENERATION.get();
+
+    Set<RoleAuthorization> ambariAuthorizations = EnumSet.noneOf(RoleAuthorization.class);
+    Set<RoleAuthorization> allAuthorizations = EnumSet.noneOf(RoleAuthorization.class);
+    Map<ResourceType, Set<RoleAuthorization>> authorizationsByType = new HashMap<>();
+    Map<Long, Set<RoleAuthorization>> authorizationsById = new HashMap<>();
+    Map<ResourceType, Map<Long, Set<RoleAuthorization>>> authorizationsByTypeAndId = new HashMap<>();
+
+    if (authorities != null) {
+      for (GrantedAuthority grantedAuthority : authorities) {
+        AmbariGrantedAuthority ambariGrantedAuthority = (AmbariGrantedAuthority) grantedAuthority;
+        PrivilegeEntity privilegeEntity = ambariGrantedAuthority.getPrivilegeEntity();
+        ResourceEntity privilegeResource = privilegeEntity.getResource();
+        ResourceType privilegeResourceType = ResourceType.translate(privilegeResource.getResourceType().getName());
+
+        Set<RoleAuthorization> authorizations = getAuthorizations(privilegeEntity.getPermission());
+        if (authorizations.isEmpty()) {
+          continue;
+        }
+
+        if (ResourceType.AMBARI == privilegeResourceType) {
+          // This resource type indicates administrative access
+          ambariAuthorizations.addAll(authorizations);
+        }
+
+        Long resourceId = privilegeResource.getId();
+        allAuthorizations.addAll(authorizations);
+        addAll(authorizationsByType, privilegeResourceType, authorizations);
+        addAll(authorizationsById, resourceId, authorizations);
+        addAll(authorizationsByTypeAndId.computeIfAbsent(privilegeResourceType, type -> new HashMap<>()),
+            resourceId, authorizations);
+      }
+    }
+
+    return new AuthorizationIndex(generation, ambariAuthorizations, allAuthorizations, authorizationsByType,
+        authorizationsById, authorizationsByTypeAndId);
+  }
+
+  /**
+   * Marks all existing indexes as stale.  To be called whenever privileges or
+   * permissions are changed.
+   */
+  public static void invalidateAll() {
+    GENERATION.incrementAndGet();
+  }
+
+  /**
+   * Marks all existing indexes as stale once the transaction of the current
+   * thread is committed.  To be called whenever privileges or permissions are
+   * changed in a transaction.
+   *
+   * @see org.apache.ambari.server.orm.AuthorizationIndexSessionListener
+   */
+  public static void invalidateAllOnCommit() {
+    INVALIDATE_ON_COMMIT.set(Boolean.TRUE);
+  }
+
+  /**
+   * Called when the transaction of the current thread is committed; marks all
+   * existing indexes as stale if the transaction changed privileges or permissions.
+   */
+  public static void transactionCommitted() {
+    if (INVALIDATE_ON_COMMIT.get() != null) {
+      INVALIDATE_ON_COMMIT.remove();
+      invalidateAll();
+    }
+  }
+
+  /**
+   * Called when the transaction of the current thread is rolled back; the
+   * privileges and permissions are unchanged.
+   */
+  public static void transactionRolledBack() {
+    INVALIDATE_ON_COMMIT.remove();
+  }
+
+  /**
+   * Determines whether the privileges or permissions have changed since this index was built.
+   *
+   * @return true if the index should be rebuilt
+   */
+  public boolean isStale() {
+    return generation != GENERATION.get();
+  }
+
+  /**
+   * Determines whether the indexed authorities grant at least one of the required authorizations
+   * on the specified resource.
+   *
+   * @param resourceType           a resource type being acted upon, or null for any resource type
+   * @param resourceId             the privilege resource id (or adminresource.id) of the relevant resource,
+   *                               or null for any resource
+   * @param requiredAuthorizations a set of requirements for which one match will allow authorization
+   * @return true if authorized; otherwise false
+   */
+  public boolean isAuthorized(ResourceType resourceType, Long resourceId,
+                              Set<RoleAuthorization> requiredAuthorizations) {
+    if ((requiredAuthorizations == null) || requiredAuthorizations.isEmpty()) {
+      return true;
+    }
+
+    Set<RoleAuthorization> granted;
+    if (resourceType == null) {
+      granted = (resourceId == null) ? allAuthorizations : authorizationsById.get(resourceId);
+    } else if (resourceId == null) {
+      granted = authorizationsByType.get(resourceType);
+    } else {
+      Map<Long, Set<RoleAuthorization>> authorizationsByResourceId = authorizationsByTypeAndId.get(resourceType);
+      granted = (authorizationsByResourceId == null) ? null : authorizationsByResourceId.get(resourceId);
+    }
+
+    return containsAny(ambariAuthorizations, requiredAuthorizations) || containsAny(granted, requiredAuthorizations);
+  }
+
+  private static boolean containsAny(Set<RoleAuthorization> granted, Set<RoleAuthorization> requiredAuthorizations) {
+    if ((granted == null) || granted.isEmpty()) {
+      return false;
+    }
+    for (RoleAuthorization requiredAuthorization : requiredAuthorizations) {
+      if (granted.contains(requiredAuthorization)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static <K> void addAll(Map<K, Set<RoleAuthorization>> map, K key, Set<RoleAuthorization> authorizations) {
+    map.computeIfAbsent(key, k -> EnumSet.noneOf(RoleAuthorization.class)).addAll(authorizations);
+  }
+
+  private static Set<RoleAuthorization> getAuthorizations(PermissionEntity permission) {
+    Collection<RoleAuthorizationEntity> userAuthorizations = (permission == null)
+        ? null
+        : permission.getAuthorizations();
+
+    if (userAuthorizations == null) {
+      return Collections.emptySet();
+    }
+
+    Set<RoleAuthorization> authorizations = EnumSet.noneOf(RoleAuthorization.class);
+    for (RoleAuthorizationEntity userAuthorization : userAuthorizations) {
+      try {
+        RoleAuthorization authorization = RoleAuthorization.translate(userAuthorization.getAuthorizationId());
+        if (authorization != null) {
+          authorizations.add(authorization);
+        }
+      } catch (IllegalArgumentException e) {
+        LOG.warn("Invalid authorization name, '{}'... ignoring.", userAuthorization.getAuthorizationId());
+      }
+    }
+    return authorizations;
+  }
+}
@@ -73,13 +73,8 @@ public class AESEncryptionService implements EncryptionService {
   }
 
   private AESEncryptor getAesEncryptor(String key) {
-    AESEncryptor aesEncryptor = aesEncryptorCache.getIfPresent(key);
-    if (aesEncryptor == null) {
-      aesEncryptor = new AESEncryptor(key);
-      aesEncryptorCache.put(key, aesEncryptor);
-    }
-
-    return aesEncryptor;
+    // encryptors are thread safe and expensive to create, so concurrent callers share a single instance per key
+    return aesEncryptorCache.asMap().computeIfAbsent(key, AESEncryptor::new);
   }
 
   @Override
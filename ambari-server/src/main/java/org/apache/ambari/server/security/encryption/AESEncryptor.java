@@ -19,51 +19,59 @@ package org.apache.ambari.server.security.encryption;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.InvalidParameterSpecException;
 import java.security.spec.KeySpec;
+import java.util.Arrays;
 
 import javax.crypto.Cipher;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * AES encryption with a key derived from a pass phrase.
+ * <p/>
+ * Instances are thread safe: {@link Cipher}s are not, so every thread uses its own
+ * encryption and decryption cipher.  Since key derivation is deliberately expensive,
+ * the keys derived for the salts of decrypted values are cached.
+ */
 public class AESEncryptor {
+  private static final String CIPHER_TRANSFORMATION = "AES/CBC/PKCS5Padding";
   private static final int ITERATION_COUNT = 65536;
   private static final int KEY_LENGTH = 128;
-  private Cipher ecipher;
-  private Cipher dcipher;
-  private SecretKey secret;
-  private byte[] salt = null;
-  private char[] passPhrase = null;
+  private static final int MAX_DERIVED_KEYS = 100;
 
-  public AESEncryptor(String passPhrase) {
-    try {
-      this.passPhrase = passPhrase.toCharArray();
-      salt = new byte[8];
-      SecureRandom rnd = new SecureRandom();
-      rnd.nextBytes(salt);
+  private final byte[] salt;
+  private final byte[] iv;
+  private final char[] passPhrase;
+  private final SecretKey secret;
 
-      SecretKey tmp = getKeyFromPassword(passPhrase);
-      secret = new SecretKeySpec(tmp.getEncoded(), "AES");
+  private final Cache<ByteBuffer, SecretKey> derivedKeys = CacheBuilder.newBuilder().maximumSize(MAX_DERIVED_KEYS).build();
 
-      ecipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-      ecipher.init(Cipher.ENCRYPT_MODE, secret);
+  // the encryption cipher is initialized once per thread, doFinal() resets it to the same key and iv
+  private final ThreadLocal<Cipher> ecipher = ThreadLocal.withInitial(this::createEncryptionCipher);
 
-      dcipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-      byte[] iv = ecipher.getParameters().getParameterSpec(IvParameterSpec.class).getIV();
-      dcipher.init(Cipher.DECRYPT_MODE, secret, new IvParameterSpec(iv));
-    } catch (NoSuchAlgorithmException | InvalidAlgorithmParameterException | InvalidParameterSpecException | InvalidKeyException | NoSuchPaddingException e) {
-      e.printStackTrace();
-    }
+  // the decryption cipher is initialized with the key and iv of each value to decrypt
+  private final ThreadLocal<Cipher> dcipher = ThreadLocal.withInitial(AESEncryptor::createCipher);
+
+  public AESEncryptor(String passPhrase) {
+    this.passPhrase = passPhrase.toCharArray();
+    SecureRandom rnd = new SecureRandom();
+    salt = new byte[8];
+    rnd.nextBytes(salt);
+    iv = new byte[16];
+    rnd.nextBytes(iv);
+
+    secret = toAESKey(getKeyFromPassword(passPhrase));
   }
 
   public SecretKey getKeyFromPassword(String passPhrase) {
@@ -96,7 +104,7 @@ public class AESEncryptor {
 
   public EncryptionResult encrypt(byte[] plain) {
     try {
-      return new EncryptionResult(salt, ecipher.getParameters().getParameterSpec(IvParameterSpec.class).getIV(), ecipher.doFinal(plain));
+      return new EncryptionResult(salt, iv, ecipher.get().doFinal(plain));
     } catch (GeneralSecurityException e) {
       throw new RuntimeException(e);
     }
@@ -104,13 +112,50 @@ public class AESEncryptor {
 
   public byte[] decrypt(byte[] salt, byte[] iv, byte[] encrypt) {
     try {
-      SecretKey tmp = getKeyFromPassword(new String(passPhrase), salt);
-      secret = new SecretKeySpec(tmp.getEncoded(), "AES");
+      Cipher cipher = dcipher.get();
+      cipher.init(Cipher.DECRYPT_MODE, getKey(salt), new IvParameterSpec(iv));
+      return cipher.doFinal(encrypt);
+    } catch (GeneralSecurityException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Returns the key derived from the pass phrase with the given salt.
+   */
+  private SecretKey getKey(byte[] salt) {
+    if (Arrays.equals(this.salt, salt)) {
+      return secret;
+    }
+
+    ByteBuffer cacheKey = ByteBuffer.wrap(salt.clone());
+    SecretKey key = derivedKeys.getIfPresent(cacheKey);
+    if (key == null) {
+      key = toAESKey(getKeyFromPassword(new String(passPhrase), salt));
+      derivedKeys.put(cacheKey, key);
+    }
+    return key;
+  }
+
+  private Cipher createEncryptionCipher() {
+    Cipher cipher = createCipher();
+    try {
+      cipher.init(Cipher.ENCRYPT_MODE, secret, new IvParameterSpec(iv));
+    } catch (GeneralSecurityException e) {
+      throw new RuntimeException(e);
+    }
+    return cipher;
+  }
 
-      dcipher.init(Cipher.DECRYPT_MODE, secret, new IvParameterSpec(iv));
-      return dcipher.doFinal(encrypt);
+  private static Cipher createCipher() {
+    try {
+      return Cipher.getInstance(CIPHER_TRANSFORMATION);
     } catch (GeneralSecurityException e) {
       throw new RuntimeException(e);
     }
   }
+
+  private static SecretKey toAESKey(SecretKey key) {
+    return new SecretKeySpec(key.getEncoded(), "AES");
+  }
 }
@@ -19,7 +19,6 @@
 package org.apache.ambari.server.security.encryption;
 
 import java.util.Map;
-import java.util.SortedMap;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.AmbariRuntimeException;
@@ -51,16 +50,10 @@ public class AgentConfigUpdateEncryptor extends PropertiesEncryptor implements E
 
   @Override
   public void encryptSensitiveData(AgentConfigsUpdateEvent event) {
+    final String key = encryptionKey.toString();
     for (Map.Entry<String, ClusterConfigs> each : event.getClustersConfigs().entrySet()) {
       Cluster cluster = getCluster(Long.parseLong(each.getKey()));
-      ClusterConfigs clusterConfigs = each.getValue();
-      for (Map.Entry<String, SortedMap<String, String>> clusterConfig : clusterConfigs.getConfigurations().entrySet()) {
-        encrypt(
-          clusterConfig.getValue(),
-          cluster,
-          clusterConfig.getKey(),
-          encryptionKey.toString());
-      }
+      encryptAll(each.getValue().getConfigurations(), cluster, key);
     }
   }
 
@@ -51,6 +51,17 @@ public class PropertiesEncryptor {
     encrypt(configProperties, cluster, configType, value -> encryptAndDecoratePropertyValue(value));
   }
 
+  /**
+   * Encrypts the sensitive properties of all the given config types in one pass, using the same encryption key
+   * @param configurations properties keyed by config type
+   */
+  protected void encryptAll(Map<String, ? extends Map<String, String>> configurations, Cluster cluster, String encryptionKey) {
+    final Function<String, String> encryption = value -> encryptAndDecoratePropertyValue(value, encryptionKey);
+    for (Map.Entry<String, ? extends Map<String, String>> configuration : configurations.entrySet()) {
+      encrypt(configuration.getValue(), cluster, configuration.getKey(), encryption);
+    }
+  }
+
   protected void encrypt(Map<String, String> configProperties, Cluster cluster, String configType, Function<String,String> encryption) {
     final Set<String> passwordProperties = getPasswordProperties(cluster, configType);
     if (CollectionUtils.isNotEmpty(passwordProperties)) {
@@ -89,7 +89,7 @@ public interface Cluster {
 
   /**
    * Get all services
-   * @return
+   * @return an unmodifiable snapshot of the services by name
    */
   Map<String, Service> getServices();
 
@@ -380,6 +380,15 @@ public interface Cluster {
    */
   List<ServiceConfigVersionResponse> getServiceConfigVersions();
 
+  /**
+   * Get service config version history of a service.
+   * @param serviceName the service name, or {@code null} for all services
+   * @param includeConfigurations whether to add the configurations of each version
+   * @return the service config versions, newest first
+   */
+  List<ServiceConfigVersionResponse> getServiceConfigVersions(@Nullable String serviceName,
+                                                              boolean includeConfigurations);
+
   /**
    * Gets the desired (and selected) config by type.
    * @param configType  the type of configuration
@@ -510,7 +519,7 @@ public interface Cluster {
 
   /**
    * Get config groups associated with this cluster
-   * @return unmodifiable map of config group id to config group.  Will not return null.
+   * @return unmodifiable snapshot of config group id to config group.  Will not return null.
    */
   Map<Long, ConfigGroup> getConfigGroups();
 
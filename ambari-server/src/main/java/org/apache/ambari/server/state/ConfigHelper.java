@@ -103,6 +103,13 @@ public class ConfigHelper {
 
   private final Cache<Integer, String> refreshConfigCommandCache;
 
+  /**
+   * Index of the config types the stale configs status of a component depends on (the config dependencies of the
+   * component and of its service), by stack, service and component name. Used to find the host components
+   * affected by a config change without computing the status of every host component.
+   */
+  private final Cache<String, Set<String>> componentConfigTypesCache;
+
   private static final Logger LOG =
       LoggerFactory.getLogger(ConfigHelper.class);
 
@@ -162,6 +169,9 @@ public class ConfigHelper {
 
     refreshConfigCommandCache = CacheBuilder.newBuilder().
             expireAfterWrite(STALE_CONFIGS_CACHE_EXPIRATION_TIME, TimeUnit.SECONDS).build();
+
+    componentConfigTypesCache = CacheBuilder.newBuilder().
+            expireAfterWrite(STALE_CONFIGS_CACHE_EXPIRATION_TIME, TimeUnit.SECONDS).build();
   }
 
   /**
@@ -1510,6 +1520,7 @@ public class ConfigHelper {
 
     Iterator<Entry<String, Map<String, String>>> it = desired.entrySet().iterator();
     List<String> changedProperties = new LinkedList<>();
+    Set<String> groupSpecificConfigTypes = null;
 
     while (it.hasNext()) {
       boolean staleEntry = false;
@@ -1526,7 +1537,11 @@ public class ConfigHelper {
         HostConfig hc = actual.get(type);
         Map<String, String> actualTags = buildTags(hc);
 
-        if (!isTagChanged(tags, actualTags, hasGroupSpecificConfigsForType(cluster, sch.getHostName(), type))) {
+        if (groupSpecificConfigTypes == null) {
+          groupSpecificConfigTypes = getGroupSpecificConfigTypes(cluster, sch.getHostName());
+        }
+
+        if (!isTagChanged(tags, actualTags, groupSpecificConfigTypes.contains(type))) {
           staleEntry = false;
         } else {
           staleEntry = (serviceInfo.hasConfigDependency(type) || componentInfo.hasConfigType(type));
@@ -1636,9 +1651,7 @@ public class ConfigHelper {
         }
         changedConfigs.put(host.getHostId(), changedConfigsHost);
       }
-      for (String serviceName : cluster.getServices().keySet()) {
-        checkStaleConfigsStatusOnConfigsUpdate(cluster.getClusterId(), serviceName, changedConfigs);
-      }
+      checkStaleConfigsStatusOnConfigsUpdate(cluster, changedConfigs);
 
       m_metadataHolder.get().updateData(m_ambariManagementController.get().getClusterMetadataOnConfigsUpdate(cluster));
       m_agentConfigsHolder.get().updateData(cluster.getClusterId(), null);
@@ -1646,40 +1659,84 @@ public class ConfigHelper {
   }
 
   /**
-   * Checks configs are stale after specified config changes for service's components.
-   * @param clusterId cluster with changed config
-   * @param serviceName service for changed config
-   * @param changedConfigs map of config types to collections of changed properties' names.
+   * Checks configs are stale after specified config changes for the cluster's components on the changed hosts.
+   * Only the host components depending on a changed config type on their host are checked against the changed
+   * configs, the other ones only by their restart required flag. The status changes are published in a single
+   * event.
+   * @param cluster cluster with changed config
+   * @param changedConfigs map of host ids to config types to collections of changed properties' names.
    * @throws AmbariException
    */
-  public void checkStaleConfigsStatusOnConfigsUpdate(Long clusterId, String serviceName,
+  public void checkStaleConfigsStatusOnConfigsUpdate(Cluster cluster,
                                                      Map<Long, Map<String, Collection<String>>> changedConfigs) throws AmbariException {
     if (MapUtils.isEmpty(changedConfigs)) {
       return;
     }
 
-    if (!clusters.getCluster(clusterId).getServices().keySet().contains(serviceName)) {
-      return;
-    }
-    Service service = clusters.getCluster(clusterId).getService(serviceName);
-    for (ServiceComponent serviceComponent : service.getServiceComponents().values()) {
-      String serviceComponentHostName = serviceComponent.getName();
-      for (ServiceComponentHost serviceComponentHost : serviceComponent.getServiceComponentHosts().values()) {
-        if (changedConfigs.keySet().contains(serviceComponentHost.getHost().getHostId())) {
-          boolean staleConfigs = checkStaleConfigsStatusForHostComponent(serviceComponentHost,
-              changedConfigs.get(serviceComponentHost.getHost().getHostId()));
+    Long clusterId = cluster.getClusterId();
+    List<HostComponentUpdate> hostComponentUpdates = new ArrayList<>();
+    for (Service service : cluster.getServices().values()) {
+      String serviceName = service.getName();
+      for (ServiceComponent serviceComponent : service.getServiceComponents().values()) {
+        Set<String> componentConfigTypes = getComponentConfigTypes(serviceComponent);
+
+        String serviceComponentHostName = serviceComponent.getName();
+        for (ServiceComponentHost serviceComponentHost : serviceComponent.getServiceComponentHosts().values()) {
+          Long hostId = serviceComponentHost.getHost().getHostId();
+          Map<String, Collection<String>> changedHostConfigs = changedConfigs.get(hostId);
+          if (changedHostConfigs == null) {
+            continue;
+          }
 
-          if (wasStaleConfigsStatusUpdated(clusterId, serviceComponentHost.getHost().getHostId(),
-              serviceName, serviceComponentHostName, staleConfigs)) {
+          // configs the component does not depend on cannot make it stale, only its restart required flag is checked
+          boolean staleConfigs;
+          if (!Collections.disjoint(componentConfigTypes, changedHostConfigs.keySet())) {
+            staleConfigs = checkStaleConfigsStatusForHostComponent(serviceComponentHost, changedHostConfigs);
+          } else {
+            staleConfigs = serviceComponentHost.isRestartRequired(serviceComponentHost.getDesiredStateEntity());
+          }
+
+          if (wasStaleConfigsStatusUpdated(clusterId, hostId, serviceName, serviceComponentHostName, staleConfigs)) {
             serviceComponentHost.setRestartRequiredWithoutEventPublishing(staleConfigs);
-            STOMPUpdatePublisher.publish(new HostComponentsUpdateEvent(Collections.singletonList(
-                HostComponentUpdate.createHostComponentStaleConfigsStatusUpdate(clusterId,
-                    serviceName, serviceComponentHost.getHostName(),
-                    serviceComponentHostName, staleConfigs))));
+            hostComponentUpdates.add(HostComponentUpdate.createHostComponentStaleConfigsStatusUpdate(clusterId,
+                serviceName, serviceComponentHost.getHostName(), serviceComponentHostName, staleConfigs));
           }
         }
       }
     }
+
+    if (!hostComponentUpdates.isEmpty()) {
+      STOMPUpdatePublisher.publish(new HostComponentsUpdateEvent(hostComponentUpdates));
+    }
+  }
+
+  /**
+   * Gets the config types the stale configs status of the component depends on from
+   * {@link #componentConfigTypesCache}.
+   * @param serviceComponent the component
+   * @return the config dependencies of the component and of its service
+   * @throws AmbariException
+   */
+  private Set<String> getComponentConfigTypes(ServiceComponent serviceComponent) throws AmbariException {
+    StackId stackId = serviceComponent.getDesiredStackId();
+    String key = stackId + "/" + serviceComponent.getServiceName() + "/" + serviceComponent.getName();
+    Set<String> configTypes = componentConfigTypesCache.getIfPresent(key);
+    if (configTypes == null) {
+      ServiceInfo serviceInfo = ambariMetaInfo.getService(stackId.getStackName(),
+          stackId.getStackVersion(), serviceComponent.getServiceName());
+      ComponentInfo componentInfo = serviceInfo.getComponentByName(serviceComponent.getName());
+
+      configTypes = new HashSet<>();
+      if (serviceInfo.getConfigDependencies() != null) {
+        configTypes.addAll(serviceInfo.getConfigDependencies());
+      }
+      if (componentInfo != null && componentInfo.getConfigDependencies() != null) {
+        configTypes.addAll(componentInfo.getConfigDependencies());
+      }
+      configTypes = Collections.unmodifiableSet(configTypes);
+      componentConfigTypesCache.put(key, configTypes);
+    }
+    return configTypes;
   }
 
   /**
@@ -1907,28 +1964,26 @@ public class ConfigHelper {
   }
 
   /**
-   * Determines if the hostname has group specific configs for the type specified
+   * Determines the types the hostname has group specific configs for, so the config groups of the host are
+   * looked up once instead of once per type.
    *
    * @param cluster
    * @param hostname of the host to look for
-   * @param type     the type to look for (e.g. flume-conf)
-   * @return <code>true</code> if the hostname has group specific configuration for the type
+   * @return the types (e.g. flume-conf) the hostname has group specific configuration for
    */
-  private boolean hasGroupSpecificConfigsForType(Cluster cluster, String hostname, String type) {
+  private Set<String> getGroupSpecificConfigTypes(Cluster cluster, String hostname) {
+    Set<String> types = new HashSet<>();
     try {
       Map<Long, ConfigGroup> configGroups = cluster.getConfigGroupsByHostname(hostname);
-      if (configGroups != null && !configGroups.isEmpty()) {
+      if (configGroups != null) {
         for (ConfigGroup configGroup : configGroups.values()) {
-          Config config = configGroup.getConfigurations().get(type);
-          if (config != null) {
-            return true;
-          }
+          types.addAll(configGroup.getConfigurations().keySet());
         }
       }
     } catch (AmbariException ambariException) {
       LOG.warn("Could not determine group configuration for host. Details: " + ambariException.getMessage());
     }
-    return false;
+    return types;
   }
 
   /**
@@ -74,10 +74,24 @@ public class ConfigImpl implements Config {
   /**
    * The properties of this configuration. This cannot be a
    * {@link ConcurrentMap} since we allow null values. Therefore, it must be
-   * synchronized externally.
+   * synchronized externally. For config versions which are not selected this
+   * is an immutable {@link InternedProperties}, which is replaced by a
+   * {@link HashMap} once the properties are changed.
    */
   private Map<String, String> properties;
 
+  /**
+   * The serialized properties and attributes of a config version which is not
+   * selected, until they are first read. Guarded by {@link #propertyLock}.
+   */
+  private volatile String pendingData;
+  private String pendingAttributes;
+
+  /**
+   * Used to decrypt the pending properties once they are read.
+   */
+  private Encryptor<Config> configPropertiesEncryptor;
+
   /**
    * A lock for reading/writing of {@link #properties} concurrently.
    *
@@ -203,10 +217,34 @@ public class ConfigImpl implements Config {
 
     propertiesTypes = cluster.getConfigPropertiesTypes(type);
 
+    // the versions which are not selected are usually kept only for the service config history, so
+    // deserialize them when they are first read and keep them in the compact form
+    if (!entity.isSelected()) {
+      this.configPropertiesEncryptor = configPropertiesEncryptor;
+      pendingAttributes = entity.getAttributes();
+      pendingData = null == entity.getData() ? "" : entity.getData();
+      return;
+    }
+
+    deserialize(entity.getData(), entity.getAttributes(), configPropertiesEncryptor);
+  }
+
+  /**
+   * Deserializes and decrypts the properties and attributes of an existing
+   * configuration.
+   *
+   * @param data
+   *          the properties as JSON
+   * @param attributes
+   *          the property attributes as JSON
+   * @param configPropertiesEncryptor
+   *          the encryptor to decrypt the sensitive properties with
+   */
+  private void deserialize(String data, String attributes, Encryptor<Config> configPropertiesEncryptor) {
     // incur the hit on deserialization since this business object is stored locally
     try {
       Map<String, String> deserializedProperties = gson.<Map<String, String>> fromJson(
-          entity.getData(), Map.class);
+          data, Map.class);
 
       if (null == deserializedProperties) {
         deserializedProperties = new HashMap<>();
@@ -215,21 +253,69 @@ public class ConfigImpl implements Config {
       properties = deserializedProperties;
       configPropertiesEncryptor.decryptSensitiveData(this);
     } catch (JsonSyntaxException e) {
-      LOG.error("Malformed configuration JSON stored in the database for {}/{}", entity.getType(),
-          entity.getTag());
+      LOG.error("Malformed configuration JSON stored in the database for {}/{}", type, tag);
     }
 
     // incur the hit on deserialization since this business object is stored locally
     try {
       Map<String, Map<String, String>> deserializedAttributes = gson.<Map<String, Map<String, String>>> fromJson(
-          entity.getAttributes(), Map.class);
+          attributes, Map.class);
 
       if (null != deserializedAttributes) {
         propertiesAttributes = new HashMap<>(deserializedAttributes);
       }
     } catch (JsonSyntaxException e) {
-      LOG.error("Malformed configuration attribute JSON stored in the database for {}/{}",
-          entity.getType(), entity.getTag());
+      LOG.error("Malformed configuration attribute JSON stored in the database for {}/{}", type, tag);
+    }
+  }
+
+  /**
+   * Deserializes the properties and attributes of a config version which is
+   * not selected into their compact form, if that was not done yet.
+   */
+  private void ensureLoaded() {
+    if (null == pendingData) {
+      return;
+    }
+
+    propertyLock.writeLock().lock();
+    try {
+      String data = pendingData;
+      if (null == data) {
+        return;
+      }
+
+      // cleared first, as decrypting reads and sets the properties of this instance
+      pendingData = null;
+      deserialize(data, pendingAttributes, configPropertiesEncryptor);
+      pendingAttributes = null;
+      configPropertiesEncryptor = null;
+
+      if (null != properties) {
+        properties = InternedProperties.of(properties);
+      }
+
+      if (null != propertiesAttributes) {
+        Map<String, Map<String, String>> internedAttributes = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : propertiesAttributes.entrySet()) {
+          internedAttributes.put(entry.getKey(),
+              null == entry.getValue() ? null : InternedProperties.of(entry.getValue()));
+        }
+        propertiesAttributes = internedAttributes;
+      }
+    } finally {
+      propertyLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces the compact properties with a mutable copy. Must be called while
+   * holding the write lock of {@link #propertyLock}.
+   */
+  private void ensureMutable() {
+    ensureLoaded();
+    if (properties instanceof InternedProperties) {
+      properties = new HashMap<>(properties);
     }
   }
 
@@ -304,6 +390,7 @@ public class ConfigImpl implements Config {
 
   @Override
   public Map<String, String> getProperties() {
+    ensureLoaded();
     propertyLock.readLock().lock();
     try {
       return properties == null ? new HashMap<>() : new HashMap<>(properties);
@@ -314,14 +401,34 @@ public class ConfigImpl implements Config {
 
   @Override
   public Map<String, Map<String, String>> getPropertiesAttributes() {
-    return null == propertiesAttributes ? null
-        : new HashMap<>(propertiesAttributes);
+    ensureLoaded();
+    Map<String, Map<String, String>> attributes;
+    propertyLock.readLock().lock();
+    try {
+      attributes = propertiesAttributes;
+    } finally {
+      propertyLock.readLock().unlock();
+    }
+
+    if (null == attributes) {
+      return null;
+    }
+
+    // the compact attributes are copied as well, since callers may change them
+    Map<String, Map<String, String>> copy = new HashMap<>(attributes);
+    for (Map.Entry<String, Map<String, String>> entry : copy.entrySet()) {
+      if (entry.getValue() instanceof InternedProperties) {
+        entry.setValue(new HashMap<>(entry.getValue()));
+      }
+    }
+    return copy;
   }
 
   @Override
   public void setProperties(Map<String, String> properties) {
     propertyLock.writeLock().lock();
     try {
+      ensureLoaded();
       this.properties = properties;
     } finally {
       propertyLock.writeLock().unlock();
@@ -330,6 +437,7 @@ public class ConfigImpl implements Config {
 
   @Override
   public void setPropertiesAttributes(Map<String, Map<String, String>> propertiesAttributes) {
+    ensureLoaded();
     this.propertiesAttributes = propertiesAttributes;
   }
 
@@ -337,6 +445,7 @@ public class ConfigImpl implements Config {
   public void updateProperties(Map<String, String> propertiesToUpdate) {
     propertyLock.writeLock().lock();
     try {
+      ensureMutable();
       properties.putAll(propertiesToUpdate);
     } finally {
       propertyLock.writeLock().unlock();
@@ -357,6 +466,7 @@ public class ConfigImpl implements Config {
   public void deleteProperties(List<String> propertyKeysToRemove) {
     propertyLock.writeLock().lock();
     try {
+      ensureMutable();
       Set<String> keySet = properties.keySet();
       keySet.removeAll(propertyKeysToRemove);
     } finally {
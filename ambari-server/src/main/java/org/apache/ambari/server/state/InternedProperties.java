@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.state;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * An immutable, compact map of configuration properties. The keys are kept in a sorted array which is
+ * shared by every map having the same key set, so the versions of a config type usually share a single
+ * key dictionary. The values are kept in a parallel array and are deduplicated across all instances.
+ * <p/>
+ * Used by {@link ConfigImpl} for config versions which are not selected, since those are only read and
+ * there may be thousands of them loaded for the service config history.
+ */
+final class InternedProperties extends AbstractMap<String, String> {
+
+  /**
+   * Key dictionaries, weakly held so unused dictionaries are collected.
+   */
+  private static final Interner<KeyDictionary> KEYS = Interners.newWeakInterner();
+
+  /**
+   * Deduplicated keys and values, weakly held so unused strings are collected.
+   */
+  private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+  private static final InternedProperties EMPTY = new InternedProperties(new KeyDictionary(new String[0]),
+      new String[0]);
+
+  private final KeyDictionary keys;
+
+  private final String[] values;
+
+  private InternedProperties(KeyDictionary keys, String[] values) {
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Creates the compact copy of a map.
+   *
+   * @param properties
+   *          the properties to copy, may contain {@code null} values
+   * @return the compact copy
+   */
+  static InternedProperties of(Map<String, String> properties) {
+    if (properties.isEmpty()) {
+      return EMPTY;
+    }
+
+    String[] names = new String[properties.size()];
+    int i = 0;
+    for (String name : properties.keySet()) {
+      names[i++] = STRINGS.intern(name);
+    }
+    Arrays.sort(names);
+
+    String[] values = new String[names.length];
+    for (i = 0; i < names.length; i++) {
+      String value = properties.get(names[i]);
+      values[i] = value == null ? null : STRINGS.intern(value);
+    }
+
+    return new InternedProperties(KEYS.intern(new KeyDictionary(names)), values);
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public String get(Object key) {
+    int index = indexOf(key);
+    return index < 0 ? null : values[index];
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return new AbstractSet<Entry<String, String>>() {
+      @Override
+      public Iterator<Entry<String, String>> iterator() {
+        return new Iterator<Entry<String, String>>() {
+          private int index = 0;
+
+          @Override
+          public boolean hasNext() {
+            return index < values.length;
+          }
+
+          @Override
+          public Entry<String, String> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            Entry<String, String> entry = new SimpleImmutableEntry<>(keys.names[index], values[index]);
+            index++;
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+    };
+  }
+
+  private int indexOf(Object key) {
+    if (!(key instanceof String)) {
+      return -1;
+    }
+    return Arrays.binarySearch(keys.names, key);
+  }
+
+  /**
+   * Sorted property names, compared by content so that equal key sets can be interned.
+   */
+  private static final class KeyDictionary {
+    private final String[] names;
+    private final int hashCode;
+
+    private KeyDictionary(String[] names) {
+      this.names = names;
+      hashCode = Arrays.hashCode(names);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || (o instanceof KeyDictionary && Arrays.equals(names, ((KeyDictionary) o).names));
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
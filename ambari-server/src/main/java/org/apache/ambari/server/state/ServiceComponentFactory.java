@@ -17,6 +17,10 @@
  */
 package org.apache.ambari.server.state;
 
+import java.util.Collection;
+
+import org.apache.ambari.server.orm.entities.HostComponentDesiredStateEntity;
+import org.apache.ambari.server.orm.entities.HostComponentStateEntity;
 import org.apache.ambari.server.orm.entities.ServiceComponentDesiredStateEntity;
 
 public interface ServiceComponentFactory {
@@ -24,4 +28,8 @@ public interface ServiceComponentFactory {
   ServiceComponent createNew(Service service, String componentName);
 
   ServiceComponent createExisting(Service service, ServiceComponentDesiredStateEntity serviceComponentDesiredStateEntity);
+
+  ServiceComponent createExisting(Service service, ServiceComponentDesiredStateEntity serviceComponentDesiredStateEntity,
+      Collection<HostComponentStateEntity> hostComponentStateEntities,
+      Collection<HostComponentDesiredStateEntity> hostComponentDesiredStateEntities);
 }
@@ -18,6 +18,7 @@
 
 package org.apache.ambari.server.state;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -165,6 +166,30 @@ public class ServiceComponentImpl implements ServiceComponent {
       ServiceComponentHostFactory serviceComponentHostFactory,
       AmbariEventPublisher eventPublisher)
       throws AmbariException {
+    this(service, serviceComponentDesiredStateEntity,
+        serviceComponentDesiredStateEntity.getHostComponentStateEntities(),
+        hostComponentDesiredStateDAO.findByIndex(service.getClusterId(), service.getName(),
+            serviceComponentDesiredStateEntity.getComponentName()),
+        ambariMetaInfo, serviceComponentDesiredStateDAO, clusterServiceDAO, serviceComponentHostFactory,
+        eventPublisher);
+  }
+
+  /**
+   * Creates an existing component from host component state which has already been loaded, so that
+   * the host components of all components of a service can be read with a single query each instead
+   * of one per component.
+   */
+  @AssistedInject
+  public ServiceComponentImpl(@Assisted Service service,
+      @Assisted ServiceComponentDesiredStateEntity serviceComponentDesiredStateEntity,
+      @Assisted Collection<HostComponentStateEntity> hostComponentStateEntities,
+      @Assisted Collection<HostComponentDesiredStateEntity> hostComponentDesiredStateEntities,
+      AmbariMetaInfo ambariMetaInfo,
+      ServiceComponentDesiredStateDAO serviceComponentDesiredStateDAO,
+      ClusterServiceDAO clusterServiceDAO,
+      ServiceComponentHostFactory serviceComponentHostFactory,
+      AmbariEventPublisher eventPublisher)
+      throws AmbariException {
     this.service = service;
     this.serviceComponentDesiredStateDAO = serviceComponentDesiredStateDAO;
     this.clusterServiceDAO = clusterServiceDAO;
@@ -177,16 +202,10 @@ public class ServiceComponentImpl implements ServiceComponent {
 
     updateComponentInfo();
 
-    List<HostComponentDesiredStateEntity> hostComponentDesiredStateEntities = hostComponentDesiredStateDAO.findByIndex(
-        service.getClusterId(),
-        service.getName(),
-        serviceComponentDesiredStateEntity.getComponentName()
-    );
-
     Map<String, HostComponentDesiredStateEntity> mappedHostComponentDesiredStateEntitites =
         hostComponentDesiredStateEntities.stream().collect(Collectors.toMap(h -> h.getHostEntity().getHostName(),
             java.util.function.Function.identity()));
-    for (HostComponentStateEntity hostComponentStateEntity : serviceComponentDesiredStateEntity.getHostComponentStateEntities()) {
+    for (HostComponentStateEntity hostComponentStateEntity : hostComponentStateEntities) {
 
       try {
         hostComponents.put(hostComponentStateEntity.getHostName(),
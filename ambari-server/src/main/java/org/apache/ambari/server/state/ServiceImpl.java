@@ -31,6 +31,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.ObjectNotFoundException;
@@ -50,12 +51,16 @@ import org.apache.ambari.server.events.ServiceRemovedEvent;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
 import org.apache.ambari.server.orm.dao.ClusterDAO;
 import org.apache.ambari.server.orm.dao.ClusterServiceDAO;
+import org.apache.ambari.server.orm.dao.HostComponentDesiredStateDAO;
+import org.apache.ambari.server.orm.dao.HostComponentStateDAO;
 import org.apache.ambari.server.orm.dao.ServiceConfigDAO;
 import org.apache.ambari.server.orm.dao.ServiceDesiredStateDAO;
 import org.apache.ambari.server.orm.entities.ClusterConfigEntity;
 import org.apache.ambari.server.orm.entities.ClusterEntity;
 import org.apache.ambari.server.orm.entities.ClusterServiceEntity;
 import org.apache.ambari.server.orm.entities.ClusterServiceEntityPK;
+import org.apache.ambari.server.orm.entities.HostComponentDesiredStateEntity;
+import org.apache.ambari.server.orm.entities.HostComponentStateEntity;
 import org.apache.ambari.server.orm.entities.RepositoryVersionEntity;
 import org.apache.ambari.server.orm.entities.ServiceComponentDesiredStateEntity;
 import org.apache.ambari.server.orm.entities.ServiceConfigEntity;
@@ -186,7 +191,8 @@ public class ServiceImpl implements Service {
               ClusterDAO clusterDAO, ClusterServiceDAO clusterServiceDAO,
               ServiceDesiredStateDAO serviceDesiredStateDAO,
               ServiceComponentFactory serviceComponentFactory, AmbariMetaInfo ambariMetaInfo,
-              AmbariEventPublisher eventPublisher) throws AmbariException {
+              AmbariEventPublisher eventPublisher, HostComponentStateDAO hostComponentStateDAO,
+              HostComponentDesiredStateDAO hostComponentDesiredStateDAO) throws AmbariException {
     this.cluster = cluster;
     this.clusterDAO = clusterDAO;
     this.clusterServiceDAO = clusterServiceDAO;
@@ -201,12 +207,26 @@ public class ServiceImpl implements Service {
     serviceEntityPK = getServiceEntityPK(serviceEntity);
 
     if (!serviceEntity.getServiceComponentDesiredStateEntities().isEmpty()) {
+      // load the host components of every component at once rather than per component
+      Set<String> componentNames = serviceEntity.getServiceComponentDesiredStateEntities().stream()
+          .map(ServiceComponentDesiredStateEntity::getComponentName)
+          .collect(Collectors.toSet());
+      Map<String, List<HostComponentStateEntity>> hostComponentStateEntities =
+          hostComponentStateDAO.findByServiceAndComponents(cluster.getClusterId(), serviceName, componentNames).stream()
+              .collect(Collectors.groupingBy(HostComponentStateEntity::getComponentName));
+      Map<String, List<HostComponentDesiredStateEntity>> hostComponentDesiredStateEntities =
+          hostComponentDesiredStateDAO.findByServiceAndComponents(cluster.getClusterId(), serviceName, componentNames).stream()
+              .collect(Collectors.groupingBy(HostComponentDesiredStateEntity::getComponentName));
+
       for (ServiceComponentDesiredStateEntity serviceComponentDesiredStateEntity
           : serviceEntity.getServiceComponentDesiredStateEntities()) {
+        String componentName = serviceComponentDesiredStateEntity.getComponentName();
         try {
-          components.put(serviceComponentDesiredStateEntity.getComponentName(),
+          components.put(componentName,
               serviceComponentFactory.createExisting(this,
-                  serviceComponentDesiredStateEntity));
+                  serviceComponentDesiredStateEntity,
+                  hostComponentStateEntities.getOrDefault(componentName, Collections.emptyList()),
+                  hostComponentDesiredStateEntities.getOrDefault(componentName, Collections.emptyList())));
         } catch (ProvisionException ex) {
           StackId stackId = new StackId(serviceComponentDesiredStateEntity.getDesiredStack());
           LOG.error(String.format("Can not get component info: stackName=%s, stackVersion=%s, serviceName=%s, componentName=%s",
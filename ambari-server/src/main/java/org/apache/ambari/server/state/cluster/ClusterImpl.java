@@ -39,6 +39,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -159,6 +160,8 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Functions;
 import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
@@ -189,11 +192,41 @@ public class ClusterImpl implements Cluster {
 
   private final ConcurrentSkipListMap<String, Service> services = new ConcurrentSkipListMap<>();
 
+  /**
+   * Immutable copy of {@link #services} returned by {@link #getServices()}, replaced whenever a service is
+   * added or removed, so readers neither copy the map nor take a lock.
+   */
+  private volatile Map<String, Service> servicesSnapshot = Collections.emptyMap();
+
   /**
    * [ Config Type -> [ Config Version Tag -> Config ] ]
    */
   private final ConcurrentMap<String, ConcurrentMap<String, Config>> allConfigs = new ConcurrentHashMap<>();
 
+  /**
+   * Number of locks guarding the modifications of {@link #allConfigs}.
+   */
+  private static final int CONFIG_TYPE_LOCK_STRIPES = 16;
+
+  /**
+   * Locks striped by config type which serialize the modifications of {@link #allConfigs}, so saving a config
+   * does not need the {@link #clusterGlobalLock}. Reads of {@link #allConfigs} take no lock at all.
+   */
+  private final Lock[] configTypeLocks = new Lock[CONFIG_TYPE_LOCK_STRIPES];
+
+  /**
+   * Number of service config versions whose configurations are kept in
+   * {@link #serviceConfigVersionConfigurations}.
+   */
+  private static final int SERVICE_CONFIG_VERSION_CACHE_SIZE = 100;
+
+  /**
+   * [ Service Config Id -> Configurations ] of the recently viewed service config versions. Dropped when the
+   * cluster is refreshed or {@link #allConfigs} is reloaded, as saving a config changes it in place.
+   */
+  private final Cache<Long, List<ConfigurationResponse>> serviceConfigVersionConfigurations =
+    CacheBuilder.newBuilder().maximumSize(SERVICE_CONFIG_VERSION_CACHE_SIZE).build();
+
   /**
    * [ ServiceName -> [ ServiceComponentName -> [ HostName -> [ ... ] ] ] ]
    */
@@ -209,6 +242,12 @@ public class ClusterImpl implements Cluster {
    */
   private final Map<Long, ConfigGroup> clusterConfigGroups = new ConcurrentHashMap<>();
 
+  /**
+   * Immutable copy of {@link #clusterConfigGroups} returned by {@link #getConfigGroups()}, replaced whenever
+   * a config group is added or removed, so readers see a consistent set of groups without taking a lock.
+   */
+  private volatile Map<Long, ConfigGroup> configGroupsSnapshot = Collections.emptyMap();
+
   /**
    * Map of Request schedules for this cluster
    */
@@ -348,6 +387,9 @@ public class ClusterImpl implements Cluster {
     injector.injectMembers(this);
 
     clusterGlobalLock = lockFactory.newReadWriteLock("clusterGlobalLock");
+    for (int i = 0; i < configTypeLocks.length; i++) {
+      configTypeLocks[i] = lockFactory.newLock("clusterConfigTypeLock");
+    }
 
     loadStackVersion();
     loadServices();
@@ -445,6 +487,22 @@ public class ClusterImpl implements Cluster {
     }
   }
 
+  /**
+   * Replaces {@link #servicesSnapshot} after {@link #services} changed. Synchronized so a snapshot taken
+   * before a concurrent change is never published after the snapshot which contains it.
+   */
+  private synchronized void updateServicesSnapshot() {
+    servicesSnapshot = Collections.unmodifiableMap(new HashMap<>(services));
+  }
+
+  /**
+   * Replaces {@link #configGroupsSnapshot} after {@link #clusterConfigGroups} changed, see
+   * {@link #updateServicesSnapshot()}.
+   */
+  private synchronized void updateConfigGroupsSnapshot() {
+    configGroupsSnapshot = Collections.unmodifiableMap(new HashMap<>(clusterConfigGroups));
+  }
+
   private void loadServices() {
     ClusterEntity clusterEntity = getClusterEntity();
     if (CollectionUtils.isEmpty(clusterEntity.getClusterServiceEntities())) {
@@ -466,6 +524,7 @@ public class ClusterImpl implements Cluster {
           serviceEntity.getServiceName()));
       }
     }
+    updateServicesSnapshot();
   }
 
   private void loadConfigGroups() {
@@ -476,6 +535,7 @@ public class ClusterImpl implements Cluster {
             configGroupFactory.createExisting(this, configGroupEntity));
       }
     }
+    updateConfigGroupsSnapshot();
   }
 
   private void loadRequestExecutions() {
@@ -508,12 +568,13 @@ public class ClusterImpl implements Cluster {
         getClusterName(), configGroup.getName(), configGroup.getId(), configGroup.getTag());
     } else {
       clusterConfigGroups.put(configGroup.getId(), configGroup);
+      updateConfigGroupsSnapshot();
     }
   }
 
   @Override
   public Map<Long, ConfigGroup> getConfigGroups() {
-    return Collections.unmodifiableMap(clusterConfigGroups);
+    return configGroupsSnapshot;
   }
 
   @Override
@@ -596,6 +657,7 @@ public class ClusterImpl implements Cluster {
 
     configGroup.delete();
     clusterConfigGroups.remove(id);
+    updateConfigGroupsSnapshot();
 
     configHelper.updateAgentConfigs(Collections.singleton(configGroup.getClusterName()));
   }
@@ -886,6 +948,7 @@ public class ClusterImpl implements Cluster {
       LOG.debug("Adding a new Service, clusterName={}, clusterId={}, serviceName={}", getClusterName(), getClusterId(), service.getName());
     }
     services.put(service.getName(), service);
+    updateServicesSnapshot();
   }
 
   /**
@@ -919,7 +982,7 @@ public class ClusterImpl implements Cluster {
 
   @Override
   public Map<String, Service> getServices() {
-    return new HashMap<>(services);
+    return servicesSnapshot;
   }
 
   @Override
@@ -1181,30 +1244,21 @@ public class ClusterImpl implements Cluster {
 
   @Override
   public Map<String, Config> getConfigsByType(String configType) {
-    clusterGlobalLock.readLock().lock();
-    try {
-      if (!allConfigs.containsKey(configType)) {
-        return null;
-      }
-
-      return Collections.unmodifiableMap(allConfigs.get(configType));
-    } finally {
-      clusterGlobalLock.readLock().unlock();
+    Map<String, Config> configs = allConfigs.get(configType);
+    if (configs == null) {
+      return null;
     }
+
+    return Collections.unmodifiableMap(configs);
   }
 
   @Override
   public Config getConfig(String configType, String versionTag) {
-    clusterGlobalLock.readLock().lock();
-    try {
-      if (!allConfigs.containsKey(configType)
-          || !allConfigs.get(configType).containsKey(versionTag)) {
-        return null;
-      }
-      return allConfigs.get(configType).get(versionTag);
-    } finally {
-      clusterGlobalLock.readLock().unlock();
+    Map<String, Config> configs = allConfigs.get(configType);
+    if (configs == null) {
+      return null;
     }
+    return configs.get(versionTag);
   }
 
   @Override
@@ -1225,22 +1279,18 @@ public class ClusterImpl implements Cluster {
 
   @Override
   public Config getConfigByVersion(String configType, Long configVersion) {
-    clusterGlobalLock.readLock().lock();
-    try {
-      if (!allConfigs.containsKey(configType)) {
-        return null;
-      }
+    Map<String, Config> configs = allConfigs.get(configType);
+    if (configs == null) {
+      return null;
+    }
 
-      for (Map.Entry<String, Config> entry : allConfigs.get(configType).entrySet()) {
-        if (entry.getValue().getVersion().equals(configVersion)) {
-          return entry.getValue();
-        }
+    for (Map.Entry<String, Config> entry : configs.entrySet()) {
+      if (entry.getValue().getVersion().equals(configVersion)) {
+        return entry.getValue();
       }
-
-      return null;
-    } finally {
-      clusterGlobalLock.readLock().unlock();
     }
+
+    return null;
   }
 
   @Override
@@ -1249,29 +1299,45 @@ public class ClusterImpl implements Cluster {
       throw new IllegalArgumentException("Config type cannot be empty");
     }
 
-    clusterGlobalLock.writeLock().lock();
+    Lock configTypeLock = getConfigTypeLock(config.getType());
+    configTypeLock.lock();
     try {
-      if (!allConfigs.containsKey(config.getType())) {
-        allConfigs.put(config.getType(), new ConcurrentHashMap<>());
-      }
-
-      allConfigs.get(config.getType()).put(config.getTag(), config);
+      allConfigs.computeIfAbsent(config.getType(), type -> new ConcurrentHashMap<>())
+        .put(config.getTag(), config);
     } finally {
-      clusterGlobalLock.writeLock().unlock();
+      configTypeLock.unlock();
     }
   }
 
   @Override
   public Collection<Config> getAllConfigs() {
-    clusterGlobalLock.readLock().lock();
-    try {
-      List<Config> list = new ArrayList<>();
-      for (Entry<String, ConcurrentMap<String, Config>> entry : allConfigs.entrySet()) {
-        list.addAll(entry.getValue().values());
-      }
-      return Collections.unmodifiableList(list);
-    } finally {
-      clusterGlobalLock.readLock().unlock();
+    List<Config> list = new ArrayList<>();
+    for (Entry<String, ConcurrentMap<String, Config>> entry : allConfigs.entrySet()) {
+      list.addAll(entry.getValue().values());
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * @param configType config type
+   * @return the lock of the stripe the config type belongs to
+   */
+  private Lock getConfigTypeLock(String configType) {
+    return configTypeLocks[Math.floorMod(configType.hashCode(), configTypeLocks.length)];
+  }
+
+  /**
+   * Acquires the locks of all config types, always in the same order.
+   */
+  private void lockAllConfigTypes() {
+    for (Lock configTypeLock : configTypeLocks) {
+      configTypeLock.lock();
+    }
+  }
+
+  private void unlockAllConfigTypes() {
+    for (int i = configTypeLocks.length - 1; i >= 0; i--) {
+      configTypeLocks[i].unlock();
     }
   }
 
@@ -1313,6 +1379,9 @@ public class ClusterImpl implements Cluster {
     try {
       ClusterEntity clusterEntity = getClusterEntity();
       clusterDAO.refresh(clusterEntity);
+
+      // refreshed whenever a config is saved, which may change the configurations of a cached version
+      serviceConfigVersionConfigurations.invalidateAll();
     } finally {
       clusterGlobalLock.writeLock().unlock();
     }
@@ -1341,6 +1410,7 @@ public class ClusterImpl implements Cluster {
       }
       STOMPComponentsDeleteHandler.processDeleteCluster(getClusterId());
       services.clear();
+      updateServicesSnapshot();
     } finally {
       clusterGlobalLock.writeLock().unlock();
     }
@@ -1377,6 +1447,7 @@ public class ClusterImpl implements Cluster {
       }
       deleteService(service, deleteMetaData);
       services.remove(serviceName);
+      updateServicesSnapshot();
 
     } finally {
       clusterGlobalLock.writeLock().unlock();
@@ -1443,7 +1514,13 @@ public class ClusterImpl implements Cluster {
 
       refresh(); // update one-to-many clusterServiceEntities
       removeEntities();
-      allConfigs.clear();
+      lockAllConfigTypes();
+      try {
+        allConfigs.clear();
+        serviceConfigVersionConfigurations.invalidateAll();
+      } finally {
+        unlockAllConfigTypes();
+      }
     } finally {
       clusterGlobalLock.writeLock().unlock();
     }
@@ -1769,11 +1846,20 @@ public class ClusterImpl implements Cluster {
 
   @Override
   public List<ServiceConfigVersionResponse> getServiceConfigVersions() {
+    return getServiceConfigVersions(null, true);
+  }
+
+  @Override
+  public List<ServiceConfigVersionResponse> getServiceConfigVersions(@Nullable String serviceName,
+                                                                     boolean includeConfigurations) {
     clusterGlobalLock.readLock().lock();
     try {
       List<ServiceConfigVersionResponse> serviceConfigVersionResponses = new ArrayList<>();
 
-      List<ServiceConfigEntity> serviceConfigs = serviceConfigDAO.getServiceConfigs(getClusterId());
+      // the current versions are determined per service, so only the versions of the service are needed
+      List<ServiceConfigEntity> serviceConfigs = serviceName == null
+        ? serviceConfigDAO.getServiceConfigs(getClusterId())
+        : serviceConfigDAO.getServiceConfigsForService(getClusterId(), serviceName);
 
       // Gather for each service in each config group the active service config response  as we
       // iterate through all service config responses
@@ -1811,7 +1897,9 @@ public class ClusterImpl implements Cluster {
         }
 
         serviceConfigVersionResponse.setIsCurrent(false);
-        serviceConfigVersionResponses.add(getServiceConfigVersionResponseWithConfig(serviceConfigVersionResponse, serviceConfigEntity));
+        serviceConfigVersionResponses.add(includeConfigurations
+          ? getServiceConfigVersionResponseWithConfig(serviceConfigVersionResponse, serviceConfigEntity)
+          : serviceConfigVersionResponse);
       }
 
       for (Map<String, ServiceConfigVersionResponse> serviceConfigVersionResponseGroup: activeServiceConfigResponses.values()) {
@@ -1877,15 +1965,23 @@ public class ClusterImpl implements Cluster {
    * @return serviceConfigVersionResponse
    */
   private ServiceConfigVersionResponse getServiceConfigVersionResponseWithConfig(ServiceConfigVersionResponse serviceConfigVersionResponse, ServiceConfigEntity serviceConfigEntity) {
-    serviceConfigVersionResponse.setConfigurations(new ArrayList<>());
-    List<ClusterConfigEntity> clusterConfigEntities = serviceConfigEntity.getClusterConfigEntities();
-    for (ClusterConfigEntity clusterConfigEntity : clusterConfigEntities) {
-      Config config = allConfigs.get(clusterConfigEntity.getType()).get(
-          clusterConfigEntity.getTag());
+    List<ConfigurationResponse> configurations = serviceConfigVersionConfigurations.getIfPresent(
+      serviceConfigEntity.getServiceConfigId());
 
-      serviceConfigVersionResponse.getConfigurations().add(
-          new ConfigurationResponse(getClusterName(), config));
+    if (configurations == null) {
+      configurations = new ArrayList<>();
+      List<ClusterConfigEntity> clusterConfigEntities = serviceConfigEntity.getClusterConfigEntities();
+      for (ClusterConfigEntity clusterConfigEntity : clusterConfigEntities) {
+        Config config = allConfigs.get(clusterConfigEntity.getType()).get(
+            clusterConfigEntity.getTag());
+
+        configurations.add(new ConfigurationResponse(getClusterName(), config));
+      }
+      configurations = Collections.unmodifiableList(configurations);
+      serviceConfigVersionConfigurations.put(serviceConfigEntity.getServiceConfigId(), configurations);
     }
+
+    serviceConfigVersionResponse.setConfigurations(new ArrayList<>(configurations));
     return serviceConfigVersionResponse;
   }
 
@@ -2680,23 +2776,25 @@ public class ClusterImpl implements Cluster {
    */
   private void cacheConfigurations() {
     clusterGlobalLock.writeLock().lock();
+    lockAllConfigTypes();
     try {
       ClusterEntity clusterEntity = getClusterEntity();
-      allConfigs.clear();
 
-      if (!clusterEntity.getClusterConfigEntities().isEmpty()) {
-        for (ClusterConfigEntity entity : clusterEntity.getClusterConfigEntities()) {
+      // the cache is replaced per config type instead of being cleared first, so readers which
+      // do not lock never see it empty
+      Map<String, ConcurrentMap<String, Config>> configs = new HashMap<>();
+      for (ClusterConfigEntity entity : clusterEntity.getClusterConfigEntities()) {
+        Config config = configFactory.createExisting(this, entity);
 
-          if (!allConfigs.containsKey(entity.getType())) {
-            allConfigs.put(entity.getType(), new ConcurrentHashMap<>());
-          }
-
-          Config config = configFactory.createExisting(this, entity);
-
-          allConfigs.get(entity.getType()).put(entity.getTag(), config);
-        }
+        configs.computeIfAbsent(entity.getType(), type -> new ConcurrentHashMap<>())
+          .put(entity.getTag(), config);
       }
+
+      allConfigs.putAll(configs);
+      allConfigs.keySet().retainAll(configs.keySet());
+      serviceConfigVersionConfigurations.invalidateAll();
     } finally {
+      unlockAllConfigTypes();
       clusterGlobalLock.writeLock().unlock();
     }
   }
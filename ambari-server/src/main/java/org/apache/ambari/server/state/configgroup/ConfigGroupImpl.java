@@ -17,10 +17,12 @@
  */
 package org.apache.ambari.server.state.configgroup;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -377,6 +379,7 @@ public class ConfigGroupImpl implements ConfigGroup {
   @Transactional
   ConfigGroupEntity persistHostMapping(Collection<Host> hosts,
       ConfigGroupEntity configGroupEntity) {
+    List<ConfigGroupHostMappingEntity> hostMappingEntities = new ArrayList<>(hosts.size());
     for (Host host : hosts) {
       HostEntity hostEntity = hostDAO.findById(host.getHostId());
       if (hostEntity != null) {
@@ -386,7 +389,7 @@ public class ConfigGroupImpl implements ConfigGroup {
         hostMappingEntity.setConfigGroupEntity(configGroupEntity);
         hostMappingEntity.setConfigGroupId(configGroupEntity.getGroupId());
         configGroupEntity.getConfigGroupHostMappingEntities().add(hostMappingEntity);
-        configGroupHostMappingDAO.create(hostMappingEntity);
+        hostMappingEntities.add(hostMappingEntity);
       } else {
         LOG.warn(
             "The host {} has been removed from the cluster and cannot be added to the configuration group {}",
@@ -394,6 +397,7 @@ public class ConfigGroupImpl implements ConfigGroup {
       }
     }
 
+    configGroupHostMappingDAO.createAll(hostMappingEntities);
     return configGroupDAO.merge(configGroupEntity);
   }
 
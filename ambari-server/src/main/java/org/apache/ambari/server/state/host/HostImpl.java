@@ -28,7 +28,6 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import org.apache.ambari.server.AmbariException;
@@ -44,6 +43,7 @@ import org.apache.ambari.server.events.HostStateUpdateEvent;
 import org.apache.ambari.server.events.HostStatusUpdateEvent;
 import org.apache.ambari.server.events.MaintenanceModeEvent;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.orm.cache.HostConfigMapping;
 import org.apache.ambari.server.orm.cache.HostConfigMappingImpl;
 import org.apache.ambari.server.orm.dao.ClusterDAO;
@@ -121,6 +121,11 @@ public class HostImpl implements Host {
   private static final Type maintMapType =
       new TypeToken<Map<Long, MaintenanceState>>() {}.getType();
 
+  /**
+   * A label for {@link #rwLock} to use with the {@link LockFactory}.
+   */
+  private static final String HOST_LOCK_LABEL = "hostLock";
+
   ReadWriteLock rwLock;
   private final Lock writeLock;
 
@@ -278,13 +283,14 @@ public class HostImpl implements Host {
    .installTopology();
 
   @Inject
-  public HostImpl(@Assisted HostEntity hostEntity, Gson gson, HostDAO hostDAO, HostStateDAO hostStateDAO) {
+  public HostImpl(@Assisted HostEntity hostEntity, Gson gson, HostDAO hostDAO, HostStateDAO hostStateDAO,
+                  LockFactory lockFactory) {
     this.gson = gson;
     this.hostDAO = hostDAO;
     this.hostStateDAO = hostStateDAO;
 
     stateMachine = stateMachineFactory.make(this);
-    rwLock = new ReentrantReadWriteLock();
+    rwLock = lockFactory.newReadWriteLock(HOST_LOCK_LABEL);
     writeLock = rwLock.writeLock();
 
     HostStateEntity hostStateEntity = hostEntity.getHostStateEntity();
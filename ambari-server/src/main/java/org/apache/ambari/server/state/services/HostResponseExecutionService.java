@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state.services;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.ambari.server.AmbariService;
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.orm.QueryCountSessionListener;
+import org.apache.ambari.server.orm.QueryCountSessionListener.QueryCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.AbstractService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.persist.UnitOfWork;
+
+/**
+ * The {@link HostResponseExecutionService} owns the threads which build the host resources in batches when many
+ * hosts are requested, see {@link Configuration#getHostResourcesThreadPoolSize()}.
+ * <p/>
+ * Each batch runs in its own unit of work, so the pooled threads do not keep entities loaded for an earlier
+ * request, and its queries are counted in the counts of the requesting thread when
+ * {@link QueryCountSessionListener} is counting them.
+ */
+@AmbariService
+public class HostResponseExecutionService extends AbstractService {
+
+  /**
+   * Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(HostResponseExecutionService.class);
+
+  /**
+   * Configuration.
+   */
+  @Inject
+  private Configuration m_configuration;
+
+  /**
+   * Unit of work of the batches.
+   */
+  @Inject
+  private UnitOfWork m_unitOfWork;
+
+  /**
+   * The pool running the batches, {@code null} unless the service is running.
+   */
+  private volatile ExecutorService m_executorService;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doStart() {
+    int threadPoolSize = Math.max(1, m_configuration.getHostResourcesThreadPoolSize());
+    ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("host-resources-%d")
+        .setDaemon(true).build();
+    m_executorService = Executors.newFixedThreadPool(threadPoolSize, threadFactory);
+
+    LOG.info("Initializing the Host Response Execution Service with {} threads", threadPoolSize);
+    notifyStarted();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doStop() {
+    ExecutorService executorService = m_executorService;
+    m_executorService = null;
+    if (null != executorService) {
+      executorService.shutdownNow();
+    }
+    notifyStopped();
+  }
+
+  /**
+   * Gets the executor of the batches of the calling thread, which counts their queries in the counts of the
+   * calling thread.
+   *
+   * @return the executor, or {@code null} if the service is not running and the batches should be built in the
+   *         calling thread
+   */
+  public Executor getExecutor() {
+    ExecutorService executorService = m_executorService;
+    if (null == executorService) {
+      return null;
+    }
+
+    QueryCount queryCount = QueryCountSessionListener.getCurrent();
+    return command -> executorService.execute(() -> {
+      QueryCountSessionListener.resume(queryCount);
+      m_unitOfWork.begin();
+      try {
+        command.run();
+      } finally {
+        m_unitOfWork.end();
+        QueryCountSessionListener.stop();
+      }
+    });
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.ambari.server.events.publishers.STOMPUpdatePublisher;
 
 import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Binder;
 import com.google.inject.Injector;
 
@@ -113,6 +114,8 @@ public class EventBusSynchronizer {
     STOMPUpdatePublisher publisher = injector.getInstance(STOMPUpdatePublisher.class);
 
     replaceSTOMPEventBuses(STOMPUpdatePublisher.class, publisher, agentEventBus, apiEventBus);
+    // deliver the agent events on the posting thread
+    publisher.setAgentEventExecutor(MoreExecutors.directExecutor());
 
     // register common agent event listeners
     registerSTOMPApiListeners(injector, apiEventBus);
@@ -26,7 +26,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.jar.JarInputStream;
+import java.util.zip.CRC32;
 
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
@@ -50,6 +56,8 @@ public class ViewArchiveUtility {
   private static final String VIEW_XML = "view.xml";
   private static final String WEB_INF_VIEW_XML = "WEB-INF/classes/" + VIEW_XML;
   private static final String VIEW_XSD = "view.xsd";
+  private static final String CHECKSUM_FILE = ".archive.checksum";
+  private static final int    CHECKSUM_BUFFER_SIZE = 64 * 1024;
 
 
   // ----- ViewArchiveUtility ------------------------------------------------
@@ -157,6 +165,60 @@ public class ViewArchiveUtility {
   }
 
 
+  /**
+   * Get the checksum of the given view archive file.
+   *
+   * @param archiveFile  the archive file
+   *
+   * @return the checksum of the archive contents
+   *
+   * @throws IOException if the archive can not be read
+   */
+  public String getArchiveChecksum(File archiveFile) throws IOException {
+    CRC32 crc = new CRC32();
+
+    try (FileChannel channel = FileChannel.open(archiveFile.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_SIZE);
+      while (channel.read(buffer) > -1) {
+        buffer.flip();
+        crc.update(buffer);
+        buffer.clear();
+      }
+    }
+    return Long.toHexString(crc.getValue()) + "-" + archiveFile.length();
+  }
+
+  /**
+   * Get the checksum of the archive that the given directory was extracted from.
+   *
+   * @param archiveDir  the extracted archive directory
+   *
+   * @return the recorded archive checksum; null if no checksum was recorded
+   *
+   * @throws IOException if the checksum can not be read
+   */
+  public String getExtractedArchiveChecksum(File archiveDir) throws IOException {
+    File checksumFile = getFile(archiveDir.getAbsolutePath() + File.separator + CHECKSUM_FILE);
+
+    return checksumFile.exists() ?
+        new String(Files.readAllBytes(checksumFile.toPath()), StandardCharsets.UTF_8).trim() : null;
+  }
+
+  /**
+   * Record the checksum of the archive that the given directory was extracted from.
+   *
+   * @param archiveDir  the extracted archive directory
+   * @param checksum    the archive checksum
+   *
+   * @throws IOException if the checksum can not be written
+   */
+  public void setExtractedArchiveChecksum(File archiveDir, String checksum) throws IOException {
+    File checksumFile = getFile(archiveDir.getAbsolutePath() + File.separator + CHECKSUM_FILE);
+
+    Files.write(checksumFile.toPath(), checksum.getBytes(StandardCharsets.UTF_8));
+  }
+
+
   // ----- helper methods ----------------------------------------------------
 
   /**
@@ -45,7 +45,7 @@ public class ViewExtractor {
    */
   private static final String ARCHIVE_CLASSES_DIR = "WEB-INF/classes";
   private static final String ARCHIVE_LIB_DIR     = "WEB-INF/lib";
-  private static final int    BUFFER_SIZE         = 1024;
+  private static final int    BUFFER_SIZE         = 64 * 1024;
 
   @Inject
   ViewArchiveUtility archiveUtility;
@@ -76,9 +76,14 @@ public class ViewExtractor {
     String archivePath = archiveDir.getAbsolutePath();
 
     try {
-      // Remove directory if jar was updated since last extracting
+      // Remove directory if jar was updated since last extracting, unless the contents of the jar are unchanged
       if (archiveDir.exists() && viewArchive != null && viewArchive.lastModified() > archiveDir.lastModified()) {
-        FileUtils.deleteDirectory(archiveDir);
+        if (isArchiveUnchanged(viewArchive, archiveDir)) {
+          LOG.info("Archive " + viewArchive.getName() + " is unchanged since last extracted to " + archivePath + ".");
+          archiveDir.setLastModified(System.currentTimeMillis());
+        } else {
+          FileUtils.deleteDirectory(archiveDir);
+        }
       }
 
       // Skip if the archive has already been extracted
@@ -161,6 +166,7 @@ public class ViewExtractor {
           } finally {
             jarInputStream.close();
           }
+          recordArchiveChecksum(viewArchive, archiveDir);
         } else {
           msg = "Could not create archive directory " + archivePath + ".";
 
@@ -200,6 +206,27 @@ public class ViewExtractor {
 
   // ----- archiveUtility methods ----------------------------------------------------
 
+  // determine whether the given archive has the same checksum as the one it was last extracted from
+  private boolean isArchiveUnchanged(File viewArchive, File archiveDir) {
+    try {
+      String extractedChecksum = archiveUtility.getExtractedArchiveChecksum(archiveDir);
+
+      return extractedChecksum != null && extractedChecksum.equals(archiveUtility.getArchiveChecksum(viewArchive));
+    } catch (IOException e) {
+      LOG.warn("Could not compare checksum of archive " + viewArchive.getName() + ".", e);
+      return false;
+    }
+  }
+
+  // record the checksum of the given archive in its extracted archive directory
+  private void recordArchiveChecksum(File viewArchive, File archiveDir) {
+    try {
+      archiveUtility.setExtractedArchiveChecksum(archiveDir, archiveUtility.getArchiveChecksum(viewArchive));
+    } catch (IOException e) {
+      LOG.warn("Could not record checksum of archive " + viewArchive.getName() + ".", e);
+    }
+  }
+
   // get a class loader for the given archive directory
   private ClassLoader getArchiveClassLoader(ViewConfig viewConfig, File archiveDir, List<File> viewsAdditionalClasspath)
       throws IOException {
@@ -35,7 +35,9 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -1723,6 +1725,7 @@ public class ViewRegistry {
         if (files != null) {
 
           Set<Runnable> extractionRunnables = new HashSet<>();
+          List<ViewArchive> viewArchives = new LinkedList<>();
 
           final String serverVersion = ambariMetaInfoProvider.get().getServerVersion();
 
@@ -1754,7 +1757,7 @@ public class ViewRegistry {
                   // always load system views up front
                   if (systemView || !useExecutor || extractedArchiveDirFile.exists()) {
                     // if the archive is already extracted then load the view now
-                    readViewArchive(viewDefinition, archiveFile, extractedArchiveDirFile, serverVersion);
+                    viewArchives.add(new ViewArchive(viewDefinition, archiveFile, extractedArchiveDirFile));
                   } else {
                     // if the archive needs to be extracted then create a runnable to do it
                     extractionRunnables.add(new Runnable() {
@@ -1773,6 +1776,8 @@ public class ViewRegistry {
             }
           }
 
+          readViewArchives(viewArchives, serverVersion);
+
           for (ViewEntity view : getDefinitions()) {
             if (view.getStatus() == ViewDefinition.ViewStatus.DEPLOYED) {
               // migrate views that are not need extraction, for ones that need call will be done in the runnable.
@@ -1801,24 +1806,73 @@ public class ViewRegistry {
     }
   }
 
+  // read the given view archives, extracting them and building their class loaders in parallel
+  private void readViewArchives(List<ViewArchive> viewArchives, String serverVersion) {
+    if (viewArchives.size() > 1) {
+      ExecutorService executorService = getExecutorService(configuration);
+      List<File> additionalPaths = getViewsAdditionalClasspath(configuration);
+
+      for (ViewArchive viewArchive : viewArchives) {
+        viewArchive.extraction = executorService.submit(() -> extractor.extractViewArchive(viewArchive.viewDefinition,
+            viewArchive.archiveFile, viewArchive.extractedArchiveDirFile, additionalPaths));
+      }
+    }
+
+    // views are deployed one at a time in the original order
+    for (ViewArchive viewArchive : viewArchives) {
+      readViewArchive(viewArchive.viewDefinition, viewArchive.archiveFile, viewArchive.extractedArchiveDirFile,
+          serverVersion, viewArchive.extraction);
+    }
+  }
+
   // read a view archive
-  private synchronized void readViewArchive(ViewEntity viewDefinition,
+  private void readViewArchive(ViewEntity viewDefinition,
                                File archiveFile,
                                File extractedArchiveDirFile,
                                String serverVersion) {
+    readViewArchive(viewDefinition, archiveFile, extractedArchiveDirFile, serverVersion, null);
+  }
 
-    setViewStatus(viewDefinition, ViewEntity.ViewStatus.DEPLOYING, "Deploying " + extractedArchiveDirFile + ".");
+  // read a view archive, using the given pending extraction if one has already been started
+  private void readViewArchive(ViewEntity viewDefinition,
+                               File archiveFile,
+                               File extractedArchiveDirFile,
+                               String serverVersion,
+                               Future<ClassLoader> extraction) {
 
-    String extractedArchiveDirPath = extractedArchiveDirFile.getAbsolutePath();
+    setViewStatus(viewDefinition, ViewEntity.ViewStatus.DEPLOYING, "Deploying " + extractedArchiveDirFile + ".");
 
     LOG.info("Reading view archive " + archiveFile + ".");
 
+    ClassLoader cl;
     try {
-      // extract the archive and get the class loader
-      List<File> additionalPaths = getViewsAdditionalClasspath(configuration);
+      // extract the archive and get the class loader; this is done outside of the registry lock
+      // so that multiple archives may be extracted at the same time
+      if (extraction == null) {
+        cl = extractor.extractViewArchive(viewDefinition, archiveFile, extractedArchiveDirFile,
+            getViewsAdditionalClasspath(configuration));
+      } else {
+        cl = extraction.get();
+      }
+    } catch (Throwable e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      setViewLoadError(viewDefinition, e instanceof ExecutionException ? e.getCause() : e);
+      return;
+    }
+    deployViewArchive(viewDefinition, extractedArchiveDirFile, serverVersion, cl);
+  }
+
+  // deploy a view from an extracted view archive
+  private synchronized void deployViewArchive(ViewEntity viewDefinition,
+                                              File extractedArchiveDirFile,
+                                              String serverVersion,
+                                              ClassLoader cl) {
 
-      ClassLoader cl = extractor.extractViewArchive(viewDefinition, archiveFile, extractedArchiveDirFile, additionalPaths);
+    String extractedArchiveDirPath = extractedArchiveDirFile.getAbsolutePath();
 
+    try {
       configureViewLogging(viewDefinition, cl);
 
       ViewConfig viewConfig = archiveUtility.getViewConfigFromExtractedArchive(extractedArchiveDirPath,
@@ -1850,13 +1904,18 @@ public class ViewRegistry {
         LOG.info("View deployed: " + viewDefinition.getName() + ".");
       }
     } catch (Throwable e) {
-      String msg = "Caught exception loading view " + viewDefinition.getName();
-
-      setViewStatus(viewDefinition, ViewEntity.ViewStatus.ERROR, msg + " : " + e.getMessage());
-      LOG.error(msg, e);
+      setViewLoadError(viewDefinition, e);
     }
   }
 
+  // set the error status of a view that could not be loaded
+  private void setViewLoadError(ViewEntity viewDefinition, Throwable e) {
+    String msg = "Caught exception loading view " + viewDefinition.getName();
+
+    setViewStatus(viewDefinition, ViewEntity.ViewStatus.ERROR, msg + " : " + e.getMessage());
+    LOG.error(msg, e);
+  }
+
   private static List<File> getViewsAdditionalClasspath(Configuration configuration) {
     String viewsAdditionalClasspath = configuration.getViewsAdditionalClasspath();
     List<File> additionalPaths = new LinkedList<>();
@@ -2311,6 +2370,22 @@ public class ViewRegistry {
     this.viewDataMigrationUtility = viewDataMigrationUtility;
   }
 
+  /**
+   * A view archive to be read along with its pending extraction, if any.
+   */
+  private static class ViewArchive {
+    private final ViewEntity viewDefinition;
+    private final File archiveFile;
+    private final File extractedArchiveDirFile;
+    private Future<ClassLoader> extraction;
+
+    private ViewArchive(ViewEntity viewDefinition, File archiveFile, File extractedArchiveDirFile) {
+      this.viewDefinition = viewDefinition;
+      this.archiveFile = archiveFile;
+      this.extractedArchiveDirFile = extractedArchiveDirFile;
+    }
+  }
+
   /**
    * Module for stand alone view registry.
    */
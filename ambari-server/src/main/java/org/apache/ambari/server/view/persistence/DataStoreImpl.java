@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +60,9 @@ import org.eclipse.persistence.sessions.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 
 /**
  * A data store implementation that uses dynamic JPA entities to
@@ -111,6 +115,12 @@ public class DataStoreImpl implements DataStore {
    */
   private final Map<String, JPADynamicTypeBuilder> typeBuilderMap = new LinkedHashMap<>();
 
+  /**
+   * Cache of JPA select statements keyed by view entity class name and where clause.
+   */
+  private final Cache<String, String> selectStatementCache =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SELECT_STATEMENTS).build();
+
   /**
    * Indicates whether or not the data store has been initialized.
    */
@@ -131,6 +141,11 @@ public class DataStoreImpl implements DataStore {
    */
   protected static final int MAX_ENTITY_FIELD_LENGTH_TOTAL = 65000;
 
+  /**
+   * Max number of cached select statements.
+   */
+  private static final int MAX_CACHED_SELECT_STATEMENTS = 100;
+
   /**
    * Table / column name prefix.
    */
@@ -149,18 +164,7 @@ public class DataStoreImpl implements DataStore {
       try {
         DynamicEntity dynamicEntity = persistEntity(entity, em, new HashSet<>());
         em.getTransaction().commit();
-        Map<String, Object> props = getEntityProperties(entity);
-        List<String> keys = new ArrayList<>(props.keySet());
-        for( String key : keys){
-          String attribute = getAttributeName(key);
-          try {
-            props.put(key, dynamicEntity.get(attribute));
-          }catch(DynamicException de){
-            LOG.debug("Error occurred while copying entity property : {} : {}", key, de);
-            // ignore - the property was not found in Dynamic entity.
-          }
-        }
-        setEntityProperties(entity,props);
+        copyDynamicEntityProperties(entity, dynamicEntity);
       } catch (Exception e) {
         rollbackTransaction(em.getTransaction());
         throwPersistenceException("Caught exception trying to store view entity " + entity, e);
@@ -170,6 +174,36 @@ public class DataStoreImpl implements DataStore {
     }
   }
 
+  @Override
+  public void storeAll(Collection<?> entities) throws PersistenceException {
+    checkInitialize();
+
+    EntityManager em = getEntityManager();
+    try {
+      em.getTransaction().begin();
+      try {
+        // persist all of the entities in one transaction so that the writes are batched on commit
+        Set<DynamicEntity>  persistSet      = new HashSet<>();
+        List<DynamicEntity> dynamicEntities = new ArrayList<>(entities.size());
+
+        for (Object entity : entities) {
+          dynamicEntities.add(persistEntity(entity, em, persistSet));
+        }
+        em.getTransaction().commit();
+
+        Iterator<DynamicEntity> iterator = dynamicEntities.iterator();
+        for (Object entity : entities) {
+          copyDynamicEntityProperties(entity, iterator.next());
+        }
+      } catch (Exception e) {
+        rollbackTransaction(em.getTransaction());
+        throwPersistenceException("Caught exception trying to store " + entities.size() + " view entities", e);
+      }
+    } finally {
+      em.close();
+    }
+  }
+
   @Override
   public void remove(Object entity) throws PersistenceException {
     checkInitialize();
@@ -205,6 +239,39 @@ public class DataStoreImpl implements DataStore {
     }
   }
 
+  @Override
+  public void removeAll(Collection<?> entities) throws PersistenceException {
+    checkInitialize();
+
+    EntityManager em = getEntityManager();
+    try {
+      em.getTransaction().begin();
+      try {
+        // remove all of the entities in one transaction so that the deletes are batched on commit
+        for (Object entity : entities) {
+          Class       clazz = entity.getClass();
+          String      id    = getIdFieldName(clazz);
+          DynamicType type  = getDynamicEntityType(clazz);
+
+          if (type != null) {
+            Map<String, Object> properties    = getEntityProperties(entity);
+            DynamicEntity       dynamicEntity = em.getReference(type.getJavaClass(), properties.get(id));
+
+            if (dynamicEntity != null) {
+              em.remove(dynamicEntity);
+            }
+          }
+        }
+        em.getTransaction().commit();
+      } catch (Exception e) {
+        rollbackTransaction(em.getTransaction());
+        throwPersistenceException("Caught exception trying to remove " + entities.size() + " view entities", e);
+      }
+    } finally {
+      em.close();
+    }
+  }
+
   @Override
   public <T> T find(Class<T> clazz, Object primaryKey) throws PersistenceException {
     checkInitialize();
@@ -257,6 +324,40 @@ public class DataStoreImpl implements DataStore {
   }
 
 
+  @Override
+  public <T> Collection<T> findAll(Class<T> clazz, String whereClause, int firstResult, int maxResults)
+      throws PersistenceException {
+    checkInitialize();
+
+    EntityManager em = getEntityManager();
+    try {
+      List<T>     resources = new ArrayList<>();
+      DynamicType type      = getDynamicEntityType(clazz);
+
+      if (type != null) {
+        try {
+          Query query = em.createQuery(getPagedSelectStatement(clazz, whereClause));
+
+          query.setFirstResult(firstResult);
+          query.setMaxResults(maxResults);
+
+          List dynamicEntities = query.getResultList();
+
+          for (Object dynamicEntity : dynamicEntities) {
+            resources.add(toEntity(clazz, type, (DynamicEntity) dynamicEntity));
+          }
+        } catch (Exception e) {
+          throwPersistenceException("Caught exception trying to find " +
+              clazz.getName() + " where " + whereClause + " from " + firstResult + " max " + maxResults, e);
+        }
+      }
+      return resources;
+    } finally {
+      em.close();
+    }
+  }
+
+
   // ----- helper methods ----------------------------------------------------
 
   // lazy initialize the data store
@@ -496,9 +597,35 @@ public class DataStoreImpl implements DataStore {
     return resource;
   }
 
-  // build a JPA select statement from the given view entity class and where clause
+  // get the JPA select statement for the given view entity class and where clause; statements are
+  // cached since views tend to issue the same handful of where clauses over and over
   private <T> String getSelectStatement(Class<T> clazz, String whereClause)
       throws IntrospectionException {
+    String key       = clazz.getName() + ':' + whereClause;
+    String statement = selectStatementCache.getIfPresent(key);
+
+    if (statement == null) {
+      statement = buildSelectStatement(clazz, whereClause);
+      selectStatementCache.put(key, statement);
+    }
+    return statement;
+  }
+
+  // get the JPA select statement for the given view entity class and where clause, ordered by
+  // the entity id so that the results can be paged
+  private <T> String getPagedSelectStatement(Class<T> clazz, String whereClause)
+      throws IntrospectionException, PersistenceException {
+    String statement = getSelectStatement(clazz, whereClause);
+
+    if (whereClause != null && whereClause.toUpperCase().contains("ORDER BY")) {
+      return statement;
+    }
+    return statement + " ORDER BY e." + getAttributeName(getIdFieldName(clazz));
+  }
+
+  // build a JPA select statement from the given view entity class and where clause
+  private <T> String buildSelectStatement(Class<T> clazz, String whereClause)
+      throws IntrospectionException {
     StringBuilder stringBuilder = new StringBuilder();
     String        entityName    = entityClassMap.get(clazz);
 
@@ -525,6 +652,24 @@ public class DataStoreImpl implements DataStore {
     return stringBuilder.toString();
   }
 
+  // copy the properties of the given persisted dynamic entity (e.g. generated ids) back to the view entity
+  private void copyDynamicEntityProperties(Object entity, DynamicEntity dynamicEntity)
+      throws IntrospectionException, InvocationTargetException, IllegalAccessException,
+      InstantiationException, NoSuchFieldException {
+    Map<String, Object> props = getEntityProperties(entity);
+    List<String> keys = new ArrayList<>(props.keySet());
+    for( String key : keys){
+      String attribute = getAttributeName(key);
+      try {
+        props.put(key, dynamicEntity.get(attribute));
+      }catch(DynamicException de){
+        LOG.debug("Error occurred while copying entity property : {} : {}", key, de);
+        // ignore - the property was not found in Dynamic entity.
+      }
+    }
+    setEntityProperties(entity,props);
+  }
+
   // get a map of properties from the given view entity
   private Map<String, Object> getEntityProperties(Object entity)
       throws IntrospectionException, InvocationTargetException, IllegalAccessException {
@@ -25,7 +25,9 @@ import static org.junit.Assert.assertTrue;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NamedQuery;
@@ -659,6 +661,22 @@ public class TestActionDBAccessorImpl {
     }
   }
 
+  @Test
+  public void testPersistManyTasksPerHost() throws Exception {
+    populateActionDBMultipleStages(50, db, hostName, requestId, stageId);
+
+    List<HostRoleCommandEntity> commandEntities = hostRoleCommandDAO.findByRequest(requestId);
+    Assert.assertEquals(100, commandEntities.size());
+
+    Set<Long> taskIds = new HashSet<>();
+    for (HostRoleCommandEntity entity : commandEntities) {
+      Assert.assertTrue(taskIds.add(entity.getTaskId()));
+      Assert.assertEquals(hostName, entity.getHostName());
+      Assert.assertNotNull(entity.getExecutionCommand());
+      Assert.assertTrue(entity.getOutputLog().endsWith("output-" + entity.getTaskId() + ".txt"));
+    }
+  }
+
   private static class TestActionDBAccessorModule extends AbstractModule {
     @Override
     protected void configure() {
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.agent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class HeartbeatTimingWheelTest {
+
+  @Test
+  public void testExpire() {
+    HeartbeatTimingWheel wheel = new HeartbeatTimingWheel(10, 8);
+    wheel.schedule(1L, 25);
+    wheel.schedule(2L, 35);
+    assertEquals(2, wheel.size());
+
+    assertTrue(wheel.expire(20).isEmpty());
+    assertEquals(Collections.singleton(1L), wheel.expire(30));
+
+    // rescheduled by a heartbeat
+    wheel.schedule(2L, 100);
+    assertTrue(wheel.expire(40).isEmpty());
+    assertEquals(Collections.singleton(2L), wheel.expire(100));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void testScheduleInExpiredTick() {
+    HeartbeatTimingWheel wheel = new HeartbeatTimingWheel(10, 8);
+    assertTrue(wheel.expire(100).isEmpty());
+
+    wheel.schedule(1L, 5);
+    assertEquals(Collections.singleton(1L), wheel.expire(105));
+  }
+
+  @Test
+  public void testDeadlineAfterFullTurn() {
+    HeartbeatTimingWheel wheel = new HeartbeatTimingWheel(10, 8);
+    wheel.schedule(1L, 250);
+
+    for (long now = 0; now < 250; now += 10) {
+      assertTrue(wheel.expire(now).isEmpty());
+    }
+    assertEquals(Collections.singleton(1L), wheel.expire(250));
+  }
+
+  @Test
+  public void testCancel() {
+    HeartbeatTimingWheel wheel = new HeartbeatTimingWheel(10, 8);
+    wheel.schedule(1L, 25);
+    wheel.cancel(1L);
+
+    assertEquals(0, wheel.size());
+    assertTrue(wheel.expire(1000).isEmpty());
+  }
+}
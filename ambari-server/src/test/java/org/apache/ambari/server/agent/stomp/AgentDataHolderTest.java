@@ -21,20 +21,23 @@ import static org.easymock.EasyMock.createNiceMock;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
+import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.events.AgentConfigsUpdateEvent;
 import org.apache.ambari.server.events.MetadataUpdateEvent;
 import org.apache.ambari.server.events.UpdateEventType;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.security.encryption.Encryptor;
 import org.apache.commons.collections.MapUtils;
 import org.junit.Test;
 
 public class AgentDataHolderTest {
+  private final LockFactory lockFactory = new LockFactory(new Configuration());
 
   @Test
   public void testGetHashWithTimestamp() {
     AmbariEventPublisher ambariEventPublisher = createNiceMock(AmbariEventPublisher.class);
-    AgentConfigsHolder agentConfigsHolder = new AgentConfigsHolder(ambariEventPublisher, Encryptor.NONE);
+    AgentConfigsHolder agentConfigsHolder = new AgentConfigsHolder(ambariEventPublisher, Encryptor.NONE, lockFactory);
 
     AgentConfigsUpdateEvent event1 = new AgentConfigsUpdateEvent(null, null);
     event1.setHash("01");
@@ -74,7 +77,7 @@ public class AgentDataHolderTest {
   @Test
   public void testGetHash() {
     AmbariEventPublisher ambariEventPublisher = createNiceMock(AmbariEventPublisher.class);
-    MetadataHolder metadataHolder = new MetadataHolder(ambariEventPublisher);
+    MetadataHolder metadataHolder = new MetadataHolder(ambariEventPublisher, lockFactory);
 
     MetadataUpdateEvent event1 = new MetadataUpdateEvent(null,
         null,
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.agent.stomp;
+
+import static org.easymock.EasyMock.expect;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.easymock.EasyMockSupport;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AgentsRegistrationQueueTest extends EasyMockSupport {
+
+  private final AgentRegistrationStatistics statistics = new AgentRegistrationStatistics();
+
+  @Test
+  public void testQueueCapacity() {
+    AgentsRegistrationQueue queue = createQueue(2, 0);
+
+    Assert.assertTrue(queue.offer("session1"));
+    Assert.assertTrue(queue.offer("session2"));
+    Assert.assertFalse(queue.offer("session3"));
+
+    queue.complete("session1");
+    Assert.assertTrue(queue.offer("session3"));
+
+    // not admitted sessions are not counted as registered
+    queue.complete("session4");
+
+    Assert.assertEquals(3, statistics.getAdmittedCount());
+    Assert.assertEquals(1, statistics.getRefusedCount());
+    Assert.assertEquals(1, statistics.getRegisteredCount());
+    verifyAll();
+  }
+
+  @Test
+  public void testAdmissionRate() {
+    AgentsRegistrationQueue queue = createQueue(10, 1);
+
+    Assert.assertTrue(queue.offer("session1"));
+    Assert.assertFalse(queue.offer("session2"));
+
+    Assert.assertEquals(1, statistics.getAdmittedCount());
+    Assert.assertEquals(1, statistics.getRefusedCount());
+    verifyAll();
+  }
+
+  private AgentsRegistrationQueue createQueue(int size, int rate) {
+    Configuration configuration = createNiceMock(Configuration.class);
+    expect(configuration.getAgentsRegistrationQueueSize()).andReturn(size).anyTimes();
+    expect(configuration.getAgentsRegistrationRate()).andReturn(rate).anyTimes();
+    replayAll();
+    return new AgentsRegistrationQueue(configuration, statistics);
+  }
+}
@@ -28,13 +28,16 @@ import java.util.Map;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.agent.stomp.dto.AlertCluster;
+import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.events.AlertDefinitionEventType;
 import org.apache.ambari.server.events.AlertDefinitionsAgentUpdateEvent;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.junit.Test;
 
 public class AlertDefinitionsHolderTest {
   private final Long HOST_ID = 1L;
+  private final LockFactory lockFactory = new LockFactory(new Configuration());
 
   @Test
   public void testHandleUpdateEmptyCurrent() throws AmbariException {
@@ -46,7 +49,7 @@ public class AlertDefinitionsHolderTest {
     AlertDefinitionsAgentUpdateEvent update = new AlertDefinitionsAgentUpdateEvent(AlertDefinitionEventType.UPDATE,
         clusters, "host1", HOST_ID);
 
-    AlertDefinitionsHolder alertDefinitionsHolder = new AlertDefinitionsHolder(createNiceMock(AmbariEventPublisher.class));
+    AlertDefinitionsHolder alertDefinitionsHolder = new AlertDefinitionsHolder(createNiceMock(AmbariEventPublisher.class), lockFactory);
     AlertDefinitionsAgentUpdateEvent result = alertDefinitionsHolder.handleUpdate(current, update);
 
     assertFalse(result == update);
@@ -65,7 +68,7 @@ public class AlertDefinitionsHolderTest {
     AlertDefinitionsAgentUpdateEvent update = new AlertDefinitionsAgentUpdateEvent(AlertDefinitionEventType.UPDATE,
         Collections.emptyMap(), "host1", HOST_ID);
 
-    AlertDefinitionsHolder alertDefinitionsHolder = new AlertDefinitionsHolder(createNiceMock(AmbariEventPublisher.class));
+    AlertDefinitionsHolder alertDefinitionsHolder = new AlertDefinitionsHolder(createNiceMock(AmbariEventPublisher.class), lockFactory);
     AlertDefinitionsAgentUpdateEvent result = alertDefinitionsHolder.handleUpdate(current, update);
 
     assertFalse(result == update);
@@ -87,7 +90,7 @@ public class AlertDefinitionsHolderTest {
     AlertDefinitionsAgentUpdateEvent update = new AlertDefinitionsAgentUpdateEvent(AlertDefinitionEventType.UPDATE,
         updateClusters, "host1", HOST_ID);
 
-    AlertDefinitionsHolder alertDefinitionsHolder = new AlertDefinitionsHolder(createNiceMock(AmbariEventPublisher.class));
+    AlertDefinitionsHolder alertDefinitionsHolder = new AlertDefinitionsHolder(createNiceMock(AmbariEventPublisher.class), lockFactory);
     AlertDefinitionsAgentUpdateEvent result = alertDefinitionsHolder.handleUpdate(current, update);
 
     assertFalse(result == update);
@@ -109,7 +112,7 @@ public class AlertDefinitionsHolderTest {
     AlertDefinitionsAgentUpdateEvent update = new AlertDefinitionsAgentUpdateEvent(AlertDefinitionEventType.UPDATE,
         updateClusters, "host1", HOST_ID);
 
-    AlertDefinitionsHolder alertDefinitionsHolder = new AlertDefinitionsHolder(createNiceMock(AmbariEventPublisher.class));
+    AlertDefinitionsHolder alertDefinitionsHolder = new AlertDefinitionsHolder(createNiceMock(AmbariEventPublisher.class), lockFactory);
     AlertDefinitionsAgentUpdateEvent result = alertDefinitionsHolder.handleUpdate(current, update);
 
     assertFalse(result == update);
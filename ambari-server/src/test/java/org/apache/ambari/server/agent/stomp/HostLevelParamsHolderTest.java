@@ -28,12 +28,15 @@ import java.util.Map;
 
 import org.apache.ambari.server.agent.RecoveryConfig;
 import org.apache.ambari.server.agent.stomp.dto.HostLevelParamsCluster;
+import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.events.HostLevelParamsUpdateEvent;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
 import org.junit.Test;
 
 public class HostLevelParamsHolderTest {
   private final Long HOST_ID = 1L;
+  private final LockFactory lockFactory = new LockFactory(new Configuration());
 
   @Test
   public void testHandleUpdateEmptyCurrent() {
@@ -43,7 +46,7 @@ public class HostLevelParamsHolderTest {
     clusters.put("1", cluster);
     HostLevelParamsUpdateEvent update = new HostLevelParamsUpdateEvent(HOST_ID, clusters);
 
-    HostLevelParamsHolder levelParamsHolder = new HostLevelParamsHolder(createNiceMock(AmbariEventPublisher.class));
+    HostLevelParamsHolder levelParamsHolder = new HostLevelParamsHolder(createNiceMock(AmbariEventPublisher.class), lockFactory);
     HostLevelParamsUpdateEvent result = levelParamsHolder.handleUpdate(current, update);
 
     assertFalse(result == update);
@@ -59,7 +62,7 @@ public class HostLevelParamsHolderTest {
     HostLevelParamsUpdateEvent current = new HostLevelParamsUpdateEvent(HOST_ID, clusters);
     HostLevelParamsUpdateEvent update = new HostLevelParamsUpdateEvent(HOST_ID, Collections.emptyMap());
 
-    HostLevelParamsHolder levelParamsHolder = new HostLevelParamsHolder(createNiceMock(AmbariEventPublisher.class));
+    HostLevelParamsHolder levelParamsHolder = new HostLevelParamsHolder(createNiceMock(AmbariEventPublisher.class), lockFactory);
     HostLevelParamsUpdateEvent result = levelParamsHolder.handleUpdate(current, update);
 
     assertFalse(result == update);
@@ -79,7 +82,7 @@ public class HostLevelParamsHolderTest {
     updateClusters.put("1", updateCluster);
     HostLevelParamsUpdateEvent update = new HostLevelParamsUpdateEvent(HOST_ID, updateClusters);
 
-    HostLevelParamsHolder levelParamsHolder = new HostLevelParamsHolder(createNiceMock(AmbariEventPublisher.class));
+    HostLevelParamsHolder levelParamsHolder = new HostLevelParamsHolder(createNiceMock(AmbariEventPublisher.class), lockFactory);
     HostLevelParamsUpdateEvent result = levelParamsHolder.handleUpdate(current, update);
 
     assertFalse(result == update);
@@ -99,7 +102,7 @@ public class HostLevelParamsHolderTest {
     updateClusters.put("2", updateCluster);
     HostLevelParamsUpdateEvent update = new HostLevelParamsUpdateEvent(HOST_ID, updateClusters);
 
-    HostLevelParamsHolder levelParamsHolder = new HostLevelParamsHolder(createNiceMock(AmbariEventPublisher.class));
+    HostLevelParamsHolder levelParamsHolder = new HostLevelParamsHolder(createNiceMock(AmbariEventPublisher.class), lockFactory);
     HostLevelParamsUpdateEvent result = levelParamsHolder.handleUpdate(current, update);
 
     assertFalse(result == update);
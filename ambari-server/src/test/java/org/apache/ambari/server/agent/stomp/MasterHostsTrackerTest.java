@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.agent.stomp;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.apache.ambari.server.events.HostsRemovedEvent;
+import org.apache.ambari.server.events.ServiceComponentInstalledEvent;
+import org.apache.ambari.server.events.ServiceComponentUninstalledEvent;
+import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.state.Cluster;
+import org.apache.ambari.server.state.Clusters;
+import org.apache.ambari.server.state.Service;
+import org.apache.ambari.server.state.ServiceComponent;
+import org.apache.ambari.server.state.ServiceComponentHost;
+import org.easymock.EasyMockSupport;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.persist.UnitOfWork;
+
+public class MasterHostsTrackerTest extends EasyMockSupport {
+
+  @Test
+  public void testLoadsMasterHostsFromClusters() throws Exception {
+    ServiceComponent master = createNiceMock(ServiceComponent.class);
+    expect(master.isMasterComponent()).andReturn(true).anyTimes();
+    expect(master.getName()).andReturn("NAMENODE").anyTimes();
+    expect(master.getServiceComponentHosts()).andReturn(
+        Collections.singletonMap("h1", createNiceMock(ServiceComponentHost.class))).anyTimes();
+    ServiceComponent slave = createNiceMock(ServiceComponent.class);
+    expect(slave.isMasterComponent()).andReturn(false).anyTimes();
+    expect(slave.getServiceComponentHosts()).andReturn(
+        Collections.singletonMap("h2", createNiceMock(ServiceComponentHost.class))).anyTimes();
+
+    Service service = createNiceMock(Service.class);
+    expect(service.getServiceComponents()).andReturn(
+        ImmutableMap.of("NAMENODE", master, "DATANODE", slave)).anyTimes();
+    Cluster cluster = createNiceMock(Cluster.class);
+    expect(cluster.getClusterId()).andReturn(1L).anyTimes();
+    expect(cluster.getServices()).andReturn(Collections.singletonMap("HDFS", service)).anyTimes();
+    Clusters clusters = createNiceMock(Clusters.class);
+    expect(clusters.getClusters()).andReturn(Collections.singletonMap("c1", cluster)).anyTimes();
+
+    MasterHostsTracker tracker = createTracker(clusters);
+
+    long deadline = System.currentTimeMillis() + 10000;
+    while (!tracker.isMasterHost("h1") && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(tracker.isMasterHost("h1"));
+    assertFalse(tracker.isMasterHost("h2"));
+  }
+
+  @Test
+  public void testFollowsComponentAndHostEvents() throws Exception {
+    Clusters clusters = createNiceMock(Clusters.class);
+    expect(clusters.getClusters()).andReturn(Collections.emptyMap()).anyTimes();
+
+    MasterHostsTracker tracker = createTracker(clusters);
+    assertFalse(tracker.isMasterHost("h1"));
+
+    tracker.onServiceComponentInstalled(installed("NAMENODE", "h1", true));
+    tracker.onServiceComponentInstalled(installed("SECONDARY_NAMENODE", "h1", true));
+    tracker.onServiceComponentInstalled(installed("DATANODE", "h2", false));
+    assertTrue(tracker.isMasterHost("h1"));
+    assertFalse(tracker.isMasterHost("h2"));
+
+    // the host stays a master host as long as any master component is installed on it
+    tracker.onServiceComponentUninstalled(uninstalled("NAMENODE", "h1"));
+    assertTrue(tracker.isMasterHost("h1"));
+    tracker.onServiceComponentUninstalled(uninstalled("SECONDARY_NAMENODE", "h1"));
+    assertFalse(tracker.isMasterHost("h1"));
+
+    tracker.onServiceComponentInstalled(installed("NAMENODE", "h3", true));
+    tracker.onHostsRemoved(new HostsRemovedEvent(Collections.singleton("h3"), Collections.singleton(3L)));
+    assertFalse(tracker.isMasterHost("h3"));
+  }
+
+  private MasterHostsTracker createTracker(Clusters clusters) {
+    UnitOfWork unitOfWork = createNiceMock(UnitOfWork.class);
+    AmbariEventPublisher eventPublisher = createNiceMock(AmbariEventPublisher.class);
+    replayAll();
+    return new MasterHostsTracker(eventPublisher, () -> clusters, () -> unitOfWork);
+  }
+
+  private static ServiceComponentInstalledEvent installed(String componentName, String hostName, boolean master) {
+    return new ServiceComponentInstalledEvent(1L, "HDP", "2.6", "HDFS", componentName, hostName, false, master);
+  }
+
+  private static ServiceComponentUninstalledEvent uninstalled(String componentName, String hostName) {
+    return new ServiceComponentUninstalledEvent(1L, "HDP", "2.6", "HDFS", componentName, hostName, false, true, 1L);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.agent.stomp;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.ambari.server.agent.stomp.dto.TopologyCluster;
+import org.apache.ambari.server.agent.stomp.dto.TopologyComponent;
+import org.apache.ambari.server.agent.stomp.dto.TopologyHost;
+import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorHelper;
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.controller.AmbariManagementControllerImpl;
+import org.apache.ambari.server.events.TopologyUpdateEvent;
+import org.apache.ambari.server.events.UpdateEventType;
+import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.events.publishers.STOMPUpdatePublisher;
+import org.apache.ambari.server.logging.LockFactory;
+import org.apache.ambari.server.state.Clusters;
+import org.easymock.EasyMockRule;
+import org.easymock.Mock;
+import org.easymock.MockType;
+import org.easymock.TestSubject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class TopologyHolderTest {
+
+  @Rule
+  public EasyMockRule mocks = new EasyMockRule(this);
+
+  @Mock(type = MockType.NICE)
+  private Clusters clusters;
+
+  @Mock(type = MockType.NICE)
+  private StackAdvisorHelper stackAdvisorHelper;
+
+  @Mock(type = MockType.NICE)
+  private AmbariManagementControllerImpl ambariManagementController;
+
+  @Mock(type = MockType.NICE)
+  private STOMPUpdatePublisher STOMPUpdatePublisher;
+
+  @TestSubject
+  private TopologyHolder topologyHolder = new TopologyHolder(createNiceMock(AmbariEventPublisher.class),
+      new LockFactory(new Configuration()));
+
+  @Before
+  public void setUp() {
+    expect(clusters.getClusters()).andReturn(Collections.emptyMap()).anyTimes();
+    replay(clusters, stackAdvisorHelper, ambariManagementController, STOMPUpdatePublisher);
+  }
+
+  @Test
+  public void testGetUpdateIfChangedSendsJournaledUpdates() throws Exception {
+    String initialHash = topologyHolder.getUpdateIfChanged(null).getHash();
+
+    Assert.assertTrue(topologyHolder.updateData(createUpdate(UpdateEventType.UPDATE, 1L, "host1")));
+    String firstHash = topologyHolder.getData().getHash();
+    Assert.assertTrue(topologyHolder.updateData(createUpdate(UpdateEventType.UPDATE, 2L, "host2")));
+    String secondHash = topologyHolder.getData().getHash();
+
+    // agent is up to date
+    Assert.assertNull(topologyHolder.getUpdateIfChanged(secondHash).getClusters());
+
+    // agent missed the last update
+    TopologyUpdateEvent delta = topologyHolder.getUpdateIfChanged(firstHash);
+    Assert.assertEquals(UpdateEventType.UPDATE, delta.getEventType());
+    Assert.assertEquals(secondHash, delta.getHash());
+    Assert.assertEquals(Collections.singleton(2L), getHostIds(delta));
+    Assert.assertEquals(Collections.singleton(2L), getComponentHostIds(delta));
+
+    // agent missed both updates, which are merged
+    delta = topologyHolder.getUpdateIfChanged(initialHash);
+    Assert.assertEquals(UpdateEventType.UPDATE, delta.getEventType());
+    Assert.assertEquals(secondHash, delta.getHash());
+    Assert.assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), getHostIds(delta));
+    Assert.assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), getComponentHostIds(delta));
+
+    // unknown version
+    TopologyUpdateEvent snapshot = topologyHolder.getUpdateIfChanged("unknown");
+    Assert.assertEquals(UpdateEventType.CREATE, snapshot.getEventType());
+    Assert.assertEquals(secondHash, snapshot.getHash());
+
+    Assert.assertTrue(topologyHolder.updateData(createUpdate(UpdateEventType.DELETE, 1L, "host1")));
+    String thirdHash = topologyHolder.getData().getHash();
+
+    delta = topologyHolder.getUpdateIfChanged(secondHash);
+    Assert.assertEquals(UpdateEventType.DELETE, delta.getEventType());
+    Assert.assertEquals(thirdHash, delta.getHash());
+
+    // deletions are not merged with other updates
+    snapshot = topologyHolder.getUpdateIfChanged(initialHash);
+    Assert.assertEquals(UpdateEventType.CREATE, snapshot.getEventType());
+    Assert.assertEquals(Collections.singleton(2L), getHostIds(snapshot));
+  }
+
+  private TopologyUpdateEvent createUpdate(UpdateEventType eventType, Long hostId, String hostName) {
+    TopologyComponent component = TopologyComponent.newBuilder()
+        .setComponentName("DATANODE")
+        .setServiceName("HDFS")
+        .setHostIdentifiers(new HashSet<>(Collections.singleton(hostId)), new HashSet<>(Collections.singleton(hostName)))
+        .build();
+    TopologyHost host = new TopologyHost(hostId, hostName);
+    TreeMap<String, TopologyCluster> topologyClusters = new TreeMap<>();
+    topologyClusters.put("1", new TopologyCluster(new HashSet<>(Collections.singleton(component)),
+        new HashSet<>(Collections.singleton(host))));
+    return new TopologyUpdateEvent(topologyClusters, eventType);
+  }
+
+  private Set<Long> getHostIds(TopologyUpdateEvent event) {
+    return event.getClusters().get("1").getTopologyHosts().stream()
+        .map(TopologyHost::getHostId)
+        .collect(Collectors.toSet());
+  }
+
+  private Set<Long> getComponentHostIds(TopologyUpdateEvent event) {
+    return event.getClusters().get("1").getTopologyComponents().iterator().next().getHostIds();
+  }
+}
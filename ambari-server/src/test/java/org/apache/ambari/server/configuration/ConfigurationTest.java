@@ -114,6 +114,20 @@ public class ConfigurationTest {
     Assert.assertEquals("false", conf.getConfigsMap().get(Configuration.SRVR_AGENT_HOSTNAME_VALIDATE.getKey()));
   }
 
+  @Test
+  public void testGetStaticContentPrecompressionMinSize() {
+    Properties ambariProperties = new Properties();
+    Configuration conf = new Configuration(ambariProperties);
+    Assert.assertEquals(10240, conf.getStaticContentPrecompressionMinSize());
+
+    ambariProperties.setProperty(Configuration.API_GZIP_MIN_COMPRESSION_SIZE.getKey(), "2048");
+    Assert.assertEquals(2048, conf.getStaticContentPrecompressionMinSize());
+
+    // not a number of bytes, the default is used instead of compressing everything
+    ambariProperties.setProperty(Configuration.API_GZIP_MIN_COMPRESSION_SIZE.getKey(), "32k");
+    Assert.assertEquals(10240, conf.getStaticContentPrecompressionMinSize());
+  }
+
   /**
    * ambari.properties doesn't contain "security.server.two_way_ssl" option
    * @throws Exception
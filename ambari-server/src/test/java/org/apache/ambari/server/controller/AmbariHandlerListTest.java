@@ -25,6 +25,8 @@ import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -39,6 +41,8 @@ import org.apache.ambari.server.orm.entities.ViewInstanceEntity;
 import org.apache.ambari.server.orm.entities.ViewInstanceEntityTest;
 import org.apache.ambari.server.security.AmbariViewsSecurityHeaderFilter;
 import org.apache.ambari.server.view.ViewRegistry;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.eclipse.jetty.server.Handler;
@@ -51,7 +55,9 @@ import org.eclipse.jetty.server.session.SessionHandler;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.webapp.WebAppContext;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.springframework.web.filter.DelegatingFilterProxy;
 
 /**
@@ -68,6 +74,9 @@ public class AmbariHandlerListTest {
   private final SessionCache sessionCache = createNiceMock(SessionCache.class);
   private final Configuration configuration = createNiceMock(Configuration.class);
 
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void testAddViewInstance() throws Exception {
 
@@ -133,7 +142,7 @@ public class AmbariHandlerListTest {
 
     expect(sessionHandler.getSessionCache()).andReturn(sessionCache);
 
-    replay(handler, server, sessionHandler);
+    replay(handler, server, sessionHandler, configuration);
 
     AmbariHandlerList handlerList = getAmbariHandlerList(handler);
 
@@ -186,6 +195,44 @@ public class AmbariHandlerListTest {
     verify(handler, viewRegistry, viewEntity);
   }
 
+  @Test
+  public void testStaticContentCompressedOncePerViewArchive() throws Exception {
+    File archive = temporaryFolder.getRoot();
+    FileUtils.writeStringToFile(new File(archive, "app.js"), StringUtils.repeat("var x = 1;\n", 100),
+        StandardCharsets.UTF_8);
+
+    ViewInstanceEntity viewInstanceEntity1 = ViewInstanceEntityTest.getViewInstanceEntity();
+    viewInstanceEntity1.getViewEntity().setArchive(archive.getAbsolutePath());
+    ViewInstanceEntity viewInstanceEntity2 = ViewInstanceEntityTest.getViewInstanceEntity();
+    viewInstanceEntity2.getViewEntity().setArchive(archive.getAbsolutePath());
+
+    final WebAppContext handler = createNiceMock(WebAppContext.class);
+    expect(handler.getChildHandlers()).andReturn(new Handler[]{}).anyTimes();
+    expect(handler.getSessionHandler()).andReturn(createNiceMock(SessionHandler.class)).anyTimes();
+    expect(sessionHandler.getSessionCache()).andReturn(sessionCache).anyTimes();
+    expect(configuration.isStaticContentPrecompressionEnabled()).andReturn(true).anyTimes();
+    // the archive is only compressed for the first instance of the view
+    expect(configuration.getStaticContentPrecompressionMinSize()).andReturn(0).once();
+
+    replay(handler, sessionHandler, configuration);
+
+    AmbariHandlerList handlerList = getAmbariHandlerList(handler);
+
+    handlerList.addViewInstance(viewInstanceEntity1);
+    handlerList.addViewInstance(viewInstanceEntity2);
+
+    // compressed in the background
+    long deadline = System.currentTimeMillis() + 10000;
+    while (!new File(archive, StaticContentCompressor.MANIFEST_FILE_NAME).exists()
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertTrue(new File(archive, "app.js.gz").exists());
+    Assert.assertTrue(new File(archive, "app.js.zz").exists());
+
+    verify(configuration);
+  }
+
   private AmbariHandlerList getAmbariHandlerList(final WebAppContext handler) {
 
     AmbariHandlerList handlerList = new AmbariHandlerList();
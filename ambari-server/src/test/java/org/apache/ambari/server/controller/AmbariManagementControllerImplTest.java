@@ -76,6 +76,7 @@ import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.controller.internal.RequestStageContainer;
 import org.apache.ambari.server.controller.spi.Resource;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.mpack.MpackManagerFactory;
 import org.apache.ambari.server.orm.InMemoryDefaultTestModule;
 import org.apache.ambari.server.orm.dao.RepositoryVersionDAO;
@@ -634,7 +635,7 @@ public class AmbariManagementControllerImplTest {
     expect(clusterRequest.getDesiredConfig()).andReturn(configRequests);
     expect(configurationRequest.getVersionTag()).andReturn(null).times(1);
     expect(clusters.getClusterById(1L)).andReturn(cluster).times(1);
-    expect(cluster.getClusterName()).andReturn("clusterOld").times(1);
+    expect(cluster.getClusterName()).andReturn("clusterOld").times(2);
 
     cluster.setClusterName("clusterNew");
     expectLastCall();
@@ -1030,6 +1031,7 @@ public class AmbariManagementControllerImplTest {
     expect(clusterRequest.getClusterId()).andReturn(1L).times(4);
     expect(clusterRequest.getSecurityType()).andReturn(SecurityType.NONE).anyTimes();
     expect(clusters.getClusterById(1L)).andReturn(cluster).times(1);
+    expect(cluster.getClusterName()).andReturn("c1").once();
     expect(cluster.getResourceId()).andReturn(1L).times(3);
     expect(cluster.getSecurityType()).andReturn(SecurityType.KERBEROS).anyTimes();
     expect(cluster.getCurrentStackVersion()).andReturn(null).anyTimes();
@@ -1096,7 +1098,7 @@ public class AmbariManagementControllerImplTest {
     expect(clusterRequest.getClusterName()).andReturn("clusterNew").times(5);
     expect(clusterRequest.getClusterId()).andReturn(1L).times(4);
     expect(clusters.getClusterById(1L)).andReturn(cluster).times(1);
-    expect(cluster.getClusterName()).andReturn("clusterOld").times(1);
+    expect(cluster.getClusterName()).andReturn("clusterOld").times(2);
     cluster.setClusterName("clusterNew");
     expectLastCall().andThrow(new RollbackException());
 
@@ -2312,6 +2314,19 @@ public class AmbariManagementControllerImplTest {
     f.set(controller, metaInfo);
   }
 
+  /**
+   * Sets the private field 'clusterOperationSerializer' which is injected at runtime.
+   */
+  private static void setClusterOperationSerializer(AmbariManagementController controller) throws Exception {
+    Configuration configuration = createNiceMock(Configuration.class);
+    replay(configuration);
+    ClusterOperationSerializer serializer = new ClusterOperationSerializer(configuration, new LockFactory(configuration));
+
+    Field f = AmbariManagementControllerImpl.class.getDeclaredField("clusterOperationSerializer");
+    f.setAccessible(true);
+    f.set(controller, (Provider<ClusterOperationSerializer>) () -> serializer);
+  }
+
   private class MockModule implements com.google.inject.Module {
 
     @Override
@@ -2512,6 +2527,7 @@ public class AmbariManagementControllerImplTest {
     replay(ambariMetaInfo,injector);
     AmbariManagementController controller = new AmbariManagementControllerImpl(null, clusters, injector);
     setAmbariMetaInfo(ambariMetaInfo, controller);
+    setClusterOperationSerializer(controller);
     Assert.assertEquals(mpackResponse,controller.registerMpack(mpackRequest));
   }
 
@@ -2540,6 +2556,10 @@ public class AmbariManagementControllerImplTest {
                                MaintenanceStateHelper maintenanceStateHelper, KerberosHelper kerberosHelper,
                                Provider<MetadataHolder> m_metadataHolder, Provider<AgentConfigsHolder> m_agentConfigsHolder) {
     injector.injectMembers(capture(controllerCapture));
+    expectLastCall().andAnswer(() -> {
+      setClusterOperationSerializer(controllerCapture.getValue());
+      return null;
+    });
     expect(injector.getInstance(Gson.class)).andReturn(gson);
     expect(injector.getInstance(MaintenanceStateHelper.class)).andReturn(maintenanceStateHelper);
     expect(injector.getInstance(KerberosHelper.class)).andReturn(kerberosHelper);
@@ -2549,6 +2569,10 @@ public class AmbariManagementControllerImplTest {
   public static void constructorInit(Injector injector, Capture<AmbariManagementController> controllerCapture,
                                KerberosHelper kerberosHelper) {
     injector.injectMembers(capture(controllerCapture));
+    expectLastCall().andAnswer(() -> {
+      setClusterOperationSerializer(controllerCapture.getValue());
+      return null;
+    });
     expect(injector.getInstance(Gson.class)).andReturn(null);
     expect(injector.getInstance(MaintenanceStateHelper.class)).andReturn(null);
     expect(injector.getInstance(KerberosHelper.class)).andReturn(kerberosHelper);
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.ambari.server.AmbariException;
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.logging.LockFactory;
+import org.apache.ambari.server.logging.LockStatistics;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClusterOperationSerializerTest {
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private LockFactory lockFactory;
+  private ClusterOperationSerializer serializer;
+
+  @Before
+  public void setUp() {
+    Configuration configuration = EasyMock.createNiceMock(Configuration.class);
+    expect(configuration.getServerClusterOperationsTimeout()).andReturn(1).anyTimes();
+    replay(configuration);
+    lockFactory = new LockFactory(configuration);
+    serializer = new ClusterOperationSerializer(configuration, lockFactory);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testDifferentClustersRunConcurrently() throws Exception {
+    try (ClusterOperationSerializer.Permit permit = serializer.acquire(Collections.singleton("c1"))) {
+      Future<?> other = executor.submit(() -> {
+        serializer.acquire(Collections.singleton("c2")).close();
+        return null;
+      });
+      other.get(5, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testSameClusterTimesOut() throws Exception {
+    try (ClusterOperationSerializer.Permit permit = serializer.acquire(Arrays.asList("c2", "c1"))) {
+      // reentrant
+      serializer.acquire(Collections.singleton("c1")).close();
+
+      Future<?> other = executor.submit(() -> {
+        serializer.acquire(Collections.singleton("c1")).close();
+        return null;
+      });
+      try {
+        other.get(5, TimeUnit.SECONDS);
+        fail("Expected a timeout");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof AmbariException);
+      }
+    }
+
+    LockStatistics statistics = lockFactory.getStatistics(ClusterOperationSerializer.STATISTICS_PREFIX + "c1");
+    assertEquals(1, statistics.getSampleCount());
+    assertEquals(1, statistics.getFailedSampleCount());
+    assertEquals(0, serializer.getQueueLength("c1"));
+  }
+
+  @Test
+  public void testAllClustersWaitsForClusterOperations() throws Exception {
+    CountDownLatch acquired = new CountDownLatch(1);
+    ClusterOperationSerializer.Permit permit = serializer.acquire(Collections.singleton("c1"));
+    Future<?> all = executor.submit(() -> {
+      try (ClusterOperationSerializer.Permit allPermit = serializer.acquireAll()) {
+        acquired.countDown();
+      }
+      return null;
+    });
+
+    assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+    permit.close();
+    all.get(5, TimeUnit.SECONDS);
+    assertEquals(0, acquired.getCount());
+  }
+
+  @Test
+  public void testRemoveClusterDropsStatistics() throws Exception {
+    serializer.acquire(Collections.singleton("c1")).close();
+    serializer.acquire(Collections.singleton("c2")).close();
+
+    serializer.removeCluster("c1");
+
+    assertEquals(Collections.singletonList(ClusterOperationSerializer.STATISTICS_PREFIX + "c2"),
+      lockFactory.getLockStatistics().stream().map(LockStatistics::getName).collect(Collectors.toList()));
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StaticContentCompressorTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testCompress() throws Exception {
+    File root = temporaryFolder.getRoot();
+    byte[] content = StringUtils.repeat("var x = 1;\n", 100).getBytes(StandardCharsets.UTF_8);
+    File script = new File(root, "javascripts/app.js");
+    FileUtils.writeByteArrayToFile(script, content);
+    FileUtils.writeByteArrayToFile(new File(root, "index.html"), "<html/>".getBytes(StandardCharsets.UTF_8));
+    FileUtils.writeByteArrayToFile(new File(root, "img/logo.png"), content);
+
+    StaticContentCompressor compressor = new StaticContentCompressor(100);
+    assertEquals(2, compressor.compress(root));
+
+    try (InputStream in = new GZIPInputStream(new FileInputStream(new File(root, "javascripts/app.js.gz")))) {
+      assertArrayEquals(content, IOUtils.toByteArray(in));
+    }
+    try (InputStream in = new InflaterInputStream(new FileInputStream(new File(root, "javascripts/app.js.zz")))) {
+      assertArrayEquals(content, IOUtils.toByteArray(in));
+    }
+    // too small and not compressible
+    assertFalse(new File(root, "index.html.gz").exists());
+    assertFalse(new File(root, "img/logo.png.gz").exists());
+
+    // up to date
+    assertEquals(0, compressor.compress(root));
+
+    // touched without changing the content
+    assertTrue(script.setLastModified(new File(root, "javascripts/app.js.gz").lastModified() + 2000));
+    assertEquals(0, compressor.compress(root));
+
+    // changed, but older than the variants
+    byte[] changedContent = StringUtils.repeat("var y = 2;\n", 100).getBytes(StandardCharsets.UTF_8);
+    FileUtils.writeByteArrayToFile(script, changedContent);
+    assertTrue(script.setLastModified(new File(root, "javascripts/app.js.gz").lastModified() - 2000));
+    assertEquals(2, compressor.compress(root));
+    try (InputStream in = new GZIPInputStream(new FileInputStream(new File(root, "javascripts/app.js.gz")))) {
+      assertArrayEquals(changedContent, IOUtils.toByteArray(in));
+    }
+
+    // a deleted variant is written again
+    assertTrue(new File(root, "javascripts/app.js.zz").delete());
+    assertEquals(2, compressor.compress(root));
+  }
+
+  @Test
+  public void testWebInfIsSkipped() throws Exception {
+    File root = temporaryFolder.getRoot();
+    byte[] content = StringUtils.repeat("<xml/>\n", 100).getBytes(StandardCharsets.UTF_8);
+    FileUtils.writeByteArrayToFile(new File(root, "WEB-INF/web.xml"), content);
+    FileUtils.writeByteArrayToFile(new File(root, "WEB-INF/classes/view.xml"), content);
+    FileUtils.writeByteArrayToFile(new File(root, "view.xml"), content);
+
+    assertEquals(2, new StaticContentCompressor(0).compress(root));
+
+    assertTrue(new File(root, "view.xml.gz").exists());
+    assertFalse(new File(root, "WEB-INF/web.xml.gz").exists());
+    assertFalse(new File(root, "WEB-INF/classes/view.xml.gz").exists());
+  }
+
+  @Test
+  public void testCompressMissingDirectory() {
+    assertEquals(0, new StaticContentCompressor(0).compress(new File(temporaryFolder.getRoot(), "missing")));
+  }
+}
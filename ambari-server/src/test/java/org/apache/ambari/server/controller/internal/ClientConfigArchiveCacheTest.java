@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClientConfigArchiveCacheTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File archive;
+  private File target;
+
+  @Before
+  public void setUp() throws Exception {
+    archive = temporaryFolder.newFile("archive");
+    FileUtils.writeStringToFile(archive, StringUtils.repeat("x", 100), StandardCharsets.UTF_8);
+    target = new File(temporaryFolder.getRoot(), "target");
+  }
+
+  @Test
+  public void testStoreAndRestore() throws Exception {
+    ClientConfigArchiveCache cache = new ClientConfigArchiveCache(temporaryFolder.newFolder("cache"), 1000);
+    String key = cache.getKey("script.py", "{\"configurations\":{}}");
+    assertFalse(key.equals(cache.getKey("script.py", "{\"configurations\":{\"a\":{}}}")));
+
+    assertFalse(cache.restore(key, target));
+    cache.store(key, archive);
+    assertTrue(cache.restore(key, target));
+    assertTrue(FileUtils.contentEquals(archive, target));
+
+    cache.invalidate();
+    assertFalse(cache.restore(key, target));
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() throws Exception {
+    File directory = temporaryFolder.newFolder("cache");
+    ClientConfigArchiveCache cache = new ClientConfigArchiveCache(directory, 250);
+    cache.store("a", archive);
+    cache.store("b", archive);
+    assertTrue(cache.restore("a", target));
+
+    cache.store("c", archive);
+    assertTrue(cache.restore("a", target));
+    assertFalse(cache.restore("b", target));
+    assertTrue(cache.restore("c", target));
+    assertEquals(2, directory.list().length);
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    ClientConfigArchiveCache cache = new ClientConfigArchiveCache(temporaryFolder.newFolder("cache"), 0);
+    assertFalse(cache.isEnabled());
+    cache.store("a", archive);
+    assertFalse(cache.restore("a", target));
+  }
+}
@@ -329,6 +329,68 @@ public class HostResourceProviderTest extends EasyMockSupport {
     verifyAll();
   }
 
+  @Test
+  public void testGetResourcesInBatches() throws Exception {
+    AuthorizationHelperInitializer.viewInstanceDAOReturningNull();
+    Injector injector = createInjector();
+    AmbariManagementController managementController = injector.getInstance(AmbariManagementController.class);
+    Clusters clusters = injector.getInstance(Clusters.class);
+    Cluster cluster = createMock(Cluster.class);
+    ResourceProviderFactory resourceProviderFactory = createNiceMock(ResourceProviderFactory.class);
+    ResourceProvider hostResourceProvider = getHostProvider(injector);
+
+    AbstractControllerResourceProvider.init(resourceProviderFactory);
+
+    Set<Cluster> clusterSet = Collections.singleton(cluster);
+
+    // enough hosts to be built in several batches
+    List<Host> hosts = new LinkedList<>();
+    for (int i = 0; i < 250; i++) {
+      String hostName = "Host" + i;
+      Host host = createMockHost(hostName, "Cluster100", null, "HEALTHY", "RECOVERABLE", null);
+      expect(host.getMaintenanceState(2)).andReturn(MaintenanceState.OFF).anyTimes();
+      expect(clusters.getClustersForHost(hostName)).andReturn(clusterSet).anyTimes();
+      hosts.add(host);
+    }
+
+    expect(managementController.getClusters()).andReturn(clusters).anyTimes();
+    expect(resourceProviderFactory.getHostResourceProvider(
+            eq(managementController))).
+        andReturn(hostResourceProvider).anyTimes();
+
+    expect(clusters.getHosts()).andReturn(hosts).anyTimes();
+    expect(clusters.getCluster("Cluster100")).andReturn(cluster).anyTimes();
+
+    expect(cluster.getClusterId()).andReturn(2L).anyTimes();
+
+    Set<String> propertyIds = new HashSet<>();
+    propertyIds.add(HostResourceProvider.HOST_CLUSTER_NAME_PROPERTY_ID);
+    propertyIds.add(HostResourceProvider.HOST_HOST_NAME_PROPERTY_ID);
+
+    Predicate predicate = buildPredicate("Cluster100", null);
+    Request request = PropertyHelper.getReadRequest(propertyIds);
+
+    replayAll();
+
+    SecurityContextHolder.getContext().setAuthentication(TestAuthenticationFactory.createAdministrator());
+
+    ResourceProvider provider = AbstractControllerResourceProvider.getResourceProvider(
+        Resource.Type.Host,
+        managementController);
+
+    Set<Resource> resources = provider.getResources(request, predicate);
+
+    Assert.assertEquals(250, resources.size());
+    Set<String> hostNames = new HashSet<>();
+    for (Resource resource : resources) {
+      Assert.assertEquals("Cluster100", resource.getPropertyValue(HostResourceProvider.HOST_CLUSTER_NAME_PROPERTY_ID));
+      hostNames.add((String) resource.getPropertyValue(HostResourceProvider.HOST_HOST_NAME_PROPERTY_ID));
+    }
+    Assert.assertEquals(250, hostNames.size());
+
+    verifyAll();
+  }
+
   @Test
   public void testGetResources_Status_NoCluster() throws Exception {
     Resource.Type type = Resource.Type.Host;
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.controller.internal;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.controller.AmbariManagementController;
+import org.apache.ambari.server.controller.spi.Resource;
+import org.apache.ambari.server.controller.spi.SystemException;
+import org.apache.ambari.server.controller.utilities.PropertyHelper;
+import org.apache.ambari.server.logging.LockFactory;
+import org.apache.ambari.server.logging.LockStatistics;
+import org.apache.ambari.server.security.TestAuthenticationFactory;
+import org.apache.ambari.server.security.authorization.AuthorizationException;
+import org.easymock.EasyMockSupport;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * LockResourceProvider tests.
+ */
+public class LockResourceProviderTest extends EasyMockSupport {
+
+  private LockResourceProvider provider;
+
+  @Before
+  public void setUp() {
+    LockFactory lockFactory = new LockFactory(new Configuration());
+    LockStatistics statistics = lockFactory.getStatistics("TestLock");
+    statistics.recordWait(TimeUnit.MILLISECONDS.toNanos(3));
+    statistics.recordHold(TimeUnit.MILLISECONDS.toNanos(40));
+    statistics.recordFailedWait();
+
+    provider = new LockResourceProvider(createNiceMock(AmbariManagementController.class), lockFactory);
+    replayAll();
+  }
+
+  @After
+  public void tearDown() {
+    SecurityContextHolder.getContext().setAuthentication(null);
+  }
+
+  @Test
+  public void testGetResources() throws Exception {
+    SecurityContextHolder.getContext().setAuthentication(TestAuthenticationFactory.createAdministrator());
+
+    Set<Resource> resources = provider.getResources(PropertyHelper.getReadRequest(), null);
+
+    Assert.assertEquals(1, resources.size());
+    Resource resource = resources.iterator().next();
+    Assert.assertEquals("TestLock", resource.getPropertyValue(LockResourceProvider.LOCK_NAME_PROPERTY_ID));
+    Assert.assertEquals(1L, resource.getPropertyValue(LockResourceProvider.SAMPLES_PROPERTY_ID));
+    Assert.assertEquals(1L, resource.getPropertyValue(LockResourceProvider.FAILED_SAMPLES_PROPERTY_ID));
+    Assert.assertEquals(3L, resource.getPropertyValue("Lock/wait_time/max_ms"));
+    Assert.assertEquals(3L, resource.getPropertyValue("Lock/wait_time/p99_ms"));
+    Assert.assertEquals(40L, resource.getPropertyValue("Lock/hold_time/total_ms"));
+  }
+
+  @Test(expected = AuthorizationException.class)
+  public void testGetResourcesAsClusterAdministrator() throws Exception {
+    SecurityContextHolder.getContext().setAuthentication(TestAuthenticationFactory.createClusterAdministrator());
+
+    provider.getResources(PropertyHelper.getReadRequest(), null);
+  }
+
+  @Test(expected = SystemException.class)
+  public void testDeleteResources() throws Exception {
+    SecurityContextHolder.getContext().setAuthentication(TestAuthenticationFactory.createAdministrator());
+
+    provider.deleteResources(PropertyHelper.getReadRequest(), null);
+  }
+}
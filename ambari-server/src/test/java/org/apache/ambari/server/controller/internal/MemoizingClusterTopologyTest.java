@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.internal;
+
+import static org.easymock.EasyMock.createStrictMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.ambari.server.topology.ClusterTopology;
+import org.junit.Test;
+
+public class MemoizingClusterTopologyTest {
+
+  @Test
+  public void testComponentsResolvedOnce() throws Exception {
+    ClusterTopology topology = createStrictMock(ClusterTopology.class);
+    expect(topology.getHostGroupsForComponent("NAMENODE")).andReturn(Collections.singleton("group1")).once();
+    expect(topology.getHostAssignmentsForComponent("NAMENODE")).andReturn(Arrays.asList("host1", "host2")).once();
+    replay(topology);
+
+    MemoizingClusterTopology memoizing = new MemoizingClusterTopology(topology);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(Collections.singleton("group1"), memoizing.getHostGroupsForComponent("NAMENODE"));
+      assertEquals(Arrays.asList("host1", "host2"),
+        memoizing.getHostAssignmentsForComponent("NAMENODE"));
+    }
+    verify(topology);
+  }
+
+  @Test
+  public void testTopologyChangeClearsResolvedComponents() throws Exception {
+    ClusterTopology topology = createStrictMock(ClusterTopology.class);
+    expect(topology.getHostAssignmentsForComponent("NAMENODE")).andReturn(Collections.singleton("host1"));
+    topology.addHostToTopology("group1", "host2");
+    expectLastCall();
+    expect(topology.getHostAssignmentsForComponent("NAMENODE")).andReturn(Arrays.asList("host1", "host2"));
+    replay(topology);
+
+    MemoizingClusterTopology memoizing = new MemoizingClusterTopology(topology);
+    assertEquals(1, memoizing.getHostAssignmentsForComponent("NAMENODE").size());
+    memoizing.addHostToTopology("group1", "host2");
+    assertEquals(2, memoizing.getHostAssignmentsForComponent("NAMENODE").size());
+    verify(topology);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.events.listeners.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ambari.server.actionmanager.HostRoleStatus;
+import org.apache.ambari.server.controller.internal.CalculatedStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HostRoleStatusCountsTest {
+
+  @Test
+  public void testToStatusCountsMatchesCalculatedStatus() {
+    List<HostRoleStatus> statuses = new ArrayList<>(Arrays.asList(HostRoleStatus.PENDING, HostRoleStatus.PENDING,
+        HostRoleStatus.QUEUED, HostRoleStatus.IN_PROGRESS, HostRoleStatus.HOLDING, HostRoleStatus.COMPLETED,
+        HostRoleStatus.FAILED, HostRoleStatus.ABORTED, HostRoleStatus.SKIPPED_FAILED));
+
+    HostRoleStatusCounts counts = new HostRoleStatusCounts();
+    for (HostRoleStatus status : statuses) {
+      counts.add(status);
+    }
+    Assert.assertEquals(CalculatedStatus.calculateStatusCounts(statuses), counts.toStatusCounts());
+    Assert.assertEquals(statuses.size(), counts.getTotal());
+
+    // move tasks through their lifecycle
+    counts.update(HostRoleStatus.PENDING, HostRoleStatus.QUEUED);
+    statuses.set(0, HostRoleStatus.QUEUED);
+    counts.update(HostRoleStatus.QUEUED, HostRoleStatus.COMPLETED);
+    statuses.set(2, HostRoleStatus.COMPLETED);
+    counts.update(HostRoleStatus.IN_PROGRESS, HostRoleStatus.TIMEDOUT);
+    statuses.set(3, HostRoleStatus.TIMEDOUT);
+
+    Assert.assertEquals(CalculatedStatus.calculateStatusCounts(statuses), counts.toStatusCounts());
+    Assert.assertEquals(2, counts.getCount(HostRoleStatus.COMPLETED));
+    Assert.assertEquals(statuses.size(), counts.getTotal());
+  }
+
+  @Test
+  public void testIsAllCompleted() {
+    HostRoleStatusCounts counts = new HostRoleStatusCounts();
+    Assert.assertTrue(counts.isAllCompleted());
+
+    counts.add(HostRoleStatus.COMPLETED);
+    counts.add(HostRoleStatus.IN_PROGRESS);
+    Assert.assertFalse(counts.isAllCompleted());
+
+    counts.update(HostRoleStatus.IN_PROGRESS, HostRoleStatus.FAILED);
+    Assert.assertTrue(counts.isAllCompleted());
+  }
+}
@@ -53,6 +53,7 @@ import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.easymock.EasyMockSupport;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 
 import com.google.inject.Inject;
@@ -69,6 +70,16 @@ public class TaskStatusListenerTest extends EasyMockSupport {
   @Inject
   private ExecutionCommandWrapperFactory ecwFactory;
 
+  private HostDAO taskHostDAO;
+
+  private ServiceComponentHostEvent taskEvent;
+
+  @Before
+  public void setUp() {
+    taskHostDAO = EasyMock.createNiceMock(HostDAO.class);
+    taskEvent = EasyMock.createNiceMock(ServiceComponentHostEvent.class);
+    EasyMock.replay(taskHostDAO, taskEvent);
+  }
 
   @Test
   public void testOnTaskUpdateEvent() throws ClusterNotFoundException {
@@ -175,6 +186,86 @@ public class TaskStatusListenerTest extends EasyMockSupport {
     verifyAll();
   }
 
+  @Test
+  public void testRequestCompletesThroughStageUpdates() {
+    RequestDAO requestDAO = createRequestDAO();
+    EasyMock.expect(requestDAO.updateStatus(eq(1L), eq(HostRoleStatus.COMPLETED),
+        eq(HostRoleStatus.COMPLETED))).andReturn(new RequestEntity()).once();
+    TaskStatusListener listener = createListener(requestDAO);
+
+    listener.onTaskCreateEvent(new TaskCreateEvent(createTasks(HostRoleStatus.PENDING, 0, 1)));
+
+    // the first stage completes, the request goes on with the second one
+    listener.onTaskUpdateEvent(new TaskUpdateEvent(createTasks(HostRoleStatus.COMPLETED, 0)));
+    StageEntityPK firstStagePK = new StageEntityPK();
+    firstStagePK.setRequestId(1L);
+    firstStagePK.setStageId(0L);
+    Assert.assertEquals(HostRoleStatus.COMPLETED, listener.getActiveStageMap().get(firstStagePK).getStatus());
+    TaskStatusListener.ActiveRequest request = listener.getActiveRequestMap().get(1L);
+    Assert.assertEquals(HostRoleStatus.IN_PROGRESS, request.getStatus());
+    Assert.assertEquals(1, request.getStageStatusCounts().getCount(HostRoleStatus.COMPLETED));
+    Assert.assertEquals(1, request.getStageStatusCounts().getCount(HostRoleStatus.PENDING));
+    Assert.assertEquals(3, request.getTaskStatusCounts().getCount(HostRoleStatus.COMPLETED));
+
+    listener.onTaskUpdateEvent(new TaskUpdateEvent(createTasks(HostRoleStatus.COMPLETED, 1)));
+    Assert.assertEquals(HostRoleStatus.COMPLETED, request.getStatus());
+    Assert.assertEquals(2, request.getStageStatusCounts().getCount(HostRoleStatus.COMPLETED));
+
+    verifyAll();
+  }
+
+  @Test
+  public void testRepeatedAndOutOfOrderUpdatesAreCountedOnce() {
+    TaskStatusListener listener = createListener(createRequestDAO());
+
+    listener.onTaskCreateEvent(new TaskCreateEvent(createTasks(HostRoleStatus.PENDING, 0, 1)));
+
+    listener.onTaskUpdateEvent(new TaskUpdateEvent(Collections.singletonList(createTask(1L, 0, HostRoleStatus.IN_PROGRESS))));
+    listener.onTaskUpdateEvent(new TaskUpdateEvent(Collections.singletonList(createTask(1L, 0, HostRoleStatus.IN_PROGRESS))));
+    listener.onTaskUpdateEvent(new TaskUpdateEvent(Collections.singletonList(createTask(1L, 0, HostRoleStatus.COMPLETED))));
+    // a late report of an earlier status replaces the completed one instead of being counted next to it
+    listener.onTaskUpdateEvent(new TaskUpdateEvent(Collections.singletonList(createTask(1L, 0, HostRoleStatus.IN_PROGRESS))));
+
+    StageEntityPK firstStagePK = new StageEntityPK();
+    firstStagePK.setRequestId(1L);
+    firstStagePK.setStageId(0L);
+    HostRoleStatusCounts stageCounts = listener.getActiveStageMap().get(firstStagePK).getTaskStatusCounts();
+    Assert.assertEquals(3, stageCounts.getTotal());
+    Assert.assertEquals(2, stageCounts.getCount(HostRoleStatus.PENDING));
+    Assert.assertEquals(1, stageCounts.getCount(HostRoleStatus.IN_PROGRESS));
+    Assert.assertEquals(0, stageCounts.getCount(HostRoleStatus.COMPLETED));
+
+    HostRoleStatusCounts requestCounts = listener.getActiveRequestMap().get(1L).getTaskStatusCounts();
+    Assert.assertEquals(6, requestCounts.getTotal());
+    Assert.assertEquals(5, requestCounts.getCount(HostRoleStatus.PENDING));
+    Assert.assertEquals(1, requestCounts.getCount(HostRoleStatus.IN_PROGRESS));
+    Assert.assertEquals(2, listener.getActiveRequestMap().get(1L).getStageStatusCounts().getTotal());
+
+    verifyAll();
+  }
+
+  @Test
+  public void testCountersAreRemovedWhenRequestFinishes() {
+    TaskStatusListener listener = createListener(createRequestDAO());
+
+    listener.onTaskCreateEvent(new TaskCreateEvent(createTasks(HostRoleStatus.PENDING, 0, 1)));
+    TaskStatusListener.ActiveRequest request = listener.getActiveRequestMap().get(1L);
+
+    listener.onTaskUpdateEvent(new TaskUpdateEvent(createTasks(HostRoleStatus.COMPLETED, 0, 1)));
+
+    Assert.assertTrue(request.getTaskStatusCounts().isAllCompleted());
+    Assert.assertTrue(listener.getActiveTasksMap().isEmpty());
+    Assert.assertTrue(listener.getActiveStageMap().isEmpty());
+    Assert.assertTrue(listener.getActiveRequestMap().isEmpty());
+
+    // updates of the removed tasks are not tracked again
+    listener.onTaskUpdateEvent(new TaskUpdateEvent(Collections.singletonList(createTask(1L, 0, HostRoleStatus.COMPLETED))));
+    Assert.assertTrue(listener.getActiveTasksMap().isEmpty());
+    Assert.assertTrue(listener.getActiveRequestMap().isEmpty());
+
+    verifyAll();
+  }
+
   @Test
   public void testNamedTasksEnabled() {
     final Long taskId = 1L;
@@ -255,4 +346,58 @@ public class TaskStatusListenerTest extends EasyMockSupport {
     verifyAll();
   }
 
+  /**
+   * @return a request DAO returning a pending request of a cluster
+   */
+  private RequestDAO createRequestDAO() {
+    RequestEntity requestEntity = createNiceMock(RequestEntity.class);
+    EasyMock.expect(requestEntity.getStatus()).andReturn(HostRoleStatus.PENDING).anyTimes();
+    EasyMock.expect(requestEntity.getDisplayStatus()).andReturn(HostRoleStatus.PENDING).anyTimes();
+    EasyMock.expect(requestEntity.getClusterId()).andReturn(1L).anyTimes();
+    RequestDAO requestDAO = createNiceMock(RequestDAO.class);
+    EasyMock.expect(requestDAO.findByPK(anyLong())).andReturn(requestEntity).anyTimes();
+    return requestDAO;
+  }
+
+  /**
+   * Replays all mocks and creates a listener whose stages are pending and not skippable.
+   */
+  private TaskStatusListener createListener(RequestDAO requestDAO) {
+    StageEntity stageEntity = createNiceMock(StageEntity.class);
+    EasyMock.expect(stageEntity.getStatus()).andReturn(HostRoleStatus.PENDING).anyTimes();
+    EasyMock.expect(stageEntity.getDisplayStatus()).andReturn(HostRoleStatus.PENDING).anyTimes();
+    EasyMock.expect(stageEntity.isSkippable()).andReturn(Boolean.FALSE).anyTimes();
+    EasyMock.expect(stageEntity.getRoleSuccessCriterias()).andReturn(Collections.emptyList()).anyTimes();
+    StageDAO stageDAO = createNiceMock(StageDAO.class);
+    EasyMock.expect(stageDAO.findByPK(anyObject(StageEntityPK.class))).andReturn(stageEntity).anyTimes();
+    STOMPUpdatePublisher statePublisher = createNiceMock(STOMPUpdatePublisher.class);
+    NamedTasksSubscriptions namedTasksSubscriptions = createNiceMock(NamedTasksSubscriptions.class);
+    replayAll();
+
+    return new TaskStatusListener(publisher, stageDAO, requestDAO, statePublisher, namedTasksSubscriptions);
+  }
+
+  /**
+   * @return three tasks of request 1 in each of the stages, numbered from 1 in stage order
+   */
+  private List<HostRoleCommand> createTasks(HostRoleStatus status, int... stageIds) {
+    List<HostRoleCommand> hostRoleCommands = new ArrayList<>();
+    for (int stageId : stageIds) {
+      for (int i = 1; i <= 3; i++) {
+        hostRoleCommands.add(createTask(stageId * 3L + i, stageId, status));
+      }
+    }
+    return hostRoleCommands;
+  }
+
+  private HostRoleCommand createTask(long taskId, long stageId, HostRoleStatus status) {
+    HostRoleCommand hostRoleCommand = new HostRoleCommand("hostname-" + taskId, Role.DATANODE,
+        taskEvent, RoleCommand.EXECUTE, taskHostDAO, executionCommandDAO, ecwFactory);
+    hostRoleCommand.setStatus(status);
+    hostRoleCommand.setRequestId(1L);
+    hostRoleCommand.setStageId(stageId);
+    hostRoleCommand.setTaskId(taskId);
+    return hostRoleCommand;
+  }
+
 }
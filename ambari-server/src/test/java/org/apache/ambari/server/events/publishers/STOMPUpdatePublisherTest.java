@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.events.publishers;
+
+import static org.easymock.EasyMock.expect;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.events.AgentActionEvent;
+import org.apache.ambari.server.events.EncryptionKeyUpdateEvent;
+import org.apache.ambari.server.events.STOMPEvent;
+import org.apache.ambari.server.events.STOMPHostEvent;
+import org.easymock.EasyMockSupport;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public class STOMPUpdatePublisherTest extends EasyMockSupport {
+
+  private static final int HOSTS = 10;
+  private static final int EVENTS_PER_HOST = 50;
+
+  @Test
+  public void testAgentEventsAreDeliveredInOrderPerHost() throws Exception {
+    Configuration configuration = createNiceMock(Configuration.class);
+    expect(configuration.getAgentHostEventsThreadPoolSize()).andReturn(3).anyTimes();
+    replayAll();
+
+    STOMPUpdatePublisher publisher = new STOMPUpdatePublisher(configuration);
+    Listener listener = new Listener(HOSTS * EVENTS_PER_HOST + 1);
+    publisher.registerAgent(listener);
+
+    List<List<STOMPEvent>> expected = new ArrayList<>();
+    for (int host = 0; host < HOSTS; host++) {
+      expected.add(new ArrayList<>());
+    }
+    for (int i = 0; i < EVENTS_PER_HOST; i++) {
+      for (int host = 0; host < HOSTS; host++) {
+        AgentActionEvent event = new AgentActionEvent(AgentActionEvent.AgentAction.RESTART_AGENT, (long) host);
+        expected.get(host).add(event);
+        publisher.publish(event);
+      }
+    }
+    EncryptionKeyUpdateEvent clusterEvent = new EncryptionKeyUpdateEvent("key");
+    publisher.publish(clusterEvent);
+
+    Assert.assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+    for (int host = 0; host < HOSTS; host++) {
+      Assert.assertEquals(expected.get(host), listener.received.get((long) host));
+    }
+    Assert.assertEquals(1, listener.received.get(-1L).size());
+    Assert.assertSame(clusterEvent, listener.received.get(-1L).get(0));
+
+    verifyAll();
+  }
+
+  @Test
+  public void testClusterEventsAreOrderedWithHostEvents() throws Exception {
+    Configuration configuration = createNiceMock(Configuration.class);
+    expect(configuration.getAgentHostEventsThreadPoolSize()).andReturn(3).anyTimes();
+    replayAll();
+
+    STOMPUpdatePublisher publisher = new STOMPUpdatePublisher(configuration);
+    Listener listener = new Listener(2 * HOSTS * EVENTS_PER_HOST + 1);
+    publisher.registerAgent(listener);
+
+    Set<STOMPEvent> before = new HashSet<>();
+    for (int i = 0; i < EVENTS_PER_HOST; i++) {
+      for (int host = 0; host < HOSTS; host++) {
+        AgentActionEvent event = new AgentActionEvent(AgentActionEvent.AgentAction.RESTART_AGENT, (long) host);
+        before.add(event);
+        publisher.publish(event);
+      }
+    }
+    EncryptionKeyUpdateEvent clusterEvent = new EncryptionKeyUpdateEvent("key");
+    publisher.publish(clusterEvent);
+    for (int i = 0; i < EVENTS_PER_HOST; i++) {
+      for (int host = 0; host < HOSTS; host++) {
+        publisher.publish(new AgentActionEvent(AgentActionEvent.AgentAction.RESTART_AGENT, (long) host));
+      }
+    }
+
+    Assert.assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+    int clusterEventIndex = listener.order.indexOf(clusterEvent);
+    Assert.assertEquals(before.size(), clusterEventIndex);
+    Assert.assertEquals(before, new HashSet<>(listener.order.subList(0, clusterEventIndex)));
+
+    verifyAll();
+  }
+
+  @Test
+  public void testSlowHostDoesNotHoldBackOtherHosts() throws Exception {
+    Configuration configuration = createNiceMock(Configuration.class);
+    expect(configuration.getAgentHostEventsThreadPoolSize()).andReturn(3).anyTimes();
+    replayAll();
+
+    STOMPUpdatePublisher publisher = new STOMPUpdatePublisher(configuration);
+    CountDownLatch slowHostReleased = new CountDownLatch(1);
+    Listener listener = new Listener(HOSTS + 1) {
+      @Override
+      public void onUpdateEvent(STOMPEvent event) {
+        if (event instanceof STOMPHostEvent && ((STOMPHostEvent) event).getHostId() == 0L) {
+          Uninterruptibles.awaitUninterruptibly(slowHostReleased);
+        }
+        super.onUpdateEvent(event);
+      }
+    };
+    publisher.registerAgent(listener);
+
+    for (int host = 0; host < HOSTS; host++) {
+      publisher.publish(new AgentActionEvent(AgentActionEvent.AgentAction.RESTART_AGENT, (long) host));
+    }
+    EncryptionKeyUpdateEvent clusterEvent = new EncryptionKeyUpdateEvent("key");
+    publisher.publish(clusterEvent);
+
+    // the hosts of the other lanes get their events, the cluster event waits for the slow host
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (listener.order.size() < HOSTS - (HOSTS + 2) / 3 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertFalse(listener.received.containsKey(0L));
+    Assert.assertFalse(listener.order.contains(clusterEvent));
+
+    slowHostReleased.countDown();
+    Assert.assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(clusterEvent, listener.order.get(HOSTS));
+
+    verifyAll();
+  }
+
+  @Test
+  public void testAgentEventsAreDeliveredByGivenExecutor() throws Exception {
+    Configuration configuration = createNiceMock(Configuration.class);
+    expect(configuration.getAgentHostEventsThreadPoolSize()).andReturn(3).anyTimes();
+    replayAll();
+
+    STOMPUpdatePublisher publisher = new STOMPUpdatePublisher(configuration);
+    publisher.setAgentEventExecutor(MoreExecutors.directExecutor());
+    Listener listener = new Listener(HOSTS + 1);
+    publisher.registerAgent(listener);
+
+    List<STOMPEvent> expected = new ArrayList<>();
+    for (int host = 0; host < HOSTS; host++) {
+      AgentActionEvent event = new AgentActionEvent(AgentActionEvent.AgentAction.RESTART_AGENT, (long) host);
+      expected.add(event);
+      publisher.publish(event);
+    }
+    EncryptionKeyUpdateEvent clusterEvent = new EncryptionKeyUpdateEvent("key");
+    expected.add(clusterEvent);
+    publisher.publish(clusterEvent);
+
+    // delivered on the publishing thread
+    Assert.assertEquals(expected, listener.order);
+
+    verifyAll();
+  }
+
+  public static class Listener {
+    private final Map<Long, List<STOMPEvent>> received = new ConcurrentHashMap<>();
+    private final List<STOMPEvent> order = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch latch;
+
+    private Listener(int expectedEvents) {
+      latch = new CountDownLatch(expectedEvents);
+    }
+
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onUpdateEvent(STOMPEvent event) {
+      Long hostId = event instanceof STOMPHostEvent ? ((STOMPHostEvent) event).getHostId() : -1L;
+      // only the bus of a host delivers its events, so the list of a host is not modified concurrently
+      received.computeIfAbsent(hostId, id -> new ArrayList<>()).add(event);
+      order.add(event);
+      latch.countDown();
+    }
+  }
+}
@@ -19,10 +19,13 @@ package org.apache.ambari.server.logging;
 
 import static org.easymock.EasyMock.expect;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 import org.apache.ambari.server.configuration.Configuration;
 import org.easymock.EasyMockSupport;
@@ -92,4 +95,46 @@ public class LockFactoryTest extends EasyMockSupport {
     verifyAll();
   }
 
+  @Test
+  public void createsSampledLocksIfSamplingIsEnabled() {
+    Configuration config = createNiceMock(Configuration.class);
+    expect(config.isServerLocksProfilingEnabled()).andReturn(false);
+    expect(config.getServerLocksSamplingRate()).andReturn(1);
+    replayAll();
+
+    LockFactory factory = new LockFactory(config);
+    Lock lock = factory.newLock("lock");
+    ReadWriteLock readWriteLock = factory.newReadWriteLock("readWriteLock");
+
+    Assert.assertTrue(lock instanceof SampledReentrantLock);
+    Assert.assertTrue(readWriteLock instanceof SampledReentrantReadWriteLock);
+
+    lock.lock();
+    lock.unlock();
+    readWriteLock.writeLock().lock();
+    readWriteLock.writeLock().unlock();
+
+    List<LockStatistics> statistics = factory.getLockStatistics();
+    Assert.assertEquals(Arrays.asList("lock", "readWriteLock.read", "readWriteLock.write"),
+      statistics.stream().map(LockStatistics::getName).collect(Collectors.toList()));
+    Assert.assertEquals(1, statistics.get(0).getSampleCount());
+    Assert.assertEquals(0, statistics.get(1).getSampleCount());
+    Assert.assertEquals(1, statistics.get(2).getSampleCount());
+
+    verifyAll();
+  }
+
+  @Test
+  public void profilingTakesPrecedenceOverSampling() {
+    Configuration config = createNiceMock(Configuration.class);
+    expect(config.isServerLocksProfilingEnabled()).andReturn(true);
+    expect(config.getServerLocksSamplingRate()).andReturn(1).anyTimes();
+    replayAll();
+
+    LockFactory factory = new LockFactory(config);
+    Assert.assertFalse(factory.isSampling());
+    Assert.assertTrue(factory.newLock() instanceof ProfiledReentrantLock);
+    Assert.assertTrue(factory.getLockStatistics().isEmpty());
+  }
+
 }
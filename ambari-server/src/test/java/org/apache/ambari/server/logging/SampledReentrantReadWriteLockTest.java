@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.logging;
+
+import static org.easymock.EasyMock.expect;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.easymock.EasyMockSupport;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+public class SampledReentrantReadWriteLockTest extends EasyMockSupport {
+
+  private static final String LABEL = "label";
+
+  @Test
+  public void readLockTimesAreRecorded() {
+    Ticker ticker = createMock(Ticker.class);
+    LockStatistics readStatistics = new LockStatistics(LABEL);
+    LockStatistics writeStatistics = new LockStatistics(LABEL);
+    Lock testSubject = new SampledReentrantReadWriteLock(new ReentrantReadWriteLock(), readStatistics,
+      writeStatistics, 1, ticker).readLock();
+    timesAreRecorded(testSubject, ticker, readStatistics);
+    Assert.assertEquals(0, writeStatistics.getSampleCount());
+  }
+
+  @Test
+  public void writeLockTimesAreRecorded() {
+    Ticker ticker = createMock(Ticker.class);
+    LockStatistics readStatistics = new LockStatistics(LABEL);
+    LockStatistics writeStatistics = new LockStatistics(LABEL);
+    Lock testSubject = new SampledReentrantReadWriteLock(new ReentrantReadWriteLock(), readStatistics,
+      writeStatistics, 1, ticker).writeLock();
+    timesAreRecorded(testSubject, ticker, writeStatistics);
+    Assert.assertEquals(0, readStatistics.getSampleCount());
+  }
+
+  @Test
+  public void lockTimesAreRecorded() {
+    Ticker ticker = createMock(Ticker.class);
+    LockStatistics statistics = new LockStatistics(LABEL);
+    Lock testSubject = new SampledReentrantLock(new ReentrantLock(), statistics, 1, ticker);
+    timesAreRecorded(testSubject, ticker, statistics);
+  }
+
+  private void timesAreRecorded(Lock testSubject, Ticker ticker, LockStatistics statistics) {
+    expect(ticker.read()).andReturn(TimeUnit.MILLISECONDS.toNanos(1L));
+    expect(ticker.read()).andReturn(TimeUnit.MILLISECONDS.toNanos(4L));
+    expect(ticker.read()).andReturn(TimeUnit.MILLISECONDS.toNanos(104L));
+    replayAll();
+
+    testSubject.lock();
+    // reentrant acquisitions are not sampled
+    testSubject.lock();
+    testSubject.unlock();
+    testSubject.unlock();
+
+    Assert.assertEquals(1, statistics.getSampleCount());
+    Assert.assertEquals(3L, statistics.getMaxWaitTime(TimeUnit.MILLISECONDS));
+    Assert.assertEquals(100L, statistics.getTotalHoldTime(TimeUnit.MILLISECONDS));
+    // 3 ms falls into the bucket up to 4 ms, 100 ms into the one up to 128 ms
+    Assert.assertEquals(1L, statistics.getWaitTimeHistogram()[2]);
+    Assert.assertEquals(1L, statistics.getHoldTimeHistogram()[7]);
+    verifyAll();
+  }
+
+  @Test
+  public void failedAcquisitionIsRecorded() throws InterruptedException {
+    Ticker ticker = createMock(Ticker.class);
+    expect(ticker.read()).andReturn(0L);
+    replayAll();
+
+    ReentrantReadWriteLock delegate = new ReentrantReadWriteLock();
+    LockStatistics statistics = new LockStatistics(LABEL);
+    Lock testSubject = new SampledReentrantReadWriteLock(delegate, statistics, statistics, 1, ticker).writeLock();
+
+    Thread thread = new Thread(() -> delegate.readLock().lock());
+    thread.start();
+    thread.join();
+
+    Assert.assertFalse(testSubject.tryLock());
+    Assert.assertEquals(0, statistics.getSampleCount());
+    Assert.assertEquals(1, statistics.getFailedSampleCount());
+    verifyAll();
+  }
+}
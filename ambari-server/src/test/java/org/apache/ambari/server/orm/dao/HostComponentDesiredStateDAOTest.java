@@ -18,15 +18,24 @@
 
 package org.apache.ambari.server.orm.dao;
 
+import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 
 import org.apache.ambari.server.orm.entities.HostComponentDesiredStateEntity;
 import org.apache.ambari.server.orm.entities.HostEntity;
+import org.apache.ambari.server.orm.helpers.SQLConstants;
 import org.junit.Test;
 
 import com.google.inject.Provider;
@@ -65,4 +74,40 @@ public class HostComponentDesiredStateDAOTest {
 
     verify(entityManagerProvider, entityManager, hostDAO, hostEntity, hostComponentDesiredStateEntity);
   }
+
+  @Test
+  public void testFindByServiceAndComponentsInChunks() throws Exception {
+    Provider<EntityManager> entityManagerProvider = createNiceMock(Provider.class);
+    EntityManager entityManager = createNiceMock(EntityManager.class);
+    TypedQuery<HostComponentDesiredStateEntity> query = createNiceMock(TypedQuery.class);
+    DaoUtils daoUtils = createNiceMock(DaoUtils.class);
+
+    HostComponentDesiredStateEntity first = new HostComponentDesiredStateEntity();
+    HostComponentDesiredStateEntity second = new HostComponentDesiredStateEntity();
+
+    expect(entityManagerProvider.get()).andReturn(entityManager).anyTimes();
+    expect(entityManager.createNamedQuery(eq("HostComponentDesiredStateEntity.findByServiceAndComponents"),
+        eq(HostComponentDesiredStateEntity.class))).andReturn(query).once();
+    expect(daoUtils.selectList(query)).andReturn(Collections.singletonList(first)).once();
+    expect(daoUtils.selectList(query)).andReturn(Collections.singletonList(second)).once();
+    expect(query.setParameter(eq("componentNames"), anyObject())).andReturn(query).times(2);
+
+    replay(entityManagerProvider, entityManager, query, daoUtils);
+
+    HostComponentDesiredStateDAO dao = new HostComponentDesiredStateDAO();
+    dao.entityManagerProvider = entityManagerProvider;
+    dao.daoUtils = daoUtils;
+
+    List<String> componentNames = new ArrayList<>();
+    for (int i = 0; i <= SQLConstants.IN_ARGUMENT_MAX_SIZE; i++) {
+      componentNames.add("COMPONENT" + i);
+    }
+
+    List<HostComponentDesiredStateEntity> entities = dao.findByServiceAndComponents(1L, "HDFS", componentNames);
+    assertEquals(2, entities.size());
+    assertEquals(first, entities.get(0));
+    assertEquals(second, entities.get(1));
+
+    verify(entityManagerProvider, entityManager, query, daoUtils);
+  }
 }
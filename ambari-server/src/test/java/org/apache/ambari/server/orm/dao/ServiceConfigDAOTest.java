@@ -381,6 +381,26 @@ public class ServiceConfigDAOTest {
     }
   }
 
+  @Test
+  public void testGetServiceConfigsForService() throws Exception {
+    createServiceConfig("HDFS", "admin", 1L, 1L, 1111L, null);
+    createServiceConfig("HDFS", "admin", 2L, 2L, 2222L, null);
+    createServiceConfig("YARN", "admin", 1L, 3L, 3333L, null);
+
+    Long clusterId = clusterDAO.findByName("c1").getClusterId();
+
+    List<ServiceConfigEntity> serviceConfigEntities =
+      serviceConfigDAO.getServiceConfigsForService(clusterId, "HDFS");
+
+    Assert.assertEquals(2, serviceConfigEntities.size());
+    Assert.assertEquals("HDFS", serviceConfigEntities.get(0).getServiceName());
+    Assert.assertEquals(Long.valueOf(2), serviceConfigEntities.get(0).getVersion());
+    Assert.assertEquals("HDFS", serviceConfigEntities.get(1).getServiceName());
+    Assert.assertEquals(Long.valueOf(1), serviceConfigEntities.get(1).getVersion());
+
+    Assert.assertTrue(serviceConfigDAO.getServiceConfigsForService(clusterId, "HIVE").isEmpty());
+  }
+
   @Test
   public void testGetAllServiceConfigs() throws Exception {
     ServiceConfigEntity serviceConfigEntity = null;
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.security.authorization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.ambari.server.orm.entities.PermissionEntity;
+import org.apache.ambari.server.orm.entities.PrivilegeEntity;
+import org.apache.ambari.server.orm.entities.ResourceEntity;
+import org.apache.ambari.server.orm.entities.ResourceTypeEntity;
+import org.apache.ambari.server.security.authentication.AmbariUserAuthentication;
+import org.apache.ambari.server.security.authentication.AmbariUserDetailsImpl;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+public class AuthorizationIndexTest {
+
+  private static final List<Set<RoleAuthorization>> REQUIRED_AUTHORIZATIONS = Arrays.asList(
+      EnumSet.of(RoleAuthorization.CLUSTER_VIEW_METRICS),
+      EnumSet.of(RoleAuthorization.CLUSTER_TOGGLE_KERBEROS),
+      EnumSet.of(RoleAuthorization.AMBARI_MANAGE_USERS),
+      EnumSet.of(RoleAuthorization.VIEW_USE),
+      EnumSet.of(RoleAuthorization.SERVICE_VIEW_METRICS, RoleAuthorization.VIEW_USE));
+
+  private static final List<ResourceType> RESOURCE_TYPES =
+      Arrays.asList(null, ResourceType.AMBARI, ResourceType.CLUSTER, ResourceType.VIEW);
+
+  private static final List<Long> RESOURCE_IDS = Arrays.asList(null, 1L, 2L, 53L);
+
+  @Test
+  public void testIsAuthorizedMatchesAuthorizationHelper() {
+    GrantedAuthority clusterReadOnly = createAuthority(ResourceType.CLUSTER, 1L,
+        RoleAuthorization.CLUSTER_VIEW_METRICS);
+    GrantedAuthority cluster2Privileged = createAuthority(ResourceType.CLUSTER, 2L,
+        RoleAuthorization.CLUSTER_VIEW_METRICS, RoleAuthorization.CLUSTER_TOGGLE_KERBEROS);
+    GrantedAuthority viewUse = createAuthority(ResourceType.VIEW, 53L,
+        RoleAuthorization.VIEW_USE);
+    GrantedAuthority administrator = createAuthority(ResourceType.AMBARI, 1L,
+        RoleAuthorization.AMBARI_MANAGE_USERS, RoleAuthorization.CLUSTER_VIEW_METRICS);
+
+    List<List<GrantedAuthority>> authoritySets = Arrays.asList(
+        Collections.emptyList(),
+        Collections.singletonList(clusterReadOnly),
+        Arrays.asList(clusterReadOnly, cluster2Privileged),
+        Arrays.asList(clusterReadOnly, viewUse),
+        Collections.singletonList(administrator),
+        Arrays.asList(cluster2Privileged, viewUse, administrator));
+
+    for (List<GrantedAuthority> authorities : authoritySets) {
+      // not an AmbariUserAuthentication, so the authorities are evaluated directly
+      Authentication authentication = new UsernamePasswordAuthenticationToken("user", null, authorities);
+      AuthorizationIndex index = AuthorizationIndex.create(authorities);
+
+      for (ResourceType resourceType : RESOURCE_TYPES) {
+        for (Long resourceId : RESOURCE_IDS) {
+          for (Set<RoleAuthorization> requiredAuthorizations : REQUIRED_AUTHORIZATIONS) {
+            assertEquals(String.format("%s %s %s %s", authorities, resourceType, resourceId, requiredAuthorizations),
+                AuthorizationHelper.isAuthorized(authentication, resourceType, resourceId, requiredAuthorizations),
+                index.isAuthorized(resourceType, resourceId, requiredAuthorizations));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testIsAuthorizedNoRequiredAuthorizations() {
+    AuthorizationIndex index = AuthorizationIndex.create(Collections.emptyList());
+
+    assertTrue(index.isAuthorized(ResourceType.CLUSTER, 1L, null));
+    assertTrue(index.isAuthorized(ResourceType.CLUSTER, 1L, EnumSet.noneOf(RoleAuthorization.class)));
+    assertFalse(index.isAuthorized(ResourceType.CLUSTER, 1L, EnumSet.of(RoleAuthorization.CLUSTER_VIEW_METRICS)));
+  }
+
+  @Test
+  public void testAmbariUserAuthenticationRebuildsStaleIndex() {
+    GrantedAuthority clusterReadOnly = createAuthority(ResourceType.CLUSTER, 1L,
+        RoleAuthorization.CLUSTER_VIEW_METRICS);
+    AmbariUserAuthentication authentication = new AmbariUserAuthentication(null,
+        new AmbariUserDetailsImpl(null, null, Collections.singletonList(clusterReadOnly)), true);
+
+    AuthorizationIndex index = authentication.getAuthorizationIndex();
+    assertSame(index, authentication.getAuthorizationIndex());
+    assertTrue(AuthorizationHelper.isAuthorized(authentication, ResourceType.CLUSTER, 1L,
+        RoleAuthorization.CLUSTER_VIEW_METRICS));
+    assertFalse(AuthorizationHelper.isAuthorized(authentication, ResourceType.CLUSTER, 1L,
+        RoleAuthorization.CLUSTER_TOGGLE_KERBEROS));
+
+    // the permission is granted an additional authorization
+    ((AmbariGrantedAuthority) clusterReadOnly).getPrivilegeEntity().getPermission()
+        .addAuthorizations(Collections.singleton(RoleAuthorization.CLUSTER_TOGGLE_KERBEROS));
+    AuthorizationIndex.invalidateAll();
+
+    assertTrue(index.isStale());
+    assertNotSame(index, authentication.getAuthorizationIndex());
+    assertTrue(AuthorizationHelper.isAuthorized(authentication, ResourceType.CLUSTER, 1L,
+        RoleAuthorization.CLUSTER_TOGGLE_KERBEROS));
+  }
+
+  @Test
+  public void testInvalidateAllOnCommit() {
+    AuthorizationIndex index = AuthorizationIndex.create(Collections.emptyList());
+
+    // privileges changed in a transaction are not visible to other threads before the commit
+    AuthorizationIndex.invalidateAllOnCommit();
+    assertFalse(index.isStale());
+
+    AuthorizationIndex.transactionCommitted();
+    assertTrue(index.isStale());
+
+    // the next commit did not change privileges
+    index = AuthorizationIndex.create(Collections.emptyList());
+    AuthorizationIndex.transactionCommitted();
+    assertFalse(index.isStale());
+  }
+
+  @Test
+  public void testInvalidateAllOnCommitRolledBack() {
+    AuthorizationIndex index = AuthorizationIndex.create(Collections.emptyList());
+
+    AuthorizationIndex.invalidateAllOnCommit();
+    AuthorizationIndex.transactionRolledBack();
+    AuthorizationIndex.transactionCommitted();
+
+    assertFalse(index.isStale());
+  }
+
+  private static GrantedAuthority createAuthority(ResourceType resourceType, Long resourceId,
+                                                  RoleAuthorization... authorizations) {
+    ResourceTypeEntity resourceTypeEntity = new ResourceTypeEntity();
+    resourceTypeEntity.setId(resourceType.getId());
+    resourceTypeEntity.setName(resourceType.name());
+
+    ResourceEntity resourceEntity = new ResourceEntity();
+    resourceEntity.setResourceType(resourceTypeEntity);
+    resourceEntity.setId(resourceId);
+
+    PermissionEntity permissionEntity = new PermissionEntity();
+    permissionEntity.addAuthorizations(new ArrayList<>(Arrays.asList(authorizations)));
+
+    PrivilegeEntity privilegeEntity = new PrivilegeEntity();
+    privilegeEntity.setPermission(permissionEntity);
+    privilegeEntity.setResource(resourceEntity);
+
+    return new AmbariGrantedAuthority(privilegeEntity);
+  }
+}
@@ -17,6 +17,14 @@
  */
 package org.apache.ambari.server.security.encryption;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 
 import junit.framework.Assert;
@@ -52,4 +60,36 @@ public class AESEncryptorTest extends TestCase {
     decrypted = aes2.decrypt(res.salt, res.iv, res.cipher);
     Assert.assertEquals("mastersecret", new String(decrypted, "UTF8"));
   }
+
+  @Test
+  public void testConcurrentEncryptionDecryption() throws Exception {
+    final AESEncryptor encryptor = new AESEncryptor("Test");
+    final AESEncryptor decryptor = new AESEncryptor("Test");
+    final EncryptionResult expected = encryptor.encrypt("secret");
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Callable<Boolean>> tasks = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        final String value = "secret" + (i % 2 == 0 ? "" : i);
+        tasks.add(() -> {
+          for (int j = 0; j < 20; j++) {
+            EncryptionResult res = encryptor.encrypt(value);
+            if (value.equals("secret") && !Arrays.equals(expected.cipher, res.cipher)) {
+              return false;
+            }
+            if (!value.equals(new String(decryptor.decrypt(res.salt, res.iv, res.cipher), "UTF8"))) {
+              return false;
+            }
+          }
+          return true;
+        });
+      }
+      for (Future<Boolean> result : executor.invokeAll(tasks)) {
+        Assert.assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
@@ -254,4 +254,39 @@ public class ConfigGroupTest {
     Assert.assertEquals("hdfs-site", configMappingEntity.getConfigType());
     Assert.assertEquals("testversion", configMappingEntity.getVersionTag());
   }
+
+  @Test
+  public void testSetHostsInBatch() throws Exception {
+    ConfigGroup configGroup = createConfigGroup();
+
+    Map<Long, Host> hosts = new HashMap<>();
+    for (int i = 0; i < 50; i++) {
+      String hostName = "batch-host-" + i;
+      clusters.addHost(hostName);
+      Host host = clusters.getHost(hostName);
+      hosts.put(host.getHostId(), host);
+    }
+
+    configGroup.setHosts(hosts);
+
+    ConfigGroupEntity configGroupEntity = configGroupDAO.findById(configGroup.getId());
+    Assert.assertEquals(50, configGroupEntity.getConfigGroupHostMappingEntities().size());
+    for (Long hostId : hosts.keySet()) {
+      Assert.assertEquals(1, configGroupHostMappingDAO.findByHostId(hostId).size());
+    }
+    Assert.assertTrue(configGroupHostMappingDAO.findByHostId(clusters.getHost("h1").getHostId()).isEmpty());
+  }
+
+  @Test
+  public void testConfigGroupsSnapshot() throws Exception {
+    ConfigGroup configGroup = createConfigGroup();
+    Map<Long, ConfigGroup> snapshot = cluster.getConfigGroups();
+    Assert.assertTrue(snapshot.containsKey(configGroup.getId()));
+
+    cluster.deleteConfigGroup(configGroup.getId());
+
+    // a snapshot is not affected by later changes
+    Assert.assertTrue(snapshot.containsKey(configGroup.getId()));
+    Assert.assertFalse(cluster.getConfigGroups().containsKey(configGroup.getId()));
+  }
 }
@@ -1040,6 +1040,55 @@ public class ConfigHelperTest {
       verify(sch);
   }
 
+  @Test
+  public void testCheckStaleConfigsStatusOnConfigsUpdate() throws Exception {
+    for (String hostName : Arrays.asList("h1", "h2")) {
+      Map<String, String> hostAttributes = new HashMap<>();
+      hostAttributes.put("os_family", "redhat");
+      hostAttributes.put("os_release_version", "6");
+      clusters.getHost(hostName).setHostAttributes(hostAttributes);
+      clusters.mapHostToCluster(hostName, clusterName);
+    }
+
+    ServiceComponent flumeHandler = cluster.getService("FLUME").addServiceComponent("FLUME_HANDLER");
+    ServiceComponentHost sch1 = flumeHandler.addServiceComponentHost("h1");
+    ServiceComponentHost sch2 = flumeHandler.addServiceComponentHost("h2");
+
+    Map<Long, Map<String, Collection<String>>> changedConfigs = new HashMap<>();
+    changedConfigs.put(sch1.getHost().getHostId(),
+        Collections.singletonMap("flume-conf", Collections.singletonList("a1.sinks")));
+    // not a config dependency of FLUME
+    changedConfigs.put(sch2.getHost().getHostId(),
+        Collections.singletonMap("oozie-site", Collections.singletonList("oozie.base.url")));
+
+    configHelper.checkStaleConfigsStatusOnConfigsUpdate(cluster, changedConfigs);
+
+    Assert.assertTrue(sch1.isRestartRequired());
+    Assert.assertFalse(sch2.isRestartRequired());
+  }
+
+  @Test
+  public void testCheckStaleConfigsStatusOnConfigsUpdateReevaluatesUnaffectedComponents() throws Exception {
+    Map<String, String> hostAttributes = new HashMap<>();
+    hostAttributes.put("os_family", "redhat");
+    hostAttributes.put("os_release_version", "6");
+    clusters.getHost("h1").setHostAttributes(hostAttributes);
+    clusters.mapHostToCluster("h1", clusterName);
+
+    ServiceComponent flumeHandler = cluster.getService("FLUME").addServiceComponent("FLUME_HANDLER");
+    ServiceComponentHost sch = flumeHandler.addServiceComponentHost("h1");
+    sch.setRestartRequiredWithoutEventPublishing(true);
+    Long hostId = sch.getHost().getHostId();
+
+    // not a config dependency of FLUME, the component still reports its restart required flag
+    configHelper.checkStaleConfigsStatusOnConfigsUpdate(cluster, Collections.singletonMap(hostId,
+        Collections.singletonMap("oozie-site", Collections.singletonList("oozie.base.url"))));
+
+    Assert.assertTrue(sch.isRestartRequired());
+    Assert.assertFalse(configHelper.wasStaleConfigsStatusUpdated(cluster.getClusterId(), hostId,
+        "FLUME", "FLUME_HANDLER", true));
+  }
+
   @Test
   public void testCalculateRefreshCommands() throws Exception {
 
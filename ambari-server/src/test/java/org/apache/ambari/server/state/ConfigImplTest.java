@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.anyString;
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.events.ClusterConfigChangedEvent;
+import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.logging.LockFactory;
+import org.apache.ambari.server.orm.dao.ClusterDAO;
+import org.apache.ambari.server.orm.entities.ClusterConfigEntity;
+import org.apache.ambari.server.orm.entities.ClusterEntity;
+import org.apache.ambari.server.orm.entities.StackEntity;
+import org.apache.ambari.server.security.encryption.Encryptor;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.easymock.EasyMockSupport;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests that {@link ConfigImpl} versions which are not selected, and whose
+ * properties are therefore only deserialized when first read, behave the same
+ * as the selected versions.
+ */
+public class ConfigImplTest extends EasyMockSupport {
+
+  private static final Long CONFIG_ID = 1L;
+  private static final Long CLUSTER_ID = 2L;
+
+  private final Gson gson = new Gson();
+
+  private Cluster cluster;
+  private ClusterDAO clusterDAO;
+  private AmbariEventPublisher eventPublisher;
+  private Encryptor<Config> encryptor;
+  private LockFactory lockFactory;
+
+  private Map<String, String> properties;
+  private Map<String, Map<String, String>> attributes;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    cluster = createNiceMock(Cluster.class);
+    clusterDAO = createNiceMock(ClusterDAO.class);
+    eventPublisher = createNiceMock(AmbariEventPublisher.class);
+    encryptor = createMock(Encryptor.class);
+
+    Configuration configuration = EasyMock.createNiceMock(Configuration.class);
+    EasyMock.replay(configuration);
+    lockFactory = new LockFactory(configuration);
+
+    expect(cluster.getConfigPropertiesTypes(anyString())).andReturn(
+        new HashMap<>()).anyTimes();
+    expect(cluster.getClusterName()).andReturn("c1").anyTimes();
+
+    properties = new HashMap<>();
+    properties.put("fs.defaultFS", "hdfs://c6401:8020");
+    properties.put("hadoop.security.authentication", "simple");
+
+    attributes = new HashMap<>();
+    attributes.put("final", Collections.singletonMap("fs.defaultFS", "true"));
+  }
+
+  @Test
+  public void testNotSelectedVersionLoadedOnRead() {
+    // decrypting is deferred until the properties are read, and only done once
+    encryptor.decryptSensitiveData(anyObject(Config.class));
+    expectLastCall().once();
+    replayAll();
+
+    ConfigImpl config = createConfig(false);
+    assertEquals(properties, config.getProperties());
+    assertEquals(attributes, config.getPropertiesAttributes());
+    assertEquals(properties, config.getProperties());
+    assertEquals("core-site", config.getType());
+    assertEquals("version1", config.getTag());
+
+    verifyAll();
+  }
+
+  @Test
+  public void testNotSelectedVersionMatchesSelectedVersion() {
+    encryptor.decryptSensitiveData(anyObject(Config.class));
+    expectLastCall().times(2);
+    replayAll();
+
+    ConfigImpl selected = createConfig(true);
+    ConfigImpl notSelected = createConfig(false);
+
+    assertEquals(selected.getProperties(), notSelected.getProperties());
+    assertEquals(selected.getPropertiesAttributes(), notSelected.getPropertiesAttributes());
+
+    verifyAll();
+  }
+
+  @Test
+  public void testNotSelectedVersionReturnsCopies() {
+    encryptor.decryptSensitiveData(anyObject(Config.class));
+    expectLastCall().once();
+    replayAll();
+
+    ConfigImpl config = createConfig(false);
+
+    // callers may change the returned maps without changing the config
+    config.getProperties().put("new.property", "value");
+    config.getPropertiesAttributes().get("final").put("new.property", "true");
+    config.getPropertiesAttributes().put("hidden", new HashMap<>());
+
+    assertEquals(properties, config.getProperties());
+    assertEquals(attributes, config.getPropertiesAttributes());
+
+    verifyAll();
+  }
+
+  @Test
+  public void testNotSelectedVersionUpdateAndDeleteProperties() {
+    encryptor.decryptSensitiveData(anyObject(Config.class));
+    expectLastCall().once();
+    replayAll();
+
+    ConfigImpl config = createConfig(false);
+    config.updateProperties(Collections.singletonMap("dfs.replication", "3"));
+    config.deleteProperties(Collections.singletonList("hadoop.security.authentication"));
+
+    Map<String, String> expected = new HashMap<>(properties);
+    expected.put("dfs.replication", "3");
+    expected.remove("hadoop.security.authentication");
+    assertEquals(expected, config.getProperties());
+    assertEquals(attributes, config.getPropertiesAttributes());
+
+    verifyAll();
+  }
+
+  @Test
+  public void testNotSelectedVersionSetProperties() {
+    encryptor.decryptSensitiveData(anyObject(Config.class));
+    expectLastCall().once();
+    replayAll();
+
+    ConfigImpl config = createConfig(false);
+    Map<String, String> newProperties = Collections.singletonMap("dfs.replication", "3");
+    config.setProperties(new HashMap<>(newProperties));
+    config.setPropertiesAttributes(new HashMap<>());
+
+    // the pending properties do not overwrite the ones which were set
+    assertEquals(newProperties, config.getProperties());
+    assertTrue(config.getPropertiesAttributes().isEmpty());
+
+    verifyAll();
+  }
+
+  @Test
+  public void testNotSelectedVersionSave() {
+    encryptor.decryptSensitiveData(anyObject(Config.class));
+    expectLastCall().once();
+
+    ClusterConfigEntity entity = createEntity(false);
+    ClusterEntity clusterEntity = new ClusterEntity();
+    expect(clusterDAO.findConfig(CONFIG_ID)).andReturn(entity).once();
+    expect(clusterDAO.findById(CLUSTER_ID)).andReturn(clusterEntity).once();
+    expect(clusterDAO.merge(eq(clusterEntity), eq(true))).andReturn(clusterEntity).once();
+    cluster.refresh();
+    expectLastCall().once();
+    Capture<ClusterConfigChangedEvent> event = Capture.newInstance();
+    eventPublisher.publish(capture(event));
+    expectLastCall().once();
+    replayAll();
+
+    ConfigImpl config = new ConfigImpl(cluster, entity, clusterDAO, gson, eventPublisher, lockFactory, encryptor);
+    config.updateProperties(Collections.singletonMap("dfs.replication", "3"));
+    config.save();
+
+    Map<String, String> expected = new HashMap<>(properties);
+    expected.put("dfs.replication", "3");
+    assertEquals(expected, gson.<Map<String, String>> fromJson(entity.getData(), Map.class));
+    assertEquals("core-site", event.getValue().getConfigType());
+    assertFalse(entity.isSelected());
+
+    verifyAll();
+  }
+
+  private ConfigImpl createConfig(boolean selected) {
+    return new ConfigImpl(cluster, createEntity(selected), clusterDAO, gson, eventPublisher, lockFactory,
+        encryptor);
+  }
+
+  private ClusterConfigEntity createEntity(boolean selected) {
+    StackEntity stackEntity = new StackEntity();
+    stackEntity.setStackName("HDP");
+    stackEntity.setStackVersion("2.6");
+
+    ClusterConfigEntity entity = new ClusterConfigEntity();
+    entity.setConfigId(CONFIG_ID);
+    entity.setClusterId(CLUSTER_ID);
+    entity.setType("core-site");
+    entity.setTag("version1");
+    entity.setVersion(1L);
+    entity.setStack(stackEntity);
+    entity.setData(gson.toJson(properties));
+    entity.setAttributes(gson.toJson(attributes));
+    entity.setSelected(selected);
+    return entity;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class InternedPropertiesTest {
+
+  @Test
+  public void testCopy() {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("fs.defaultFS", "hdfs://c6401:8020");
+    properties.put("hadoop.security.authentication", "simple");
+    properties.put("empty", null);
+
+    InternedProperties interned = InternedProperties.of(properties);
+    assertEquals(properties, interned);
+    assertEquals(properties, new HashMap<>(interned));
+    assertEquals("simple", interned.get("hadoop.security.authentication"));
+    assertTrue(interned.containsKey("empty"));
+    assertNull(interned.get("empty"));
+    assertFalse(interned.containsKey("missing"));
+    assertTrue(InternedProperties.of(new HashMap<>()).isEmpty());
+  }
+
+  @Test
+  public void testValuesShared() {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("dfs.replication", new String("3"));
+    Map<String, String> other = new HashMap<>();
+    other.put("dfs.replication", new String("3"));
+
+    assertSame(InternedProperties.of(properties).get("dfs.replication"),
+        InternedProperties.of(other).get("dfs.replication"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testImmutable() {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("dfs.replication", "3");
+    InternedProperties.of(properties).put("dfs.replication", "1");
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state.cluster;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.ambari.server.AmbariException;
+import org.apache.ambari.server.H2DatabaseCleaner;
+import org.apache.ambari.server.controller.internal.DeleteHostComponentStatusMetaData;
+import org.apache.ambari.server.events.listeners.upgrade.HostVersionOutOfSyncListener;
+import org.apache.ambari.server.orm.GuiceJpaInitializer;
+import org.apache.ambari.server.orm.InMemoryDefaultTestModule;
+import org.apache.ambari.server.orm.OrmTestHelper;
+import org.apache.ambari.server.orm.entities.RepositoryVersionEntity;
+import org.apache.ambari.server.state.Cluster;
+import org.apache.ambari.server.state.Clusters;
+import org.apache.ambari.server.state.Config;
+import org.apache.ambari.server.state.ConfigFactory;
+import org.apache.ambari.server.state.DesiredConfig;
+import org.apache.ambari.server.state.Service;
+import org.apache.ambari.server.state.ServiceFactory;
+import org.apache.ambari.server.state.StackId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Binder;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+
+/**
+ * Tests that the config cache and the services of a {@link ClusterImpl} stay
+ * consistent when they are read and modified from several threads.
+ */
+public class ClusterImplConcurrencyTest {
+  private static final int NUMBER_OF_THREADS = 4;
+  private static final int NUMBER_OF_CONFIGS = 100;
+  private static final int NUMBER_OF_REFRESHES = 20;
+
+  /**
+   * The services of the test stack.
+   */
+  private static final String[] SERVICES = { "HDFS", "MAPREDUCE", "PIG" };
+
+  @Inject
+  private Injector injector;
+
+  @Inject
+  private Clusters clusters;
+
+  @Inject
+  private ConfigFactory configFactory;
+
+  @Inject
+  private ServiceFactory serviceFactory;
+
+  @Inject
+  private OrmTestHelper helper;
+
+  private StackId stackId = new StackId("HDP-0.1");
+
+  private Cluster cluster;
+
+  private RepositoryVersionEntity repositoryVersion;
+
+  @Before
+  public void setup() throws Exception {
+    injector = Guice.createInjector(Modules.override(new InMemoryDefaultTestModule()).with(
+        (Binder binder) -> binder.bind(HostVersionOutOfSyncListener.class).toInstance(
+            createNiceMock(HostVersionOutOfSyncListener.class))));
+
+    injector.getInstance(GuiceJpaInitializer.class);
+    injector.injectMembers(this);
+    helper.createStack(stackId);
+    clusters.addCluster("c1", stackId);
+    cluster = clusters.getCluster("c1");
+    repositoryVersion = helper.getOrCreateRepositoryVersion(stackId, stackId.getStackVersion());
+  }
+
+  @After
+  public void teardown() throws AmbariException, SQLException {
+    H2DatabaseCleaner.clearDatabaseAndStopPersistenceService(injector);
+  }
+
+  /**
+   * Tests that configs of different types added concurrently are all cached.
+   */
+  @Test
+  public void testConcurrentAddConfigOfDifferentTypes() throws Exception {
+    runConcurrently(NUMBER_OF_THREADS, thread -> {
+      for (int i = 0; i < NUMBER_OF_CONFIGS; i++) {
+        cluster.addConfig(createConfig("type-" + thread, "version" + i));
+      }
+    });
+
+    for (int thread = 0; thread < NUMBER_OF_THREADS; thread++) {
+      Assert.assertEquals(NUMBER_OF_CONFIGS, cluster.getConfigsByType("type-" + thread).size());
+    }
+    Assert.assertEquals(NUMBER_OF_THREADS * NUMBER_OF_CONFIGS, cluster.getAllConfigs().size());
+  }
+
+  /**
+   * Tests that configs of the same type added concurrently are all cached.
+   */
+  @Test
+  public void testConcurrentAddConfigOfSameType() throws Exception {
+    runConcurrently(NUMBER_OF_THREADS, thread -> {
+      for (int i = 0; i < NUMBER_OF_CONFIGS; i++) {
+        cluster.addConfig(createConfig("core-site", "version-" + thread + "-" + i));
+      }
+    });
+
+    Map<String, Config> configs = cluster.getConfigsByType("core-site");
+    Assert.assertEquals(NUMBER_OF_THREADS * NUMBER_OF_CONFIGS, configs.size());
+    for (int thread = 0; thread < NUMBER_OF_THREADS; thread++) {
+      for (int i = 0; i < NUMBER_OF_CONFIGS; i++) {
+        Assert.assertTrue(configs.containsKey("version-" + thread + "-" + i));
+      }
+    }
+  }
+
+  /**
+   * Tests that readers, which take no lock, never see the config cache empty
+   * or without the desired config while it is being rebuilt.
+   */
+  @Test
+  public void testReadConfigsWhileCachingConfigurations() throws Exception {
+    Config config = configFactory.createNew(cluster, "core-site", "version1",
+        Collections.singletonMap("key", "value"), new HashMap<>());
+    cluster.addDesiredConfig("admin", Collections.singleton(config));
+
+    AtomicBoolean done = new AtomicBoolean();
+    List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+      Thread reader = new Thread(() -> {
+        while (!done.get()) {
+          Map<String, Config> configs = cluster.getConfigsByType("core-site");
+          if (configs == null || !configs.containsKey("version1")) {
+            failures.add("core-site config missing from " + configs);
+          }
+          Map<String, DesiredConfig> desiredConfigs = cluster.getDesiredConfigs();
+          if (!desiredConfigs.containsKey("core-site")
+              || !"version1".equals(desiredConfigs.get("core-site").getTag())) {
+            failures.add("core-site desired config missing from " + desiredConfigs);
+          }
+        }
+      });
+      readers.add(reader);
+      reader.start();
+    }
+
+    try {
+      // every call rebuilds the config cache
+      for (int i = 0; i < NUMBER_OF_REFRESHES; i++) {
+        cluster.applyLatestConfigurations(stackId, "HDFS");
+      }
+    } finally {
+      done.set(true);
+      for (Thread reader : readers) {
+        reader.join();
+      }
+    }
+
+    Assert.assertEquals(Collections.emptyList(), failures);
+    Assert.assertEquals("value", cluster.getConfig("core-site", "version1").getProperties().get("key"));
+  }
+
+  /**
+   * Tests that a service added or deleted by another thread is visible in
+   * {@link Cluster#getServices()} as soon as the call returns.
+   */
+  @Test
+  public void testServicesVisibleAfterAddAndDelete() throws Exception {
+    Map<String, Service> before = cluster.getServices();
+
+    runConcurrently(SERVICES.length, thread -> {
+      Service service = serviceFactory.createNew(cluster, SERVICES[thread], repositoryVersion);
+      cluster.addService(service);
+      Assert.assertTrue(cluster.getServices().containsKey(SERVICES[thread]));
+    });
+
+    Map<String, Service> services = cluster.getServices();
+    Assert.assertEquals(SERVICES.length, services.size());
+    for (String serviceName : SERVICES) {
+      Assert.assertSame(cluster.getService(serviceName), services.get(serviceName));
+    }
+
+    // returned maps are snapshots, they do not change afterwards
+    Assert.assertTrue(before.isEmpty());
+
+    runConcurrently(SERVICES.length, thread -> {
+      cluster.deleteService(SERVICES[thread], new DeleteHostComponentStatusMetaData());
+      Assert.assertFalse(cluster.getServices().containsKey(SERVICES[thread]));
+    });
+
+    Assert.assertTrue(cluster.getServices().isEmpty());
+    Assert.assertEquals(SERVICES.length, services.size());
+  }
+
+  private Config createConfig(String type, String tag) {
+    Config config = createNiceMock(Config.class);
+    expect(config.getType()).andReturn(type).anyTimes();
+    expect(config.getTag()).andReturn(tag).anyTimes();
+    replay(config);
+    return config;
+  }
+
+  /**
+   * Runs the task in the given number of threads started together and
+   * rethrows the first failure.
+   */
+  private void runConcurrently(int numberOfThreads, ThreadTask task) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      int thread = i;
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+          task.run(thread);
+        } catch (Throwable t) {
+          failures.add(t);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (!failures.isEmpty()) {
+      throw new AssertionError(failures.get(0));
+    }
+  }
+
+  private interface ThreadTask {
+    void run(int thread) throws Exception;
+  }
+}
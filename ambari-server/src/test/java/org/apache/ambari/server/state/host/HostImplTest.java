@@ -22,6 +22,8 @@ import static org.junit.Assert.assertEquals;
 
 import java.util.Map;
 
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.logging.LockFactory;
 import org.apache.ambari.server.orm.dao.HostDAO;
 import org.apache.ambari.server.orm.dao.HostStateDAO;
 import org.apache.ambari.server.orm.entities.HostEntity;
@@ -41,6 +43,8 @@ public class HostImplTest extends EasyMockSupport {
     HostDAO hostDAO  = createNiceMock(HostDAO.class);
     HostStateDAO hostStateDAO  = createNiceMock(HostStateDAO.class);
 
+    Configuration configuration = createNiceMock(Configuration.class);
+
     Gson gson = new Gson();
 
     expect(hostEntity.getHostAttributes()).andReturn("{\"foo\": \"aaa\", \"bar\":\"bbb\"}").anyTimes();
@@ -50,13 +54,14 @@ public class HostImplTest extends EasyMockSupport {
     expect(hostDAO.findById(1L)).andReturn(hostEntity).atLeastOnce();
 
     replayAll();
-    HostImpl host = new HostImpl(hostEntity, gson, hostDAO, hostStateDAO);
+    LockFactory lockFactory = new LockFactory(configuration);
+    HostImpl host = new HostImpl(hostEntity, gson, hostDAO, hostStateDAO, lockFactory);
 
     Map<String, String> hostAttributes = host.getHostAttributes();
     assertEquals("aaa", hostAttributes.get("foo"));
     assertEquals("bbb", hostAttributes.get("bar"));
 
-    host = new HostImpl(hostEntity, gson, hostDAO, hostStateDAO);
+    host = new HostImpl(hostEntity, gson, hostDAO, hostStateDAO, lockFactory);
 
     hostAttributes = host.getHostAttributes();
     assertEquals("aaa", hostAttributes.get("foo"));
@@ -73,6 +78,8 @@ public class HostImplTest extends EasyMockSupport {
     HostDAO hostDAO  = createNiceMock(HostDAO.class);
     HostStateDAO hostStateDAO  = createNiceMock(HostStateDAO.class);
 
+    Configuration configuration = createNiceMock(Configuration.class);
+
     Gson gson = new Gson();
 
     expect(hostEntity.getHostAttributes()).andReturn("{\"foo\": \"aaa\", \"bar\":\"bbb\"}").anyTimes();
@@ -83,11 +90,12 @@ public class HostImplTest extends EasyMockSupport {
     expect(hostStateDAO.findByHostId(1L)).andReturn(hostStateEntity).atLeastOnce();
 
     replayAll();
-    HostImpl host = new HostImpl(hostEntity, gson, hostDAO, hostStateDAO);
+    LockFactory lockFactory = new LockFactory(configuration);
+    HostImpl host = new HostImpl(hostEntity, gson, hostDAO, hostStateDAO, lockFactory);
 
     host.getHealthStatus();
 
-    host = new HostImpl(hostEntity, gson, hostDAO, hostStateDAO);
+    host = new HostImpl(hostEntity, gson, hostDAO, hostStateDAO, lockFactory);
 
     host.getHealthStatus();
 
@@ -18,6 +18,7 @@
 
 package org.apache.ambari.server.view;
 
+import static org.easymock.EasyMock.anyLong;
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
@@ -164,6 +165,50 @@ public class ViewExtractorTest extends EasyMockSupport {
     verifyAll();
   }
 
+  @Test
+  public void testExtractViewArchiveUnchangedChecksum() throws Exception {
+
+    ResourceTypeEntity resourceTypeEntity = new ResourceTypeEntity();
+    resourceTypeEntity.setId(10);
+    resourceTypeEntity.setName("MY_VIEW{1.0.0}");
+
+    ViewEntity viewDefinition = ViewEntityTest.getViewEntity();
+    viewDefinition.setResourceType(resourceTypeEntity);
+
+    // set expectations
+    if (System.getProperty("os.name").contains("Windows")) {
+      expect(viewArchive.getAbsolutePath()).andReturn("\\var\\lib\\ambari-server\\resources\\views\\work\\MY_VIEW{1.0.0}").anyTimes();
+      expect(archiveDir.getAbsolutePath()).andReturn("\\var\\lib\\ambari-server\\resources\\views\\work\\MY_VIEW{1.0.0}").anyTimes();
+    }
+    else {
+      expect(viewArchive.getAbsolutePath()).andReturn("/var/lib/ambari-server/resources/views/work/MY_VIEW{1.0.0}").anyTimes();
+      expect(archiveDir.getAbsolutePath()).andReturn("/var/lib/ambari-server/resources/views/work/MY_VIEW{1.0.0}").anyTimes();
+    }
+
+    // the archive was touched after it was extracted, but its contents are unchanged
+    expect(archiveDir.exists()).andReturn(true).anyTimes();
+    expect(viewArchive.lastModified()).andReturn(2000L);
+    expect(archiveDir.lastModified()).andReturn(1000L);
+    expect(archiveDir.setLastModified(anyLong())).andReturn(true);
+    expect(archiveDir.toURI()).andReturn(new URI("file:./"));
+
+    expect(classesDir.exists()).andReturn(true);
+    expect(classesDir.toURI()).andReturn(new URI("file:./"));
+
+    expect(libDir.exists()).andReturn(false);
+
+    replayAll();
+
+    ViewExtractor viewExtractor = getViewExtractor(viewDefinition);
+    viewExtractor.archiveUtility.setExtractedArchiveChecksum(archiveDir, TestViewArchiveUtility.ARCHIVE_CHECKSUM);
+
+    // the archive directory can not be created, so this would fail if the archive were extracted again
+    Assert.assertNotNull(viewExtractor.extractViewArchive(viewDefinition, viewArchive, archiveDir,
+        Collections.emptyList()));
+
+    verifyAll();
+  }
+
   @Test
   public void testEnsureExtractedArchiveDirectory() throws Exception {
 
@@ -270,10 +315,12 @@ public class ViewExtractorTest extends EasyMockSupport {
   }
 
   public static class TestViewArchiveUtility extends ViewArchiveUtility {
+    private static final String ARCHIVE_CHECKSUM = "1a2b3c4d-1024";
     private final Map<File, ViewConfig> viewConfigs;
     private final Map<String, File> files;
     private final Map<File, FileOutputStream> outputStreams;
     private final Map<File, JarInputStream> jarFiles;
+    private final Map<File, String> extractedChecksums = new HashMap<>();
 
     public TestViewArchiveUtility(Map<File, ViewConfig> viewConfigs, Map<String, File> files, Map<File,
         FileOutputStream> outputStreams, Map<File, JarInputStream> jarFiles) {
@@ -313,5 +360,20 @@ public class ViewExtractorTest extends EasyMockSupport {
     public JarInputStream getJarFileStream(File file) throws IOException {
       return jarFiles.get(file);
     }
+
+    @Override
+    public String getArchiveChecksum(File archiveFile) throws IOException {
+      return ARCHIVE_CHECKSUM;
+    }
+
+    @Override
+    public String getExtractedArchiveChecksum(File archiveDir) throws IOException {
+      return extractedChecksums.get(archiveDir);
+    }
+
+    @Override
+    public void setExtractedArchiveChecksum(File archiveDir, String checksum) throws IOException {
+      extractedChecksums.put(archiveDir, checksum);
+    }
   }
 }
@@ -1729,10 +1729,12 @@ public class ViewRegistryTest {
   }
 
   public static class TestViewArchiveUtility extends ViewArchiveUtility {
+    private static final String ARCHIVE_CHECKSUM = "1a2b3c4d-1024";
     private final Map<File, ViewConfig> viewConfigs;
     private final Map<String, File> files;
     private final Map<File, FileOutputStream> outputStreams;
     private final Map<File, JarInputStream> jarFiles;
+    private final Map<File, String> extractedChecksums = new HashMap<>();
     private final boolean badArchive;
     private boolean deploymentFailed = false;
 
@@ -1785,6 +1787,21 @@ public class ViewRegistryTest {
       return jarFiles.get(file);
     }
 
+    @Override
+    public String getArchiveChecksum(File archiveFile) throws IOException {
+      return ARCHIVE_CHECKSUM;
+    }
+
+    @Override
+    public String getExtractedArchiveChecksum(File archiveDir) throws IOException {
+      return extractedChecksums.get(archiveDir);
+    }
+
+    @Override
+    public void setExtractedArchiveChecksum(File archiveDir, String checksum) throws IOException {
+      extractedChecksums.put(archiveDir, checksum);
+    }
+
     public boolean isDeploymentFailed() {
       return deploymentFailed;
     }
@@ -18,7 +18,9 @@
 
 package org.apache.ambari.view;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * View data store.
@@ -72,4 +74,58 @@ public interface DataStore {
    * @throws PersistenceException
    */
   public <T> Collection<T> findAll(Class<T> clazz, String whereClause) throws PersistenceException;
+
+  /**
+   * Save all of the given entities to persistent storage.  Data store implementations
+   * may persist the entities together as a single batch.
+   *
+   * @param entities  the entities to be persisted
+   *
+   * @throws PersistenceException thrown if the given entities can not be persisted
+   */
+  public default void storeAll(Collection<?> entities) throws PersistenceException {
+    for (Object entity : entities) {
+      store(entity);
+    }
+  }
+
+  /**
+   * Remove all of the given entities from persistent storage.  Data store implementations
+   * may remove the entities together as a single batch.
+   *
+   * @param entities  the entities to be removed
+   *
+   * @throws PersistenceException thrown if the given entities can not be removed
+   */
+  public default void removeAll(Collection<?> entities) throws PersistenceException {
+    for (Object entity : entities) {
+      remove(entity);
+    }
+  }
+
+  /**
+   * Find a page of the entities for the given where clause.  Specifying null for the
+   * where clause should page through all entities of the given class type.  Data store
+   * implementations should return the entities in a stable order so that a large result
+   * set can be read one page at a time.
+   *
+   * @param clazz        the entity class
+   * @param whereClause  the where clause; may be null
+   * @param firstResult  the position of the first entity to return, starting at 0
+   * @param maxResults   the maximum number of entities to return
+   * @param <T>          the entity type
+   *
+   * @return the requested page of entities for the given where clause; empty collection
+   *         if no entities can be found
+   *
+   * @throws PersistenceException thrown if an error occurs trying to find the entities
+   */
+  public default <T> Collection<T> findAll(Class<T> clazz, String whereClause, int firstResult, int maxResults)
+      throws PersistenceException {
+    List<T> entities = new ArrayList<>(findAll(clazz, whereClause));
+    int fromIndex = Math.min(firstResult, entities.size());
+    int toIndex   = (int) Math.min((long) fromIndex + maxResults, entities.size());
+
+    return new ArrayList<>(entities.subList(fromIndex, toIndex));
+  }
 }
@@ -79,7 +79,8 @@ public class SqlServerSinkHadoop2Test extends SqlServerSinkTest<SqlServerSinkHad
         cstmt.setLong(1, 99L);
         cstmt.setNString(2, "name");
         cstmt.setNString(3, "1234");
-        expect(cstmt.execute()).andReturn(true);
+        cstmt.addBatch();
+        expect(cstmt.executeBatch()).andReturn(new int[] {1});
 
         // replay
         replay(configuration, connection, cstmt, record, metric);
@@ -20,14 +20,20 @@ package org.apache.hadoop.metrics2.sink;
 
 import com.microsoft.sqlserver.jdbc.SQLServerDriver;
 import org.apache.commons.configuration.SubsetConfiguration;
+import org.easymock.IAnswer;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 
@@ -221,5 +227,219 @@ public abstract class SqlServerSinkTest<T extends SqlServerSink> {
     verify(configuration, connection, cstmt);
   }
 
+  @Test
+  public void testAddMetricValue() throws Exception {
+    SubsetConfiguration configuration = createNiceMock(SubsetConfiguration.class);
+    Connection connection = createNiceMock(Connection.class);
+    CallableStatement cstmt = createNiceMock(CallableStatement.class);
+
+    // set expectations
+    expect(configuration.getParent()).andReturn(null);
+    expect(configuration.getPrefix()).andReturn("prefix");
+    expect(configuration.getString("databaseUrl")).andReturn("url");
+    expect(configuration.getInt("batchSize", SqlSink.DEFAULT_BATCH_SIZE)).andReturn(2);
+
+    // a full batch is executed when it is added, the rest on flush
+    expect(connection.prepareCall("{call dbo.uspInsertMetricValue(?, ?, ?)}")).andReturn(cstmt).times(2);
+    cstmt.setLong(1, 9999L);
+    expectLastCall().times(3);
+    cstmt.setNString(eq(2), (String) anyObject());
+    expectLastCall().times(3);
+    cstmt.setNString(eq(3), (String) anyObject());
+    expectLastCall().times(3);
+    cstmt.addBatch();
+    expectLastCall().times(3);
+    expect(cstmt.executeBatch()).andReturn(new int[] {1, 1});
+    expect(cstmt.executeBatch()).andReturn(new int[] {1});
+    connection.close();
+
+    // replay
+    replay(configuration, connection, cstmt);
+
+    SqlServerSink sink = createInstance();
+
+    sink.init(configuration);
+
+    SQLServerDriver.setConnection(connection);
+
+    sink.addMetricValue(9999L, "metricName1", "metricValue1");
+    sink.addMetricValue(9999L, "metricName2", "metricValue2");
+    sink.addMetricValue(9999L, "metricName3", "metricValue3");
+    sink.flush();
+
+    verify(configuration, connection, cstmt);
+  }
+
+  @Test
+  public void testClose_async() throws Exception {
+    SubsetConfiguration configuration = createNiceMock(SubsetConfiguration.class);
+    Connection connection = createNiceMock(Connection.class);
+    CallableStatement cstmt = createNiceMock(CallableStatement.class);
+
+    // set expectations
+    expect(configuration.getParent()).andReturn(null);
+    expect(configuration.getPrefix()).andReturn("prefix");
+    expect(configuration.getString("databaseUrl")).andReturn("url");
+    expect(configuration.getBoolean("async", true)).andReturn(true);
+    expect(configuration.getInt("queueSize", SqlSink.DEFAULT_QUEUE_SIZE)).andReturn(10);
+    expect(configuration.getInt("batchSize", SqlSink.DEFAULT_BATCH_SIZE)).andReturn(10);
+    expect(configuration.getLong("flushTimeout", SqlSink.DEFAULT_FLUSH_TIMEOUT)).andReturn(10000L);
+
+    expect(connection.prepareCall("{call dbo.uspGetMetricRecord(?, ?, ?, ?, ?, ?, ?, ?, ?)}")).andReturn(cstmt);
+    expect(cstmt.execute()).andReturn(true);
+    expect(cstmt.getLong(9)).andReturn(99L);
+    expect(cstmt.wasNull()).andReturn(false);
+
+    // both values are inserted in a single batch
+    expect(connection.prepareCall("{call dbo.uspInsertMetricValue(?, ?, ?)}")).andReturn(cstmt);
+    cstmt.setLong(1, 99L);
+    expectLastCall().times(2);
+    cstmt.setNString(2, "name1");
+    cstmt.setNString(3, "1");
+    cstmt.setNString(2, "name2");
+    cstmt.setNString(3, "2");
+    cstmt.addBatch();
+    expectLastCall().times(2);
+    expect(cstmt.executeBatch()).andReturn(new int[] {1, 1});
+    connection.close();
+
+    // replay
+    replay(configuration, connection, cstmt);
+
+    SqlServerSink sink = createInstance();
+
+    SQLServerDriver.setConnection(connection);
+
+    sink.init(configuration);
+
+    SqlSink.PendingMetricRecord record = new SqlSink.PendingMetricRecord("context", "typeName", "tagPairs", 9999L);
+    record.addMetric("name1", "1");
+    record.addMetric("name2", "2");
+    sink.putMetricRecord(record);
+
+    // close waits for the queued record to be written
+    sink.close();
+
+    verify(configuration, connection, cstmt);
+    Assert.assertEquals(0, sink.getDroppedRecords());
+  }
+
+  @Test
+  public void testFlush_async() throws Exception {
+    SubsetConfiguration configuration = createNiceMock(SubsetConfiguration.class);
+    Connection connection = createNiceMock(Connection.class);
+    final CallableStatement cstmt = createNiceMock(CallableStatement.class);
+    final CountDownLatch writing = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+
+    // set expectations
+    expect(configuration.getParent()).andReturn(null);
+    expect(configuration.getPrefix()).andReturn("prefix");
+    expect(configuration.getString("databaseUrl")).andReturn("url");
+    expect(configuration.getBoolean("async", true)).andReturn(true);
+    expect(configuration.getInt("queueSize", SqlSink.DEFAULT_QUEUE_SIZE)).andReturn(10);
+    expect(configuration.getInt("batchSize", SqlSink.DEFAULT_BATCH_SIZE)).andReturn(10);
+    expect(configuration.getLong("flushTimeout", SqlSink.DEFAULT_FLUSH_TIMEOUT)).andReturn(10000L);
+
+    // the writer is stuck on the database until released
+    expect(connection.prepareCall("{call dbo.uspGetMetricRecord(?, ?, ?, ?, ?, ?, ?, ?, ?)}")).andAnswer(
+      new IAnswer<CallableStatement>() {
+        @Override
+        public CallableStatement answer() throws Throwable {
+          writing.countDown();
+          released.await();
+          return cstmt;
+        }
+      });
+    expect(cstmt.getLong(9)).andReturn(99L);
+    expect(connection.prepareCall("{call dbo.uspInsertMetricValue(?, ?, ?)}")).andReturn(cstmt);
+    expect(cstmt.executeBatch()).andReturn(new int[] {1});
+    connection.close();
+
+    // replay
+    replay(configuration, connection, cstmt);
+
+    SqlServerSink sink = createInstance();
+
+    SQLServerDriver.setConnection(connection);
+
+    sink.init(configuration);
+
+    SqlSink.PendingMetricRecord record = new SqlSink.PendingMetricRecord("context", "typeName", "tagPairs", 9999L);
+    record.addMetric("name", "1");
+    sink.putMetricRecord(record);
+    Assert.assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+    // flush does not wait for the writer
+    sink.flush();
+    sink.flush();
+
+    released.countDown();
+    sink.close();
+
+    verify(configuration, connection, cstmt);
+  }
+
+  @Test
+  public void testPutMetricRecord_asyncQueueFull() throws Exception {
+    SubsetConfiguration configuration = createNiceMock(SubsetConfiguration.class);
+    Connection connection = createNiceMock(Connection.class);
+    final CallableStatement cstmt = createNiceMock(CallableStatement.class);
+    final CountDownLatch writing = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+
+    // set expectations
+    expect(configuration.getParent()).andReturn(null);
+    expect(configuration.getPrefix()).andReturn("prefix");
+    expect(configuration.getString("databaseUrl")).andReturn("url");
+    expect(configuration.getBoolean("async", true)).andReturn(true);
+    expect(configuration.getInt("queueSize", SqlSink.DEFAULT_QUEUE_SIZE)).andReturn(1);
+    expect(configuration.getInt("batchSize", SqlSink.DEFAULT_BATCH_SIZE)).andReturn(10);
+    expect(configuration.getLong("flushTimeout", SqlSink.DEFAULT_FLUSH_TIMEOUT)).andReturn(10000L);
+
+    // the writer is stuck on the database with the first record until released
+    expect(connection.prepareCall("{call dbo.uspGetMetricRecord(?, ?, ?, ?, ?, ?, ?, ?, ?)}")).andAnswer(
+      new IAnswer<CallableStatement>() {
+        @Override
+        public CallableStatement answer() throws Throwable {
+          writing.countDown();
+          released.await();
+          return cstmt;
+        }
+      });
+    expect(connection.prepareCall("{call dbo.uspGetMetricRecord(?, ?, ?, ?, ?, ?, ?, ?, ?)}")).andReturn(cstmt);
+    expect(cstmt.getLong(9)).andReturn(99L).times(2);
+    expect(connection.prepareCall("{call dbo.uspInsertMetricValue(?, ?, ?)}")).andReturn(cstmt);
+    // the values of the first and the second record, the third one is dropped
+    cstmt.addBatch();
+    expectLastCall().times(2);
+    expect(cstmt.executeBatch()).andReturn(new int[] {1, 1});
+    connection.close();
+
+    // replay
+    replay(configuration, connection, cstmt);
+
+    SqlServerSink sink = createInstance();
+
+    SQLServerDriver.setConnection(connection);
+
+    sink.init(configuration);
+
+    for (int i = 0; i < 3; i++) {
+      SqlSink.PendingMetricRecord record = new SqlSink.PendingMetricRecord("context", "typeName", "tagPairs", 9999L);
+      record.addMetric("name" + i, String.valueOf(i));
+      sink.putMetricRecord(record);
+      if (i == 0) {
+        Assert.assertTrue(writing.await(10, TimeUnit.SECONDS));
+      }
+    }
+    Assert.assertEquals(1, sink.getDroppedRecords());
+
+    released.countDown();
+    sink.close();
+
+    verify(configuration, connection, cstmt);
+  }
+
   public abstract void testPutMetrics() throws Exception;
 }
@@ -27,19 +27,15 @@ public class SqlServerSinkHadoop1 extends SqlServerSink {
 
   @Override
   public void putMetrics(MetricsRecord record) {
-    long metricRecordID = getMetricRecordID(record.context(), record.name(),
-            getLocalNodeName(), getLocalNodeIPAddress(), getClusterNodeName(), getCurrentServiceName(),
-            getTagString(record.tags()), record.timestamp());
-    if (metricRecordID < 0)
-      return;
+    PendingMetricRecord pendingRecord = new PendingMetricRecord(record.context(), record.name(),
+      getTagString(record.tags()), record.timestamp());
 
     for (Metric metric : record.metrics()) {
-      insertMetricValue(metricRecordID, metric.name(), String.valueOf(metric
-              .value()));
+      pendingRecord.addMetric(metric.name(), String.valueOf(metric.value()));
       if (metric.name().equals("BlockCapacity")) {
-        insertMetricValue(metricRecordID, "BlockSize", Integer
-                .toString(getBlockSize()));
+        pendingRecord.addMetric("BlockSize", Integer.toString(getBlockSize()));
       }
     }
+    putMetricRecord(pendingRecord);
   }
 }
@@ -25,20 +25,44 @@ import org.apache.hadoop.metrics2.MetricsSink;
 import org.apache.hadoop.metrics2.MetricsTag;
 import org.apache.log4j.Logger;
 
+import java.io.Closeable;
 import java.lang.String;
 import java.net.InetAddress;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * This class stores published metrics to the SQL Server database.
+ *
+ * Metric records are queued by putMetrics and written to the database by a
+ * background writer thread, so the metrics system is never blocked by the
+ * database.  Metric values are inserted in JDBC batches which are executed
+ * when the batch is full and on flush.  Only close waits for the queued
+ * records to be written.
  */
-public abstract class SqlSink implements MetricsSink {
+public abstract class SqlSink implements MetricsSink, Closeable {
   private static final String DATABASE_URL_KEY = "databaseUrl";
+  private static final String BATCH_SIZE_KEY = "batchSize";
+  private static final String QUEUE_SIZE_KEY = "queueSize";
+  private static final String FLUSH_TIMEOUT_KEY = "flushTimeout";
+  private static final String ASYNC_KEY = "async";
+  static final int DEFAULT_BATCH_SIZE = 500;
+  static final int DEFAULT_QUEUE_SIZE = 1000;
+  static final long DEFAULT_FLUSH_TIMEOUT = 5000;
+  // queued to have the writer execute the insert batch and close the connection
+  private static final Object FLUSH = new Object();
   private static final boolean DEBUG = true;
   private final String NAMENODE_URL_KEY;
   private static final Pattern NAME_URL_REGEX = Pattern.compile(
@@ -49,6 +73,16 @@ public abstract class SqlSink implements MetricsSink {
   private String databaseUrl;
   private Connection conn = null;
 
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private long flushTimeout = DEFAULT_FLUSH_TIMEOUT;
+  private CallableStatement insertBatch = null;
+  private int insertBatchCount = 0;
+  // metric records and flush requests waiting for the writer; null if records are written synchronously
+  private BlockingQueue<Object> writeQueue = null;
+  private Thread writer = null;
+  private final AtomicBoolean flushQueued = new AtomicBoolean();
+  private final AtomicLong droppedRecords = new AtomicLong();
+
   StringBuilder tagsListBuffer = new StringBuilder();
   String nodeName = null;
   String nodeIPAddress = null;
@@ -96,6 +130,17 @@ public abstract class SqlSink implements MetricsSink {
         "SqlServerSink requires the Microsoft JDBC driver for SQL Server.");
     }
 
+    batchSize = Math.max(conf.getInt(BATCH_SIZE_KEY, DEFAULT_BATCH_SIZE), 1);
+    flushTimeout = conf.getLong(FLUSH_TIMEOUT_KEY, DEFAULT_FLUSH_TIMEOUT);
+
+    if (conf.getBoolean(ASYNC_KEY, true)) {
+      writeQueue = new ArrayBlockingQueue<Object>(
+        Math.max(conf.getInt(QUEUE_SIZE_KEY, DEFAULT_QUEUE_SIZE), 1));
+      writer = new Thread(new Writer(), "SqlSink writer " + currentServiceName);
+      writer.setDaemon(true);
+      writer.start();
+    }
+
     hadoopConfig = new org.apache.hadoop.conf.Configuration();
     if (hadoopConfig != null) {
       nameNodeUrl = hadoopConfig.get(NAMENODE_URL_KEY);
@@ -129,8 +174,88 @@ public abstract class SqlSink implements MetricsSink {
   @Override
   public abstract void putMetrics(MetricsRecord record);
 
+  /**
+   * Queue the given metric record to be written to the database.  If the
+   * queue is full the record is dropped rather than blocking the caller.
+   */
+  public void putMetricRecord(PendingMetricRecord record) {
+    if (writeQueue == null) {
+      writeMetricRecord(record);
+    } else if (!writeQueue.offer(record)) {
+      long dropped = droppedRecords.incrementAndGet();
+      if (dropped == 1 || dropped % 1000 == 0) {
+        logger.warn("Metrics write queue is full, " + dropped + " metric records dropped so far");
+      }
+    }
+  }
+
+  /**
+   * Write the metric values to the database and close the connection.  The
+   * values are written by the writer after the records queued so far, without
+   * waiting for it.
+   */
   @Override
   public void flush() {
+    if (writeQueue == null) {
+      flushMetricValues();
+    } else if (flushQueued.compareAndSet(false, true) && !writeQueue.offer(FLUSH)) {
+      // the writer is behind; full batches are executed as they are written
+      flushQueued.set(false);
+    }
+  }
+
+  /**
+   * Write the queued metric records and metric values to the database and
+   * close the connection.  Waits up to flushTimeout milliseconds for the
+   * writer to catch up, then stops it.
+   */
+  @Override
+  public void close() {
+    if (writeQueue == null) {
+      flushMetricValues();
+      return;
+    }
+    CountDownLatch closed = new CountDownLatch(1);
+    try {
+      if (!writeQueue.offer(closed, flushTimeout, TimeUnit.MILLISECONDS)
+        || !closed.await(flushTimeout, TimeUnit.MILLISECONDS)) {
+        logger.warn("Timed out waiting for metrics to be written to the database");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      writer.interrupt();
+    }
+  }
+
+  public long getDroppedRecords() {
+    return droppedRecords.get();
+  }
+
+  synchronized void writeMetricRecord(PendingMetricRecord record) {
+    long metricRecordID = getMetricRecordID(record.context, record.name,
+      getLocalNodeName(), getLocalNodeIPAddress(), getClusterNodeName(), getCurrentServiceName(),
+      record.tagPairs, record.timestamp);
+    if (metricRecordID < 0)
+      return;
+
+    for (int i = 0; i < record.metricNames.size(); i++) {
+      addMetricValue(metricRecordID, record.metricNames.get(i), record.metricValues.get(i));
+    }
+  }
+
+  synchronized void flushMetricValues() {
+    executeInsertBatch();
+    closeConnection();
+  }
+
+  private synchronized void closeConnection() {
+    if (insertBatch != null) {
+      // values of a failed batch are dropped along with the connection
+      closeStatement(insertBatch, "closeConnection");
+      insertBatch = null;
+      insertBatchCount = 0;
+    }
     try {
       if (conn != null)
         conn.close();
@@ -207,7 +332,7 @@ public abstract class SqlSink implements MetricsSink {
     return tagsListBuffer.toString();
   }
 
-  public boolean ensureConnection() {
+  public synchronized boolean ensureConnection() {
     if (conn == null) {
       try {
         if (databaseUrl != null) {
@@ -220,7 +345,7 @@ public abstract class SqlSink implements MetricsSink {
     return conn != null;
   }
 
-  public long getMetricRecordID(String recordTypeContext,
+  public synchronized long getMetricRecordID(String recordTypeContext,
                                 String recordTypeName, String nodeName, String sourceIP,
                                 String clusterName, String serviceName, String tagPairs, long recordTimestamp) {
     CallableStatement cstmt = null;
@@ -266,7 +391,7 @@ public abstract class SqlSink implements MetricsSink {
       if (DEBUG)
         logger.info("Error during getMetricRecordID call sproc: "
           + e.toString());
-      flush();
+      closeConnection();
     } finally {
       if (cstmt != null) {
         try {
@@ -290,7 +415,7 @@ public abstract class SqlSink implements MetricsSink {
    * TODO: Think about sending all of this in one SP call if JDBC supports table
    * valued parameters.
    */
-  public void insertMetricValue(long metricRecordID, String metricName,
+  public synchronized void insertMetricValue(long metricRecordID, String metricName,
                                 String metricValue) {
     CallableStatement cstmt = null;
     if (metricRecordID < 0 || metricName == null || metricValue == null)
@@ -312,7 +437,7 @@ public abstract class SqlSink implements MetricsSink {
       if (DEBUG)
         logger.info("Error during insertMetricValue call sproc: "
           + e.toString());
-      flush();
+      closeConnection();
     } finally {
       if (cstmt != null) {
         try {
@@ -332,6 +457,63 @@ public abstract class SqlSink implements MetricsSink {
     }
   }
 
+  /**
+   * Add a metric value to the current insert batch, executing the batch once
+   * it reaches the batch size.
+   */
+  public synchronized void addMetricValue(long metricRecordID, String metricName,
+                                          String metricValue) {
+    if (metricRecordID < 0 || metricName == null || metricValue == null)
+      return;
+    try {
+      if (ensureConnection()) {
+        if (insertBatch == null) {
+          String procedureCall =
+            String.format("{call %s(?, ?, ?)}", getInsertMetricsProcedureName());
+          insertBatch = conn.prepareCall(procedureCall);
+        }
+        insertBatch.setLong(1, metricRecordID);
+        insertBatch.setNString(2, metricName);
+        insertBatch.setNString(3, metricValue);
+        insertBatch.addBatch();
+        if (++insertBatchCount >= batchSize)
+          executeInsertBatch();
+      }
+    } catch (Exception e) {
+      if (DEBUG)
+        logger.info("Error during addMetricValue: " + e.toString());
+      closeConnection();
+    }
+  }
+
+  private synchronized void executeInsertBatch() {
+    if (insertBatch == null)
+      return;
+    CallableStatement cstmt = insertBatch;
+    insertBatch = null;
+    try {
+      if (insertBatchCount > 0)
+        cstmt.executeBatch();
+    } catch (Exception e) {
+      if (DEBUG)
+        logger.info("Error during executeInsertBatch call sproc: "
+          + e.toString());
+      closeConnection();
+    } finally {
+      insertBatchCount = 0;
+      closeStatement(cstmt, "executeInsertBatch");
+    }
+  }
+
+  private static void closeStatement(CallableStatement cstmt, String caller) {
+    try {
+      cstmt.close();
+    } catch (SQLException se) {
+      if (DEBUG)
+        logger.info("Error during " + caller + " close cstmt: " + se.toString());
+    }
+  }
+
   public String getCurrentServiceName() {
     return currentServiceName;
   }
@@ -354,4 +536,60 @@ public abstract class SqlSink implements MetricsSink {
    * Retrun the driver class name to load.
    */
   protected abstract String getDatabaseDriverClassName();
+
+  /**
+   * A metric record and its metric values waiting to be written.
+   */
+  public static class PendingMetricRecord {
+    private final String context;
+    private final String name;
+    private final String tagPairs;
+    private final long timestamp;
+    private final List<String> metricNames = new ArrayList<String>();
+    private final List<String> metricValues = new ArrayList<String>();
+
+    public PendingMetricRecord(String context, String name, String tagPairs, long timestamp) {
+      this.context = context;
+      this.name = name;
+      this.tagPairs = tagPairs;
+      this.timestamp = timestamp;
+    }
+
+    public void addMetric(String metricName, String metricValue) {
+      metricNames.add(metricName);
+      metricValues.add(metricValue);
+    }
+  }
+
+  /**
+   * Writes queued metric records until the sink is closed or the thread is
+   * interrupted.
+   */
+  private class Writer implements Runnable {
+    @Override
+    public void run() {
+      while (true) {
+        Object item;
+        try {
+          item = writeQueue.take();
+        } catch (InterruptedException e) {
+          return;
+        }
+        try {
+          if (item == FLUSH) {
+            flushQueued.set(false);
+            flushMetricValues();
+          } else if (item instanceof CountDownLatch) {
+            flushMetricValues();
+            ((CountDownLatch) item).countDown();
+            return;
+          } else {
+            writeMetricRecord((PendingMetricRecord) item);
+          }
+        } catch (RuntimeException e) {
+          logger.warn("Error writing metrics: ", e);
+        }
+      }
+    }
+  }
 }
\ No newline at end of file
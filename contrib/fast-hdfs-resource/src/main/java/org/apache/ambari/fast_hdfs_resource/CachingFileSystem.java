@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.fast_hdfs_resource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FilterFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.util.Progressable;
+
+/**
+ * File system that caches the results of getFileStatus (and so of exists, isFile
+ * and isDirectory), including missing paths.  Every modification made through this
+ * file system invalidates the cached statuses of the paths it may have changed.
+ */
+public class CachingFileSystem extends FilterFileSystem {
+  private static final Object MISSING = new Object();
+
+  private final ConcurrentMap<String, Object> statuses = new ConcurrentHashMap<String, Object>();
+
+  public CachingFileSystem(FileSystem fs) {
+    super(fs);
+  }
+
+  @Override
+  public FileStatus getFileStatus(Path f) throws IOException {
+    String key = getKey(f);
+    Object status = statuses.get(key);
+
+    if (status == null) {
+      try {
+        status = super.getFileStatus(f);
+      } catch (FileNotFoundException e) {
+        status = MISSING;
+      }
+      statuses.put(key, status);
+    }
+    if (status == MISSING) {
+      throw new FileNotFoundException("File does not exist: " + f);
+    }
+    return (FileStatus) status;
+  }
+
+  @Override
+  public boolean mkdirs(Path f, FsPermission permission) throws IOException {
+    try {
+      return super.mkdirs(f, permission);
+    } finally {
+      invalidateWithParents(f);
+    }
+  }
+
+  @Override
+  public FSDataOutputStream create(Path f, FsPermission permission, boolean overwrite, int bufferSize,
+                                   short replication, long blockSize, Progressable progress) throws IOException {
+    try {
+      return super.create(f, permission, overwrite, bufferSize, replication, blockSize, progress);
+    } finally {
+      invalidateWithParents(f);
+    }
+  }
+
+  @Override
+  public boolean delete(Path f, boolean recursive) throws IOException {
+    try {
+      return super.delete(f, recursive);
+    } finally {
+      invalidateTree(f);
+    }
+  }
+
+  @Override
+  public boolean rename(Path src, Path dst) throws IOException {
+    try {
+      return super.rename(src, dst);
+    } finally {
+      invalidateTree(src);
+      invalidateTree(dst);
+      invalidateWithParents(dst);
+    }
+  }
+
+  @Override
+  public void setPermission(Path p, FsPermission permission) throws IOException {
+    try {
+      super.setPermission(p, permission);
+    } finally {
+      // file systems may apply the change below the path as well
+      invalidateTree(p);
+    }
+  }
+
+  @Override
+  public void setOwner(Path p, String username, String groupname) throws IOException {
+    try {
+      super.setOwner(p, username, groupname);
+    } finally {
+      // file systems may apply the change below the path as well
+      invalidateTree(p);
+    }
+  }
+
+  @Override
+  public void copyFromLocalFile(boolean delSrc, Path src, Path dst) throws IOException {
+    try {
+      super.copyFromLocalFile(delSrc, src, dst);
+    } finally {
+      invalidateTree(dst);
+      invalidateWithParents(dst);
+    }
+  }
+
+  @Override
+  public void copyFromLocalFile(boolean delSrc, boolean overwrite, Path src, Path dst) throws IOException {
+    try {
+      super.copyFromLocalFile(delSrc, overwrite, src, dst);
+    } finally {
+      invalidateTree(dst);
+      invalidateWithParents(dst);
+    }
+  }
+
+  // invalidate the given path and all of its parents, which may have been created along with it
+  private void invalidateWithParents(Path f) {
+    for (Path path = f; path != null; path = path.getParent()) {
+      statuses.remove(getKey(path));
+    }
+  }
+
+  // invalidate the given path and everything below it
+  private void invalidateTree(Path f) {
+    String key = getKey(f);
+    String prefix = key.endsWith("/") ? key : key + "/";
+
+    for (Iterator<String> iterator = statuses.keySet().iterator(); iterator.hasNext(); ) {
+      String path = iterator.next();
+      if (path.equals(key) || path.startsWith(prefix)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private static String getKey(Path f) {
+    return f.toUri().getPath();
+  }
+}
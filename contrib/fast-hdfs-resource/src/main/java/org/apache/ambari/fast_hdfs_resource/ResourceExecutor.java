@@ -0,0 +1,285 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.fast_hdfs_resource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Executes resources on a pool of threads.
+ *
+ * Resources on the same file system whose paths are related (the same path, or one
+ * is a parent of the other) are executed in the order they were added.  Resources
+ * that change permissions on their parent directories are executed after all of the
+ * resources added before them and before all of the resources added after them.
+ * Any other resources may be executed at the same time.
+ *
+ * Once a resource fails no further resources are started.
+ */
+public class ResourceExecutor {
+  private final int threadCount;
+  private final List<Task> tasks = new ArrayList<Task>();
+  private final Map<String, long[]> timings = new TreeMap<String, long[]>();
+
+  // the last barrier task and the tasks added after it, per file system
+  private final Map<String, Task> lastBarriers = new HashMap<String, Task>();
+  private final Map<String, List<Task>> sinceBarriers = new HashMap<String, List<Task>>();
+
+  public ResourceExecutor(int threadCount) {
+    this.threadCount = Math.max(threadCount, 1);
+  }
+
+  /**
+   * Add a resource to be executed on the given file system.
+   *
+   * @param resource the resource
+   * @param fsName   name of the file system, null for the default file system
+   * @param dfs      the file system
+   */
+  public void add(Resource resource, String fsName, FileSystem dfs) {
+    Task task = new Task(resource, fsName, dfs);
+
+    List<Task> sinceBarrier = sinceBarriers.get(fsName);
+    if (sinceBarrier == null) {
+      sinceBarrier = new ArrayList<Task>();
+      sinceBarriers.put(fsName, sinceBarrier);
+    }
+    Task lastBarrier = lastBarriers.get(fsName);
+
+    // tasks before the last barrier are already ordered before it
+    if (lastBarrier != null) {
+      task.dependsOn(lastBarrier);
+    }
+    for (Task previous : sinceBarrier) {
+      if (task.barrier || isRelated(previous.path, task.path)) {
+        task.dependsOn(previous);
+      }
+    }
+
+    if (task.barrier) {
+      lastBarriers.put(fsName, task);
+      sinceBarrier.clear();
+    } else {
+      sinceBarrier.add(task);
+    }
+    tasks.add(task);
+  }
+
+  /**
+   * Execute all of the added resources.
+   *
+   * @return the first failure, or null if all of the resources were executed
+   * @throws InterruptedException if interrupted while waiting for the resources
+   */
+  public Exception execute() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    final BlockingQueue<Task> completed = new LinkedBlockingQueue<Task>();
+    Exception failure = null;
+    int running = 0;
+
+    try {
+      for (Task task : tasks) {
+        if (task.pendingDependencies == 0) {
+          submit(executor, task, completed);
+          running++;
+        }
+      }
+
+      // dependency counts are only updated on this thread
+      while (running > 0) {
+        Task task = completed.take();
+        running--;
+
+        if (task.failure != null) {
+          if (failure == null) {
+            failure = task.failure;
+          }
+        } else if (failure == null) {
+          for (Task dependent : task.dependents) {
+            if (--dependent.pendingDependencies == 0) {
+              submit(executor, dependent, completed);
+              running++;
+            }
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return failure;
+  }
+
+  /**
+   * Print the number of operations and the total and longest time spent on
+   * each kind of operation.
+   */
+  public void printTimings() {
+    synchronized (timings) {
+      for (Map.Entry<String, long[]> entry : timings.entrySet()) {
+        long[] timing = entry.getValue();
+        System.out.println(String.format("%s: count=%d, total=%dms, max=%dms",
+            entry.getKey(), timing[0], timing[1], timing[2]));
+      }
+    }
+  }
+
+  private void submit(ExecutorService executor, final Task task, final BlockingQueue<Task> completed) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          execute(task.resource, task.fsName, task.dfs);
+        } catch (Exception e) {
+          task.failure = e;
+        } finally {
+          completed.add(task);
+        }
+      }
+    });
+  }
+
+  private void execute(Resource resource, String fsName, FileSystem dfs) throws IOException {
+    if (fsName != null) {
+      System.out.println("Creating: " + resource + " in " + fsName);
+    } else {
+      System.out.println("Creating: " + resource + " in default filesystem");
+    }
+
+    long start = System.currentTimeMillis();
+    Resource.checkResourceParameters(resource, dfs);
+
+    Path pathHadoop = null;
+
+    if (resource.getAction().equals("download")) {
+      pathHadoop = new Path(resource.getSource());
+    } else {
+      String path = resource.getTarget();
+      pathHadoop = new Path(path);
+      if (!resource.isManageIfExists() && dfs.exists(pathHadoop)) {
+        System.out.println(
+            String.format("Skipping the operation for not managed DFS directory %s  since immutable_paths contains it.", path)
+        );
+        record("check", start);
+        return;
+      }
+    }
+    start = record("check", start);
+
+    if (resource.getAction().equals("create")) {
+      // 5 - Create
+      Resource.createResource(resource, dfs, pathHadoop);
+      start = record(resource.getSource() == null ? "create" : "copy", start);
+      Resource.setMode(resource, dfs, pathHadoop);
+      start = record("chmod", start);
+      Resource.setOwner(resource, dfs, pathHadoop);
+      record("chown", start);
+    } else if (resource.getAction().equals("delete")) {
+      // 6 - Delete
+      dfs.delete(pathHadoop, true);
+      record("delete", start);
+    } else if (resource.getAction().equals("download")) {
+      // 7 - Download
+      dfs.copyToLocalFile(pathHadoop, new Path(resource.getTarget()));
+      record("download", start);
+    }
+  }
+
+  // record the time spent on an operation started at the given time and return the current time
+  private long record(String operation, long start) {
+    long now = System.currentTimeMillis();
+    long elapsed = now - start;
+
+    synchronized (timings) {
+      long[] timing = timings.get(operation);
+      if (timing == null) {
+        timing = new long[3];
+        timings.put(operation, timing);
+      }
+      timing[0]++;
+      timing[1] += elapsed;
+      timing[2] = Math.max(timing[2], elapsed);
+    }
+    return now;
+  }
+
+  // determine whether one of the given paths is the same as or a parent of the other
+  static boolean isRelated(String path1, String path2) {
+    return isParentOrSame(path1, path2) || isParentOrSame(path2, path1);
+  }
+
+  private static boolean isParentOrSame(String parent, String path) {
+    if (parent.equals(path) || parent.equals("/")) {
+      return true;
+    }
+    return path.startsWith(parent) && path.charAt(parent.length()) == '/';
+  }
+
+  // get the normalized path of the resource in the file system
+  private static String getPath(Resource resource) {
+    String path = resource.getAction() != null && resource.getAction().equals("download") ?
+        resource.getSource() : resource.getTarget();
+    if (path == null) {
+      // fails the parameter check when executed; order it before everything else
+      return "/";
+    }
+    try {
+      String normalized = new Path(path).toUri().getPath();
+      return normalized.isEmpty() ? "/" : normalized;
+    } catch (IllegalArgumentException e) {
+      return "/";
+    }
+  }
+
+  /**
+   * A resource to be executed along with the tasks it has to wait for.
+   */
+  private static class Task {
+    private final Resource resource;
+    private final String fsName;
+    private final FileSystem dfs;
+    private final String path;
+    private final boolean barrier;
+    private final List<Task> dependents = new ArrayList<Task>();
+    private int pendingDependencies;
+    private volatile Exception failure;
+
+    private Task(Resource resource, String fsName, FileSystem dfs) {
+      this.resource = resource;
+      this.fsName = fsName;
+      this.dfs = dfs;
+      this.path = getPath(resource);
+      this.barrier = resource.isChangePermissionOnParents();
+    }
+
+    private void dependsOn(Task task) {
+      task.dependents.add(this);
+      pendingDependencies++;
+    }
+  }
+}
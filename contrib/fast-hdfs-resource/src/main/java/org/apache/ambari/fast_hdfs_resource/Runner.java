@@ -28,22 +28,42 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.FileSystem;
 
 import com.google.gson.Gson;
 
 public class Runner {
+  /**
+   * System property that sets the number of threads resources are executed on.
+   */
+  public static final String THREAD_COUNT_PROPERTY = "fast-hdfs-resource.threads";
+
+  /**
+   * Default number of threads resources are executed on.
+   */
+  public static final int DEFAULT_THREAD_COUNT = 8;
+
   public static void main(String[] args)
       throws IOException, URISyntaxException {
     // 1 - Check arguments
-    if (args.length != 1) {
+    if (args.length < 1 || args.length > 2) {
       System.err.println("Incorrect number of arguments. Please provide:\n"
           + "1) Path to json file\n"
+          + "2) Number of threads (optional, default " + DEFAULT_THREAD_COUNT + ")\n"
           + "Exiting...");
       System.exit(1);
     }
 
+    int threadCount = Integer.getInteger(THREAD_COUNT_PROPERTY, DEFAULT_THREAD_COUNT);
+    if (args.length == 2) {
+      try {
+        threadCount = Integer.parseInt(args[1]);
+      } catch (NumberFormatException e) {
+        System.err.println("Invalid number of threads " + args[1] + ".\nExiting...");
+        System.exit(1);
+      }
+    }
+
     // 2 - Check if json-file exists
     final String jsonFilePath = args[0];
     File file = new File(jsonFilePath);
@@ -100,6 +120,9 @@ public class Runner {
           System.out.println("Initializing filesystem uri: " + fileSystemUrl);
           dfs.initialize(fileSystemUrl, conf);
 
+          // resources check the same paths repeatedly, so cache their statuses
+          dfs = new CachingFileSystem(dfs);
+
           fileSystemNameToInstance.put(fsName, dfs);
         }
 
@@ -109,51 +132,19 @@ public class Runner {
         fileSystemToResource.get(fsName).add(resource);
       }
 
-      //for (Resource resource : resources) {
+      ResourceExecutor executor = new ResourceExecutor(threadCount);
       for (Map.Entry<String, List<Resource>> entry : fileSystemToResource.entrySet()) {
         String nameservice = entry.getKey();
-        List<Resource> resourcesNameservice = entry.getValue();
-
-        for(Resource resource: resourcesNameservice) {
-          if (nameservice != null) {
-            System.out.println("Creating: " + resource + " in " + nameservice);
-          } else {
-            System.out.println("Creating: " + resource + " in default filesystem");
-          }
-
-          dfs = fileSystemNameToInstance.get(nameservice);
-
-          Resource.checkResourceParameters(resource, dfs);
-
-          Path pathHadoop = null;
-
-          if (resource.getAction().equals("download")) {
-            pathHadoop = new Path(resource.getSource());
-          } else {
-            String path = resource.getTarget();
-            pathHadoop = new Path(path);
-            if (!resource.isManageIfExists() && dfs.exists(pathHadoop)) {
-              System.out.println(
-                  String.format("Skipping the operation for not managed DFS directory %s  since immutable_paths contains it.", path)
-              );
-              continue;
-            }
-          }
-
-          if (resource.getAction().equals("create")) {
-            // 5 - Create
-            Resource.createResource(resource, dfs, pathHadoop);
-            Resource.setMode(resource, dfs, pathHadoop);
-            Resource.setOwner(resource, dfs, pathHadoop);
-          } else if (resource.getAction().equals("delete")) {
-            // 6 - Delete
-            dfs.delete(pathHadoop, true);
-          } else if (resource.getAction().equals("download")) {
-            // 7 - Download
-            dfs.copyToLocalFile(pathHadoop, new Path(resource.getTarget()));
-          }
+        for (Resource resource : entry.getValue()) {
+          executor.add(resource, nameservice, fileSystemNameToInstance.get(nameservice));
         }
       }
+
+      Exception failure = executor.execute();
+      executor.printTimings();
+      if (failure != null) {
+        throw failure;
+      }
     } 
     catch(Exception e) {
        System.out.println("Exception occurred, Reason: " + e.getMessage());
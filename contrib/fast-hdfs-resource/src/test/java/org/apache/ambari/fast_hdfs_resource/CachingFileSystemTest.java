@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.fast_hdfs_resource;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that {@link CachingFileSystem} caches file statuses and invalidates
+ * them on modification, on the local file system.
+ */
+public class CachingFileSystemTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystem local;
+  private CachingFileSystem fs;
+  private Path root;
+
+  @Before
+  public void setUp() throws IOException {
+    local = FileSystem.getLocal(new Configuration());
+    fs = new CachingFileSystem(local);
+    root = new Path(folder.getRoot().getAbsolutePath());
+  }
+
+  @Test
+  public void testMissingPathIsCached() throws IOException {
+    Path path = new Path(root, "missing");
+    Assert.assertFalse(fs.exists(path));
+
+    // changes made around the cache are not seen
+    Assert.assertTrue(local.mkdirs(path));
+    Assert.assertFalse(fs.exists(path));
+  }
+
+  @Test
+  public void testMkdirsInvalidatesParents() throws IOException {
+    Path parent = new Path(root, "parent");
+    Path child = new Path(parent, "child");
+    Assert.assertFalse(fs.exists(parent));
+    Assert.assertFalse(fs.exists(child));
+
+    Assert.assertTrue(fs.mkdirs(child));
+
+    Assert.assertTrue(fs.isDirectory(parent));
+    Assert.assertTrue(fs.isDirectory(child));
+  }
+
+  @Test
+  public void testDeleteInvalidatesTree() throws IOException {
+    Path parent = new Path(root, "parent");
+    Path child = new Path(parent, "child");
+    Assert.assertTrue(fs.mkdirs(child));
+    Assert.assertTrue(fs.exists(child));
+
+    Assert.assertTrue(fs.delete(parent, true));
+
+    Assert.assertFalse(fs.exists(parent));
+    Assert.assertFalse(fs.exists(child));
+  }
+
+  @Test
+  public void testRenameInvalidatesSourceAndTarget() throws IOException {
+    Path source = new Path(root, "source");
+    Path target = new Path(root, "target");
+    Assert.assertTrue(fs.mkdirs(new Path(source, "child")));
+    Assert.assertFalse(fs.exists(new Path(target, "child")));
+
+    Assert.assertTrue(fs.rename(source, target));
+
+    Assert.assertFalse(fs.exists(new Path(source, "child")));
+    Assert.assertTrue(fs.exists(new Path(target, "child")));
+  }
+
+  @Test
+  public void testSetPermissionInvalidatesTree() throws IOException {
+    Path parent = new Path(root, "parent");
+    Path child = new Path(parent, "child");
+    Assert.assertTrue(fs.mkdirs(child, new FsPermission((short) 0755)));
+    Assert.assertEquals((short) 0755, fs.getFileStatus(child).getPermission().toShort());
+
+    // a file system may change the permissions below the path as well
+    local.setPermission(child, new FsPermission((short) 0700));
+    fs.setPermission(parent, new FsPermission((short) 0700));
+
+    Assert.assertEquals((short) 0700, fs.getFileStatus(parent).getPermission().toShort());
+    Assert.assertEquals((short) 0700, fs.getFileStatus(child).getPermission().toShort());
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void testGetFileStatusOfMissingPath() throws IOException {
+    fs.getFileStatus(new Path(root, "missing"));
+  }
+
+  @Test
+  public void testCopyFromLocalInvalidatesTarget() throws IOException {
+    File source = folder.newFile("source");
+    Path target = new Path(root, "copies/target");
+    Assert.assertFalse(fs.exists(target));
+
+    fs.copyFromLocalFile(false, new Path(source.getAbsolutePath()), target);
+
+    Assert.assertTrue(fs.isFile(target));
+    Assert.assertTrue(fs.isDirectory(target.getParent()));
+  }
+}
@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.fast_hdfs_resource;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the ordering and the failure handling of {@link ResourceExecutor} on
+ * the local file system.
+ */
+public class ResourceExecutorTest {
+  private static final int THREADS = 8;
+  private static final int DIRECTORIES = 20;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystem fs;
+  private String root;
+
+  @Before
+  public void setUp() throws IOException {
+    fs = new CachingFileSystem(FileSystem.getLocal(new Configuration()));
+    root = folder.getRoot().getAbsolutePath();
+  }
+
+  @Test
+  public void testIsRelated() {
+    Assert.assertTrue(ResourceExecutor.isRelated("/a", "/a"));
+    Assert.assertTrue(ResourceExecutor.isRelated("/a", "/a/b"));
+    Assert.assertTrue(ResourceExecutor.isRelated("/a/b", "/a"));
+    Assert.assertTrue(ResourceExecutor.isRelated("/", "/a/b"));
+    Assert.assertFalse(ResourceExecutor.isRelated("/a", "/ab"));
+    Assert.assertFalse(ResourceExecutor.isRelated("/a/b", "/a/c"));
+  }
+
+  /**
+   * Resources on related paths are executed in the order they were added,
+   * even with many threads.
+   */
+  @Test
+  public void testRelatedResourcesAreOrdered() throws Exception {
+    ResourceExecutor executor = new ResourceExecutor(THREADS);
+    for (int i = 0; i < DIRECTORIES; i++) {
+      String directory = root + "/dir" + i;
+      executor.add(resource("create", "directory", directory + "/old/sub"), null, fs);
+      executor.add(resource("delete", "directory", directory), null, fs);
+      executor.add(resource("create", "directory", directory + "/new"), null, fs);
+      executor.add(resource("create", "file", directory + "/new/file"), null, fs);
+    }
+
+    Assert.assertNull(executor.execute());
+
+    for (int i = 0; i < DIRECTORIES; i++) {
+      File directory = new File(root, "dir" + i);
+      Assert.assertFalse(new File(directory, "old").exists());
+      Assert.assertTrue(new File(directory, "new/file").isFile());
+    }
+  }
+
+  /**
+   * A resource which changes the permissions of its parents waits for all of
+   * the resources added before it and is waited for by all of the ones added
+   * after it, even on unrelated paths.
+   */
+  @Test
+  public void testParentPermissionChangeIsBarrier() throws Exception {
+    ResourceExecutor executor = new ResourceExecutor(THREADS);
+    for (int i = 0; i < DIRECTORIES; i++) {
+      executor.add(resource("create", "directory", root + "/source/sub" + i), null, fs);
+    }
+    // no mode or owner is given, so no parent is actually changed
+    Resource barrier = resource("create", "directory", root + "/copy");
+    barrier.setSource(root + "/source");
+    barrier.setChangePermissionOnParents(true);
+    executor.add(barrier, null, fs);
+    for (int i = 0; i < DIRECTORIES; i++) {
+      executor.add(resource("delete", "directory", root + "/source/sub" + i), null, fs);
+    }
+
+    Assert.assertNull(executor.execute());
+
+    for (int i = 0; i < DIRECTORIES; i++) {
+      Assert.assertTrue(new File(root, "copy/sub" + i).isDirectory());
+      Assert.assertFalse(new File(root, "source/sub" + i).exists());
+    }
+  }
+
+  /**
+   * The first failure is returned and the resources depending on the failed
+   * one are not executed.
+   */
+  @Test
+  public void testFailureStopsDependents() throws Exception {
+    Assert.assertTrue(new File(root, "existing").mkdir());
+
+    ResourceExecutor executor = new ResourceExecutor(THREADS);
+    // a file cannot be created where a directory exists
+    executor.add(resource("create", "file", root + "/existing"), null, fs);
+    executor.add(resource("create", "directory", root + "/existing/child"), null, fs);
+
+    Exception failure = executor.execute();
+
+    Assert.assertTrue(failure instanceof IllegalArgumentException);
+    Assert.assertFalse(new File(root, "existing/child").exists());
+  }
+
+  @Test
+  public void testUnsupportedActionFails() throws Exception {
+    ResourceExecutor executor = new ResourceExecutor(THREADS);
+    executor.add(resource("move", "directory", root + "/moved"), null, fs);
+
+    Exception failure = executor.execute();
+
+    Assert.assertTrue(failure instanceof IllegalArgumentException);
+    Assert.assertFalse(new File(root, "moved").exists());
+  }
+
+  private static Resource resource(String action, String type, String target) {
+    Resource resource = new Resource();
+    resource.setAction(action);
+    resource.setType(type);
+    resource.setTarget(target);
+    resource.setManageIfExists(true);
+    return resource;
+  }
+}
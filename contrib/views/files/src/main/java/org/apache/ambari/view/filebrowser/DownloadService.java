@@ -53,15 +53,17 @@ import javax.xml.bind.annotation.XmlElement;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.FileNameMap;
 import java.net.URLConnection;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.zip.Deflater;
 import java.net.URLEncoder;
 
 /**
@@ -134,44 +136,6 @@ public class DownloadService extends HdfsService {
     }
   }
 
-  private void zipFile(ZipOutputStream zip, String path) {
-    try {
-      FSDataInputStream in = getApi().open(path);
-      zip.putNextEntry(new ZipEntry(path.substring(1)));
-      byte[] chunk = new byte[1024];
-
-      int readLen = 0;
-      while(readLen != -1) {
-        zip.write(chunk, 0, readLen);
-        readLen = in.read(chunk);
-      }
-    } catch (IOException ex) {
-      LOG.error("Error zipping file {}  (file ignored): ", path, ex);
-    } catch (InterruptedException ex) {
-      LOG.error("Error zipping file {} (file ignored): ", path, ex);
-    } finally {
-      try {
-        zip.closeEntry();
-      } catch (IOException ex) {
-        LOG.error("Error closing entry {} (file ignored): ", path, ex);
-      }
-    }
-  }
-
-  private void zipDirectory(ZipOutputStream zip, String path) {
-    try {
-      zip.putNextEntry(new ZipEntry(path.substring(1) + "/"));
-    } catch (IOException ex) {
-      LOG.error("Error zipping directory {} (directory ignored).", path, ex);
-    } finally {
-      try {
-        zip.closeEntry();
-      } catch (IOException ex) {
-        LOG.error("Error zipping directory {} (directory ignored).", path, ex);
-      }
-    }
-  }
-
   /**
    * Download ZIP of passed file list
    * @param request download request
@@ -189,42 +153,25 @@ public class DownloadService extends HdfsService {
         name = new File(request.entries[0]).getName() + ".zip";
       }
 
+      final HdfsApi api = getApi();
+      final PrefetchingZipWriter writer = new PrefetchingZipWriter(new PrefetchingZipWriter.FileSource() {
+        @Override
+        public InputStream open(String path) throws Exception {
+          return api.open(path);
+        }
+      }, PrefetchingZipWriter.DEFAULT_PREFETCH_COUNT, PrefetchingZipWriter.DEFAULT_MAX_PREFETCH_FILE_SIZE,
+          request.compressionLevel == null ? Deflater.DEFAULT_COMPRESSION : request.compressionLevel);
+
       StreamingOutput result = new StreamingOutput() {
         public void write(OutputStream output) throws IOException,
             ServiceFormattedException {
-          ZipOutputStream zip = new ZipOutputStream(output);
           try {
-            HdfsApi api = getApi();
-            Queue<String> files = new LinkedList<String>();
-            for (String file : request.entries) {
-              files.add(file);
-            }
-            while (!files.isEmpty()) {
-              String path = files.poll();
-              FileStatus status = api.getFileStatus(path);
-              if (status.isDirectory()) {
-                FileStatus[] subdir;
-                try {
-                  subdir = api.listdir(path);
-                } catch (AccessControlException ex) {
-                  LOG.error("Error zipping directory {}/ (directory ignored) : ", path.substring(1), ex);
-                  continue;
-                }
-                for (FileStatus file : subdir) {
-                  files.add(org.apache.hadoop.fs.Path
-                      .getPathWithoutSchemeAndAuthority(file.getPath())
-                      .toString());
-                }
-                zipDirectory(zip, path);
-              } else {
-                zipFile(zip, path);
-              }
-            }
+            writer.write(getZipEntries(api, request.entries), output);
           } catch (Exception ex) {
             LOG.error("Error occurred: " ,ex);
             throw new ServiceFormattedException(ex.getMessage(), ex);
           } finally {
-            zip.close();
+            output.close();
           }
         }
       };
@@ -239,6 +186,69 @@ public class DownloadService extends HdfsService {
     }
   }
 
+  // list the files and directories to be zipped for the given entries, walking directories breadth first
+  // as the entries are taken, so that the zip is written while the directories are still being listed
+  private Iterator<PrefetchingZipWriter.Entry> getZipEntries(final HdfsApi api, String[] requestEntries)
+      throws Exception {
+    final Queue<String> paths = new LinkedList<String>();
+    final Queue<FileStatus> statuses = new LinkedList<FileStatus>();
+
+    for (String file : requestEntries) {
+      paths.add(file);
+      statuses.add(api.getFileStatus(file));
+    }
+    return new Iterator<PrefetchingZipWriter.Entry>() {
+      private PrefetchingZipWriter.Entry next;
+
+      @Override
+      public boolean hasNext() {
+        while (next == null && !paths.isEmpty()) {
+          next = list(paths.poll(), statuses.poll());
+        }
+        return next != null;
+      }
+
+      @Override
+      public PrefetchingZipWriter.Entry next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        PrefetchingZipWriter.Entry entry = next;
+        next = null;
+        return entry;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+
+      // get the entry of the given path, queueing the children of a directory; null if it is ignored
+      private PrefetchingZipWriter.Entry list(String path, FileStatus status) {
+        if (!status.isDirectory()) {
+          return new PrefetchingZipWriter.Entry(path, false, status.getLen());
+        }
+        FileStatus[] subdir;
+        try {
+          subdir = api.listdir(path);
+        } catch (AccessControlException ex) {
+          LOG.error("Error zipping directory {}/ (directory ignored) : ", path.substring(1), ex);
+          return null;
+        } catch (Exception ex) {
+          throw new ServiceFormattedException(ex.getMessage(), ex);
+        }
+        // the listing already has the status of each child, so there is no need to fetch it again
+        for (FileStatus file : subdir) {
+          paths.add(org.apache.hadoop.fs.Path
+              .getPathWithoutSchemeAndAuthority(file.getPath())
+              .toString());
+          statuses.add(file);
+        }
+        return new PrefetchingZipWriter.Entry(path, true, 0);
+      }
+    };
+  }
+
   /**
    * Concatenate files
    * @param request download request
@@ -435,5 +445,7 @@ public class DownloadService extends HdfsService {
     public String[] entries;
     @XmlElement(required = false)
     public boolean download;
+    @XmlElement(required = false)
+    public Integer compressionLevel;
   }
 }
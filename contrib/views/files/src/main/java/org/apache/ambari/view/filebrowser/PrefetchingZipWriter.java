@@ -0,0 +1,369 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.view.filebrowser;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes files and directories to a zip stream.  While one entry is written to the
+ * stream, the contents of the next files are read concurrently into bounded buffers so
+ * that the per-file open latency of the file system is hidden behind the zip output.
+ * The reads of all the zips being written share one pool of threads, and every zip has
+ * at most its prefetch count of reads outstanding.
+ */
+public class PrefetchingZipWriter {
+
+  protected static final Logger LOG = LoggerFactory.getLogger(PrefetchingZipWriter.class);
+
+  /**
+   * Default number of files read ahead of the entry being written.
+   */
+  public static final int DEFAULT_PREFETCH_COUNT = 8;
+
+  /**
+   * Default size of the largest file that is read ahead into memory.  Larger files
+   * are streamed directly when their entry is written.
+   */
+  public static final long DEFAULT_MAX_PREFETCH_FILE_SIZE = 4L * 1024 * 1024;
+
+  /**
+   * Number of threads reading ahead for all the zips being written.
+   */
+  public static final int PREFETCH_THREAD_COUNT = 16;
+
+  private static final ExecutorService SHARED_EXECUTOR = createSharedExecutor();
+
+  /**
+   * Extensions of files that are already compressed and are stored without compression.
+   */
+  private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<String>(Arrays.asList(
+      "gz", "tgz", "zip", "jar", "bz2", "xz", "lz4", "lzo", "snappy", "zst", "7z",
+      "orc", "parquet", "avro", "png", "jpg", "jpeg", "gif"));
+
+  private final FileSource source;
+  private final int prefetchCount;
+  private final long maxPrefetchFileSize;
+  private final int compressionLevel;
+  private final ExecutorService executor;
+
+  /**
+   * Source of the file contents to be zipped.
+   */
+  public interface FileSource {
+    /**
+     * Open the file at the given path.
+     *
+     * @param path file path
+     * @return stream of the file contents
+     * @throws Exception if the file can not be opened
+     */
+    InputStream open(String path) throws Exception;
+  }
+
+  /**
+   * A file or directory to be added to the zip.
+   */
+  public static class Entry {
+    private final String path;
+    private final boolean directory;
+    private final long length;
+
+    /**
+     * @param path absolute path of the file or directory
+     * @param directory true if the entry is a directory
+     * @param length file length in bytes
+     */
+    public Entry(String path, boolean directory, long length) {
+      this.path = path;
+      this.directory = directory;
+      this.length = length;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public boolean isDirectory() {
+      return directory;
+    }
+
+    public long getLength() {
+      return length;
+    }
+  }
+
+  /**
+   * Statistics of a written zip.
+   */
+  public static class Stats {
+    private int files;
+    private int directories;
+    private int skipped;
+    private long bytes;
+    private long elapsedMillis;
+
+    public int getFiles() {
+      return files;
+    }
+
+    public int getDirectories() {
+      return directories;
+    }
+
+    public int getSkipped() {
+      return skipped;
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    /**
+     * @return throughput of the file contents in bytes per second
+     */
+    public long getBytesPerSecond() {
+      return elapsedMillis == 0 ? bytes * 1000 : bytes * 1000 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("files=%d, directories=%d, skipped=%d, bytes=%d, elapsed=%dms, throughput=%d bytes/s",
+          files, directories, skipped, bytes, elapsedMillis, getBytesPerSecond());
+    }
+  }
+
+  /**
+   * @param source source of the file contents
+   * @param prefetchCount number of files read ahead of the entry being written
+   * @param maxPrefetchFileSize size of the largest file that is read ahead into memory
+   * @param compressionLevel zip compression level, from {@link Deflater#NO_COMPRESSION}
+   *                         to {@link Deflater#BEST_COMPRESSION}
+   */
+  public PrefetchingZipWriter(FileSource source, int prefetchCount, long maxPrefetchFileSize,
+                              int compressionLevel) {
+    this(source, prefetchCount, maxPrefetchFileSize, compressionLevel, SHARED_EXECUTOR);
+  }
+
+  /**
+   * @param source source of the file contents
+   * @param prefetchCount number of files read ahead of the entry being written
+   * @param maxPrefetchFileSize size of the largest file that is read ahead into memory
+   * @param compressionLevel zip compression level, from {@link Deflater#NO_COMPRESSION}
+   *                         to {@link Deflater#BEST_COMPRESSION}
+   * @param executor executor of the reads ahead; not shut down by the writer
+   */
+  public PrefetchingZipWriter(FileSource source, int prefetchCount, long maxPrefetchFileSize,
+                              int compressionLevel, ExecutorService executor) {
+    if (compressionLevel != Deflater.DEFAULT_COMPRESSION &&
+        (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)) {
+      throw new IllegalArgumentException("Invalid compression level " + compressionLevel);
+    }
+    this.source = source;
+    this.prefetchCount = Math.max(prefetchCount, 1);
+    this.maxPrefetchFileSize = maxPrefetchFileSize;
+    this.compressionLevel = compressionLevel;
+    this.executor = executor;
+  }
+
+  /**
+   * Write the given entries, in order, to a zip on the given output stream.  The entries
+   * are only taken from the iterator as the window of reads ahead moves on, so the zip is
+   * streamed while the entries are still being listed.  Files that can not be read are
+   * logged and left out of the zip.
+   *
+   * @param entries files and directories to be zipped
+   * @param output stream to write the zip to; not closed
+   * @return statistics of the written zip
+   * @throws IOException if the zip can not be written
+   */
+  public Stats write(Iterator<Entry> entries, OutputStream output) throws IOException {
+    long start = System.currentTimeMillis();
+    Stats stats = new Stats();
+
+    Queue<Prefetch> window = new ArrayDeque<Prefetch>(prefetchCount);
+    try {
+      ZipOutputStream zip = new ZipOutputStream(output);
+
+      fill(window, entries);
+      while (!window.isEmpty()) {
+        Prefetch prefetch = window.poll();
+        // keep the window full while this entry is written
+        fill(window, entries);
+
+        Entry entry = prefetch.entry;
+        if (entry.isDirectory()) {
+          zip.putNextEntry(new ZipEntry(entry.getPath().substring(1) + "/"));
+          zip.closeEntry();
+          stats.directories++;
+        } else {
+          writeFile(zip, prefetch, stats);
+        }
+      }
+      zip.finish();
+    } finally {
+      for (Prefetch prefetch : window) {
+        prefetch.cancel();
+      }
+    }
+
+    stats.elapsedMillis = System.currentTimeMillis() - start;
+    LOG.info("Zipped {} entries : {}", stats.files + stats.directories + stats.skipped, stats);
+    return stats;
+  }
+
+  // start reading the next entries until the window is full
+  private void fill(Queue<Prefetch> window, Iterator<Entry> entries) {
+    while (window.size() < prefetchCount && entries.hasNext()) {
+      window.add(new Prefetch(entries.next()));
+    }
+  }
+
+  // create the pool of daemon threads shared by all the writers, which lets its idle threads terminate
+  private static ExecutorService createSharedExecutor() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(PREFETCH_THREAD_COUNT, PREFETCH_THREAD_COUNT,
+        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+          private final AtomicInteger count = new AtomicInteger();
+
+          @Override
+          public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "zip-prefetch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  // write the given file entry, skipping it if the file can not be read
+  private void writeFile(ZipOutputStream zip, Prefetch prefetch, Stats stats) throws IOException {
+    String path = prefetch.entry.getPath();
+    InputStream in;
+    try {
+      in = prefetch.get();
+    } catch (Exception ex) {
+      LOG.error("Error zipping file {} (file ignored): ", path, ex);
+      stats.skipped++;
+      return;
+    }
+
+    try {
+      zip.setLevel(isCompressed(path) ? Deflater.NO_COMPRESSION : compressionLevel);
+      zip.putNextEntry(new ZipEntry(path.substring(1)));
+      stats.bytes += IOUtils.copyLarge(in, zip);
+      stats.files++;
+    } catch (IOException ex) {
+      if (prefetch.isBuffered()) {
+        // the file was already read, so this is a failure writing the zip itself
+        throw ex;
+      }
+      LOG.error("Error zipping file {} (file ignored): ", path, ex);
+      stats.skipped++;
+    } finally {
+      IOUtils.closeQuietly(in);
+      zip.closeEntry();
+    }
+  }
+
+  // determine whether the file at the given path is already compressed
+  private static boolean isCompressed(String path) {
+    int index = path.lastIndexOf('.');
+    return index != -1 && COMPRESSED_EXTENSIONS.contains(path.substring(index + 1).toLowerCase(Locale.ENGLISH));
+  }
+
+  /**
+   * An entry whose contents are being read ahead.
+   */
+  private class Prefetch {
+    private final Entry entry;
+    private final Future<byte[]> contents;
+
+    private Prefetch(final Entry entry) {
+      this.entry = entry;
+      if (!entry.isDirectory() && entry.getLength() <= maxPrefetchFileSize) {
+        contents = executor.submit(new Callable<byte[]>() {
+          @Override
+          public byte[] call() throws Exception {
+            InputStream in = source.open(entry.getPath());
+            try {
+              return IOUtils.toByteArray(in);
+            } finally {
+              IOUtils.closeQuietly(in);
+            }
+          }
+        });
+      } else {
+        contents = null;
+      }
+    }
+
+    private boolean isBuffered() {
+      return contents != null;
+    }
+
+    // get a stream of the entry contents, waiting for the read ahead to complete
+    private InputStream get() throws Exception {
+      if (contents == null) {
+        return source.open(entry.getPath());
+      }
+      try {
+        return new ByteArrayInputStream(contents.get());
+      } catch (ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        throw cause instanceof Exception ? (Exception) cause : ex;
+      }
+    }
+
+    private void cancel() {
+      if (contents != null) {
+        contents.cancel(true);
+      }
+    }
+  }
+}
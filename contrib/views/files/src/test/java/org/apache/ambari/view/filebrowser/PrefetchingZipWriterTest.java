@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.view.filebrowser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrefetchingZipWriterTest {
+  private static final String CONTENT = repeat("ambari files view ", 1000);
+
+  private File baseDir;
+  private FileSystem fs;
+  private PrefetchingZipWriter.FileSource source;
+
+  @Before
+  public void setUp() throws Exception {
+    baseDir = new File("./target/zip/" + "PrefetchingZipWriterTest").getAbsoluteFile();
+    FileUtils.deleteDirectory(baseDir);
+    baseDir.mkdirs();
+
+    fs = FileSystem.getLocal(new Configuration());
+    source = new PrefetchingZipWriter.FileSource() {
+      @Override
+      public InputStream open(String path) throws Exception {
+        return fs.open(new Path(path));
+      }
+    };
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    List<PrefetchingZipWriter.Entry> entries = new ArrayList<PrefetchingZipWriter.Entry>();
+    entries.add(new PrefetchingZipWriter.Entry(baseDir.getPath(), true, 0));
+    for (int i = 0; i < 50; i++) {
+      entries.add(createFile("file" + i + ".txt", CONTENT + i));
+    }
+
+    // a small window and buffer size so that both the read ahead and the streamed paths are used
+    PrefetchingZipWriter writer = new PrefetchingZipWriter(source, 4, CONTENT.length() + 1, Deflater.BEST_SPEED);
+    File zip = new File(baseDir, "out.zip");
+    PrefetchingZipWriter.Stats stats = write(writer, entries, zip);
+
+    Assert.assertEquals(50, stats.getFiles());
+    Assert.assertEquals(1, stats.getDirectories());
+    Assert.assertEquals(0, stats.getSkipped());
+
+    ZipFile zipFile = new ZipFile(zip);
+    try {
+      List<? extends ZipEntry> zipEntries = Collections.list(zipFile.entries());
+      Assert.assertEquals(51, zipEntries.size());
+      Assert.assertEquals(baseDir.getPath().substring(1) + "/", zipEntries.get(0).getName());
+
+      // entries are written in the requested order
+      for (int i = 0; i < 50; i++) {
+        ZipEntry zipEntry = zipEntries.get(i + 1);
+        Assert.assertTrue(zipEntry.getName().endsWith("file" + i + ".txt"));
+        Assert.assertEquals(CONTENT + i, IOUtils.toString(zipFile.getInputStream(zipEntry), "UTF-8"));
+      }
+    } finally {
+      zipFile.close();
+    }
+  }
+
+  @Test
+  public void testWriteSkipsMissingFiles() throws Exception {
+    List<PrefetchingZipWriter.Entry> entries = new ArrayList<PrefetchingZipWriter.Entry>();
+    entries.add(createFile("exists.txt", CONTENT));
+    entries.add(new PrefetchingZipWriter.Entry(new File(baseDir, "missing.txt").getPath(), false, 10));
+
+    PrefetchingZipWriter writer = new PrefetchingZipWriter(source, 2,
+        PrefetchingZipWriter.DEFAULT_MAX_PREFETCH_FILE_SIZE, Deflater.DEFAULT_COMPRESSION);
+    File zip = new File(baseDir, "out.zip");
+    PrefetchingZipWriter.Stats stats = write(writer, entries, zip);
+
+    Assert.assertEquals(1, stats.getFiles());
+    Assert.assertEquals(1, stats.getSkipped());
+    Assert.assertEquals(CONTENT.length(), stats.getBytes());
+
+    ZipFile zipFile = new ZipFile(zip);
+    try {
+      Assert.assertEquals(1, zipFile.size());
+    } finally {
+      zipFile.close();
+    }
+  }
+
+  @Test
+  public void testWriteStoresCompressedFiles() throws Exception {
+    List<PrefetchingZipWriter.Entry> entries = new ArrayList<PrefetchingZipWriter.Entry>();
+    entries.add(createFile("data.txt", CONTENT));
+    entries.add(createFile("data.gz", CONTENT));
+
+    PrefetchingZipWriter writer = new PrefetchingZipWriter(source, 2,
+        PrefetchingZipWriter.DEFAULT_MAX_PREFETCH_FILE_SIZE, Deflater.BEST_COMPRESSION);
+    File zip = new File(baseDir, "out.zip");
+    write(writer, entries, zip);
+
+    ZipFile zipFile = new ZipFile(zip);
+    try {
+      List<? extends ZipEntry> zipEntries = Collections.list(zipFile.entries());
+
+      // the text file is compressed, the already compressed file is not
+      Assert.assertTrue(zipEntries.get(0).getCompressedSize() < CONTENT.length() / 10);
+      Assert.assertTrue(zipEntries.get(1).getCompressedSize() >= CONTENT.length());
+    } finally {
+      zipFile.close();
+    }
+  }
+
+  @Test
+  public void testWriteStreamsWhileListing() throws Exception {
+    final List<PrefetchingZipWriter.Entry> entries = new ArrayList<PrefetchingZipWriter.Entry>();
+    for (int i = 0; i < 10; i++) {
+      entries.add(createFile("file" + i + ".txt", CONTENT + i));
+    }
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final List<Integer> writtenBeforeLast = new ArrayList<Integer>();
+    Iterator<PrefetchingZipWriter.Entry> listing = new Iterator<PrefetchingZipWriter.Entry>() {
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return index < entries.size();
+      }
+
+      @Override
+      public PrefetchingZipWriter.Entry next() {
+        if (index == entries.size() - 1) {
+          writtenBeforeLast.add(output.size());
+        }
+        return entries.get(index++);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    PrefetchingZipWriter writer = new PrefetchingZipWriter(source, 2,
+        PrefetchingZipWriter.DEFAULT_MAX_PREFETCH_FILE_SIZE, Deflater.DEFAULT_COMPRESSION);
+    PrefetchingZipWriter.Stats stats = writer.write(listing, output);
+
+    // the first entries were written before the last one was listed
+    Assert.assertEquals(10, stats.getFiles());
+    Assert.assertEquals(1, writtenBeforeLast.size());
+    Assert.assertTrue(writtenBeforeLast.get(0) > 0);
+  }
+
+  @Test
+  public void testWriteKeepsExecutorRunning() throws Exception {
+    List<PrefetchingZipWriter.Entry> entries = new ArrayList<PrefetchingZipWriter.Entry>();
+    entries.add(createFile("data.txt", CONTENT));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      PrefetchingZipWriter writer = new PrefetchingZipWriter(source, 2,
+          PrefetchingZipWriter.DEFAULT_MAX_PREFETCH_FILE_SIZE, Deflater.DEFAULT_COMPRESSION, executor);
+      write(writer, entries, new File(baseDir, "first.zip"));
+      write(writer, entries, new File(baseDir, "second.zip"));
+
+      // the executor is shared between the zips, so the writer does not shut it down
+      Assert.assertFalse(executor.isShutdown());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCompressionLevel() throws Exception {
+    new PrefetchingZipWriter(source, 2, PrefetchingZipWriter.DEFAULT_MAX_PREFETCH_FILE_SIZE, 10);
+  }
+
+  private static String repeat(String value, int count) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append(value);
+    }
+    return builder.toString();
+  }
+
+  private PrefetchingZipWriter.Entry createFile(String name, String content) throws Exception {
+    File file = new File(baseDir, name);
+    FileUtils.writeStringToFile(file, content, "UTF-8");
+    return new PrefetchingZipWriter.Entry(file.getPath(), false, file.length());
+  }
+
+  private PrefetchingZipWriter.Stats write(PrefetchingZipWriter writer, List<PrefetchingZipWriter.Entry> entries,
+                                           File zip) throws Exception {
+    OutputStream output = new FileOutputStream(zip);
+    try {
+      return writer.write(entries.iterator(), output);
+    } finally {
+      output.close();
+    }
+  }
+}